@@ -0,0 +1,103 @@
+/*
+ *  Class BenchProject
+ *
+ *  Builds the engines and exporters for the benchmarks.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.openrefine.rdf.model.exporter.RDFLineExporter;
+import org.openrefine.rdf.model.exporter.RDFPrettyExporter;
+import org.openrefine.rdf.model.exporter.RDFSortedExporter;
+import org.openrefine.rdf.model.exporter.RDFStreamExporter;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.model.Project;
+
+import org.apache.jena.riot.RDFFormat;
+
+/*
+ * Class BenchProject
+ *
+ *  The benchmark projects and their transforms come from the ProjectGenerator.  The exporters are
+ *  called as OpenRefine calls them for a registered format name.
+ */
+public class BenchProject {
+    static public final String strNAMESPACE = ProjectGenerator.strNAMESPACE;
+
+    /*
+     * Interface Exporter
+     *
+     *  The OutputStream export of the RDF exporters.
+     */
+    public interface Exporter {
+        void export(Project theProject, Properties theOptions, Engine theEngine, OutputStream theOutput)
+            throws IOException;
+    }
+
+    static public Engine createEngine(Project theProject, boolean bRecords) {
+        Engine theEngine = new Engine(theProject);
+        theEngine.setMode( bRecords ? Engine.Mode.RecordBased : Engine.Mode.RowBased );
+        return theEngine;
+    }
+
+    /*
+     * Method createExporter()
+     *
+     *  The exporter registered for the given format name (see InitializationCommand).
+     */
+    static public Exporter createExporter(String strFormat) {
+        switch (strFormat) {
+            case "RDFXML_PRETTY":
+                return new RDFPrettyExporter(RDFFormat.RDFXML_PRETTY, strFormat)::export;
+            case "TURTLE_PRETTY":
+                return new RDFPrettyExporter(RDFFormat.TURTLE_PRETTY, strFormat)::export;
+            case "TRIG_PRETTY":
+                return new RDFPrettyExporter(RDFFormat.TRIG_PRETTY, strFormat)::export;
+            case "JSONLD_PRETTY":
+                return new RDFPrettyExporter(RDFFormat.JSONLD_PRETTY, strFormat)::export;
+            case "RDFJSON":
+                return new RDFPrettyExporter(RDFFormat.RDFJSON, strFormat)::export;
+            case "TURTLE_BLOCKS":
+                return new RDFStreamExporter(RDFFormat.TURTLE_BLOCKS, strFormat)::export;
+            case "TRIG_BLOCKS":
+                return new RDFStreamExporter(RDFFormat.TRIG_BLOCKS, strFormat)::export;
+            case "NTRIPLES":
+                return new RDFLineExporter(RDFFormat.NTRIPLES_UTF8, strFormat)::export;
+            case "NQUADS":
+                return new RDFLineExporter(RDFFormat.NQUADS_UTF8, strFormat)::export;
+            case "NTRIPLES_JENA": // ...the Jena line writer, for comparison
+                return new RDFStreamExporter(RDFFormat.NTRIPLES_UTF8, "NTRIPLES")::export;
+            case "TRIX":
+                return new RDFStreamExporter(RDFFormat.TRIX, strFormat)::export;
+            case "RDFNULL":
+                return new RDFStreamExporter(RDFFormat.RDFNULL, strFormat)::export;
+            case "RDF_PROTO":
+                return new RDFStreamExporter(RDFFormat.RDF_PROTO, strFormat)::export;
+            case "RDF_THRIFT":
+                return new RDFStreamExporter(RDFFormat.RDF_THRIFT, strFormat)::export;
+            case "TURTLE_SORTED":
+                return new RDFSortedExporter(RDFFormat.TURTLE_BLOCKS, strFormat)::export;
+            default:
+                throw new IllegalArgumentException("Unknown export format: " + strFormat);
+        }
+    }
+}
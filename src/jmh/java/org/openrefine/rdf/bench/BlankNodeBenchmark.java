@@ -0,0 +1,86 @@
+/*
+ *  Class BlankNodeBenchmark
+ *
+ *  Benchmarks the blank node labels: hashed, readable, and random.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.plan.BlankNodeLabels;
+
+import org.apache.jena.graph.NodeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Class BlankNodeBenchmark
+ *
+ *  Each operation creates a blank node for each of a set of cell values.  The "hashed" benchmark is
+ *  the BlankNodeLabels label, the "readable" benchmark is the "<column>_<row>" label, and the
+ *  "random" benchmark is the former random blank node for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlankNodeBenchmark {
+    private final String[] astrValues = {
+        "12345",
+        "ISO-3166-US",
+        "http://example.org/resource/12345",
+        "ACME Corporation",
+        "2024-01-31T12:00:00Z",
+        "José García",
+    };
+    private int iRow = 0;
+
+    @Benchmark
+    public void hashed(Blackhole theHole) {
+        this.iRow++;
+        for (String strValue : this.astrValues) {
+            theHole.consume( NodeFactory.createBlankNode( BlankNodeLabels.label(3, this.iRow, strValue) ) );
+        }
+    }
+
+    @Benchmark
+    public void readable(Blackhole theHole) {
+        this.iRow++;
+        for (String strValue : this.astrValues) {
+            theHole.consume( NodeFactory.createBlankNode( "column_" + this.iRow ) );
+        }
+    }
+
+    @Benchmark
+    public void random(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( NodeFactory.createBlankNode() );
+        }
+    }
+}
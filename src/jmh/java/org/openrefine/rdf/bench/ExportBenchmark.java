@@ -0,0 +1,118 @@
+/*
+ *  Class ExportBenchmark
+ *
+ *  Benchmarks the row and record exports for each RDF format.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.model.Project;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Class ExportBenchmark
+ *
+ *  Each operation exports a whole synthetic project (see ProjectGenerator) to a byte counting null
+ *  stream.  A record size over 1 exports in record mode.  The null ratio and roots shape the project
+ *  and transform.  The "RDFNULL" format measures the
+ *  transform without serialization, and "NTRIPLES_JENA" the Jena line writer against the block line
+ *  writer of "NTRIPLES" (see RDFLineExporter).  The threads are the export threads (see
+ *  Util.setExportThreads()), so "-p threads=1,2,4,8" gives the parallel export scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"8"})
+    public int columns;
+
+    @Param({"1", "4"})
+    public int recordSize;
+
+    @Param({"NTRIPLES", "NTRIPLES_JENA", "TURTLE_BLOCKS", "TURTLE_PRETTY", "RDFXML_PRETTY", "JSONLD_PRETTY", "RDFNULL"})
+    public String format;
+
+    @Param({"0.0"})
+    public double nullRatio;
+
+    @Param({"1"})
+    public int roots;
+
+    @Param({"1"})
+    public int threads;
+
+    private Project theProject;
+    private Engine theEngine;
+    private BenchProject.Exporter theExporter;
+    private int iThreadsBefore;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ProjectGenerator theGenerator = new ProjectGenerator();
+        theGenerator.setRows(this.rows);
+        theGenerator.setColumns(this.columns);
+        theGenerator.setRecordSize(this.recordSize);
+        theGenerator.setNullRatio(this.nullRatio);
+        theGenerator.setRoots(this.roots);
+        this.theProject = theGenerator.createProject();
+        this.theEngine = BenchProject.createEngine(this.theProject, this.recordSize > 1);
+        this.theExporter = BenchProject.createExporter(this.format);
+        this.iThreadsBefore = Util.getExportThreads();
+        Util.setExportThreads(this.threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Util.setExportThreads(this.iThreadsBefore);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        CountingOutputStream theOutput = new CountingOutputStream(NullOutputStream.INSTANCE);
+        this.theExporter.export( this.theProject, new Properties(), this.theEngine, theOutput );
+        return theOutput.getByteCount();
+    }
+}
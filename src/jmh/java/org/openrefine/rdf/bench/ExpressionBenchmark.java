@@ -0,0 +1,158 @@
+/*
+ *  Class ExpressionBenchmark
+ *
+ *  Benchmarks the transform expression evaluation: cached Evaluables and reused bindings against a
+ *  parse and new bindings per evaluation.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.ExpressionCache;
+
+import com.google.refine.expr.Evaluable;
+import com.google.refine.expr.ExpressionUtils;
+import com.google.refine.expr.MetaParser;
+import com.google.refine.expr.ParsingException;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Class ExpressionBenchmark
+ *
+ *  Each operation evaluates every column expression of a synthetic project's transform (see
+ *  ProjectGenerator): its GREL expressions and the default "value" expression of its plain column
+ *  nodes, on every row.  The "cached" parameter selects the evaluation:
+ *    true  - Util.evaluateExpression(): the Evaluable from the ExpressionCache and the thread's
+ *            bindings rebound per evaluation
+ *    false - the former evaluation: MetaParser.parse() and ExpressionUtils.createBindings() per
+ *            evaluation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"6"})
+    public int columns;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private Project theProject;
+    private String[] astrColumns;
+    private String[] astrExpressions;
+    private int[] aiCellIndexes;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ProjectGenerator theGenerator = new ProjectGenerator();
+        theGenerator.setRows(this.rows);
+        theGenerator.setColumns(this.columns);
+        this.theProject = theGenerator.createProject();
+
+        // The column nodes of the transform: their columns and expressions...
+        List<String> listColumns = new ArrayList<String>();
+        List<String> listExpressions = new ArrayList<String>();
+        ExpressionBenchmark.collect( theGenerator.createTransformJSON(), listColumns, listExpressions );
+        this.astrColumns = listColumns.toArray( new String[0] );
+        this.astrExpressions = listExpressions.toArray( new String[0] );
+        this.aiCellIndexes = new int[this.astrColumns.length];
+        for (int iIndex = 0; iIndex < this.astrColumns.length; iIndex++) {
+            this.aiCellIndexes[iIndex] = Util.getCellIndex(this.theProject, this.astrColumns[iIndex]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExpressionCache.resetBindings();
+    }
+
+    /*
+     * Method collect()
+     *
+     *  Collect the column name and expression of each column node in the transform JSON.
+     */
+    static private void collect(JsonNode jnodeNode, List<String> listColumns, List<String> listExpressions) {
+        JsonNode jnodeSource = jnodeNode.path("valueSource");
+        if ( jnodeSource.path("source").asText().equals("column") ) {
+            listColumns.add( jnodeSource.path("columnName").asText() );
+            JsonNode jnodeCode = jnodeNode.path("expression").path("code");
+            listExpressions.add( jnodeCode.isMissingNode() ? Util.gstrCodeValue : jnodeCode.asText() );
+        }
+        for (JsonNode jnodeChild : jnodeNode) {
+            if ( jnodeChild.isContainerNode() ) {
+                ExpressionBenchmark.collect(jnodeChild, listColumns, listExpressions);
+            }
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole theHole) throws ParsingException {
+        int iRows = this.theProject.rows.size();
+        for (int iRowIndex = 0; iRowIndex < iRows; iRowIndex++) {
+            for (int iIndex = 0; iIndex < this.astrExpressions.length; iIndex++) {
+                if (this.cached) {
+                    theHole.consume(
+                        Util.evaluateExpression(this.theProject, this.astrExpressions[iIndex],
+                            this.astrColumns[iIndex], this.aiCellIndexes[iIndex], iRowIndex) );
+                }
+                else {
+                    theHole.consume( this.evaluateUncached(iIndex, iRowIndex) );
+                }
+            }
+        }
+    }
+
+    private Object evaluateUncached(int iIndex, int iRowIndex)
+            throws ParsingException {
+        Row theRow = this.theProject.rows.get(iRowIndex);
+        Cell theCell = theRow.getCell( this.aiCellIndexes[iIndex] );
+        Properties theBindings = ExpressionUtils.createBindings(this.theProject);
+        ExpressionUtils.bind(theBindings, theRow, iRowIndex, this.astrColumns[iIndex], theCell);
+        Evaluable theEvaluable = MetaParser.parse( this.astrExpressions[iIndex] );
+        return theEvaluable.evaluate(theBindings);
+    }
+}
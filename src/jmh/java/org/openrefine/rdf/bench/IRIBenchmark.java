@@ -0,0 +1,111 @@
+/*
+ *  Class IRIBenchmark
+ *
+ *  Benchmarks the IRI resolution and construction with and without the IRI caches.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.jena.iri.IRI;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Class IRIBenchmark
+ *
+ *  Each operation resolves (or builds) the whole set of IRI values: relative IRIs, CIRIE like values,
+ *  and full IRIs, repeating over the distinct count like column values.  A cache size of 0 turns the
+ *  IRI caches off (see Util.setIRICacheSize()).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IRIBenchmark {
+    @Param({"0", "65536"})
+    public int cacheSize;
+
+    @Param({"1000"})
+    public int distinct;
+
+    // The values per operation...
+    static private final int iVALUES = 10000;
+
+    private IRI baseIRI;
+    private String[] astrValues;
+    private int iCacheSizeBefore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.iCacheSizeBefore = Util.getIRICacheSize();
+        Util.setIRICacheSize(this.cacheSize);
+        this.baseIRI = Util.buildIRI(BenchProject.strNAMESPACE + "base/");
+        this.astrValues = new String[IRIBenchmark.iVALUES];
+        for (int iValue = 0; iValue < IRIBenchmark.iVALUES; iValue++) {
+            int iKey = iValue % this.distinct;
+            switch (iKey % 3) {
+                case 0:
+                    this.astrValues[iValue] = "item/" + iKey;
+                    break;
+                case 1:
+                    this.astrValues[iValue] = "ex:code_" + iKey;
+                    break;
+                default:
+                    this.astrValues[iValue] = "http://example.com/resource/" + iKey + "#id";
+                    break;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Util.setIRICacheSize(this.iCacheSizeBefore);
+    }
+
+    @Benchmark
+    public void resolveIRI(Blackhole theHole) throws Exception {
+        for (String strValue : this.astrValues) {
+            theHole.consume( Util.resolveIRI(this.baseIRI, strValue) );
+        }
+    }
+
+    @Benchmark
+    public void buildIRI(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( Util.buildIRI(strValue) );
+        }
+    }
+}
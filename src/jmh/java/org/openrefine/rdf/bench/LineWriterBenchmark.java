@@ -0,0 +1,135 @@
+/*
+ *  Class LineWriterBenchmark
+ *
+ *  Benchmarks the N-Triples writers: the block line writer and the Jena line writer.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.operation.LineStreamRDF;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.io.output.WriterOutputStream;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.vocabulary.RDF;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Class LineWriterBenchmark
+ *
+ *  Each operation writes the same rows of triples (a typed subject with IRI, literal, typed literal,
+ *  language, and blank node objects) with one writer.  The "block" benchmarks are the LineStreamRDF
+ *  writer to a stream and to a Writer, and the "jena" benchmarks are the Jena N-Triples writer to a
+ *  stream and, through a WriterOutputStream, to a Writer as the former NTRIPLES export wrote them.
+ *  Run with "-prof gc" to compare the allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineWriterBenchmark {
+    static private final int iROWS = 10000;
+
+    private Triple[] aTriples;
+
+    @Setup
+    public void setup() {
+        Node nodeClass = NodeFactory.createURI(ProjectGenerator.strNAMESPACE + "Thing");
+        Node[] aPredicates = new Node[5];
+        for (int iPred = 0; iPred < aPredicates.length; iPred++) {
+            aPredicates[iPred] = NodeFactory.createURI(ProjectGenerator.strNAMESPACE + "property_" + iPred);
+        }
+        this.aTriples = new Triple[LineWriterBenchmark.iROWS * 6];
+        int iTriple = 0;
+        for (int iRow = 0; iRow < LineWriterBenchmark.iROWS; iRow++) {
+            Node nodeSubject = NodeFactory.createURI(ProjectGenerator.strNAMESPACE + "row/" + iRow);
+            this.aTriples[iTriple++] = Triple.create(nodeSubject, RDF.Nodes.type, nodeClass);
+            this.aTriples[iTriple++] = Triple.create( nodeSubject, aPredicates[0],
+                NodeFactory.createURI(ProjectGenerator.strNAMESPACE + "code/" + (iRow % 100)) );
+            this.aTriples[iTriple++] = Triple.create( nodeSubject, aPredicates[1],
+                NodeFactory.createLiteral("Value \"" + iRow + "\" of the row\twith José García") );
+            this.aTriples[iTriple++] = Triple.create( nodeSubject, aPredicates[2],
+                NodeFactory.createLiteral( Integer.toString(iRow), XSDDatatype.XSDinteger ) );
+            this.aTriples[iTriple++] = Triple.create( nodeSubject, aPredicates[3],
+                NodeFactory.createLiteral("Label " + iRow, "en") );
+            this.aTriples[iTriple++] = Triple.create( nodeSubject, aPredicates[4],
+                NodeFactory.createBlankNode("b3r" + iRow) );
+        }
+    }
+
+    private long write(StreamRDF theWriter) {
+        theWriter.start();
+        for (Triple theTriple : this.aTriples) {
+            theWriter.triple(theTriple);
+        }
+        theWriter.finish();
+        return this.aTriples.length;
+    }
+
+    @Benchmark
+    public long blockStream() {
+        CountingOutputStream theOutput = new CountingOutputStream(NullOutputStream.INSTANCE);
+        this.write( new LineStreamRDF(theOutput) );
+        return theOutput.getByteCount();
+    }
+
+    @Benchmark
+    public long blockWriter() {
+        StringWriter theOutput = new StringWriter(LineWriterBenchmark.iROWS * 512);
+        this.write( new LineStreamRDF(theOutput) );
+        return theOutput.getBuffer().length();
+    }
+
+    @Benchmark
+    public long jenaStream() {
+        CountingOutputStream theOutput = new CountingOutputStream(NullOutputStream.INSTANCE);
+        this.write( StreamRDFWriter.getWriterStream(theOutput, RDFFormat.NTRIPLES_UTF8) );
+        return theOutput.getByteCount();
+    }
+
+    @Benchmark
+    public long jenaWriter() throws Exception {
+        StringWriter theOutput = new StringWriter(LineWriterBenchmark.iROWS * 512);
+        WriterOutputStream theStream = WriterOutputStream.builder().setWriter(theOutput).setCharset("UTF-8").get();
+        this.write( StreamRDFWriter.getWriterStream(theStream, RDFFormat.NTRIPLES_UTF8) );
+        theStream.flush();
+        return theOutput.getBuffer().length();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *  Class PlanBenchmark
+ *
+ *  Benchmarks the compiled transform statement creation and literal creation on rows.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.plan.PlanContext;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
+import org.openrefine.rdf.model.plan.TransformPlan;
+import org.openrefine.rdf.model.vocab.Vocabulary;
+
+import com.google.refine.model.Project;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Class PlanBenchmark
+ *
+ *  Each operation creates the statements of every row of a synthetic project (see ProjectGenerator)
+ *  with PlanResourceNode.createStatements() into a counting stream: no visitor, duplicate tracking,
+ *  or writer.  The literals parameter selects the column kind, and so the literal kind, of the data
+ *  columns: plain (text), language, or datatype (xsd:integer).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlanBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"6"})
+    public int columns;
+
+    @Param({"plain", "language", "datatype"})
+    public String literals;
+
+    private Project theProject;
+    private TransformPlan thePlan;
+    private long iCount = 0;
+    private PlanContext theContext;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ProjectGenerator theGenerator = new ProjectGenerator();
+        theGenerator.setRows(this.rows);
+        theGenerator.setColumns(this.columns);
+        theGenerator.setColumnKinds( this.literals.equals("plain") ? ProjectGenerator.strTEXT :
+                                     this.literals.equals("language") ? ProjectGenerator.strLANGUAGE :
+                                     ProjectGenerator.strINTEGER );
+        this.theProject = theGenerator.createProject();
+        RDFTransform theTransform = theGenerator.createTransform();
+        PrefixMapping thePrefixes = PrefixMapping.Factory.create();
+        for ( Vocabulary vocab : theTransform.getNamespaces() ) {
+            thePrefixes.setNsPrefix( vocab.getPrefix(), vocab.getNamespace() );
+        }
+        this.thePlan = TransformPlan.compile(theTransform, this.theProject, thePrefixes);
+        this.theContext =
+            new PlanContext(this.thePlan, this.theProject,
+                new StreamRDFBase() {
+                    @Override
+                    public void triple(Triple theTriple) {
+                        PlanBenchmark.this.iCount++;
+                    }
+                }
+            );
+    }
+
+    @Benchmark
+    public long createStatements() {
+        this.iCount = 0;
+        int iRows = this.theProject.rows.size();
+        for (int iRowIndex = 0; iRowIndex < iRows; iRowIndex++) {
+            for ( PlanResourceNode root : this.thePlan.getRoots() ) {
+                root.createStatements(this.theContext, iRowIndex);
+            }
+        }
+        return this.iCount;
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ *  Class ProjectGenerator
+ *
+ *  Generates synthetic OpenRefine projects and matching RDF Transforms for load testing.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+
+import org.openrefine.rdf.RDFTransform;
+
+import com.google.refine.ProjectManager;
+import com.google.refine.ProjectMetadata;
+import com.google.refine.expr.MetaParser;
+import com.google.refine.grel.Parser;
+import com.google.refine.io.FileProjectManager;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
+import com.google.refine.model.ModelException;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.apache.commons.io.FileUtils;
+
+/*
+ * Class ProjectGenerator
+ *
+ *  A project has an "id" column followed by the data columns "c1" to "cN".  The column kinds cycle
+ *  over the given kinds:
+ *    text:     "text 17 of c1"                      -> plain literal
+ *    language: "language 17 of c2"                  -> language ("en") literal
+ *    integer:  17                                   -> xsd:integer literal
+ *    decimal:  17.5                                 -> xsd:decimal literal
+ *    list:     "item 17|item 18|..." (array width)  -> plain literals split by the transform
+ *  Each data cell takes one of "cardinality" values at random and is empty at the null ratio.
+ *  With a record size over 1, the "id" is only set on the first row of each record, so OpenRefine
+ *  groups the rows into records (record nesting).  The same seed generates the same project.
+ *
+ *  The transform has "roots" subject roots.  Root 0 is on "id", the other roots are on the text
+ *  columns (or "id" when there are none).  The data columns are spread over the roots as literal
+ *  properties.  Each root also has:
+ *    - a chain of "depth" nested IRI object nodes on a text column, each typed and labelled
+ *    - a blank node object holding the row index and a constant source literal
+ *
+ *  Used by the benchmarks (see BenchProject) and stand alone to write a project and its transform
+ *  to an OpenRefine workspace (see main()).
+ */
+public class ProjectGenerator {
+    static public final String strNAMESPACE = "http://example.org/bench/";
+
+    static public final String strTEXT     = "text";
+    static public final String strLANGUAGE = "language";
+    static public final String strINTEGER  = "integer";
+    static public final String strDECIMAL  = "decimal";
+    static public final String strLIST     = "list";
+
+    static private boolean bInitialized = false;
+
+    private int iRows = 10000;
+    private int iColumns = 8;
+    private int iCardinality = 1000;
+    private double dNullRatio = 0.0;
+    private int iRecordSize = 1;
+    private int iArrayWidth = 3;
+    private int iRoots = 1;
+    private int iDepth = 1;
+    private long iSeed = 1;
+    private String[] astrKinds = { strTEXT, strINTEGER, strLANGUAGE, strLIST };
+
+    /*
+     * Method initialize()
+     *
+     *  Set a project manager when needed and register the GREL parser used by the transform
+     *  expressions.  Without a workspace, a temporary workspace is used and removed on exit.
+     */
+    static public synchronized void initialize(File dirWorkspace) {
+        if (ProjectGenerator.bInitialized) {
+            return;
+        }
+        if (ProjectManager.singleton == null) {
+            try {
+                File dirProjects = dirWorkspace;
+                if (dirProjects == null) {
+                    final File dirTemporary = Files.createTempDirectory("rdft-bench-workspace-").toFile();
+                    Runtime.getRuntime().addShutdownHook(
+                        new Thread( () -> FileUtils.deleteQuietly(dirTemporary) ) );
+                    dirProjects = dirTemporary;
+                }
+                FileProjectManager.initialize(dirProjects);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Cannot create the generator workspace: " + ex.getMessage(), ex);
+            }
+        }
+        MetaParser.registerLanguageParser("grel", "GREL", Parser.grelParser, "value");
+        ProjectGenerator.bInitialized = true;
+    }
+
+    public void setRows(int iRows) {
+        this.iRows = Math.max(0, iRows);
+    }
+
+    public void setColumns(int iColumns) {
+        this.iColumns = Math.max(0, iColumns);
+    }
+
+    public void setCardinality(int iCardinality) {
+        this.iCardinality = Math.max(1, iCardinality);
+    }
+
+    public void setNullRatio(double dNullRatio) {
+        this.dNullRatio = Math.max( 0.0, Math.min(1.0, dNullRatio) );
+    }
+
+    public void setRecordSize(int iRecordSize) {
+        this.iRecordSize = Math.max(1, iRecordSize);
+    }
+
+    public void setArrayWidth(int iArrayWidth) {
+        this.iArrayWidth = Math.max(1, iArrayWidth);
+    }
+
+    public void setRoots(int iRoots) {
+        this.iRoots = Math.max(1, iRoots);
+    }
+
+    public void setDepth(int iDepth) {
+        this.iDepth = Math.max(0, iDepth);
+    }
+
+    public void setSeed(long iSeed) {
+        this.iSeed = iSeed;
+    }
+
+    public void setColumnKinds(String... astrKinds) {
+        for (String strKind : astrKinds) {
+            if ( ! ( strKind.equals(strTEXT) || strKind.equals(strLANGUAGE) || strKind.equals(strINTEGER) ||
+                     strKind.equals(strDECIMAL) || strKind.equals(strLIST) ) ) {
+                throw new IllegalArgumentException("Unknown column kind: " + strKind);
+            }
+        }
+        if (astrKinds.length > 0) {
+            this.astrKinds = astrKinds.clone();
+        }
+    }
+
+    public boolean isRecords() {
+        return (this.iRecordSize > 1);
+    }
+
+    private String getKind(int iColumn) {
+        return this.astrKinds[ (iColumn - 1) % this.astrKinds.length ];
+    }
+
+    /*
+     * Method createProject()
+     *
+     *  Create and register the project with the generated rows and transform.
+     */
+    public Project createProject()
+            throws ModelException {
+        ProjectGenerator.initialize(null);
+        Project theProject = new Project();
+        ProjectMetadata theMetadata = new ProjectMetadata();
+        theMetadata.setName("RDF Transform Generated " + this.iRows + "x" + this.iColumns);
+        ProjectManager.singleton.registerProject(theProject, theMetadata);
+
+        theProject.columnModel.addColumn( 0, new Column(0, "id"), false );
+        for (int iColumn = 1; iColumn <= this.iColumns; iColumn++) {
+            theProject.columnModel.addColumn( iColumn, new Column(iColumn, "c" + iColumn), false );
+        }
+
+        SplittableRandom theRandom = new SplittableRandom(this.iSeed);
+        for (int iRow = 0; iRow < this.iRows; iRow++) {
+            Row theRow = new Row(this.iColumns + 1);
+            if (iRow % this.iRecordSize == 0) {
+                theRow.setCell( 0, new Cell( "item" + (iRow / this.iRecordSize), null ) );
+            }
+            for (int iColumn = 1; iColumn <= this.iColumns; iColumn++) {
+                if ( this.dNullRatio > 0.0 && theRandom.nextDouble() < this.dNullRatio ) {
+                    continue;
+                }
+                int iValue = theRandom.nextInt(this.iCardinality);
+                theRow.setCell( iColumn, new Cell( this.createValue( this.getKind(iColumn), iColumn, iValue ), null ) );
+            }
+            theProject.rows.add(theRow);
+        }
+        theProject.update();
+
+        theProject.overlayModels.put( RDFTransform.EXTENSION, this.createTransform() );
+        return theProject;
+    }
+
+    private java.io.Serializable createValue(String strKind, int iColumn, int iValue) {
+        switch (strKind) {
+            case strINTEGER:
+                return Long.valueOf(iValue);
+            case strDECIMAL:
+                return Double.valueOf(iValue + 0.5);
+            case strLANGUAGE:
+                return "language " + iValue + " of c" + iColumn;
+            case strLIST:
+                StringBuilder strbList = new StringBuilder();
+                for (int iItem = 0; iItem < this.iArrayWidth; iItem++) {
+                    if (iItem > 0) {
+                        strbList.append('|');
+                    }
+                    strbList.append("item ").append( (iValue + iItem) % this.iCardinality );
+                }
+                return strbList.toString();
+            default:
+                return "text " + iValue + " of c" + iColumn;
+        }
+    }
+
+    public RDFTransform createTransform() {
+        return RDFTransform.reconstruct( this.createTransformJSON() );
+    }
+
+    /*
+     * Method createTransformJSON()
+     *
+     *  The RDF Transform JSON as saved by the RDF Transform dialog.
+     */
+    public ObjectNode createTransformJSON() {
+        ObjectNode jnodeRoot = new ObjectMapper().createObjectNode();
+        jnodeRoot.put("extension", RDFTransform.EXTENSION);
+        jnodeRoot.put("version", RDFTransform.VERSION);
+        jnodeRoot.put("baseIRI", ProjectGenerator.strNAMESPACE + "base/");
+        ObjectNode jnodeNamespaces = jnodeRoot.putObject("namespaces");
+        jnodeNamespaces.put("ex", ProjectGenerator.strNAMESPACE);
+        jnodeNamespaces.put("xsd", "http://www.w3.org/2001/XMLSchema#");
+        jnodeNamespaces.put("rdfs", "http://www.w3.org/2000/01/rdf-schema#");
+
+        // The text columns for IRI subjects and objects...
+        int iTextColumn = 0;
+        for (int iColumn = 1; iColumn <= this.iColumns; iColumn++) {
+            if ( this.getKind(iColumn).equals(strTEXT) ) {
+                iTextColumn = iColumn;
+                break;
+            }
+        }
+        String strTextColumn = ( iTextColumn == 0 ? "id" : "c" + iTextColumn );
+
+        ArrayNode jnodeSubjects = jnodeRoot.putArray("subjectMappings");
+        ArrayNode[] ajnodeProperties = new ArrayNode[this.iRoots];
+        for (int iRoot = 0; iRoot < this.iRoots; iRoot++) {
+            ObjectNode jnodeSubject = jnodeSubjects.addObject();
+            jnodeSubject.put("prefix", "ex");
+            if (iRoot == 0) {
+                ProjectGenerator.setColumn(jnodeSubject, "id");
+            }
+            else {
+                ProjectGenerator.setColumn(jnodeSubject, strTextColumn);
+                ProjectGenerator.setExpression(jnodeSubject, "'root" + iRoot + "/' + v.replace(' ', '_')");
+            }
+            ProjectGenerator.addType(jnodeSubject, "Root" + iRoot);
+            ajnodeProperties[iRoot] = jnodeSubject.putArray("propertyMappings");
+
+            // Nested IRI objects...
+            ArrayNode jnodeProperties = ajnodeProperties[iRoot];
+            for (int iLevel = 1; iLevel <= this.iDepth; iLevel++) {
+                ObjectNode jnodeObject = ProjectGenerator.addProperty(jnodeProperties, "ex", "level" + iLevel);
+                jnodeObject.put("prefix", "ex");
+                jnodeObject.putObject("valueType").put("type", "iri");
+                ProjectGenerator.setColumn(jnodeObject, strTextColumn);
+                ProjectGenerator.setExpression(jnodeObject, "'level" + iLevel + "/' + v.replace(' ', '_')");
+                ProjectGenerator.addType(jnodeObject, "Level" + iLevel);
+                jnodeProperties = jnodeObject.putArray("propertyMappings");
+                ObjectNode jnodeLabel = ProjectGenerator.addProperty(jnodeProperties, "rdfs", "label");
+                jnodeLabel.putObject("valueType").put("type", "literal");
+                ProjectGenerator.setColumn(jnodeLabel, strTextColumn);
+            }
+
+            // A blank node object...
+            ObjectNode jnodeBlank = ProjectGenerator.addProperty(ajnodeProperties[iRoot], "ex", "provenance");
+            jnodeBlank.putObject("valueType").put("type", "bnode");
+            jnodeBlank.putObject("valueSource").put("source", "row_index");
+            ArrayNode jnodeBlankProperties = jnodeBlank.putArray("propertyMappings");
+            ObjectNode jnodeRow = ProjectGenerator.addProperty(jnodeBlankProperties, "ex", "row");
+            ObjectNode jnodeRowType = jnodeRow.putObject("valueType");
+            jnodeRowType.put("type", "datatype_literal");
+            ProjectGenerator.setDatatype(jnodeRowType, "integer");
+            jnodeRow.putObject("valueSource").put("source", "row_index");
+            ObjectNode jnodeSource = ProjectGenerator.addProperty(jnodeBlankProperties, "ex", "source");
+            jnodeSource.putObject("valueType").put("type", "literal");
+            ProjectGenerator.setConstant(jnodeSource, "generated");
+        }
+
+        // The data column literals spread over the roots...
+        for (int iColumn = 1; iColumn <= this.iColumns; iColumn++) {
+            String strKind = this.getKind(iColumn);
+            ObjectNode jnodeObject =
+                ProjectGenerator.addProperty( ajnodeProperties[ (iColumn - 1) % this.iRoots ], "ex", "c" + iColumn );
+            ObjectNode jnodeType = jnodeObject.putObject("valueType");
+            if ( strKind.equals(strINTEGER) || strKind.equals(strDECIMAL) ) {
+                jnodeType.put("type", "datatype_literal");
+                ProjectGenerator.setDatatype(jnodeType, strKind);
+            }
+            else if ( strKind.equals(strLANGUAGE) ) {
+                jnodeType.put("type", "language_literal");
+                jnodeType.put("language", "en");
+            }
+            else {
+                jnodeType.put("type", "literal");
+            }
+            ProjectGenerator.setColumn(jnodeObject, "c" + iColumn);
+            if ( strKind.equals(strLIST) ) {
+                ProjectGenerator.setExpression(jnodeObject, "v.split('|')");
+            }
+        }
+
+        return jnodeRoot;
+    }
+
+    static private void setColumn(ObjectNode jnodeNode, String strColumn) {
+        ObjectNode jnodeSource = jnodeNode.putObject("valueSource");
+        jnodeSource.put("source", "column");
+        jnodeSource.put("columnName", strColumn);
+    }
+
+    static private void setConstant(ObjectNode jnodeNode, String strConstant) {
+        ObjectNode jnodeSource = jnodeNode.putObject("valueSource");
+        jnodeSource.put("source", "constant");
+        jnodeSource.put("constant", strConstant);
+    }
+
+    /*
+     * Method setExpression()
+     *
+     *  Set a GREL expression on the cell value "v".  Empty cells skip the expression, so the null
+     *  ratio does not add evaluation errors.
+     */
+    static private void setExpression(ObjectNode jnodeNode, String strCode) {
+        ObjectNode jnodeExpression = jnodeNode.putObject("expression");
+        jnodeExpression.put("language", "grel");
+        jnodeExpression.put("code", "forNonBlank(value, v, " + strCode + ", null)");
+    }
+
+    static private void setDatatype(ObjectNode jnodeValueType, String strLocalPart) {
+        ObjectNode jnodeDatatype = jnodeValueType.putObject("datatype");
+        jnodeDatatype.put("prefix", "xsd");
+        ProjectGenerator.setConstant(jnodeDatatype, strLocalPart);
+    }
+
+    static private void addType(ObjectNode jnodeNode, String strLocalPart) {
+        ArrayNode jnodeTypes = (ArrayNode) jnodeNode.get("typeMappings");
+        if (jnodeTypes == null) {
+            jnodeTypes = jnodeNode.putArray("typeMappings");
+        }
+        ObjectNode jnodeType = jnodeTypes.addObject();
+        jnodeType.put("prefix", "ex");
+        ProjectGenerator.setConstant(jnodeType, strLocalPart);
+    }
+
+    /*
+     * Method addProperty()
+     *
+     *  Add a property and return its (single) object mapping to fill.
+     */
+    static private ObjectNode addProperty(ArrayNode jnodeProperties, String strPrefix, String strLocalPart) {
+        ObjectNode jnodeProperty = jnodeProperties.addObject();
+        jnodeProperty.put("prefix", strPrefix);
+        ProjectGenerator.setConstant(jnodeProperty, strLocalPart);
+        return jnodeProperty.putArray("objectMappings").addObject();
+    }
+
+    /*
+     * Method main()
+     *
+     *  Write a generated project and its transform to an OpenRefine workspace:
+     *      -workspace <dir>   (required) the OpenRefine workspace directory
+     *      -transform <file>  also write the transform JSON to the file
+     *      -rows, -columns, -cardinality, -nulls, -record-size, -array-width, -roots,
+     *      -depth, -seed, -kinds text,integer,language,list
+     *  Run: mvn -P jmh test-compile exec:exec@generate -Dgenerate.args="-workspace ... -rows 1000000"
+     */
+    static public void main(String[] astrArgs)
+            throws Exception {
+        ProjectGenerator theGenerator = new ProjectGenerator();
+        File dirWorkspace = null;
+        File fileTransform = null;
+        for (int iArg = 0; iArg + 1 < astrArgs.length; iArg += 2) {
+            String strValue = astrArgs[iArg + 1];
+            switch (astrArgs[iArg]) {
+                case "-workspace":   dirWorkspace = new File(strValue); break;
+                case "-transform":   fileTransform = new File(strValue); break;
+                case "-rows":        theGenerator.setRows( Integer.parseInt(strValue) ); break;
+                case "-columns":     theGenerator.setColumns( Integer.parseInt(strValue) ); break;
+                case "-cardinality": theGenerator.setCardinality( Integer.parseInt(strValue) ); break;
+                case "-nulls":       theGenerator.setNullRatio( Double.parseDouble(strValue) ); break;
+                case "-record-size": theGenerator.setRecordSize( Integer.parseInt(strValue) ); break;
+                case "-array-width": theGenerator.setArrayWidth( Integer.parseInt(strValue) ); break;
+                case "-roots":       theGenerator.setRoots( Integer.parseInt(strValue) ); break;
+                case "-depth":       theGenerator.setDepth( Integer.parseInt(strValue) ); break;
+                case "-seed":        theGenerator.setSeed( Long.parseLong(strValue) ); break;
+                case "-kinds":       theGenerator.setColumnKinds( strValue.split(",") ); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + astrArgs[iArg]);
+            }
+        }
+        if (dirWorkspace == null) {
+            throw new IllegalArgumentException("Missing option: -workspace <dir>");
+        }
+        if ( ! dirWorkspace.isDirectory() && ! dirWorkspace.mkdirs() ) {
+            throw new IOException("Cannot create the workspace: " + dirWorkspace);
+        }
+
+        ProjectGenerator.initialize(dirWorkspace);
+        Project theProject = theGenerator.createProject();
+        if (fileTransform != null) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue( fileTransform, theGenerator.createTransformJSON() );
+        }
+        ProjectManager.singleton.ensureProjectSaved(theProject.id);
+        ProjectManager.singleton.save(true);
+        System.out.println("Generated project " + theProject.id + ": " + theProject.rows.size() + " rows in " + dirWorkspace);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Class SearchBenchmark
+ *
+ *  Benchmarks the Lucene vocabulary term search.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.vocab.VocabularySearcher;
+
+import org.apache.commons.io.FileUtils;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Class SearchBenchmark
+ *
+ *  A synthetic vocabulary of classes and properties, each with a label and comment, is indexed in a
+ *  temporary Lucene directory for one project.  Each operation is one search as typed in the class
+ *  and property dialogs: a partial word or a "prefix:localPart".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    static private final String strPROJECT = "1";
+
+    @Param({"1000"})
+    public int terms;
+
+    private File dirIndex;
+    private VocabularySearcher theSearcher;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.dirIndex = Files.createTempDirectory("rdft-bench-lucene-").toFile();
+        this.theSearcher = new VocabularySearcher(this.dirIndex);
+
+        String strNamespace = BenchProject.strNAMESPACE + "vocab#";
+        Model theModel = ModelFactory.createDefaultModel();
+        for (int iTerm = 0; iTerm < this.terms; iTerm++) {
+            Resource theClass = theModel.createResource(strNamespace + "Thing" + iTerm);
+            theClass.addProperty(RDF.type, RDFS.Class);
+            theClass.addProperty(RDFS.label, "Thing " + iTerm, "en");
+            theClass.addProperty(RDFS.comment, "A synthetic class number " + iTerm + " for searching", "en");
+            Resource theProperty = theModel.createResource(strNamespace + "hasPart" + iTerm);
+            theProperty.addProperty(RDF.type, RDF.Property);
+            theProperty.addProperty(RDFS.label, "has part " + iTerm, "en");
+            theProperty.addProperty(RDFS.comment, "A synthetic property number " + iTerm + " for searching", "en");
+        }
+        this.theSearcher.importAndIndexVocabulary("bench", strNamespace, theModel, SearchBenchmark.strPROJECT);
+        this.theSearcher.update();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(this.dirIndex);
+    }
+
+    @Benchmark
+    public Object searchClasses() throws Exception {
+        return this.theSearcher.searchClasses("thin", SearchBenchmark.strPROJECT);
+    }
+
+    @Benchmark
+    public Object searchProperties() throws Exception {
+        return this.theSearcher.searchProperties("part", SearchBenchmark.strPROJECT);
+    }
+
+    @Benchmark
+    public Object searchPrefixed() throws Exception {
+        return this.theSearcher.searchClasses("bench:Thing12", SearchBenchmark.strPROJECT);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *  Class StringCleanBenchmark
+ *
+ *  Benchmarks the whitespace strippers and the IRI sanitiser on realistic cell values.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.functions.ToIRIString;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/*
+ * Class StringCleanBenchmark
+ *
+ *  Each operation processes the whole set of cell values: identifiers, codes, IRIs, names, padded
+ *  and multi-line text, and non-ASCII text.  The "regex" benchmarks are the former String.replaceAll()
+ *  implementations for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringCleanBenchmark {
+    private final String[] astrValues = {
+        "12345",
+        "ISO-3166-US",
+        "http://example.org/resource/12345",
+        "urn:isbn:0451450523",
+        "ACME Corporation",
+        "  padded value  ",
+        "first line\nsecond line\ttabbed",
+        "2024-01-31T12:00:00Z",
+        "John_Smith",
+        "José García",
+        "Straße 12 B",
+        "a<b>{c}|d^e`f\"g",
+    };
+
+    @Benchmark
+    public void removeAllWhitespace(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( Util.removeAllWhitespace(strValue) );
+        }
+    }
+
+    @Benchmark
+    public void removeAllWhitespaceRegex(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( strValue.replaceAll("[" + Util.WHITESPACE + "]+", "") );
+        }
+    }
+
+    @Benchmark
+    public void replaceAllWhitespace(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( Util.replaceAllWhitespace(strValue) );
+        }
+    }
+
+    @Benchmark
+    public void replaceAllWhitespaceRegex(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( strValue.replaceAll("[" + Util.WHITESPACE + "]", " ") );
+        }
+    }
+
+    @Benchmark
+    public void toSpaceStrippedString(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( Util.toSpaceStrippedString(strValue) );
+        }
+    }
+
+    @Benchmark
+    public void toIRIString(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume( ToIRIString.toIRIString(strValue) );
+        }
+    }
+
+    @Benchmark
+    public void toIRIStringCleanRegex(Blackhole theHole) {
+        for (String strValue : this.astrValues) {
+            theHole.consume(
+                strValue.replaceAll("[" + Util.WHITESPACE + Pattern.quote("<>\"{}|\\^`") + "]+", "_")
+                    .replaceAll("__+", "_") );
+        }
+    }
+}
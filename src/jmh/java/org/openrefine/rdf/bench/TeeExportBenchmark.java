@@ -0,0 +1,118 @@
+/*
+ *  Class TeeExportBenchmark
+ *
+ *  Benchmarks a multi-format export: one pass to every format against a pass per format.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.exporter.RDFLineExporter;
+import org.openrefine.rdf.model.exporter.RDFStreamExporter;
+import org.openrefine.rdf.model.exporter.RDFTeeExporter;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.model.Project;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+
+import org.apache.jena.riot.RDFFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Class TeeExportBenchmark
+ *
+ *  Each operation exports a whole synthetic project (see ProjectGenerator) as TURTLE_BLOCKS,
+ *  NTRIPLES, and RDF_THRIFT to byte counting null streams.  The "separate" benchmark runs an export
+ *  per format, so the transform is evaluated once per format.  The "tee" benchmark runs one export
+ *  to every format (see RDFTeeExporter), so the transform is evaluated once and the formats are
+ *  serialized on their own threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeeExportBenchmark {
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"8"})
+    public int columns;
+
+    private Project theProject;
+    private Engine theEngine;
+    private List<RDFStreamExporter> listExporters;
+    private RDFTeeExporter theTee;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ProjectGenerator theGenerator = new ProjectGenerator();
+        theGenerator.setRows(this.rows);
+        theGenerator.setColumns(this.columns);
+        this.theProject = theGenerator.createProject();
+        this.theEngine = BenchProject.createEngine(this.theProject, false);
+        this.listExporters = new ArrayList<RDFStreamExporter>();
+        this.listExporters.add( new RDFStreamExporter(RDFFormat.TURTLE_BLOCKS, "TURTLE_BLOCKS") );
+        this.listExporters.add( new RDFLineExporter(RDFFormat.NTRIPLES_UTF8, "NTRIPLES") );
+        this.listExporters.add( new RDFStreamExporter(RDFFormat.RDF_THRIFT, "RDF_THRIFT") );
+        this.theTee = new RDFTeeExporter(this.listExporters);
+    }
+
+    @Benchmark
+    public long separate() throws IOException {
+        long iBytes = 0;
+        for (RDFStreamExporter theExporter : this.listExporters) {
+            CountingOutputStream theOutput = new CountingOutputStream(NullOutputStream.INSTANCE);
+            theExporter.export( this.theProject, new Properties(), this.theEngine, theOutput );
+            iBytes += theOutput.getByteCount();
+        }
+        return iBytes;
+    }
+
+    @Benchmark
+    public long tee() throws IOException {
+        List<OutputStream> listOutputs = new ArrayList<OutputStream>();
+        for (int iIndex = 0; iIndex < this.listExporters.size(); iIndex++) {
+            listOutputs.add( new CountingOutputStream(NullOutputStream.INSTANCE) );
+        }
+        ExportMetrics theMetrics = ExportMetrics.start( this.theProject.id, this.theTee.getName() );
+        this.theTee.export( this.theProject, new Properties(), this.theEngine, listOutputs, theMetrics );
+        return theMetrics.getBytes();
+    }
+}
@@ -56,6 +56,10 @@ public class ApplicationContext {
         return vocabularySearcher;
     }
 
+    public File getWorkingDir() {
+        return this.fileWorkingDir;
+    }
+
     public void init(String strHost, String strIFace, String strPort, File fileWorkingDir) throws IOException {
         if (Util.isVerbose(3) || Util.isDebugMode() ) ApplicationContext.logger.info("Initializing Context...");
         this.strHost =  ( strHost  == null || strHost.isEmpty()  ) ? null : strHost;
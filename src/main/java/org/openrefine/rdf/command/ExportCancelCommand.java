@@ -0,0 +1,89 @@
+/*
+ *  Class ExportCancelCommand
+ *
+ *  Cancel a background RDF export.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.command;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.exporter.RDFExportProcess;
+
+import com.google.refine.commands.Command;
+import com.google.refine.util.ParsingUtilities;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportCancelCommand
+ *
+ *  Cancels the given background export ("process" parameter): a pending export is removed from the
+ *  project's process queue and a running export stops at the next row or record (see
+ *  RDFExportProcess).  Responds with the export process status as a JSON message.
+ */
+public class ExportCancelCommand extends Command {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ExpCancelCmd");
+
+    @Override
+    public void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ( Util.isVerbose(3) ) ExportCancelCommand.logger.info("Canceling export...");
+        if ( ! this.hasValidCSRFToken(request) ) {
+            ExportCancelCommand.respondCSRFError(response);
+            return;
+        }
+
+        String strStatus = null;
+        try {
+            String strProcessID = request.getParameter("process");
+            RDFExportProcess theProcess =
+                ( strProcessID == null ? null : RDFExportProcess.get( Long.parseLong( strProcessID.strip() ) ) );
+            if (theProcess == null) {
+                // An ended export has nothing to cancel: report its last status...
+                ObjectNode jnodeFinished =
+                    ( strProcessID == null ? null : RDFExportProcess.getFinished( Long.parseLong( strProcessID.strip() ) ) );
+                if (jnodeFinished != null) {
+                    ExportCancelCommand.respondJSON( response, new CodeResponse( jnodeFinished.toString() ) );
+                    return;
+                }
+                ExportCancelCommand.respondJSON( response, new CodeResponse("No export process: " + strProcessID, true) );
+                return;
+            }
+            if ( ! theProcess.isDone() ) {
+                // ...a pending process leaves the queue now, a running process as it ends...
+                theProcess.cancel();
+            }
+            strStatus = theProcess.toJSON(ParsingUtilities.mapper).toString();
+        }
+        catch (Exception ex) { // ...any other exception...
+            if ( Util.isDebugMode() ) ExportCancelCommand.logger.error("DEBUG: Export Cancel: Exception: " + ex.getMessage(), ex);
+            ExportCancelCommand.respondException(response, ex);
+            return;
+        }
+        if ( Util.isVerbose(3) ) ExportCancelCommand.logger.info("...export canceled.");
+        ExportCancelCommand.respondJSON( response, new CodeResponse(strStatus) );
+    }
+}
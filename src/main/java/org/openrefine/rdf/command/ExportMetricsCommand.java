@@ -0,0 +1,81 @@
+/*
+ *  Class ExportMetricsCommand
+ *
+ *  Get the run metrics of the running or last RDF exports.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.refine.commands.Command;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportMetricsCommand
+ *
+ *  Responds with the metrics (see ExportMetrics) of the running or last export of the given project
+ *  ("project" parameter) or of every exported project (no parameter) as a JSON array message.
+ *  Poll while an export runs for its progress and rates.
+ */
+public class ExportMetricsCommand extends Command {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ExpMetricsCmd");
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ( Util.isVerbose(3) ) ExportMetricsCommand.logger.info("Getting export metrics...");
+        // NOTE: No CSRFToken required for this command.
+
+        String strMetrics = null;
+        try {
+            List<ExportMetrics> listMetrics = null;
+            String strProjectID = request.getParameter("project");
+            if (strProjectID == null) {
+                listMetrics = ExportMetrics.getAll();
+            }
+            else {
+                listMetrics = new ArrayList<ExportMetrics>();
+                ExportMetrics theMetrics = ExportMetrics.get( Long.parseLong( strProjectID.strip() ) );
+                if (theMetrics != null) {
+                    listMetrics.add(theMetrics);
+                }
+            }
+            strMetrics = ExportMetrics.toJSON(new ObjectMapper(), listMetrics).toString();
+        }
+        catch (Exception ex) { // ...any other exception...
+            if ( Util.isDebugMode() ) ExportMetricsCommand.logger.error("DEBUG: Export Metrics: Exception: " + ex.getMessage(), ex);
+            ExportMetricsCommand.respondException(response, ex);
+            return;
+        }
+        if ( Util.isVerbose(3) ) ExportMetricsCommand.logger.info("...got export metrics.");
+        ExportMetricsCommand.respondJSON( response, new CodeResponse(strMetrics) );
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ *  Class ExportStartCommand
+ *
+ *  Start a background RDF export of a project to a file.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.exporter.ExportCheckpoint;
+import org.openrefine.rdf.model.exporter.RDFExportProcess;
+import org.openrefine.rdf.model.exporter.RDFStreamExporter;
+import org.openrefine.rdf.model.exporter.RDFTeeExporter;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.EngineConfig;
+import com.google.refine.commands.Command;
+import com.google.refine.exporters.Exporter;
+import com.google.refine.exporters.ExporterRegistry;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportStartCommand
+ *
+ *  Queues an RDF stream export of the project's filtered rows or records (see RDFExportProcess) on
+ *  the project's process manager and responds with the export process status as a JSON message.
+ *  Poll "get-rdf-export" for the progress and "cancel-rdf-export" to stop it.
+ *
+ *  A line based export (N-Triples, N-Quads) saves checkpoints (see ExportCheckpoint).  Given
+ *  "resume", the failed export of that file resumes from its checkpoint with the checkpoint's
+ *  format and filters, when the project revision and transform are unchanged.
+ *
+ *  Given "partTriples" or "partBytes", the export is split into part files in a directory (see
+ *  PartStreamRDF) with a manifest of the parts.  A part export is not checkpointed.
+ *
+ *  Given "formats", the formats are exported in one pass (see RDFTeeExporter) to a directory with
+ *  a file per format.  A multi-format export is not split or checkpointed.
+ *
+ *  Parameters:
+ *    project:  the project
+ *    engine:   the engine configuration (the filters)
+ *    format:   a stream export format name (default: NTRIPLES)
+ *    formats:  a comma separated list of distinct stream export format names, instead of "format"
+ *    resume:   the export file name of a checkpointed export to resume (see "get-rdf-export")
+ *    partTriples:  start a new part file every given triples (default: 0, no split)
+ *    partBytes:    start a new part file every given bytes (default: 0, no split)
+ */
+public class ExportStartCommand extends Command {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ExpStartCmd");
+
+    static public final String strDEFAULT_FORMAT = "NTRIPLES";
+
+    @Override
+    public void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ( Util.isVerbose(3) ) ExportStartCommand.logger.info("Starting export...");
+        if ( ! this.hasValidCSRFToken(request) ) {
+            ExportStartCommand.respondCSRFError(response);
+            return;
+        }
+
+        String strProcess = null;
+        try {
+            Project theProject = this.getProject(request);
+
+            String strResume = request.getParameter("resume");
+            if (strResume != null) {
+                RDFExportProcess theProcess = null;
+                try {
+                    theProcess = ExportStartCommand.resume(theProject, strResume);
+                }
+                catch (IllegalArgumentException ex) {
+                    ExportStartCommand.logger.error("ERROR: Cannot resume " + strResume + ": " + ex.getMessage());
+                    ExportStartCommand.respondJSON( response, new CodeResponse("Cannot resume " + strResume + ": " + ex.getMessage(), true) );
+                    return;
+                }
+                strProcess = theProcess.toJSON(ParsingUtilities.mapper).toString();
+                if ( Util.isVerbose(3) ) ExportStartCommand.logger.info("...export resume queued.");
+                ExportStartCommand.respondJSON( response, new CodeResponse(strProcess) );
+                return;
+            }
+
+            Engine theEngine = ExportStartCommand.getEngine(request, theProject);
+
+            long iPartTriples = ExportStartCommand.getLong(request, "partTriples");
+            long iPartBytes = ExportStartCommand.getLong(request, "partBytes");
+            boolean bParts = ( iPartTriples > 0 || iPartBytes > 0 );
+
+            // Get the stream exporter for the format or formats...
+            String strFormat = request.getParameter("format");
+            String strFormats = request.getParameter("formats");
+            if (strFormats != null) {
+                strFormat = strFormats;
+            }
+            else if (strFormat == null) {
+                strFormat = ExportStartCommand.strDEFAULT_FORMAT;
+            }
+            List<RDFStreamExporter> listExporters = new ArrayList<RDFStreamExporter>();
+            for ( String strName : strFormat.split(",") ) {
+                strName = strName.strip();
+                Exporter theExporter = ExporterRegistry.getExporter(strName);
+                if ( ! ( theExporter instanceof RDFStreamExporter ) ) {
+                    ExportStartCommand.logger.error("ERROR: Not an RDF stream export format: " + strName);
+                    ExportStartCommand.respondJSON( response, new CodeResponse("Not an RDF stream export format: " + strName, true) );
+                    return;
+                }
+                // A repeated format would write its file twice...
+                if ( listExporters.contains(theExporter) ) {
+                    ExportStartCommand.logger.error("ERROR: Repeated export format: " + strName);
+                    ExportStartCommand.respondJSON( response, new CodeResponse("Repeated export format: " + strName, true) );
+                    return;
+                }
+                listExporters.add( (RDFStreamExporter) theExporter );
+            }
+            boolean bTee = ( strFormats != null );
+            if (bTee && bParts) {
+                ExportStartCommand.logger.error("ERROR: A multi-format export cannot be split into parts.");
+                ExportStartCommand.respondJSON( response, new CodeResponse("A multi-format export cannot be split into parts.", true) );
+                return;
+            }
+            RDFStreamExporter theStreamExporter =
+                ( bTee ? new RDFTeeExporter(listExporters) : listExporters.get(0) );
+
+            // A part or multi-format export writes a directory of files...
+            String strExportName = theProject.id + "-" + System.currentTimeMillis();
+            if (bTee) {
+                strExportName += ".formats";
+            }
+            else {
+                strExportName += "." + theStreamExporter.getFileExtension() + ( bParts ? ".parts" : "" );
+            }
+            File fileExport = new File( RDFExportProcess.getExportDir(), strExportName );
+            ExportCheckpoint theCheckpoint = null;
+            if ( ! bParts && theStreamExporter.isCheckpointable() ) {
+                theCheckpoint =
+                    ExportCheckpoint.create( fileExport, theProject, strFormat, request.getParameter("engine") );
+            }
+            RDFExportProcess theProcess =
+                new RDFExportProcess(theProject, theEngine, theStreamExporter, fileExport, theCheckpoint);
+            if (bParts) {
+                theProcess.setParts(iPartTriples, iPartBytes);
+            }
+            theProject.getProcessManager().queueProcess(theProcess);
+            strProcess = theProcess.toJSON(ParsingUtilities.mapper).toString();
+        }
+        catch (Exception ex) { // ...any other exception...
+            if ( Util.isDebugMode() ) ExportStartCommand.logger.error("DEBUG: Export Start: Exception: " + ex.getMessage(), ex);
+            ExportStartCommand.respondException(response, ex);
+            return;
+        }
+        if ( Util.isVerbose(3) ) ExportStartCommand.logger.info("...export queued.");
+        ExportStartCommand.respondJSON( response, new CodeResponse(strProcess) );
+    }
+
+    /*
+     * Method getLong()
+     *
+     *  The request's whole number parameter, or 0 when missing.
+     */
+    static private long getLong(HttpServletRequest request, String strName) {
+        String strValue = request.getParameter(strName);
+        if ( strValue == null || strValue.isBlank() ) {
+            return 0;
+        }
+        return Long.parseLong( strValue.strip() );
+    }
+
+    /*
+     * Method resume()
+     *
+     *  Queue the resume of the named export from its checkpoint.  An IllegalArgumentException tells
+     *  why it cannot resume.
+     */
+    static private RDFExportProcess resume(Project theProject, String strFileName)
+            throws Exception {
+        if ( strFileName.isEmpty() || strFileName.contains("/") || strFileName.contains("\\") || strFileName.startsWith(".") ) {
+            throw new IllegalArgumentException("Bad export file name");
+        }
+        File fileExport = new File( RDFExportProcess.getExportDir(), strFileName );
+        if ( ExportStartCommand.isQueued(strFileName) ) {
+            throw new IllegalArgumentException("The export is queued or running");
+        }
+        ExportCheckpoint theCheckpoint = ExportCheckpoint.load(fileExport);
+        if (theCheckpoint == null) {
+            throw new IllegalArgumentException("No checkpoint");
+        }
+        Exporter theExporter = ExporterRegistry.getExporter( theCheckpoint.getFormat() );
+        if ( ! ( theExporter instanceof RDFStreamExporter ) ) {
+            throw new IllegalArgumentException("Not an RDF stream export format: " + theCheckpoint.getFormat());
+        }
+        String strError = theCheckpoint.validate( theProject, theCheckpoint.getFormat() );
+        if (strError != null) {
+            throw new IllegalArgumentException(strError);
+        }
+
+        // Resume with the checkpoint's filters...
+        Engine theEngine = new Engine(theProject);
+        if ( theCheckpoint.getEngine() != null ) {
+            theEngine.initializeFromConfig( EngineConfig.reconstruct( theCheckpoint.getEngine() ) );
+        }
+        RDFExportProcess theProcess =
+            new RDFExportProcess(theProject, theEngine, (RDFStreamExporter) theExporter, fileExport, theCheckpoint);
+        theProject.getProcessManager().queueProcess(theProcess);
+        return theProcess;
+    }
+
+    /*
+     * Method isQueued()
+     *
+     *  Whether an export process of the named export file is queued or running.
+     */
+    static private boolean isQueued(String strFileName) {
+        for ( RDFExportProcess theProcess : RDFExportProcess.getAll() ) {
+            if ( theProcess.getFile().getName().equals(strFileName) && ! theProcess.isDone() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Class ExportStatusCommand
+ *
+ *  Get the status of the background RDF exports.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.exporter.ExportCheckpoint;
+import org.openrefine.rdf.model.exporter.RDFExportProcess;
+
+import com.google.refine.commands.Command;
+import com.google.refine.util.ParsingUtilities;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportStatusCommand
+ *
+ *  Responds with the status (see RDFExportProcess.toJSON()) of the given background export
+ *  ("process" parameter) or of every background export (no parameter) as a JSON array message:
+ *  the percent of the filtered rows or records done, the rates, and the estimated time left.  An
+ *  ended export reports its last status: only the last few ended exports of a project are kept.
+ *  Given "checkpoints", responds with the saved checkpoints instead (see ExportCheckpoint): the
+ *  failed exports that "start-rdf-export" can resume.
+ */
+public class ExportStatusCommand extends Command {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ExpStatusCmd");
+
+    @Override
+    public void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ( Util.isVerbose(3) ) ExportStatusCommand.logger.info("Getting export status...");
+        // NOTE: No CSRFToken required for this command.
+
+        String strStatus = null;
+        try {
+            if ( request.getParameter("checkpoints") != null ) {
+                List<ExportCheckpoint> listCheckpoints = ExportCheckpoint.getAll( RDFExportProcess.getExportDir() );
+                strStatus = ExportCheckpoint.toJSON(ParsingUtilities.mapper, listCheckpoints).toString();
+                ExportStatusCommand.respondJSON( response, new CodeResponse(strStatus) );
+                return;
+            }
+
+            // An ended export is reported by its last status (see RDFExportProcess.getFinished())...
+            ArrayNode jnodeStatus = null;
+            String strProcessID = request.getParameter("process");
+            if (strProcessID == null) {
+                List<RDFExportProcess> listProcesses = RDFExportProcess.getAll();
+                jnodeStatus = RDFExportProcess.toJSON(ParsingUtilities.mapper, listProcesses);
+                Set<Long> setIDs = new HashSet<Long>();
+                for (RDFExportProcess theProcess : listProcesses) {
+                    setIDs.add( theProcess.getId() );
+                }
+                for ( ObjectNode jnodeFinished : RDFExportProcess.getAllFinished() ) {
+                    // ...unless it ended while reported...
+                    if ( ! setIDs.contains( jnodeFinished.path("id").asLong() ) ) {
+                        jnodeStatus.add(jnodeFinished);
+                    }
+                }
+            }
+            else {
+                long iProcessID = Long.parseLong( strProcessID.strip() );
+                List<RDFExportProcess> listProcesses = new ArrayList<RDFExportProcess>();
+                RDFExportProcess theProcess = RDFExportProcess.get(iProcessID);
+                if (theProcess != null) {
+                    listProcesses.add(theProcess);
+                }
+                jnodeStatus = RDFExportProcess.toJSON(ParsingUtilities.mapper, listProcesses);
+                ObjectNode jnodeFinished = RDFExportProcess.getFinished(iProcessID);
+                if (theProcess == null && jnodeFinished != null) {
+                    jnodeStatus.add(jnodeFinished);
+                }
+            }
+            strStatus = jnodeStatus.toString();
+        }
+        catch (Exception ex) { // ...any other exception...
+            if ( Util.isDebugMode() ) ExportStatusCommand.logger.error("DEBUG: Export Status: Exception: " + ex.getMessage(), ex);
+            ExportStatusCommand.respondException(response, ex);
+            return;
+        }
+        if ( Util.isVerbose(3) ) ExportStatusCommand.logger.info("...got export status.");
+        ExportStatusCommand.respondJSON( response, new CodeResponse(strStatus) );
+    }
+}
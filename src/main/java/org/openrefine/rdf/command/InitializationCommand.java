@@ -41,7 +41,10 @@ import com.google.refine.operations.OperationRegistry;
 
 import org.openrefine.rdf.ApplicationContext;
 import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.exporter.RDFCompressedExporter;
+import org.openrefine.rdf.model.exporter.RDFLineExporter;
 import org.openrefine.rdf.model.exporter.RDFPrettyExporter;
+import org.openrefine.rdf.model.exporter.RDFSortedExporter;
 import org.openrefine.rdf.model.exporter.RDFStreamExporter;
 import org.openrefine.rdf.model.expr.RDFTransformBinder;
 import org.openrefine.rdf.model.expr.functions.ToIRIString;
@@ -49,6 +52,7 @@ import org.openrefine.rdf.model.expr.functions.ToStrippedLiteral;
 import org.openrefine.rdf.model.Util;
 import org.openrefine.rdf.model.operation.RDFTransformChange;
 import org.openrefine.rdf.model.operation.SaveRDFTransformOperation;
+import org.openrefine.rdf.model.utils.CompressedOutputStream;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.sys.JenaSystem;
 
@@ -165,8 +169,13 @@ public class InitializationCommand extends Command {
         List<RDFTCommandItem> aCommands = new ArrayList<RDFTCommandItem>();
         aCommands.add(new RDFTCommandItem( "initialize", this ));
         aCommands.add(new RDFTCommandItem( "get-preferences", new PreferencesCommand() ));
+        aCommands.add(new RDFTCommandItem( "get-export-metrics", new ExportMetricsCommand() ));
+        aCommands.add(new RDFTCommandItem( "start-rdf-export", new ExportStartCommand() ));
+        aCommands.add(new RDFTCommandItem( "get-rdf-export", new ExportStatusCommand() ));
+        aCommands.add(new RDFTCommandItem( "cancel-rdf-export", new ExportCancelCommand() ));
         aCommands.add(new RDFTCommandItem( "preview-rdf", new PreviewRDFCommand() ));
         aCommands.add(new RDFTCommandItem( "preview-rdf-expression", new PreviewRDFTExpressionCommand() ));
+        aCommands.add(new RDFTCommandItem( "profile-rdf-transform", new ProfileRDFCommand() ));
         aCommands.add(new RDFTCommandItem( strSaveRDFTransform, new SaveRDFTransformCommand() ));
         aCommands.add(new RDFTCommandItem( "save-baseIRI", new SaveBaseIRICommand() ));
         aCommands.add(new RDFTCommandItem( "validate-iri", new ValidateIRICommand() ));
@@ -254,9 +263,6 @@ public class InitializationCommand extends Command {
         // BLOCKS PRINTERS: per Subject (Stream)
         aStream.add(new RDFTExportPrinter(RDFFormat.TURTLE_BLOCKS, "TURTLE_BLOCKS"));
         aStream.add(new RDFTExportPrinter(RDFFormat.TRIG_BLOCKS, "TRIG_BLOCKS"));
-        // LINE PRINTERS: triple, quad (Stream)
-        aStream.add(new RDFTExportPrinter(RDFFormat.NTRIPLES_UTF8, "NTRIPLES"));
-        aStream.add(new RDFTExportPrinter(RDFFormat.NQUADS_UTF8, "NQUADS"));
         aStream.add(new RDFTExportPrinter(RDFFormat.TRIX, "TRIX"));
         // DUMMY PRINTERS: (Stream)
         aStream.add(new RDFTExportPrinter(RDFFormat.RDFNULL, "RDFNULL"));
@@ -272,6 +278,54 @@ public class InitializationCommand extends Command {
             }
         }
 
+        //
+        // LINE PRINTERS: triple, quad (Stream, encoded in blocks)
+        //
+        List<RDFTExportPrinter> aLine = new ArrayList<RDFTExportPrinter>();
+        aLine.add(new RDFTExportPrinter(RDFFormat.NTRIPLES_UTF8, "NTRIPLES"));
+        aLine.add(new RDFTExportPrinter(RDFFormat.NQUADS_UTF8, "NQUADS"));
+
+        for (RDFTExportPrinter ptr : aLine) {
+            if (ptr.rdfFormat != null) {
+                ExporterRegistry.registerExporter( ptr.strFormat, new RDFLineExporter(ptr.rdfFormat, ptr.strFormat) );
+            }
+        }
+
+        //
+        // COMPRESSED PRINTERS: line and block printers compressed in parallel blocks (Stream)
+        //
+        List<RDFTExportPrinter> aCompressed = new ArrayList<RDFTExportPrinter>();
+        aCompressed.add(new RDFTExportPrinter(RDFFormat.NTRIPLES_UTF8, "NTRIPLES"));
+        aCompressed.add(new RDFTExportPrinter(RDFFormat.NQUADS_UTF8, "NQUADS"));
+        aCompressed.add(new RDFTExportPrinter(RDFFormat.TURTLE_BLOCKS, "TURTLE_BLOCKS"));
+
+        for ( CompressedOutputStream.Codec theCodec : CompressedOutputStream.Codec.values() ) {
+            if ( ! theCodec.isAvailable() ) {
+                if ( Util.isVerbose(2) ) InitializationCommand.logger.info("  Compression not available: " + theCodec);
+                continue;
+            }
+            for (RDFTExportPrinter ptr : aCompressed) {
+                String strFormat = ptr.strFormat + "_" + theCodec.getExtension().toUpperCase();
+                RDFStreamExporter theExporter =
+                    ( ptr.rdfFormat.equals(RDFFormat.TURTLE_BLOCKS) ?
+                        new RDFStreamExporter(ptr.rdfFormat, strFormat) :
+                        new RDFLineExporter(ptr.rdfFormat, strFormat) );
+                ExporterRegistry.registerExporter( strFormat, new RDFCompressedExporter(theExporter, theCodec) );
+            }
+        }
+
+        //
+        // SORTED PRINTERS: per Subject, sorted over all statements (Stream)
+        //
+        List<RDFTExportPrinter> aSorted = new ArrayList<RDFTExportPrinter>();
+        aSorted.add(new RDFTExportPrinter(RDFFormat.TURTLE_BLOCKS, "TURTLE_SORTED"));
+
+        for (RDFTExportPrinter ptr : aSorted) {
+            if (ptr.rdfFormat != null) {
+                ExporterRegistry.registerExporter( ptr.strFormat, new RDFSortedExporter(ptr.rdfFormat, ptr.strFormat) );
+            }
+        }
+
         // //
         // // SPECIAL PRINTERS:
         // //
@@ -59,6 +59,16 @@ public class PreferencesCommand extends Command {
             strPreferences =
                 "{ \"iVerbosity\" : " +     Util.getVerbose() + ", " +
                   "\"iExportLimit\" : " +   Util.getExportLimit() + ", " +
+                  "\"iExportThreads\" : " + Util.getExportThreads() + ", " +
+                  "\"iPrettySpillLimit\" : " + Util.getPrettySpillLimit() + ", " +
+                  "\"iIRICacheSize\" : " + Util.getIRICacheSize() + ", " +
+                  "\"strDedupMode\" : \"" + Util.getDedupMode() + "\", " +
+                  "\"dDedupFalsePositive\" : " + Util.getDedupFalsePositive() + ", " +
+                  "\"iDedupMemory\" : " + Util.getDedupMemory() + ", " +
+                  "\"strBlankNodeScope\" : \"" + Util.getBlankNodeScope() + "\", " +
+                  "\"iPipelineQueue\" : " + Util.getPipelineQueue() + ", " +
+                  "\"iPipelineBatch\" : " + Util.getPipelineBatch() + ", " +
+                  "\"iCompressThreads\" : " + Util.getCompressThreads() + ", " +
                   "\"bPreviewStream\" : " + Util.isPreviewStream() + ", " +
                   "\"bDebugMode\" : " +     Util.isDebugMode() + ", " +
                   "\"bDebugJSON\" : " +     Util.isDebugJSON() + ", " +
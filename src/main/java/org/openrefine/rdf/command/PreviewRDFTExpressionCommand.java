@@ -29,6 +29,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.ExpressionCache;
 
 import com.google.refine.commands.expr.PreviewExpressionCommand;
 import com.google.refine.expr.EvalError;
@@ -56,6 +57,7 @@ public class PreviewRDFTExpressionCommand extends PreviewExpressionCommand {
     private JsonNode theRowIndices = null;
     private String strPrefix = ""; // No Prefix, Base IRI == ":", all others are "ccc:"
     private String strColumnName = null;
+    private int iCellIndex = -1;
     private IRI baseIRI = null;
 
     private JsonGenerator theWriter = null;
@@ -95,6 +97,11 @@ public class PreviewRDFTExpressionCommand extends PreviewExpressionCommand {
             }
 
             this.strColumnName = request.getParameter("columnName");
+            // Resolve the column once for all previewed rows...
+            this.iCellIndex = Util.getCellIndex(this.theProject, this.strColumnName);
+            if ( Util.isMissingColumn(this.theProject, this.strColumnName) ) {
+                PreviewRDFTExpressionCommand.logger.warn("WARNING: Missing column in project: " + this.strColumnName);
+            }
 
             String strBaseIRI = request.getParameter("baseIRI");
             this.baseIRI = Util.buildIRI(strBaseIRI);
@@ -121,6 +128,7 @@ public class PreviewRDFTExpressionCommand extends PreviewExpressionCommand {
             else {
                 bGood = this.respondLiteralPreview();
             }
+            ExpressionCache.resetBindings();
 
             String strCode = "error";
             if (bGood) {
@@ -177,7 +185,7 @@ public class PreviewRDFTExpressionCommand extends PreviewExpressionCommand {
                     // NOTE: Expression evaluation will fail all the time because...typing!
                     //       It's constantly updating the preview as we type, so failure on
                     //       incomplete expressions!
-                    results = Util.evaluateExpression(this.theProject, this.strExpression, this.strColumnName, iRowIndex);
+                    results = Util.evaluateExpression(this.theProject, this.strExpression, this.strColumnName, this.iCellIndex, iRowIndex);
                 }
                 else
                     break;
@@ -343,7 +351,7 @@ public class PreviewRDFTExpressionCommand extends PreviewExpressionCommand {
                     // NOTE: Expression evaluation will fail all the time because...typing!
                     //       It's constantly updating the preview as we type, so failure on
                     //       incomplete expressions!
-                    results = Util.evaluateExpression(this.theProject, this.strExpression, this.strColumnName, iRowIndex);
+                    results = Util.evaluateExpression(this.theProject, this.strExpression, this.strColumnName, this.iCellIndex, iRowIndex);
                 }
                 else
                     break;
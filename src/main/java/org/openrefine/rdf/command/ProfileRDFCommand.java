@@ -0,0 +1,148 @@
+/*
+ *  Class ProfileRDFCommand
+ *
+ *  Profile the RDF Transform of a project, node by node.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.command;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.operation.PreviewRDFRecordVisitor;
+import org.openrefine.rdf.model.operation.PreviewRDFRowVisitor;
+import org.openrefine.rdf.model.operation.RDFVisitor;
+import org.openrefine.rdf.model.plan.PlanProfile;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.commands.Command;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+import org.apache.jena.riot.system.StreamRDFLib;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ProfileRDFCommand
+ *
+ *  Runs the transform over the filtered rows or records of the project as a preview does, but
+ *  discards the statements and profiles each node, property, and type (see PlanProfile).  Responds
+ *  with the profile as a JSON tree that mirrors the transform so the UI can highlight the hot nodes.
+ *
+ *  Parameters:
+ *    rdf-transform:  the transform JSON to profile (default: the project's transform)
+ *    iSampleLimit:   the rows or records to profile, 0 for all (default: the preferred sample limit)
+ */
+public class ProfileRDFCommand extends Command {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ProfRDFCmd");
+
+    @Override
+    public void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if ( Util.isVerbose(3) ) ProfileRDFCommand.logger.info("Profiling Transform...");
+        // No CSRF Token required for this command.
+
+        try {
+            // Get the project and engine...
+            Project theProject = this.getProject(request);
+            Engine theEngine = ProfileRDFCommand.getEngine(request, theProject);
+
+            // Get the RDF Transform: given or the project's...
+            RDFTransform theTransform = null;
+            String strTransform = request.getParameter(RDFTransform.KEY);
+            if (strTransform == null) {
+                theTransform = RDFTransform.getRDFTransform(theProject);
+            }
+            else {
+                JsonNode jnodeTransform = ParsingUtilities.evaluateJsonStringToObjectNode(strTransform);
+                if ( jnodeTransform == null || jnodeTransform.isNull() || jnodeTransform.isEmpty() ) {
+                    ProfileRDFCommand.logger.info("ERROR: No Transform JSON Node! Cannot construct profile.");
+                    ProfileRDFCommand.respondJSON(response, CodeResponse.error);
+                    return;
+                }
+                theTransform = RDFTransform.reconstruct(theProject, jnodeTransform);
+            }
+            if (theTransform == null) {
+                ProfileRDFCommand.logger.info("ERROR: No Transform available! Cannot construct profile.");
+                ProfileRDFCommand.respondJSON(response, CodeResponse.error);
+                return;
+            }
+
+            //
+            // Process Sample Limit...
+            //
+            int iSampleLimit = Util.getSampleLimit(); // ...set to current limit
+            String strSampleLimit = request.getParameter("iSampleLimit");
+            if (strSampleLimit != null) { // ...a sample limit was passed from the UI
+                try {
+                    iSampleLimit = Integer.parseInt(strSampleLimit); // ...set to sample limit
+                }
+                catch (NumberFormatException ex) {
+                    // ignore, use default...
+                }
+            }
+            if ( Util.isDebugMode() ) ProfileRDFCommand.logger.info("DEBUG:   Sample Limit processed: " + strSampleLimit + ", " + iSampleLimit);
+
+            //
+            // Process sample (or all) records/rows of data, discarding the statements...
+            //
+            RDFVisitor theVisitor = null;
+            if ( theProject.recordModel.hasRecords() ) {
+                PreviewRDFRecordVisitor theRecordVisitor =
+                    new PreviewRDFRecordVisitor( theTransform, StreamRDFLib.sinkNull() );
+                theRecordVisitor.setSampleLimit(iSampleLimit);
+                theVisitor = theRecordVisitor;
+            }
+            else {
+                PreviewRDFRowVisitor theRowVisitor =
+                    new PreviewRDFRowVisitor( theTransform, StreamRDFLib.sinkNull() );
+                theRowVisitor.setSampleLimit(iSampleLimit);
+                theVisitor = theRowVisitor;
+            }
+            PlanProfile theProfile = new PlanProfile();
+            theVisitor.setProfile(theProfile);
+            theProfile.start();
+            theVisitor.buildModel(theProject, theEngine);
+            theProfile.end();
+
+            ObjectNode jnodeProfile = theProfile.toJSON(ParsingUtilities.mapper, theTransform);
+            jnodeProfile.put(Util.gstrProject, theProject.id);
+            if ( Util.isVerbose(3) ) {
+                ProfileRDFCommand.logger.info("...profiled " + theProfile.getRows() + " rows in " +
+                    theProfile.getElapsedMillis() + " ms.");
+            }
+
+            // Send back to client...
+            ProfileRDFCommand.respondJSON( response, new CodeResponse( jnodeProfile.toString() ) );
+        }
+        catch (Exception ex) {
+            ProfileRDFCommand.logger.error("ERROR: Constructing Profile:" + ex.getMessage(), ex);
+            if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
+            ProfileRDFCommand.respondJSON(response, CodeResponse.error);
+        }
+    }
+}
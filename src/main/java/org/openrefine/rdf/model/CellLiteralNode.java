@@ -21,19 +21,11 @@
 
 package org.openrefine.rdf.model;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.io.IOException;
 
-import com.google.refine.expr.ExpressionUtils;
-import com.google.refine.expr.ParsingException;
-
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonGenerationException;
 
-import org.apache.jena.rdf.model.RDFNode;
-
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -106,52 +98,6 @@ public class CellLiteralNode extends LiteralNode implements CellNode {
         return this.strExpression;
     }
 
-    /*
-     *  Method createRowLiterals() creates the object list for triple statements
-     *  from this node on Rows
-     */
-    @Override
-    protected void createRowLiterals() {
-        if (Util.isDebugMode()) CellLiteralNode.logger.info("DEBUG: createRowLiterals...");
-
-        this.listNodes = null;
-        Object results = null;
-        try {
-            results =
-                Util.evaluateExpression( this.theProject, this.strExpression, this.strColumnName, this.theRec.row() );
-        }
-        catch (ParsingException ex) {
-            // An cell might result in a ParsingException when evaluating an IRI expression.
-            // Eat the exception...
-            return;
-        }
-
-        // Results cannot be classed...
-        if ( results == null || ExpressionUtils.isError(results) || ! ExpressionUtils.isNonBlankData(results) ) {
-            return;
-        }
-
-        this.listNodes = new ArrayList<RDFNode>();
-
-        // Results are an array...
-        if ( results.getClass().isArray() ) {
-            if (Util.isDebugMode()) CellLiteralNode.logger.info("DEBUG: Result is Array...");
-
-            List<Object> listResult = Arrays.asList(results);
-            for (Object obj : listResult) {
-                this.normalizeLiteral(obj);
-            }
-        }
-        // Results are singular...
-        else {
-            this.normalizeLiteral(results);
-        }
-
-        if ( this.listNodes.isEmpty() ) {
-            this.listNodes = null;
-        }
-    }
-
     @Override
     public void writeNode(JsonGenerator writer)
             throws JsonGenerationException, IOException {
@@ -21,17 +21,11 @@
 
 package org.openrefine.rdf.model;
 
-import java.util.ArrayList;
 import java.io.IOException;
 
-import com.google.refine.expr.ExpressionUtils;
-import com.google.refine.expr.ParsingException;
-
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonGenerationException;
 
-import org.apache.jena.rdf.model.RDFNode;
-
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -93,54 +87,6 @@ public class CellResourceNode extends ResourceNode implements CellNode {
         return this.strExpression;
     }
 
-    @Override
-    protected void createRowResources() {
-        if (Util.isDebugMode()) CellResourceNode.logger.info("DEBUG: createRowResources...");
-
-        this.listNodes = null;
-        Object results = null;
-        try {
-            results =
-                Util.evaluateExpression( this.theProject, this.strExpression, this.strColumnName, this.theRec.row() );
-        }
-        catch (ParsingException ex) {
-            // An cell might result in a ParsingException when evaluating an IRI expression.
-            // Eat the exception...
-            return;
-        }
-
-        // Results cannot be classed...
-        if ( results == null || ExpressionUtils.isError(results) || ! ExpressionUtils.isNonBlankData(results) ) {
-            return;
-        }
-
-        this.listNodes = new ArrayList<RDFNode>();
-
-        // Results are an array...
-        if ( results.getClass().isArray() ) {
-            if (Util.isDebugMode()) CellResourceNode.logger.info("DEBUG: Result is Array...");
-            this.processResultsAsArray(this.strPrefix, results);
-        }
-        // Results are singular...
-        else {
-            if (Util.isDebugMode()) CellResourceNode.logger.info("DEBUG: Result is Singular...");
-            if ( results.toString().isEmpty() ) {
-                return;
-            }
-            var bDone = false;
-            if (this.strPrefix == null) {
-                bDone = this.processResultsAsSingle(results);
-            }
-            if ( ! bDone ) {
-                this.normalizeResource(this.strPrefix, results);
-            }
-        }
-
-        if ( this.listNodes.isEmpty() ) {
-            this.listNodes = null;
-        }
-    }
-
     @Override
     protected void writeNode(JsonGenerator writer, boolean isRoot)
             throws JsonGenerationException, IOException {
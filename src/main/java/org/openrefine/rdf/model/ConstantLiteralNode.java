@@ -22,9 +22,6 @@
 package org.openrefine.rdf.model;
 
 import java.io.IOException;
-import java.util.ArrayList;
-
-import org.apache.jena.rdf.model.RDFNode;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -79,32 +76,6 @@ public class ConstantLiteralNode extends LiteralNode implements ConstantNode {
         return this.strConstant;
     }
 
-    @Override
-    protected void createRecordLiterals() {
-        // For a Constant Literal Node, we only need one constant literal per record,
-        // so process as a row...
-        this.createRowLiterals();
-    }
-
-    /*
-     *  Method createRowLiterals() creates the object list for triple statements
-     *  from this node on a Row.
-     */
-    @Override
-    protected void createRowLiterals() {
-        if (Util.isDebugMode()) ConstantLiteralNode.logger.info("DEBUG: createRowLiterals...");
-
-        this.listNodes = null;
-
-        // If there is no value to work with...
-        if ( this.strConstant == null || this.strConstant.isEmpty() ) {
-            return;
-        }
-
-        this.listNodes = new ArrayList<RDFNode>();
-        this.normalizeLiteral(this.strConstant);
-    }
-
     @Override
     public void writeNode(JsonGenerator writer)
             throws JsonGenerationException, IOException {
@@ -22,9 +22,6 @@
 package org.openrefine.rdf.model;
 
 import java.io.IOException;
-import java.util.ArrayList;
-
-import org.apache.jena.rdf.model.RDFNode;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -71,42 +68,6 @@ public class ConstantResourceNode extends ResourceNode implements ConstantNode {
         return this.strPrefix;
     }
 
-    @Override
-    protected void createResources() {
-        // For a Constant Resource Node, we only need one constant resource per record,
-        // so process as a row...
-        this.createRowResources();
-    }
-
-    @Override
-    protected void createRecordResources() {
-        // NOT USED!
-        this.listNodes = null;
-    }
-
-    @Override
-    protected void createRowResources() {
-        this.listNodes = null;
-
-        // If there is no value to work with...
-        if ( this.strConstant == null || this.strConstant.isEmpty() ) {
-            return;
-        }
-
-        this.listNodes = new ArrayList<RDFNode>();
-        var bDone = false;
-        if (this.strPrefix == null) {
-            bDone = this.processResultsAsSingle(this.strConstant);
-        }
-        if ( ! bDone ) {
-            this.normalizeResource(this.strPrefix, this.strConstant);
-        }
-
-        if ( this.listNodes.isEmpty() ) {
-            this.listNodes = null;
-        }
-    }
-
     /*
      *  Method normalizeResourceAsString() for Resource Node to IRI
      */
@@ -131,7 +92,7 @@ public class ConstantResourceNode extends ResourceNode implements ConstantNode {
         }
 
         try {
-            Util.resolveIRI(this.baseIRI, strIRI);
+            Util.resolveIRI(null, strIRI);
         }
         catch (Exception ex) {
             // An IRIParsingException from Util.resolveIRI() means a bad IRI.
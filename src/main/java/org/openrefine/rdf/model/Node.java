@@ -21,18 +21,12 @@
 package org.openrefine.rdf.model;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.Objects;
 
-import com.google.refine.model.Project;
-
 import org.openrefine.rdf.RDFTransform;
-import org.openrefine.rdf.model.utils.RecordModel;
 import org.openrefine.rdf.model.vocab.VocabularyList;
 
 import org.apache.jena.iri.IRI;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.RDFNode;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -345,46 +339,21 @@ abstract public class Node {
         return lnodeLiteral;
     }
 
-    @JsonIgnore
-    protected IRI baseIRI = null;
-
-    @JsonIgnore
-    protected Model theModel = null;
-
-    @JsonIgnore
-    protected Project theProject = null;
-
-    @JsonIgnore
-    public RecordModel theRec = null;
-
     @JsonIgnore
     protected String strExpression;
 
     @JsonIgnore
     protected boolean bIsIndex = false;
 
-    @JsonIgnore
-    protected List<RDFNode> listNodes = null;
-
     @JsonIgnore
     protected Util.NodeType eNodeType = null;
 
-    @JsonIgnore
-    public Node() {
-        theRec = new RecordModel(this);
-    }
-
     @JsonIgnore
     abstract public String getNodeName();
 
     @JsonProperty("nodeType")
     abstract public String getNodeType();
 
-    @JsonIgnore
-    public Project getProject() {
-        return theProject;
-    }
-
     @JsonProperty("isIndex")
     public boolean isIndexNode() {
         return this.bIsIndex;
@@ -394,47 +363,6 @@ abstract public class Node {
         return eNodeType;
     }
 
-    protected String expandPrefixedIRI(String strObjectIRI) {
-        if (this.theModel == null) {
-            return null;
-        }
-        return this.theModel.expandPrefix(strObjectIRI);
-
-        // String strExpanded = strObjectIRI;
-        // int iIndex = strObjectIRI.indexOf(':'); // ...get index of first ':'...
-        // if (iIndex >= 0) { // ...a ':' exists...
-        //     if ( ! strObjectIRI.contains("://") ) { // ...if not already expanded...
-        //         String strPrefix = strObjectIRI.substring(0, iIndex); // ...including blank ("") prefix...
-        //         String strNamespace = this.theModel.getNsPrefixURI(strPrefix);
-        //         if (strNamespace != null) {
-        //              // Get the string just beyond the first ':'...
-        //             strExpanded = strNamespace + strObjectIRI.substring(iIndex+1);
-        //         }
-        //     }
-        // }
-        // return strExpanded;
-    }
-
-    /*
-     *  Method setObjectParameters()
-     *
-     *  Copy the parameters from the given Property resource to this Node object.
-     *
-     */
-    @JsonIgnore
-    protected void setObjectParameters(ResourceNode nodeProperty) {
-        this.baseIRI = nodeProperty.baseIRI;
-        this.theModel = nodeProperty.theModel;
-        this.theProject = nodeProperty.theProject;
-    }
-
-    /*
-     *  Method createObjects()
-     *
-     *    Creates the object list for triple statements from this node.
-     */
-    abstract protected List<RDFNode> createObjects(ResourceNode nodeProperty);
-
     abstract public void write(JsonGenerator writer, boolean isRoot)
             throws JsonGenerationException, IOException;
 }
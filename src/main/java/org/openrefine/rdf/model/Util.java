@@ -20,11 +20,14 @@
 
 package org.openrefine.rdf.model;
 
+import org.openrefine.rdf.model.expr.ExpressionCache;
+import org.openrefine.rdf.model.plan.BlankNodeLabels;
+import org.openrefine.rdf.model.utils.IRICache;
+
 import com.google.refine.expr.Evaluable;
-import com.google.refine.expr.ExpressionUtils;
-import com.google.refine.expr.MetaParser;
 import com.google.refine.expr.ParsingException;
 import com.google.refine.model.Cell;
+import com.google.refine.model.Column;
 import com.google.refine.model.Project;
 import com.google.refine.model.Row;
 import com.google.refine.preference.PreferenceStore;
@@ -42,6 +45,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +69,10 @@ public class Util {
     static public final String WHITESPACE = "\uC2A0\\p{C}\\p{Z}";
     //static public final String WHITESPACE = "\\p{Cc}\\p{Co}\\p{Cn}\\p{Z}";
 
+    // Precompiled WHITESPACE patterns: one or more, and each...
+    static public final Pattern patternWhitespaces = Pattern.compile("[" + Util.WHITESPACE + "]+");
+    static public final Pattern patternWhitespace = Pattern.compile("[" + Util.WHITESPACE + "]");
+
     // RDF Transform JSON Strings
     // --------------------------------------------------------------------------------
     static public final String gstrProject = "project";
@@ -183,6 +191,16 @@ public class Util {
             // Settable by OpenRefine Preferences...
             put("iVerbosity", 0);
             put("iExportLimit", 10737418);
+            put("iExportThreads", 1);
+            put("iPrettySpillLimit", 1048576);
+            put("iIRICacheSize", IRICache.iDEFAULT_CAPACITY);
+            put("strDedupMode", "none");
+            put("dDedupFalsePositive", 0.000001);
+            put("iDedupMemory", 64);
+            put("strBlankNodeScope", "label");
+            put("iPipelineQueue", 0);
+            put("iPipelineBatch", 1024);
+            put("iCompressThreads", 0);
             put("bPreviewStream", false);
             put("bDebugMode", false);
             put("bDebugJSON", false);
@@ -201,7 +219,35 @@ public class Util {
         }
     }
 
+    /*
+     * Method resolveIRI()
+     *
+     *  Resolve the IRI string to an absolute IRI string using the Base IRI for a relative IRI.  The
+     *  results, including failures, are cached (see IRICache).
+     */
     static public String resolveIRI(IRI baseIRI, String strIRI) throws IRIParsingException {
+        // No IRI is not a problem (there is just nothing to resolve)...
+        if (strIRI == null || strIRI.length() == 0) {
+            return null;
+        }
+
+        IRICache.Resolved theResult = IRICache.getResolved(baseIRI, strIRI);
+        if (theResult == null) {
+            try {
+                theResult = new IRICache.Resolved( Util.resolveIRIUncached(baseIRI, strIRI), null );
+            }
+            catch (IRIParsingException ex) {
+                theResult = new IRICache.Resolved( null, ex.getMessage() );
+            }
+            IRICache.putResolved(baseIRI, strIRI, theResult);
+        }
+        if ( theResult.isFailure() ) {
+            throw new Util.IRIParsingException( theResult.getError() );
+        }
+        return theResult.getIRI();
+    }
+
+    static private String resolveIRIUncached(IRI baseIRI, String strIRI) throws IRIParsingException {
         String strResolveIRI = "resolveIRI: ";
         String strError = "ERROR: " + strResolveIRI;
         String strErrMsg = null;
@@ -415,6 +461,15 @@ public class Util {
             return null;
         }
 
+        // Check the cache (the constructed IRIs are immutable)...
+        Object objBuilt = IRICache.getBuilt(strIRI);
+        if (objBuilt != null) {
+            if ( IRICache.isBuildFailure(objBuilt) ) {
+                return null;
+            }
+            return (IRI) objBuilt;
+        }
+
         IRI iriNew = null;
         try {
             iriNew = Util.iriFactory.construct(strIRI);
@@ -423,12 +478,43 @@ public class Util {
             if ( Util.isVerbose() || Util.isDebugMode() ) Util.logger.error(strHeader + "Malformed IRI <" + strIRI + ">", ex);
             else Util.logger.error(strHeader + "Malformed IRI <" + strIRI + ">");
         }
+        IRICache.putBuilt(strIRI, iriNew);
 
         return iriNew;
     }
 
+    /*
+     * Method getCellIndex()
+     *
+     *  Resolve a column name to its cell index.  Returns -1 for a blank name (a row / record index
+     *  column) or a column not in the project.  Resolve once per export or preview and reuse the
+     *  index for all rows.
+     */
+    static public int getCellIndex(Project theProject, String strColumnName) {
+        // If a regular column (not a row/record index column)...
+        if ( ! ( strColumnName == null || strColumnName.isEmpty() ) ) {
+            Column theColumn = theProject.columnModel.getColumnByName(strColumnName);
+            if (theColumn != null) {
+                return theColumn.getCellIndex();
+            }
+        }
+        return -1;
+    }
+
+    static public boolean isMissingColumn(Project theProject, String strColumnName) {
+        return ! ( strColumnName == null || strColumnName.isEmpty() ) &&
+            theProject.columnModel.getColumnByName(strColumnName) == null;
+    }
+
     static public Object evaluateExpression(Project theProject, String strExpression, String strColumnName, int iRowIndex)
             throws ParsingException {
+        return Util.evaluateExpression(theProject, strExpression, strColumnName,
+                                        Util.getCellIndex(theProject, strColumnName), iRowIndex);
+    }
+
+    static public Object evaluateExpression(Project theProject, String strExpression, String strColumnName,
+                                            int iCellIndex, int iRowIndex)
+            throws ParsingException {
         //
         // Evaluate the expression on the cell and return results...
         //   NOTE: Here is where we tie the RDF Transform model to the data.
@@ -445,17 +531,8 @@ public class Util {
             return null;
         }
 
-        // Select the column reference (er, cell index) by given name...
-        int theColumn = -1;
-        // If a regular column (not a row/record index column)...
-        if ( ! ( strColumnName == null || strColumnName.isEmpty() ) ) {
-            try {
-                theColumn = theProject.columnModel.getColumnByName(strColumnName).getCellIndex();
-            }
-            catch (ClassCastException | NullPointerException ex) {
-                // Let it be -1...continue...
-            }
-        }
+        // The column reference (er, cell index) is resolved by the caller...
+        int theColumn = iCellIndex;
 
         // Select the row by given row index...
         Row theRow = null;
@@ -476,14 +553,14 @@ public class Util {
             theCell = new Cell(iRowIndex, null);
         }
 
-        // Create a bindings property for this expression...
-        Properties bindings = ExpressionUtils.createBindings(theProject);
+        // Get the reusable bindings property for this expression...
+        Properties bindings = ExpressionCache.getBindings(theProject);
 
         // Bind the cell for expression evaluation...
-        ExpressionUtils.bind(bindings, theRow, iRowIndex, strColumnName, theCell);
+        ExpressionCache.bind(bindings, theRow, iRowIndex, strColumnName, theCell);
 
-        // Create an evaluator for this expression...
-        Evaluable eval = MetaParser.parse(strExpression);
+        // Get the cached evaluator for this expression...
+        Evaluable eval = ExpressionCache.getEvaluable(strExpression);
 
         // Evaluate the expression on the cell for results...
         return eval.evaluate(bindings);
@@ -505,6 +582,165 @@ public class Util {
         return (int) Util.Preferences.get("iExportLimit");
     }
 
+    //
+    // Export Threads:
+    //
+    // The number of threads transforming rows or records for a stream export.
+    // NOTE: When set to 1, the export is transformed on the exporting thread.
+    //
+    static public void setExportThreads(int iExportThreads) {
+        if (iExportThreads > 0) {
+            Util.Preferences.put("iExportThreads", iExportThreads);
+        }
+    }
+
+    static public int getExportThreads() {
+        return (int) Util.Preferences.get("iExportThreads");
+    }
+    // ...end Export Threads
+
+    //
+    // Pretty Spill Limit:
+    //
+    // The number of statements a pretty export holds in memory before moving the graph to a
+    // temporary disk dataset.
+    // NOTE: When set to 0, the graph is always held in memory.
+    //
+    static public void setPrettySpillLimit(int iPrettySpillLimit) {
+        if (iPrettySpillLimit >= 0) {
+            Util.Preferences.put("iPrettySpillLimit", iPrettySpillLimit);
+        }
+    }
+
+    static public int getPrettySpillLimit() {
+        return (int) Util.Preferences.get("iPrettySpillLimit");
+    }
+    // ...end Pretty Spill Limit
+
+    //
+    // IRI Cache Size:
+    //
+    // The number of entries held by each IRI cache (see IRICache).
+    // NOTE: When set to 0, the IRI caches are off.
+    //
+    static public void setIRICacheSize(int iIRICacheSize) {
+        if (iIRICacheSize >= 0) {
+            Util.Preferences.put("iIRICacheSize", iIRICacheSize);
+            IRICache.setCapacity(iIRICacheSize);
+        }
+    }
+
+    static public int getIRICacheSize() {
+        return (int) Util.Preferences.get("iIRICacheSize");
+    }
+    // ...end IRI Cache Size
+
+    //
+    // Dedup:
+    //
+    // The duplicate statement filter for stream exports (see DedupStreamRDF):
+    //   Mode: "none", "bloom", or "exact"
+    //   False Positive: the Bloom filter false positive budget, 0 < budget < 1
+    //   Memory: the memory ceiling in MiB
+    //
+    static public void setDedupMode(String strDedupMode) {
+        if (strDedupMode != null) {
+            String strMode = strDedupMode.trim().toLowerCase();
+            if ( strMode.equals("none") || strMode.equals("bloom") || strMode.equals("exact") ) {
+                Util.Preferences.put("strDedupMode", strMode);
+            }
+        }
+    }
+
+    static public String getDedupMode() {
+        return (String) Util.Preferences.get("strDedupMode");
+    }
+
+    static public void setDedupFalsePositive(double dDedupFalsePositive) {
+        if (dDedupFalsePositive > 0.0 && dDedupFalsePositive < 1.0) {
+            Util.Preferences.put("dDedupFalsePositive", dDedupFalsePositive);
+        }
+    }
+
+    static public double getDedupFalsePositive() {
+        return (double) Util.Preferences.get("dDedupFalsePositive");
+    }
+
+    static public void setDedupMemory(int iDedupMemory) {
+        if (iDedupMemory > 0) {
+            Util.Preferences.put("iDedupMemory", iDedupMemory);
+        }
+    }
+
+    static public int getDedupMemory() {
+        return (int) Util.Preferences.get("iDedupMemory");
+    }
+    // ...end Dedup
+
+    //
+    // Blank Node Scope:
+    //
+    // The scope of the hashed cell blank node labels (see BlankNodeLabels):
+    //   "label" (the readable, unhashed labels), "row", "record", or "export"
+    //
+    static public void setBlankNodeScope(String strBlankNodeScope) {
+        if ( BlankNodeLabels.Scope.parse(strBlankNodeScope) != null ) {
+            Util.Preferences.put( "strBlankNodeScope", strBlankNodeScope.trim().toLowerCase() );
+        }
+    }
+
+    static public String getBlankNodeScope() {
+        return (String) Util.Preferences.get("strBlankNodeScope");
+    }
+    // ...end Blank Node Scope
+
+    //
+    // Pipeline:
+    //
+    // The pipelined stream export (see PipelineStreamRDF):
+    //   Queue: the batches queued for the serializer thread
+    //   Batch: the statements in a batch
+    // NOTE: When the queue is set to 0, the export is not pipelined.
+    //
+    static public void setPipelineQueue(int iPipelineQueue) {
+        if (iPipelineQueue >= 0) {
+            Util.Preferences.put("iPipelineQueue", iPipelineQueue);
+        }
+    }
+
+    static public int getPipelineQueue() {
+        return (int) Util.Preferences.get("iPipelineQueue");
+    }
+
+    static public void setPipelineBatch(int iPipelineBatch) {
+        if (iPipelineBatch > 0) {
+            Util.Preferences.put("iPipelineBatch", iPipelineBatch);
+        }
+    }
+
+    static public int getPipelineBatch() {
+        return (int) Util.Preferences.get("iPipelineBatch");
+    }
+    // ...end Pipeline
+
+    //
+    // Compress Threads:
+    //
+    // The number of threads compressing the blocks of a compressed export (see
+    // CompressedOutputStream).
+    // NOTE: When set to 0, the number of available processors.
+    //
+    static public void setCompressThreads(int iCompressThreads) {
+        if (iCompressThreads >= 0) {
+            Util.Preferences.put("iCompressThreads", iCompressThreads);
+        }
+    }
+
+    static public int getCompressThreads() {
+        return (int) Util.Preferences.get("iCompressThreads");
+    }
+    // ...end Compress Threads
+
     //
     // Preview Stream:
     //
@@ -573,6 +809,10 @@ public class Util {
     static public void setPreferencesByPreferenceStore() {
         Util.logger.info("Getting Preferences from Preference Store...");
 
+        // Without a project manager (e.g., stand alone benchmarks), keep the current preferences...
+        if (ProjectManager.singleton == null) {
+            return;
+        }
         PreferenceStore prefStore = ProjectManager.singleton.getPreferenceStore();
         if (prefStore == null) {
             return;
@@ -629,6 +869,163 @@ public class Util {
             }
         }
 
+        //
+        // Set Export Threads...
+        //
+        // The Export Threads (iExportThreads) is the number of threads used to transform the
+        // rows or records of a stream export.  A value of 1 transforms on the exporting thread.
+        // A value of 0 uses the number of available processors.
+        //
+        obj = prefStore.get("RDFTransform.exportThreads");
+        if (obj != null) {
+            try {
+                int iExportThreads = Integer.parseInt( obj.toString() );
+                if (iExportThreads == 0) {
+                    iExportThreads = Runtime.getRuntime().availableProcessors();
+                }
+                if (iExportThreads > 0) {
+                    Util.Preferences.put("iExportThreads", iExportThreads);
+                }
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
+        //
+        // Set Pretty Spill Limit...
+        //
+        // The Pretty Spill Limit (iPrettySpillLimit) is the number of statements a pretty export
+        // holds in memory before the graph is moved to a temporary TDB2 dataset on disk.  A memory
+        // graph uses several hundred bytes per statement (nodes and indexes), so the default of
+        // 1048576 statements holds roughly 0.5 GiB.  Set it from the memory given to OpenRefine.
+        // A value of 0 never spills: the entire graph must fit in memory.
+        //
+        obj = prefStore.get("RDFTransform.prettySpillLimit");
+        if (obj != null) {
+            try {
+                Util.setPrettySpillLimit( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
+        //
+        // Set IRI Cache Size...
+        //
+        // The IRI Cache Size (iIRICacheSize) is the number of IRI resolution and construction
+        // results held in memory (see IRICache).  Repeated values (keys, codes) are then resolved
+        // once.  A value of 0 turns the caches off.
+        //
+        obj = prefStore.get("RDFTransform.iriCacheSize");
+        if (obj != null) {
+            try {
+                Util.setIRICacheSize( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
+        //
+        // Set Dedup...
+        //
+        // The Dedup Mode (strDedupMode) sets the duplicate statement filter for stream exports:
+        //   "none"  - (default) only the duplicates within a row or record are dropped
+        //   "bloom" - a Bloom filter drops duplicates over the export.  It may drop a unique statement
+        //             at the False Positive rate (dDedupFalsePositive, default 0.000001).
+        //   "exact" - a bounded set drops recent duplicates over the export.  It never drops a unique
+        //             statement.
+        // The Dedup Memory (iDedupMemory) is the memory ceiling for either filter in MiB (default 64).
+        // With the defaults, the Bloom filter holds about 18.6 million statements before it clears and
+        // the exact set holds about 420 thousand statements.
+        //
+        obj = prefStore.get("RDFTransform.dedupMode");
+        if (obj != null) {
+            Util.setDedupMode( obj.toString() );
+        }
+        obj = prefStore.get("RDFTransform.dedupFalsePositive");
+        if (obj != null) {
+            try {
+                Util.setDedupFalsePositive( Double.parseDouble( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+        obj = prefStore.get("RDFTransform.dedupMemory");
+        if (obj != null) {
+            try {
+                Util.setDedupMemory( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
+        //
+        // Set Blank Node Scope...
+        //
+        // The Blank Node Scope (strBlankNodeScope) sets which cell blank node values name the same
+        // blank node.  The hashed labels are made from the node, the scope key, and the value:
+        //   "label"  - (default) the readable labels "<column>_<row>" and "b<node>r<row>"
+        //   "row"    - the same value in the same row, hashed
+        //   "record" - the same value in the same record, hashed
+        //   "export" - the same value anywhere in the export, hashed
+        //
+        obj = prefStore.get("RDFTransform.blankNodeScope");
+        if (obj != null) {
+            Util.setBlankNodeScope( obj.toString() );
+        }
+
+        //
+        // Set Pipeline...
+        //
+        // The Pipeline Queue (iPipelineQueue) is the number of statement batches queued between the
+        // transform and a serializer thread for a stream export (see PipelineStreamRDF).  The
+        // transform then runs while the format writer serializes.  A value of 0 (default) writes on
+        // the transform thread.  The Pipeline Batch (iPipelineBatch) is the number of statements in
+        // a batch (default 1024).  The export metrics report the queue depth and the stalls: many
+        // producer stalls mean the serializer is the bottleneck, many consumer stalls mean the
+        // transform is.
+        //
+        obj = prefStore.get("RDFTransform.pipelineQueue");
+        if (obj != null) {
+            try {
+                Util.setPipelineQueue( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+        obj = prefStore.get("RDFTransform.pipelineBatch");
+        if (obj != null) {
+            try {
+                Util.setPipelineBatch( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
+        //
+        // Set Compress Threads...
+        //
+        // The Compress Threads (iCompressThreads) is the number of threads compressing the blocks of
+        // a compressed export (e.g., NTRIPLES_GZ).  A value of 0 (default) uses the number of
+        // available processors.
+        //
+        obj = prefStore.get("RDFTransform.compressThreads");
+        if (obj != null) {
+            try {
+                Util.setCompressThreads( Integer.parseInt( obj.toString() ) );
+            }
+            catch (Exception ex) {
+                // No problem: take default and continue...
+            }
+        }
+
         //
         // Set Preview Stream Mode...
         //
@@ -694,12 +1091,84 @@ public class Util {
         return strUTF16;
     }
 
+    static public String replaceAll(String strUTF16, Pattern patternRegEx, String strReplace) {
+        return patternRegEx.matcher(strUTF16).replaceAll(strReplace);
+    }
+
+    static public String replaceFirst(String strUTF16, Pattern patternRegEx, String strReplace) {
+        return patternRegEx.matcher(strUTF16).replaceFirst(strReplace);
+    }
+
+    /*
+     * Method isASCIIWhitespace()
+     *
+     *  For an ASCII character, whether it is in WHITESPACE: the controls (\p{Cc}) and space (\p{Zs}).
+     */
+    static public boolean isASCIIWhitespace(char cTest) {
+        return ( cTest <= ' ' || cTest == '\u007F' );
+    }
+
+    /*
+     * Method removeAllWhitespace()
+     *
+     *  Remove the WHITESPACE characters.  An ASCII string is scanned in a single pass and returned
+     *  as is when it has no whitespace.  Otherwise, the precompiled pattern is used.
+     */
     static public String removeAllWhitespace(String strUTF16) {
-        return Util.replaceAll(strUTF16, "[" + Util.WHITESPACE + "]+", "");
+        int iLength = strUTF16.length();
+        int iFirst = -1;
+        for (int iIndex = 0; iIndex < iLength; iIndex++) {
+            char cTest = strUTF16.charAt(iIndex);
+            if (cTest >= '\u0080') {
+                return Util.replaceAll(strUTF16, Util.patternWhitespaces, "");
+            }
+            if ( iFirst < 0 && Util.isASCIIWhitespace(cTest) ) {
+                iFirst = iIndex;
+            }
+        }
+        if (iFirst < 0) {
+            return strUTF16;
+        }
+        StringBuilder strbuffClean = new StringBuilder(iLength);
+        strbuffClean.append(strUTF16, 0, iFirst);
+        for (int iIndex = iFirst + 1; iIndex < iLength; iIndex++) {
+            char cTest = strUTF16.charAt(iIndex);
+            if ( ! Util.isASCIIWhitespace(cTest) ) {
+                strbuffClean.append(cTest);
+            }
+        }
+        return strbuffClean.toString();
     }
 
+    /*
+     * Method replaceAllWhitespace()
+     *
+     *  Replace each WHITESPACE character with a space.  An ASCII string is scanned in a single pass
+     *  and returned as is when it has no whitespace other than spaces.  Otherwise, the precompiled
+     *  pattern is used.
+     */
     static public String replaceAllWhitespace(String strUTF16) {
-        return Util.replaceAll(strUTF16, "[" + Util.WHITESPACE + "]", " ");
+        int iLength = strUTF16.length();
+        int iFirst = -1;
+        for (int iIndex = 0; iIndex < iLength; iIndex++) {
+            char cTest = strUTF16.charAt(iIndex);
+            if (cTest >= '\u0080') {
+                return Util.replaceAll(strUTF16, Util.patternWhitespace, " ");
+            }
+            if ( iFirst < 0 && cTest != ' ' && Util.isASCIIWhitespace(cTest) ) {
+                iFirst = iIndex;
+            }
+        }
+        if (iFirst < 0) {
+            return strUTF16;
+        }
+        char[] acClean = strUTF16.toCharArray();
+        for (int iIndex = iFirst; iIndex < iLength; iIndex++) {
+            if ( Util.isASCIIWhitespace(acClean[iIndex]) ) {
+                acClean[iIndex] = ' ';
+            }
+        }
+        return new String(acClean);
     }
 
     static public String toSpaceStrippedString(Object obj) {
@@ -0,0 +1,380 @@
+/*
+ *  Class ExportCheckpoint
+ *
+ *  The checkpoint of a background RDF export: where a failed or stopped export resumes.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.history.HistoryEntry;
+import com.google.refine.model.Project;
+import com.google.refine.util.ParsingUtilities;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportCheckpoint
+ *
+ *  A background export (see RDFExportProcess) of a line based format (N-Triples, N-Quads) saves a
+ *  checkpoint next to its export file ("<export file>.checkpoint") as it runs:
+ *    the last completed row or record index and the count of rows or records completed
+ *    the export file's byte offset after that row or record
+ *    the project, its revision (last history entry), the transform hash, the format, the blank
+ *    node scope, and the engine configuration (the filters)
+ *  The visitors report each completed row or record (see RDFVisitor.setCheckpoint()).  A
+ *  checkpoint is saved at most once per interval: the writer and file are flushed and forced to the
+ *  disk, the offset is read from the file channel, and the checkpoint file is synced and replaced
+ *  atomically.  So a checkpoint never claims bytes lost by a host crash.
+ *
+ *  A failed export (full disk, out of memory, restart) resumes from its checkpoint: the export file
+ *  is truncated to the offset and the rows or records up to the index are skipped.  A checkpoint
+ *  only resumes against the same project revision, transform, format, and blank node scope (see
+ *  validate()).  The blank node labels are deterministic (see BlankNodeLabels), so the resumed
+ *  statements are the statements the failed export would have written.  Any duplicate statement
+ *  filter (see DedupStreamRDF) starts empty on resume.
+ *
+ *  The checkpoint is removed when the export completes or is canceled.
+ */
+public class ExportCheckpoint {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:ExportCheckpoint");
+
+    static public final String strEXTENSION = ".checkpoint";
+
+    // The minimum time between saved checkpoints...
+    static public final long iINTERVAL_MILLIS = 30000L;
+
+    private final File fileExport;
+    private final long iProjectID;
+    private final long iRevision;
+    private final String strTransformHash;
+    private final String strFormat;
+    private final String strEngine;
+    private final boolean bRecords;
+    private String strBlankNodeScope = Util.getBlankNodeScope();
+    private int iIndex = -1;
+    private long iCount = 0;
+    private long iBytes = 0;
+    private long iTime = 0;
+
+    // The running export...
+    private OutputStream theOutput = null;
+    private FileChannel theChannel = null;
+    private long iCountBase = 0;
+    private long iNextMillis = 0;
+    private long iIntervalMillis = ExportCheckpoint.iINTERVAL_MILLIS;
+
+    /*
+     * Method create()
+     *
+     *  A new checkpoint for an export of the project's current revision and transform.
+     */
+    static public ExportCheckpoint create(File fileExport, Project theProject, String strFormat, String strEngine) {
+        return new ExportCheckpoint(fileExport, theProject.id,
+            ExportCheckpoint.getRevision(theProject),
+            ExportCheckpoint.getTransformHash( RDFTransform.getRDFTransform(theProject) ),
+            strFormat, strEngine, theProject.recordModel.hasRecords() );
+    }
+
+    /*
+     * Method load()
+     *
+     *  The saved checkpoint of the export file, or null when there is none.
+     */
+    static public ExportCheckpoint load(File fileExport) throws IOException {
+        File fileCheckpoint = ExportCheckpoint.getFile(fileExport);
+        if ( ! fileCheckpoint.exists() ) {
+            return null;
+        }
+        JsonNode jnodeCheckpoint = ParsingUtilities.mapper.readTree(fileCheckpoint);
+        ExportCheckpoint theCheckpoint =
+            new ExportCheckpoint(fileExport,
+                jnodeCheckpoint.path(Util.gstrProject).asLong(),
+                jnodeCheckpoint.path("revision").asLong(),
+                jnodeCheckpoint.path("transform").asText(),
+                jnodeCheckpoint.path("format").asText(),
+                ( jnodeCheckpoint.hasNonNull("engine") ? jnodeCheckpoint.get("engine").asText() : null ),
+                jnodeCheckpoint.path("records").asBoolean() );
+        theCheckpoint.strBlankNodeScope = jnodeCheckpoint.path("blankNodeScope").asText();
+        theCheckpoint.iIndex = jnodeCheckpoint.path("index").asInt(-1);
+        theCheckpoint.iCount = jnodeCheckpoint.path("count").asLong();
+        theCheckpoint.iBytes = jnodeCheckpoint.path("bytes").asLong();
+        theCheckpoint.iTime = jnodeCheckpoint.path("time").asLong();
+        return theCheckpoint;
+    }
+
+    /*
+     * Method getAll()
+     *
+     *  The saved checkpoints in the export directory: the exports that can be resumed.
+     */
+    static public List<ExportCheckpoint> getAll(File dirExports) {
+        List<ExportCheckpoint> listCheckpoints = new ArrayList<ExportCheckpoint>();
+        File[] afileCheckpoints = dirExports.listFiles( (File dir, String strName) -> strName.endsWith(ExportCheckpoint.strEXTENSION) );
+        if (afileCheckpoints == null) {
+            return listCheckpoints;
+        }
+        for (File fileCheckpoint : afileCheckpoints) {
+            String strCheckpoint = fileCheckpoint.getName();
+            File fileExport =
+                new File( dirExports, strCheckpoint.substring(0, strCheckpoint.length() - ExportCheckpoint.strEXTENSION.length()) );
+            try {
+                ExportCheckpoint theCheckpoint = ExportCheckpoint.load(fileExport);
+                if (theCheckpoint != null) {
+                    listCheckpoints.add(theCheckpoint);
+                }
+            }
+            catch (IOException ex) {
+                ExportCheckpoint.logger.warn("WARNING: Bad checkpoint: " + fileCheckpoint.getPath() + " : " + ex.getMessage());
+            }
+        }
+        return listCheckpoints;
+    }
+
+    static public File getFile(File fileExport) {
+        return new File( fileExport.getParentFile(), fileExport.getName() + ExportCheckpoint.strEXTENSION );
+    }
+
+    /*
+     * Method getRevision()
+     *
+     *  The project revision: the ID of the last history entry (0 for none).
+     */
+    static public long getRevision(Project theProject) {
+        List<HistoryEntry> listEntries = theProject.history.getLastPastEntries(1);
+        if ( listEntries == null || listEntries.isEmpty() ) {
+            return 0;
+        }
+        return listEntries.get(0).id;
+    }
+
+    /*
+     * Method getTransformHash()
+     *
+     *  The SHA-256 hash (hex) of the transform's JSON.
+     */
+    static public String getTransformHash(RDFTransform theTransform) {
+        try {
+            StringWriter theStringWriter = new StringWriter();
+            JsonGenerator theWriter = ParsingUtilities.mapper.getFactory().createGenerator(theStringWriter);
+            theTransform.write(theWriter);
+            theWriter.close();
+            MessageDigest theDigest = MessageDigest.getInstance("SHA-256");
+            byte[] abyteHash = theDigest.digest( theStringWriter.toString().getBytes(StandardCharsets.UTF_8) );
+            return String.format( "%064x", new BigInteger(1, abyteHash) );
+        }
+        catch (Exception ex) {
+            throw new RuntimeException("Cannot hash the transform: " + ex.getMessage(), ex);
+        }
+    }
+
+    private ExportCheckpoint(File fileExport, long iProjectID, long iRevision, String strTransformHash,
+                             String strFormat, String strEngine, boolean bRecords) {
+        this.fileExport = fileExport;
+        this.iProjectID = iProjectID;
+        this.iRevision = iRevision;
+        this.strTransformHash = strTransformHash;
+        this.strFormat = strFormat;
+        this.strEngine = strEngine;
+        this.bRecords = bRecords;
+    }
+
+    /*
+     * Method validate()
+     *
+     *  Why the checkpoint cannot resume an export of the project in the format, or null when it can.
+     */
+    public String validate(Project theProject, String strExportFormat) {
+        if (theProject.id != this.iProjectID) {
+            return "The checkpoint is for project " + this.iProjectID;
+        }
+        if ( ! this.strFormat.equals(strExportFormat) ) {
+            return "The checkpoint is for format " + this.strFormat;
+        }
+        if ( ExportCheckpoint.getRevision(theProject) != this.iRevision ) {
+            return "The project changed since the checkpoint";
+        }
+        if ( ! ExportCheckpoint.getTransformHash( RDFTransform.getRDFTransform(theProject) ).equals(this.strTransformHash) ) {
+            return "The transform changed since the checkpoint";
+        }
+        if ( ! Util.getBlankNodeScope().equals(this.strBlankNodeScope) ) {
+            return "The blank node scope is not the checkpoint's " + this.strBlankNodeScope;
+        }
+        if ( theProject.recordModel.hasRecords() != this.bRecords ) {
+            return "The record model changed since the checkpoint";
+        }
+        if ( this.fileExport.length() < this.iBytes ) {
+            return "The export file is shorter than the checkpoint";
+        }
+        return null;
+    }
+
+    public File getExportFile() {
+        return this.fileExport;
+    }
+
+    public long getProjectID() {
+        return this.iProjectID;
+    }
+
+    public String getFormat() {
+        return this.strFormat;
+    }
+
+    public String getEngine() {
+        return this.strEngine;
+    }
+
+    /*
+     * Method getIndex()
+     *
+     *  The last completed row or record index, or -1 when none.
+     */
+    public int getIndex() {
+        return this.iIndex;
+    }
+
+    public long getCount() {
+        return this.iCount;
+    }
+
+    public long getBytes() {
+        return this.iBytes;
+    }
+
+    /*
+     * Method setIntervalMillis()
+     *
+     *  Set the minimum time between saved checkpoints.  Default: iINTERVAL_MILLIS.
+     */
+    public void setIntervalMillis(long iIntervalMillis) {
+        this.iIntervalMillis = Math.max(0, iIntervalMillis);
+    }
+
+    /*
+     * Method open()
+     *
+     *  Start saving checkpoints for the running export writing to the given (buffered) output on
+     *  the file channel.  The completed count continues from the checkpoint's count.
+     */
+    public void open(OutputStream theOutput, FileChannel theChannel) {
+        this.theOutput = theOutput;
+        this.theChannel = theChannel;
+        this.iCountBase = this.iCount;
+        this.iNextMillis = System.currentTimeMillis() + this.iIntervalMillis;
+    }
+
+    /*
+     * Method isDue()
+     *
+     *  Whether a checkpoint should be saved now.
+     */
+    public boolean isDue() {
+        return ( System.currentTimeMillis() >= this.iNextMillis );
+    }
+
+    /*
+     * Method save()
+     *
+     *  Save the checkpoint after the given completed row or record and the count of rows or records
+     *  written by this run (see RDFVisitor.Checkpoint): a parallel export transforms rows ahead of
+     *  those written.  The export writer must be flushed to the output first.
+     */
+    public void save(int iCompletedIndex, long iWritten) throws IOException {
+        this.theOutput.flush();
+        // The written bytes reach the disk before a checkpoint claims them...
+        this.theChannel.force(false);
+        this.iIndex = iCompletedIndex;
+        this.iCount = this.iCountBase + iWritten;
+        this.iBytes = this.theChannel.position();
+        this.iTime = System.currentTimeMillis();
+
+        File fileCheckpoint = ExportCheckpoint.getFile(this.fileExport);
+        File fileTemp = new File( fileCheckpoint.getParentFile(), fileCheckpoint.getName() + ".tmp" );
+        try ( FileOutputStream theTempOutput = new FileOutputStream(fileTemp) ) {
+            theTempOutput.write( ParsingUtilities.mapper.writeValueAsBytes( this.toJSON(ParsingUtilities.mapper) ) );
+            theTempOutput.getFD().sync();
+        }
+        Files.move( fileTemp.toPath(), fileCheckpoint.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        this.iNextMillis = this.iTime + this.iIntervalMillis;
+        if ( Util.isVerbose(3) ) {
+            ExportCheckpoint.logger.info("Checkpoint: " + this.fileExport.getName() + " at index " + this.iIndex +
+                " (" + this.iCount + " done, " + this.iBytes + " bytes)");
+        }
+    }
+
+    /*
+     * Method remove()
+     *
+     *  Remove the saved checkpoint.
+     */
+    public void remove() {
+        File fileCheckpoint = ExportCheckpoint.getFile(this.fileExport);
+        if ( fileCheckpoint.exists() && ! fileCheckpoint.delete() ) {
+            ExportCheckpoint.logger.warn("WARNING: Cannot remove the checkpoint: " + fileCheckpoint.getPath());
+        }
+    }
+
+    public ObjectNode toJSON(ObjectMapper theMapper) {
+        ObjectNode jnodeCheckpoint = theMapper.createObjectNode();
+        jnodeCheckpoint.put("file", this.fileExport.getName());
+        jnodeCheckpoint.put(Util.gstrProject, this.iProjectID);
+        jnodeCheckpoint.put("revision", this.iRevision);
+        jnodeCheckpoint.put("transform", this.strTransformHash);
+        jnodeCheckpoint.put("format", this.strFormat);
+        jnodeCheckpoint.put("engine", this.strEngine);
+        jnodeCheckpoint.put("records", this.bRecords);
+        jnodeCheckpoint.put("blankNodeScope", this.strBlankNodeScope);
+        jnodeCheckpoint.put("index", this.iIndex);
+        jnodeCheckpoint.put("count", this.iCount);
+        jnodeCheckpoint.put("bytes", this.iBytes);
+        jnodeCheckpoint.put("time", this.iTime);
+        return jnodeCheckpoint;
+    }
+
+    static public ArrayNode toJSON(ObjectMapper theMapper, List<ExportCheckpoint> listCheckpoints) {
+        ArrayNode jnodeCheckpoints = theMapper.createArrayNode();
+        for (ExportCheckpoint theCheckpoint : listCheckpoints) {
+            jnodeCheckpoints.add( theCheckpoint.toJSON(theMapper) );
+        }
+        return jnodeCheckpoints;
+    }
+}
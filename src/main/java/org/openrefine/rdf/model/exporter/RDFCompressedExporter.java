@@ -0,0 +1,98 @@
+/*
+ *  Class RDFCompressedExporter
+ *
+ *  A stream exporter compressing its output with a parallel block compressor.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.CompressedOutputStream;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.exporters.StreamExporter;
+import com.google.refine.model.Project;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class RDFCompressedExporter
+ *
+ *  A stream exporter (e.g., RDFLineExporter for NTRIPLES) whose output is compressed as it is
+ *  written: the export writes to a CompressedOutputStream, which compresses blocks on its own
+ *  worker pool, so the export is not slowed by the compression and no second pass is needed.
+ *
+ *  A compressed export is binary, so this exporter is only a StreamExporter: OpenRefine writes
+ *  any WriterExporter as text.  A compressed export is not checkpointed, so it is not run as a
+ *  background export (see RDFExportProcess).
+ */
+public class RDFCompressedExporter extends RDFExporter implements StreamExporter {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFCompExporter");
+
+    private final RDFStreamExporter theExporter;
+    private final CompressedOutputStream.Codec theCodec;
+
+    /*
+     * Constructor RDFCompressedExporter(RDFStreamExporter theExporter, CompressedOutputStream.Codec theCodec)
+     *
+     *  Compress the given exporter's output with the codec.  The exporter should be named for the
+     *  compressed format (e.g., "NTRIPLES_GZ") as its name is reported in the export metrics.
+     */
+    public RDFCompressedExporter(RDFStreamExporter theExporter, CompressedOutputStream.Codec theCodec) {
+        super(theExporter.format, theExporter.getName());
+        this.theExporter = theExporter;
+        this.theCodec = theCodec;
+    }
+
+    public CompressedOutputStream.Codec getCodec() {
+        return this.theCodec;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return this.theExporter.getFileExtension() + "." + this.theCodec.getExtension();
+    }
+
+    @Override
+    public String getContentType() {
+        return this.theCodec.getContentType();
+    }
+
+    public void export(Project theProject, Properties options, Engine theEngine, OutputStream outputStream)
+            throws IOException
+    {
+        if ( Util.isDebugMode() ) RDFCompressedExporter.logger.info("DEBUG: Exporting " + this.strName + " via OutputStream");
+        CompressedOutputStream theCompressed = new CompressedOutputStream(outputStream, this.theCodec);
+        try {
+            this.theExporter.export(theProject, options, theEngine, theCompressed);
+            theCompressed.finish();
+            if ( Util.isVerbose(2) ) {
+                RDFCompressedExporter.logger.info("Compressed " + this.strName + ": " +
+                    theCompressed.getBytesIn() + " bytes to " + theCompressed.getBytesOut() + " bytes");
+            }
+        }
+        finally {
+            // ...stop the workers on a failed export...
+            theCompressed.abort();
+        }
+    }
+}
@@ -0,0 +1,512 @@
+/*
+ *  Class RDFExportProcess
+ *
+ *  A background RDF stream export of a project to a file in the workspace.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.operation.PartStreamRDF;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.RecordVisitor;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.model.Project;
+import com.google.refine.model.Record;
+import com.google.refine.model.Row;
+import com.google.refine.process.LongRunningProcess;
+import com.google.refine.util.ParsingUtilities;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class RDFExportProcess
+ *
+ *  Runs an RDFStreamExporter export as an OpenRefine long running process: the export is queued on
+ *  the project's process manager, runs on its own thread, and shows its percent done in the
+ *  OpenRefine process panel.  The export is written to a file in the RDF Transform working
+ *  directory (see getExportDir()) instead of an HTTP response, so it outlives the request that
+ *  started it.
+ *
+ *  The export's metrics (see ExportMetrics) hold the filtered rows or records to visit, so the
+ *  status reports the percent done, the rates, and the estimated time left.  A cancel, from the
+ *  "cancel-rdf-export" command or the process panel, stops the export at the next row or record
+ *  and removes the partial file.
+ *
+ *  A line based export (N-Triples, N-Quads) saves checkpoints as it runs (see ExportCheckpoint).  A
+ *  failed export keeps its partial file and checkpoint, and a new process given the checkpoint
+ *  resumes it: the file is cut back to the checkpoint's offset and the export continues after the
+ *  checkpoint's row or record.  The checkpoint is removed when the export completes.
+ *
+ *  A line export (see RDFLineExporter) writes its blocks straight to the file's channel.
+ *
+ *  A part export (given a part size in triples or bytes) writes to part files in a directory
+ *  instead of one file (see RDFStreamExporter.exportParts()).  The directory holds the manifest of
+ *  the parts.  A part export is not checkpointed.
+ *
+ *  A tee export (see RDFTeeExporter) writes each of its formats to a file in a directory in one
+ *  pass.  A tee export is not checkpointed.
+ *
+ *  The queued and running processes are kept by ID for the status and cancel commands.  An ended
+ *  (done, failed, or canceled) process is released, as it holds its project and engine: only its
+ *  last status is kept (see getFinished()), and only for the last few ended exports of a project.
+ */
+public class RDFExportProcess extends LongRunningProcess implements Runnable {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:RDFExportProc");
+
+    static public final String strEXPORT_DIR = "exports";
+
+    // The ended exports kept per project...
+    static private final int iFINISHED_PER_PROJECT = 8;
+
+    // The queued and running export processes by process ID...
+    static private final Map<Long, RDFExportProcess> mapProcesses = new ConcurrentHashMap<Long, RDFExportProcess>();
+
+    // The last status of the ended export processes by process ID, oldest first...
+    static private final Map<Long, ObjectNode> mapFinished = new LinkedHashMap<Long, ObjectNode>();
+
+    private final Project theProject;
+    private final Engine theEngine;
+    private final RDFStreamExporter theExporter;
+    private final File fileExport;
+    private final ExportCheckpoint theCheckpoint;
+    private long iPartTriples = 0;
+    private long iPartBytes = 0;
+    private volatile ExportMetrics theMetrics = null;
+    private volatile String strError = null;
+
+    /*
+     * Method getExportDir()
+     *
+     *  The directory holding the export files in the RDF Transform working directory.
+     */
+    static public File getExportDir() {
+        File dirExports = new File( RDFTransform.getGlobalContext().getWorkingDir(), RDFExportProcess.strEXPORT_DIR );
+        dirExports.mkdirs();
+        return dirExports;
+    }
+
+    /*
+     * Method get()
+     *
+     *  The queued or running export process by process ID, or null when none.
+     */
+    static public RDFExportProcess get(long iProcessID) {
+        return RDFExportProcess.mapProcesses.get(iProcessID);
+    }
+
+    static public List<RDFExportProcess> getAll() {
+        return new ArrayList<RDFExportProcess>( RDFExportProcess.mapProcesses.values() );
+    }
+
+    /*
+     * Method getFinished()
+     *
+     *  The last status (see toJSON()) of the ended export process by process ID, or null when none.
+     */
+    static public ObjectNode getFinished(long iProcessID) {
+        synchronized (RDFExportProcess.mapFinished) {
+            return RDFExportProcess.mapFinished.get(iProcessID);
+        }
+    }
+
+    static public List<ObjectNode> getAllFinished() {
+        synchronized (RDFExportProcess.mapFinished) {
+            return new ArrayList<ObjectNode>( RDFExportProcess.mapFinished.values() );
+        }
+    }
+
+    public RDFExportProcess(Project theProject, Engine theEngine, RDFStreamExporter theExporter, File fileExport) {
+        this(theProject, theEngine, theExporter, fileExport, null);
+    }
+
+    /*
+     * Constructor RDFExportProcess(..., ExportCheckpoint theCheckpoint)
+     *
+     *  An export saving checkpoints to the given checkpoint.  A checkpoint holding an index (see
+     *  ExportCheckpoint.load()) resumes the export.
+     */
+    public RDFExportProcess(Project theProject, Engine theEngine, RDFStreamExporter theExporter, File fileExport,
+                            ExportCheckpoint theCheckpoint) {
+        super("RDF Transform: " +
+            ( theCheckpoint != null && theCheckpoint.getIndex() >= 0 ? "resume" : "export" ) + " " +
+            theExporter.getName() + " to " + fileExport.getName());
+        this.theProject = theProject;
+        this.theEngine = theEngine;
+        this.theExporter = theExporter;
+        this.fileExport = fileExport;
+        this.theCheckpoint = theCheckpoint;
+        RDFExportProcess.mapProcesses.put(this.getId(), this);
+    }
+
+    /*
+     * Method setParts()
+     *
+     *  Export to part files in the export "file", a directory, with a new part every given triples
+     *  or bytes (0 for no limit).
+     */
+    public void setParts(long iPartTriples, long iPartBytes) {
+        this.iPartTriples = Math.max(0, iPartTriples);
+        this.iPartBytes = Math.max(0, iPartBytes);
+    }
+
+    @JsonIgnore
+    public boolean isParts() {
+        return ( this.iPartTriples > 0 || this.iPartBytes > 0 );
+    }
+
+    @JsonIgnore
+    public Project getProject() {
+        return this.theProject;
+    }
+
+    @JsonIgnore
+    public File getFile() {
+        return this.fileExport;
+    }
+
+    @Override
+    protected Runnable getRunnable() {
+        return this;
+    }
+
+    @Override
+    public void cancel() {
+        ExportMetrics theExportMetrics = this.theMetrics;
+        if (theExportMetrics != null) {
+            theExportMetrics.cancel();
+        }
+        super.cancel();
+        // A pending export never runs: take it off the project's queue and end it now.  A pending
+        // process has no manager yet (see LongRunningProcess.startPerforming())...
+        if ( this.getStatus().equals("pending") ) {
+            this.theProject.getProcessManager().onDoneProcess(this);
+            this.finish();
+        }
+    }
+
+    @JsonIgnore
+    public boolean isCanceled() {
+        return this._canceled;
+    }
+
+    @Override
+    public void run() {
+        if (this._canceled) { // ...canceled while pending: nothing to export...
+            this.finish();
+            this._manager.onDoneProcess(this);
+            return;
+        }
+        if ( Util.isVerbose(2) ) RDFExportProcess.logger.info("Starting " + this._description + "...");
+        boolean bRecords = this.theProject.recordModel.hasRecords();
+        this.theMetrics = ExportMetrics.start( this.theProject.id, this.theExporter.getName() );
+        this.theMetrics.setTotal( this.countFiltered(bRecords), bRecords );
+        if (this._canceled) { // ...canceled while counting...
+            this.theMetrics.cancel();
+        }
+
+        final ExportMetrics theExportMetrics = this.theMetrics;
+        final RDFExportProcess theProcess = this;
+        if ( this.isParts() || this.theExporter instanceof RDFTeeExporter ) {
+            this.runDirectory();
+            return;
+        }
+        // A fresh export starts an empty file.  A resumed export cuts the file back to the checkpoint...
+        long iOffset = ( this.theCheckpoint == null ? 0 : this.theCheckpoint.getBytes() );
+        try ( FileChannel theChannel =
+                FileChannel.open( this.fileExport.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE );
+              OutputStream theOutput =
+                new BufferedOutputStream(
+                    new ProxyOutputStream( Channels.newOutputStream( theChannel.truncate(iOffset).position(iOffset) ) ) {
+                        @Override
+                        protected void afterWrite(int iCount) {
+                            // Keep the process panel progress current...
+                            theProcess._progress = Math.max( 0, theExportMetrics.getPercent() );
+                        }
+                    }
+                ) )
+        {
+            if (this.theCheckpoint != null) {
+                this.theCheckpoint.open(theOutput, theChannel);
+            }
+            if (this.theExporter instanceof RDFLineExporter) {
+                // The line exporter writes whole blocks: straight to the channel...
+                ( (RDFLineExporter) this.theExporter ).export(this.theProject, new Properties(), this.theEngine,
+                    this.getProgressChannel(theChannel), this.theMetrics, this.theCheckpoint);
+            }
+            else if (this.theCheckpoint == null) {
+                this.theExporter.export(this.theProject, new Properties(), this.theEngine, theOutput, this.theMetrics);
+            }
+            else {
+                this.theExporter.export(this.theProject, new Properties(), this.theEngine, theOutput, this.theMetrics,
+                    this.theCheckpoint);
+            }
+        }
+        catch (Exception ex) {
+            if ( ! this._canceled ) {
+                this.strError = ex.getMessage();
+                RDFExportProcess.logger.error("ERROR: " + this._description + ": " + ex.getMessage(), ex);
+                if (this.theCheckpoint != null && this.theCheckpoint.getIndex() >= 0) {
+                    RDFExportProcess.logger.info("The export can resume from its checkpoint at index " +
+                        this.theCheckpoint.getIndex());
+                }
+                if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
+                this.finish();
+                this._manager.onFailedProcess(this, ex);
+                return;
+            }
+        }
+
+        if (this._canceled) {
+            if ( this.fileExport.exists() && ! this.fileExport.delete() ) {
+                RDFExportProcess.logger.warn("WARNING: Cannot remove the canceled export: " + this.fileExport.getPath());
+            }
+            if (this.theCheckpoint != null) {
+                this.theCheckpoint.remove();
+            }
+            if ( Util.isVerbose(2) ) RDFExportProcess.logger.info("...canceled " + this._description);
+        }
+        else {
+            this._progress = 100;
+            if (this.theCheckpoint != null) {
+                this.theCheckpoint.remove();
+            }
+        }
+        this.finish();
+        this._manager.onDoneProcess(this);
+        if ( Util.isVerbose(2) ) RDFExportProcess.logger.info("...ended " + this._description);
+    }
+
+    /*
+     * Method runDirectory()
+     *
+     *  Run a part or tee export to the export directory.  A canceled export removes the directory.
+     */
+    private void runDirectory() {
+        final ExportMetrics theExportMetrics = this.theMetrics;
+        final RDFExportProcess theProcess = this;
+        Runnable theProgress = () -> theProcess._progress = Math.max( 0, theExportMetrics.getPercent() );
+        try {
+            if (this.theExporter instanceof RDFTeeExporter) {
+                ( (RDFTeeExporter) this.theExporter ).export(this.theProject, new Properties(), this.theEngine,
+                    this.fileExport, this.theMetrics, theProgress);
+            }
+            else {
+                this.theExporter.exportParts(this.theProject, new Properties(), this.theEngine, this.fileExport,
+                    this.iPartTriples, this.iPartBytes, this.theMetrics, theProgress);
+            }
+        }
+        catch (Exception ex) {
+            if ( ! this._canceled ) {
+                this.strError = ex.getMessage();
+                RDFExportProcess.logger.error("ERROR: " + this._description + ": " + ex.getMessage(), ex);
+                if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
+                this.finish();
+                this._manager.onFailedProcess(this, ex);
+                return;
+            }
+        }
+
+        if (this._canceled) {
+            try {
+                FileUtils.deleteDirectory(this.fileExport);
+            }
+            catch (IOException ex) {
+                RDFExportProcess.logger.warn("WARNING: Cannot remove the canceled export: " + this.fileExport.getPath());
+            }
+            if ( Util.isVerbose(2) ) RDFExportProcess.logger.info("...canceled " + this._description);
+        }
+        else {
+            this._progress = 100;
+        }
+        this.finish();
+        this._manager.onDoneProcess(this);
+        if ( Util.isVerbose(2) ) RDFExportProcess.logger.info("...ended " + this._description);
+    }
+
+    /*
+     * Method finish()
+     *
+     *  Release the ended export: its last status is kept (see getFinished()) and the process is
+     *  removed.  The oldest ended exports of the project beyond the last few are dropped.
+     */
+    private void finish() {
+        ObjectNode jnodeStatus = this.toJSON(ParsingUtilities.mapper);
+        jnodeStatus.put("status", "done"); // ...the process thread is ending
+        jnodeStatus.put(Util.gstrProject, this.theProject.id);
+        synchronized (RDFExportProcess.mapFinished) {
+            RDFExportProcess.mapFinished.put(this.getId(), jnodeStatus);
+            int iExcess = -RDFExportProcess.iFINISHED_PER_PROJECT;
+            for ( ObjectNode jnodeFinished : RDFExportProcess.mapFinished.values() ) {
+                if ( jnodeFinished.path(Util.gstrProject).asLong() == this.theProject.id ) {
+                    iExcess++;
+                }
+            }
+            Iterator<ObjectNode> iterFinished = RDFExportProcess.mapFinished.values().iterator();
+            while ( iExcess > 0 && iterFinished.hasNext() ) {
+                if ( iterFinished.next().path(Util.gstrProject).asLong() == this.theProject.id ) {
+                    iterFinished.remove();
+                    iExcess--;
+                }
+            }
+        }
+        // ...removed after its status is kept, so the status commands always find it...
+        RDFExportProcess.mapProcesses.remove( this.getId() );
+    }
+
+    /*
+     * Method getProgressChannel()
+     *
+     *  The export channel keeping the process panel progress current as blocks are written.  The
+     *  export file's channel is closed by the process.
+     */
+    private WritableByteChannel getProgressChannel(final FileChannel theChannel) {
+        final ExportMetrics theExportMetrics = this.theMetrics;
+        final RDFExportProcess theProcess = this;
+        return new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer theBuffer) throws IOException {
+                int iCount = theChannel.write(theBuffer);
+                theProcess._progress = Math.max( 0, theExportMetrics.getPercent() );
+                return iCount;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return theChannel.isOpen();
+            }
+
+            @Override
+            public void close() {
+                // Closed by the process...
+            }
+        };
+    }
+
+    /*
+     * Method countFiltered()
+     *
+     *  Count the filtered records or rows the export visits: those after the checkpoint's index
+     *  when resumed.
+     */
+    private long countFiltered(boolean bRecords) {
+        final long[] aiCount = { 0 };
+        final int iResumeIndex = ( this.theCheckpoint == null ? -1 : this.theCheckpoint.getIndex() );
+        if (bRecords) {
+            this.theEngine.getFilteredRecords().accept(this.theProject,
+                new RecordVisitor() {
+                    public void start(Project theProject) {}
+                    public boolean visit(Project theProject, Record theRecord) {
+                        if (theRecord.recordIndex > iResumeIndex) {
+                            aiCount[0]++;
+                        }
+                        return false;
+                    }
+                    public void end(Project theProject) {}
+                }
+            );
+        }
+        else {
+            this.theEngine.getAllFilteredRows().accept(this.theProject,
+                new RowVisitor() {
+                    public void start(Project theProject) {}
+                    public boolean visit(Project theProject, int iRowIndex, Row theRow) {
+                        if (iRowIndex > iResumeIndex) {
+                            aiCount[0]++;
+                        }
+                        return false;
+                    }
+                    public void end(Project theProject) {}
+                }
+            );
+        }
+        return aiCount[0];
+    }
+
+    /*
+     * Method toJSON()
+     *
+     *  The process status ("pending", "running", "done"), the export file, and, once started, the
+     *  export metrics: the state, the percent done, the rates, and the estimated time left.  A
+     *  checkpointed export holds its last checkpoint.  A part export holds its part sizes and manifest.
+     */
+    public ObjectNode toJSON(ObjectMapper theMapper) {
+        ObjectNode jnodeProcess = theMapper.createObjectNode();
+        jnodeProcess.put("id", this.getId());
+        jnodeProcess.put("description", this._description);
+        jnodeProcess.put("status", this.getStatus());
+        jnodeProcess.put("canceled", this._canceled);
+        jnodeProcess.put("file", this.fileExport.getPath());
+        if (this.strError != null) {
+            jnodeProcess.put("error", this.strError);
+        }
+        if ( this.isParts() ) {
+            jnodeProcess.put("partTriples", this.iPartTriples);
+            jnodeProcess.put("partBytes", this.iPartBytes);
+            jnodeProcess.put("manifest", new File(this.fileExport, PartStreamRDF.strMANIFEST).getPath());
+        }
+        if (this.theCheckpoint != null) {
+            jnodeProcess.set( "checkpoint", this.theCheckpoint.toJSON(theMapper) );
+        }
+        ExportMetrics theExportMetrics = this.theMetrics;
+        if (theExportMetrics == null) {
+            jnodeProcess.put(Util.gstrProject, this.theProject.id);
+            jnodeProcess.put("format", this.theExporter.getName());
+        }
+        else {
+            jnodeProcess.setAll( theExportMetrics.toJSON(theMapper) );
+        }
+        return jnodeProcess;
+    }
+
+    static public ArrayNode toJSON(ObjectMapper theMapper, List<RDFExportProcess> listProcesses) {
+        ArrayNode jnodeProcesses = theMapper.createArrayNode();
+        for (RDFExportProcess theProcess : listProcesses) {
+            jnodeProcesses.add( theProcess.toJSON(theMapper) );
+        }
+        return jnodeProcesses;
+    }
+}
@@ -20,6 +20,8 @@
 
 package org.openrefine.rdf.model.exporter;
 
+import java.util.List;
+
 import com.google.refine.exporters.Exporter;
 
 import org.openrefine.rdf.model.Util;
@@ -41,6 +43,24 @@ public class RDFExporter implements Exporter  {
         if ( Util.isDebugMode() ) RDFExporter.logger.info("DEBUG: Preparing exporter " + strName + "...");
     }
 
+    public String getName() {
+        return this.strName;
+    }
+
+    /*
+     * Method getFileExtension()
+     *
+     *  The preferred file extension (without the dot) for the export format.
+     */
+    public String getFileExtension() {
+        RDFFormat theFormat = ( this.format == null ? RDFFormat.TURTLE_PRETTY : this.format );
+        List<String> listExtensions = theFormat.getLang().getFileExtensions();
+        if ( listExtensions == null || listExtensions.isEmpty() ) {
+            return "rdf";
+        }
+        return listExtensions.get(0);
+    }
+
     public String getContentType() {
         if (this.format != null) {
             return this.format.getLang().getContentType().getContentTypeStr();
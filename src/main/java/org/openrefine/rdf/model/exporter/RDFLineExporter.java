@@ -0,0 +1,108 @@
+/*
+ *  Class RDFLineExporter
+ *
+ *  A stream exporter for the line based formats (N-Triples, N-Quads) writing blocks of encoded
+ *  lines.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Properties;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.operation.LineStreamRDF;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.model.Project;
+
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class RDFLineExporter
+ *
+ *  A stream exporter for N-Triples and N-Quads writing with a LineStreamRDF: the statements are
+ *  encoded to UTF-8 bytes in a reused block and written in whole blocks, the same bytes as the Jena
+ *  line writers.  A Writer output (the export command) is written by the block's decoder instead of
+ *  a character stream adapter, and a background export (see RDFExportProcess) writes the blocks to
+ *  its FileChannel.
+ *
+ *  The line writer counts its own bytes in the export metrics and is flushed at each checkpoint.
+ */
+public class RDFLineExporter extends RDFStreamExporter {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFLineExporter");
+
+    public RDFLineExporter(RDFFormat format, String strName) {
+        super(format, strName);
+    }
+
+    @Override
+    public void export(Project theProject, Properties options, Engine theEngine, final Writer theWriter)
+            throws IOException
+    {
+        if ( Util.isDebugMode() ) RDFLineExporter.logger.info("DEBUG: Exporting " + this.strName + " via Writer");
+        ExportMetrics theMetrics = ExportMetrics.start(theProject.id, this.strName);
+        LineStreamRDF theLines = new LineStreamRDF(theWriter);
+        theLines.setMetrics(theMetrics);
+        this.exportStream(theProject, options, theEngine, theLines, theLines, theMetrics, null);
+    }
+
+    /*
+     * Method export(..., WritableByteChannel theChannel, ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+     *
+     *  Export straight to the channel.  The checkpoint, when given, is saved as for an OutputStream.
+     */
+    public void export(Project theProject, Properties options, Engine theEngine, WritableByteChannel theChannel,
+                       ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+            throws IOException
+    {
+        if ( Util.isDebugMode() ) RDFLineExporter.logger.info("DEBUG: Exporting " + this.strName + " via Channel");
+        LineStreamRDF theLines = new LineStreamRDF(theChannel);
+        theLines.setMetrics(theMetrics);
+        this.exportStream(theProject, options, theEngine, theLines, theLines, theMetrics, theCheckpoint);
+    }
+
+    @Override
+    protected void exportStream(Project theProject, Properties options, Engine theEngine, OutputStream outputStream,
+                                ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+            throws IOException
+    {
+        LineStreamRDF theLines = new LineStreamRDF(outputStream);
+        theLines.setMetrics(theMetrics);
+        this.exportStream(theProject, options, theEngine, theLines, theLines, theMetrics, theCheckpoint);
+    }
+
+    @Override
+    protected StreamRDF getWriterStream(OutputStream outputStream) {
+        // The caller counts the bytes...
+        return new LineStreamRDF(outputStream);
+    }
+
+    @Override
+    protected StreamRDF getPartWriterStream(OutputStream outputStream) {
+        // The part's stream counts the bytes...
+        return new LineStreamRDF(outputStream);
+    }
+}
@@ -32,13 +32,13 @@ import org.openrefine.rdf.model.Util;
 import org.openrefine.rdf.model.operation.ExportRDFRecordVisitor;
 import org.openrefine.rdf.model.operation.ExportRDFRowVisitor;
 import org.openrefine.rdf.model.operation.RDFVisitor;
+import org.openrefine.rdf.model.utils.ExportMetrics;
 
 import com.google.refine.browsing.Engine;
 import com.google.refine.exporters.WriterExporter;
 import com.google.refine.model.Project;
 
 import org.apache.commons.io.output.WriterOutputStream;
-import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
 
 import org.slf4j.Logger;
@@ -50,12 +50,13 @@ import org.slf4j.LoggerFactory;
  *  An exporter used to transform OpenRefine project data to RDF *in the prettiest format possible*
  *  meaning the data is condensed and formatted for readability.  This requires that the entire graph
  *  is accessible by the print process to organize repeated resources and literals and, therefore,
- *  cannot process discreet data chunks--i.e., it does not scale.  Furthermore, the entire graph must
- *  currently fit in the available memory as the graph used to dump the project data is a memory
- *  graph.
+ *  cannot process discreet data chunks--i.e., it does not scale.
  *
- *  Use with relatively small graphs (compared to available memory) as the process could result in a
- *  critical failure.
+ *  The graph is held in memory until it exceeds the Pretty Spill Limit (see Util.getPrettySpillLimit()).
+ *  Then, it is moved to a temporary TDB2 dataset on disk and the graph is written from the dataset.
+ *  The spilled export is slower, but is limited by disk instead of memory.  With the limit set to 0,
+ *  the entire graph must fit in the available memory and large graphs could result in a critical
+ *  failure.
  */
 public class RDFPrettyExporter extends RDFExporter implements WriterExporter {
     private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFPrettyExporter");
@@ -86,11 +87,12 @@ public class RDFPrettyExporter extends RDFExporter implements WriterExporter {
              throws IOException
     {
         RDFTransform theTransform = RDFTransform.getRDFTransform(theProject);
+        RDFVisitor theVisitor = null;
+        ExportMetrics theMetrics = ExportMetrics.start(theProject.id, this.strName);
         try {
             if ( Util.isDebugMode() ) RDFPrettyExporter.logger.info("DEBUG:   Starting RDF Export...");
 
             // Process all records/rows of data for statements...
-            RDFVisitor theVisitor = null;
             if ( theProject.recordModel.hasRecords() ) {
                 if ( Util.isDebugMode() ) RDFPrettyExporter.logger.info("DEBUG:     Process by Record Visitor...");
                 theVisitor = new ExportRDFRecordVisitor(theTransform, null);
@@ -99,15 +101,24 @@ public class RDFPrettyExporter extends RDFExporter implements WriterExporter {
                 if ( Util.isDebugMode() ) RDFPrettyExporter.logger.info("DEBUG:     Process by Row Visitor...");
                 theVisitor = new ExportRDFRowVisitor(theTransform, null);
             }
+            theVisitor.setSpillLimit( Util.getPrettySpillLimit() );
+            theVisitor.setMetrics(theMetrics);
             theVisitor.buildModel(theProject, theEngine);
 
-            RDFDataMgr.write(this.outputStream, theVisitor.getModel(), this.format) ;
+            theVisitor.writeModel( theMetrics.count(this.outputStream), this.format );
+            theMetrics.end(true);
             if ( Util.isDebugMode() ) RDFPrettyExporter.logger.info("DEBUG:   ...Ended RDF Export " + this.strName);
         }
         catch (Exception ex) {
+            theMetrics.end(false);
             if ( Util.isDebugMode() ) RDFPrettyExporter.logger.error("DEBUG: Error exporting " + this.strName, ex);
             if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
             throw new IOException(ex.getMessage(), ex);
         }
+        finally {
+            if (theVisitor != null) {
+                theVisitor.closeModel();
+            }
+        }
     }
 }
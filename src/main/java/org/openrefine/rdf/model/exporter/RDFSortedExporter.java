@@ -0,0 +1,88 @@
+/*
+ *  Class RDFSortedExporter
+ *
+ *  A Subject Sorted Stream RDF Exporter.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.OutputStream;
+
+import org.openrefine.rdf.model.operation.PartStreamRDF;
+import org.openrefine.rdf.model.operation.SortedStreamRDF;
+
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+
+/*
+ * Class RDFSortedExporter
+ *
+ *  A stream exporter that sorts the statements by subject before writing them with a block writer
+ *  (e.g., TURTLE_BLOCKS).  A block writer only groups adjacent statements, so a subject repeated over
+ *  rows or records is otherwise written as several blocks.  The sort is an external merge sort (see
+ *  SortedStreamRDF), so the memory used does not depend on the project size.  Duplicate statements
+ *  are dropped over the whole export.
+ *
+ *  The statements are written after the last row or record is transformed.  Since the statements
+ *  are sorted, a parallel export is never ordered.
+ */
+public class RDFSortedExporter extends RDFStreamExporter {
+
+    public RDFSortedExporter(RDFFormat format, String strName) {
+        super(format, strName);
+    }
+
+    @Override
+    protected StreamRDF getWriterStream(OutputStream outputStream) {
+        StreamRDF theWriter = StreamRDFWriter.getWriterStream(outputStream, this.format);
+        if (theWriter == null) {
+            return null;
+        }
+        return new SortedStreamRDF(theWriter);
+    }
+
+    @Override
+    protected StreamRDF getPartsStream(PartStreamRDF theParts) {
+        // Sort the whole export, then split the sorted statements...
+        return new SortedStreamRDF(theParts);
+    }
+
+    @Override
+    protected StreamRDF getDedupStream(StreamRDF theWriter) {
+        // The sort already drops all duplicates...
+        return theWriter;
+    }
+
+    @Override
+    protected void closeWriterStream(StreamRDF theWriter) {
+        if (theWriter instanceof SortedStreamRDF) {
+            ( (SortedStreamRDF) theWriter ).close();
+        }
+    }
+
+    @Override
+    protected boolean isOrdered() {
+        return false;
+    }
+
+    @Override
+    public boolean isCheckpointable() {
+        // The statements are written after the last row or record...
+        return false;
+    }
+}
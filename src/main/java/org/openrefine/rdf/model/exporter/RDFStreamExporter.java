@@ -20,6 +20,8 @@
 
 package org.openrefine.rdf.model.exporter;
 
+import java.io.File;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
@@ -28,9 +30,15 @@ import java.util.Properties;
 
 import org.openrefine.rdf.RDFTransform;
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.operation.DedupStreamRDF;
+import org.openrefine.rdf.model.operation.ExportRDFParallelVisitor;
 import org.openrefine.rdf.model.operation.ExportRDFRecordVisitor;
 import org.openrefine.rdf.model.operation.ExportRDFRowVisitor;
+import org.openrefine.rdf.model.operation.LabeledBlocksStreamRDF;
+import org.openrefine.rdf.model.operation.PartStreamRDF;
+import org.openrefine.rdf.model.operation.PipelineStreamRDF;
 import org.openrefine.rdf.model.operation.RDFVisitor;
+import org.openrefine.rdf.model.utils.ExportMetrics;
 
 import com.google.refine.browsing.Engine;
 import com.google.refine.exporters.StreamExporter;
@@ -39,9 +47,14 @@ import com.google.refine.model.Project;
 
 import org.apache.commons.io.output.WriterOutputStream;
 
+import org.apache.jena.atlas.io.AWriter;
+import org.apache.jena.atlas.io.IO;
+import org.apache.jena.atlas.lib.CharSpace;
+import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.riot.writer.WriterStreamRDFPlain;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,12 +66,13 @@ import org.slf4j.LoggerFactory;
  *  are processed and dumped to persistent storage sequentially until complete.  Therefore, only discreet
  *  memory and processing are perform no matter how large the project data.  Additionally, the memory can
  *  be optimized for a predetermined size to minimize the number of memory to persistent storage writes.
+ *
+ *  When the pipeline preference is set (see PipelineStreamRDF), the statements are serialized on a
+ *  separate thread so the transform and the writer overlap.
  */
 public class RDFStreamExporter extends RDFExporter implements WriterExporter, StreamExporter {
     private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFStreamExporter");
 
-    private OutputStream outputStream = null;
-
     public RDFStreamExporter(RDFFormat format, String strName) {
         super(format, strName);
     }
@@ -66,8 +80,67 @@ public class RDFStreamExporter extends RDFExporter implements WriterExporter, St
     public void export(Project theProject, Properties options, Engine theEngine, OutputStream outputStream)
             throws IOException {
         if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG: Exporting " + this.strName + " via OutputStream");
-        this.outputStream = outputStream;
-        this.export(theProject, options, theEngine);
+        this.exportStream( theProject, options, theEngine, outputStream, ExportMetrics.start(theProject.id, this.strName), null );
+    }
+
+    /*
+     * Method export(..., ExportMetrics theMetrics)
+     *
+     *  Export with the metrics started by the caller.  A background export (see RDFExportProcess)
+     *  sets the total on the metrics to report its progress and cancels the export through them.
+     *  A canceled export ends with an IOException.
+     */
+    public void export(Project theProject, Properties options, Engine theEngine, OutputStream outputStream,
+                       ExportMetrics theMetrics)
+            throws IOException {
+        if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG: Exporting " + this.strName + " via OutputStream with metrics");
+        this.exportStream(theProject, options, theEngine, outputStream, theMetrics, null);
+    }
+
+    /*
+     * Method export(..., ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+     *
+     *  Export with checkpoints (see ExportCheckpoint): the checkpoint is saved as the rows or records
+     *  are written and, when it holds an index, the export resumes after that index.  Only the line
+     *  based formats (N-Triples, N-Quads) can be checkpointed: a line ends at each statement, so the
+     *  output can be cut and continued after any row or record.  A parallel export is ordered.
+     */
+    public void export(Project theProject, Properties options, Engine theEngine, OutputStream outputStream,
+                       ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+            throws IOException {
+        if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG: Exporting " + this.strName + " via OutputStream with checkpoints");
+        if ( ! this.isCheckpointable() ) {
+            theMetrics.end(false);
+            throw new IOException("The " + this.strName + " export cannot be checkpointed.");
+        }
+        this.exportStream(theProject, options, theEngine, outputStream, theMetrics, theCheckpoint);
+    }
+
+    /*
+     * Method exportParts(..., File dirParts, long iPartTriples, long iPartBytes, ...)
+     *
+     *  Export to part files in the directory (see PartStreamRDF): a new part is started every given
+     *  triples or bytes (0 for no limit) and a manifest lists the parts.  A parallel export writes
+     *  its parts concurrently.  The progress, when given, runs after each write to a part.  A part
+     *  export is not checkpointed.
+     */
+    public void exportParts(Project theProject, Properties options, Engine theEngine, File dirParts,
+                            long iPartTriples, long iPartBytes, ExportMetrics theMetrics, Runnable theProgress)
+            throws IOException {
+        if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG: Exporting " + this.strName + " to parts");
+        int iThreads = Util.getExportThreads();
+        PartStreamRDF theParts =
+            new PartStreamRDF( dirParts, this.getFileExtension(), this.strName, this::getPartWriterStream,
+                iPartTriples, iPartBytes, ! this.isLineBased(), ( iThreads > 1 ? iThreads : 1 ) );
+        theParts.setMetrics(theMetrics);
+        theParts.setProgress(theProgress);
+        try {
+            this.exportStream( theProject, options, theEngine, this.getPartsStream(theParts), null, theMetrics, null );
+        }
+        finally {
+            // ...stop the lanes on a failed export...
+            theParts.close();
+        }
     }
 
     @Override
@@ -75,46 +148,197 @@ public class RDFStreamExporter extends RDFExporter implements WriterExporter, St
              throws IOException
     {
         if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG: Exporting " + this.strName + " via Writer");
-        this.outputStream = WriterOutputStream.builder().setWriter(theWriter).setCharset("UTF-8").get();
-        this.export(theProject, options, theEngine);
+        // NOTE: The exporter is shared by all exports, so the stream is not held by the exporter.
+        OutputStream outputStream = WriterOutputStream.builder().setWriter(theWriter).setCharset("UTF-8").get();
+        this.exportStream( theProject, options, theEngine, outputStream, ExportMetrics.start(theProject.id, this.strName), null );
     }
 
-    private void export(Project theProject, Properties options, Engine theEngine)
+    /*
+     * Method exportStream(..., OutputStream outputStream, ...)
+     *
+     *  Export to the stream with the format's writer.  A checkpointed export writes with a plain line
+     *  writer that is flushed at each checkpoint.
+     */
+    protected void exportStream(Project theProject, Properties options, Engine theEngine, OutputStream outputStream,
+                                ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
             throws IOException
     {
         StreamRDF theWriter = null;
-        theWriter = StreamRDFWriter.getWriterStream(this.outputStream, this.format);
+        Flushable theFlusher = null;
+        if (theCheckpoint == null) {
+            theWriter = this.getWriterStream( theMetrics.count(outputStream) );
+        }
+        else {
+            // A line writer held here to flush it at each checkpoint...
+            AWriter theLineWriter = IO.wrapUTF8( theMetrics.count(outputStream) );
+            theWriter = new WriterStreamRDFPlain(theLineWriter, CharSpace.UTF8);
+            theFlusher = theLineWriter::flush;
+        }
+        this.exportStream(theProject, options, theEngine, theWriter, theFlusher, theMetrics, theCheckpoint);
+    }
+
+    /*
+     * Method exportStream(..., StreamRDF theWriter, Flushable theFlusher, ...)
+     *
+     *  Export to the writer.  A checkpointed export flushes the writer by the flusher before each
+     *  checkpoint is saved.
+     */
+    protected void exportStream(Project theProject, Properties options, Engine theEngine, StreamRDF theWriter,
+                                Flushable theFlusher, ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+            throws IOException
+    {
         if (theWriter == null) {
             String strMsg = "ERROR: The writer is invalid! Cannot construct export.";
             RDFStreamExporter.logger.error(strMsg);
+            theMetrics.end(false);
             throw new IOException(strMsg);
         }
         if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:   Acquired writer: StreamRDFWriter.");
+        StreamRDF theDedup = this.getDedupStream(theWriter);
+        // A pipelined export serializes on its own thread...
+        StreamRDF theOutput = PipelineStreamRDF.create(theDedup);
+        final PipelineStreamRDF thePipeline =
+            ( theOutput instanceof PipelineStreamRDF ? (PipelineStreamRDF) theOutput : null );
 
         RDFTransform theTransform = RDFTransform.getRDFTransform(theProject);
         try {
             if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:   Starting RDF Export...");
-            theWriter.start();
+            theOutput.start();
 
             // Process all records/rows of data for statements...
             RDFVisitor theVisitor = null;
-            if ( theProject.recordModel.hasRecords() ) {
+            int iThreads = Util.getExportThreads();
+            if (iThreads > 1) {
+                if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:     Process by Parallel Visitor...");
+                theVisitor =
+                    new ExportRDFParallelVisitor(theTransform, theOutput,
+                        theProject.recordModel.hasRecords(), iThreads,
+                        this.isOrdered() || theCheckpoint != null );
+            }
+            else if ( theProject.recordModel.hasRecords() ) {
                 if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:     Process by Record Visitor...");
-                theVisitor = new ExportRDFRecordVisitor(theTransform, theWriter);
+                theVisitor = new ExportRDFRecordVisitor(theTransform, theOutput);
             }
             else {
                 if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:     Process by Row Visitor...");
-                theVisitor = new ExportRDFRowVisitor(theTransform, theWriter);
+                theVisitor = new ExportRDFRowVisitor(theTransform, theOutput);
+            }
+            theVisitor.setMetrics(theMetrics);
+            if (theCheckpoint != null) {
+                theVisitor.setCheckpoint(
+                    (int iIndex, long iWritten) -> {
+                        if ( theCheckpoint.isDue() ) {
+                            if (thePipeline != null) {
+                                thePipeline.drain();
+                            }
+                            theFlusher.flush();
+                            theCheckpoint.save(iIndex, iWritten);
+                        }
+                    }
+                );
+                theVisitor.setResumeIndex( theCheckpoint.getIndex() );
             }
             theVisitor.buildModel(theProject, theEngine);
+            if ( theMetrics.isCanceled() ) {
+                throw new IOException("The export was canceled.");
+            }
 
-            theWriter.finish();
+            theOutput.finish();
+            if (theDedup instanceof DedupStreamRDF) {
+                theMetrics.setDropped( ( (DedupStreamRDF) theDedup ).getDroppedCount() );
+            }
+            if (thePipeline != null) {
+                thePipeline.setMetrics(theMetrics);
+            }
+            theMetrics.end(true);
             if ( Util.isDebugMode() ) RDFStreamExporter.logger.info("DEBUG:   ...Ended RDF Export " + this.strName);
         }
         catch (Exception ex) {
+            theMetrics.end(false);
             if ( Util.isDebugMode() ) RDFStreamExporter.logger.error("DEBUG: Error exporting " + this.strName, ex);
             if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
             throw new IOException(ex.getMessage(), ex);
         }
+        finally {
+            if (thePipeline != null) {
+                thePipeline.close();
+            }
+            this.closeWriterStream(theWriter);
+        }
+    }
+
+    /*
+     * Method getWriterStream(OutputStream outputStream)
+     *
+     *  The writer for the export format.  Subclasses may wrap or replace the writer.
+     */
+    protected StreamRDF getWriterStream(OutputStream outputStream) {
+        return StreamRDFWriter.getWriterStream(outputStream, this.format);
+    }
+
+    /*
+     * Method getPartWriterStream(OutputStream outputStream)
+     *
+     *  The writer for a part file of a part export (see exportParts()).  A block writer keeps the
+     *  blank node labels so the parts use the same labels (see LabeledBlocksStreamRDF).
+     */
+    protected StreamRDF getPartWriterStream(OutputStream outputStream) {
+        if ( this.format.equals(RDFFormat.TURTLE_BLOCKS) || this.format.equals(RDFFormat.TRIG_BLOCKS) ) {
+            return new LabeledBlocksStreamRDF(outputStream);
+        }
+        return StreamRDFWriter.getWriterStream(outputStream, this.format);
+    }
+
+    /*
+     * Method getPartsStream(PartStreamRDF theParts)
+     *
+     *  The writer for a part export given its parts.  Subclasses may wrap the parts.
+     */
+    protected StreamRDF getPartsStream(PartStreamRDF theParts) {
+        return theParts;
+    }
+
+    /*
+     * Method getDedupStream(StreamRDF theWriter)
+     *
+     *  The writer behind the duplicate statement filter set by the dedup preferences (see
+     *  DedupStreamRDF), or the writer itself when the filter is off.
+     */
+    protected StreamRDF getDedupStream(StreamRDF theWriter) {
+        return DedupStreamRDF.create(theWriter);
+    }
+
+    /*
+     * Method closeWriterStream(StreamRDF theWriter)
+     *
+     *  Release any resources held by the writer after the export, complete or not.
+     */
+    protected void closeWriterStream(StreamRDF theWriter) {
+        // Nothing to release for the Jena writers...
+    }
+
+    /*
+     * Method isOrdered()
+     *
+     *  Whether a parallel export must write the statements in row / record order.  Line based
+     *  formats may be written in any order.
+     */
+    protected boolean isOrdered() {
+        return ! this.isLineBased();
+    }
+
+    /*
+     * Method isCheckpointable()
+     *
+     *  Whether the export can be checkpointed and resumed (see ExportCheckpoint): the statements
+     *  must be written as the rows or records are visited, one per line.
+     */
+    public boolean isCheckpointable() {
+        return this.isLineBased();
+    }
+
+    protected boolean isLineBased() {
+        Lang theLang = this.format.getLang();
+        return ( theLang.equals(Lang.NTRIPLES) || theLang.equals(Lang.NQUADS) );
     }
 }
@@ -0,0 +1,211 @@
+/*
+ *  Class RDFTeeExporter
+ *
+ *  A stream exporter writing several formats from one transform of the project.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.exporter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.operation.TeeStreamRDF;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.model.Project;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import org.apache.jena.riot.system.StreamRDF;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class RDFTeeExporter
+ *
+ *  Exports several stream formats (e.g., TURTLE_BLOCKS, NTRIPLES, and RDF_THRIFT) in one pass: the
+ *  project is transformed once and the statements are copied to each format's writer (see
+ *  TeeStreamRDF), each serialized on its own thread.  Each format keeps its own writer, duplicate
+ *  filter, and cleanup, so each output holds what its own export would.  A parallel export is
+ *  ordered when any format needs it.
+ *
+ *  A tee export writes several outputs, so it is run as a background export (see RDFExportProcess)
+ *  to a directory holding one file per format.  It is not checkpointed.  The tee exporter is made
+ *  for each export: it is not registered.
+ */
+public class RDFTeeExporter extends RDFStreamExporter {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFTeeExporter");
+
+    private final List<RDFStreamExporter> listExporters;
+
+    /*
+     * Constructor RDFTeeExporter(List<RDFStreamExporter> listExporters)
+     *
+     *  Export each of the given exporters' formats.  The tee is named for the formats (e.g.,
+     *  "TURTLE_BLOCKS+NTRIPLES") as its name is reported in the export metrics.
+     */
+    public RDFTeeExporter(List<RDFStreamExporter> listExporters) {
+        super( listExporters.get(0).format,
+            listExporters.stream().map(RDFStreamExporter::getName).collect( Collectors.joining("+") ) );
+        this.listExporters = new ArrayList<RDFStreamExporter>(listExporters);
+    }
+
+    public List<RDFStreamExporter> getExporters() {
+        return this.listExporters;
+    }
+
+    /*
+     * Method getFileName()
+     *
+     *  The file name of the given format's output in a tee export directory (e.g., "NTRIPLES.nt").
+     */
+    static public String getFileName(RDFStreamExporter theExporter) {
+        return theExporter.getName() + "." + theExporter.getFileExtension();
+    }
+
+    /*
+     * Method export(..., File dirExport, ExportMetrics theMetrics, Runnable theProgress)
+     *
+     *  Export each format to its file in the directory (see getFileName()).  The formats must have
+     *  distinct file names.  The progress, when given, runs after each write to a file.
+     */
+    public void export(Project theProject, Properties options, Engine theEngine, File dirExport,
+                       ExportMetrics theMetrics, Runnable theProgress)
+            throws IOException
+    {
+        Set<String> setFileNames = new HashSet<String>();
+        for (RDFStreamExporter theExporter : this.listExporters) {
+            if ( ! setFileNames.add( RDFTeeExporter.getFileName(theExporter) ) ) {
+                theMetrics.end(false);
+                throw new IOException("Repeated export file: " + RDFTeeExporter.getFileName(theExporter));
+            }
+        }
+        if ( ! dirExport.isDirectory() && ! dirExport.mkdirs() ) {
+            theMetrics.end(false);
+            throw new IOException("Cannot create the export directory: " + dirExport.getPath());
+        }
+        List<OutputStream> listOutputs = new ArrayList<OutputStream>();
+        try {
+            for (RDFStreamExporter theExporter : this.listExporters) {
+                OutputStream theOutput =
+                    new BufferedOutputStream(
+                        new FileOutputStream( new File( dirExport, RDFTeeExporter.getFileName(theExporter) ) ), 65536 );
+                if (theProgress != null) {
+                    theOutput =
+                        new ProxyOutputStream(theOutput) {
+                            @Override
+                            protected void afterWrite(int iCount) {
+                                theProgress.run();
+                            }
+                        };
+                }
+                listOutputs.add(theOutput);
+            }
+            this.export(theProject, options, theEngine, listOutputs, theMetrics);
+        }
+        finally {
+            for (OutputStream theOutput : listOutputs) {
+                try {
+                    theOutput.close();
+                }
+                catch (IOException ex) {
+                    RDFTeeExporter.logger.warn("WARNING: Cannot close an export file in " + dirExport.getPath());
+                }
+            }
+        }
+    }
+
+    /*
+     * Method export(..., List<OutputStream> listOutputs, ExportMetrics theMetrics)
+     *
+     *  Export each format to its output: the outputs are in the order of the exporters.
+     */
+    public void export(Project theProject, Properties options, Engine theEngine, List<OutputStream> listOutputs,
+                       ExportMetrics theMetrics)
+            throws IOException
+    {
+        if ( Util.isDebugMode() ) RDFTeeExporter.logger.info("DEBUG: Exporting " + this.strName + " via OutputStreams");
+        List<StreamRDF> listWriters = new ArrayList<StreamRDF>();
+        List<StreamRDF> listFiltered = new ArrayList<StreamRDF>();
+        TeeStreamRDF theTee = null;
+        try {
+            for (int iIndex = 0; iIndex < this.listExporters.size(); iIndex++) {
+                RDFStreamExporter theExporter = this.listExporters.get(iIndex);
+                StreamRDF theWriter = theExporter.getWriterStream( theMetrics.count( listOutputs.get(iIndex) ) );
+                if (theWriter == null) {
+                    theMetrics.end(false);
+                    throw new IOException("The " + theExporter.getName() + " writer is invalid! Cannot construct export.");
+                }
+                listWriters.add(theWriter);
+                listFiltered.add( theExporter.getDedupStream(theWriter) );
+            }
+            theTee = new TeeStreamRDF(listFiltered);
+            this.exportStream(theProject, options, theEngine, theTee, null, theMetrics, null);
+        }
+        finally {
+            // ...stop the serializers on a failed export...
+            if (theTee != null) {
+                theTee.close();
+            }
+            for (int iIndex = 0; iIndex < listWriters.size(); iIndex++) {
+                this.listExporters.get(iIndex).closeWriterStream( listWriters.get(iIndex) );
+            }
+        }
+    }
+
+    @Override
+    protected void exportStream(Project theProject, Properties options, Engine theEngine, OutputStream outputStream,
+                                ExportMetrics theMetrics, ExportCheckpoint theCheckpoint)
+            throws IOException
+    {
+        theMetrics.end(false);
+        throw new IOException("The " + this.strName + " export writes several outputs.");
+    }
+
+    @Override
+    protected StreamRDF getDedupStream(StreamRDF theWriter) {
+        // Each format filters its own output...
+        return theWriter;
+    }
+
+    @Override
+    protected boolean isOrdered() {
+        for (RDFStreamExporter theExporter : this.listExporters) {
+            if ( theExporter.isOrdered() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isCheckpointable() {
+        return false;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *  Class ExpressionCache
+ *
+ *  The RDF Transform Expression Cache used to reuse parsed GREL expressions
+ *  and expression bindings.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.expr;
+
+import java.util.Properties;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.LRUCache;
+
+import com.google.refine.expr.Evaluable;
+import com.google.refine.expr.ExpressionUtils;
+import com.google.refine.expr.MetaParser;
+import com.google.refine.expr.ParsingException;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExpressionCache
+ *
+ *   An export evaluates the same few transform expressions for every row or record.  Parsing an
+ *   expression and creating its bindings for each evaluation dominates the cost of simple
+ *   expressions such as "value".
+ *
+ *   Parsed expressions (Evaluables) are held in a bounded LRU cache shared by all threads.  A GREL
+ *   Evaluable is immutable.  Other languages (e.g., Jython) may keep mutable interpreter state, so
+ *   their Evaluables must not be evaluated on several threads at once (see isGREL() and
+ *   TransformPlan.isThreadSafe()).
+ *
+ *   Bindings are mutable, so each thread holds its own bindings for the project it is processing.
+ *   The bindings are created once and rebound per row.  A visitation should call resetBindings()
+ *   when complete to release the project held by the thread.
+ */
+public class ExpressionCache {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:ExpCache");
+
+    static private final int iEvaluableCapacity = 1024;
+
+    static private final LRUCache<String, Evaluable> theEvaluables =
+        new LRUCache<String, Evaluable>(ExpressionCache.iEvaluableCapacity);
+
+    static private final class ProjectBindings {
+        private final Project theProject;
+        private final Properties theBindings;
+
+        private ProjectBindings(Project theProject) {
+            this.theProject = theProject;
+            this.theBindings = ExpressionUtils.createBindings(theProject);
+        }
+    }
+
+    static private final ThreadLocal<ProjectBindings> theThreadBindings = new ThreadLocal<ProjectBindings>();
+
+    /*
+     * Method getEvaluable()
+     *
+     *  Get the parsed expression from the cache.  Parse and cache the expression when missing.
+     */
+    static public Evaluable getEvaluable(String strExpression)
+            throws ParsingException {
+        Evaluable eval = ExpressionCache.theEvaluables.get(strExpression);
+        if (eval == null) {
+            eval = MetaParser.parse(strExpression);
+            ExpressionCache.theEvaluables.put(strExpression, eval);
+        }
+        return eval;
+    }
+
+    /*
+     * Method isGREL()
+     *
+     *  Whether the expression is GREL: no language prefix, the "grel" or "gel" prefix, or an
+     *  unregistered prefix (parsed as GREL), as MetaParser.parse().
+     */
+    static public boolean isGREL(String strExpression) {
+        int iColon = strExpression.indexOf(':');
+        if (iColon < 0) {
+            return true;
+        }
+        String strLanguage = strExpression.substring(0, iColon).toLowerCase();
+        return ( strLanguage.equals("grel") || strLanguage.equals("gel") ||
+                 MetaParser.getLanguageInfo(strLanguage) == null );
+    }
+
+    /*
+     * Method getBindings()
+     *
+     *  Get the current thread's bindings for the given project.  The bindings are created when the
+     *  thread has no bindings or holds the bindings for another project.
+     */
+    static public Properties getBindings(Project theProject) {
+        ProjectBindings theProjBindings = ExpressionCache.theThreadBindings.get();
+        if (theProjBindings == null || theProjBindings.theProject != theProject) {
+            theProjBindings = new ProjectBindings(theProject);
+            ExpressionCache.theThreadBindings.set(theProjBindings);
+        }
+        return theProjBindings.theBindings;
+    }
+
+    /*
+     * Method bind()
+     *
+     *  Bind the row, row index, column, and cell to reused bindings.  ExpressionUtils.bind() only sets
+     *  the column name when given, so a prior column name is removed to prevent a stale binding.
+     */
+    static public void bind(Properties theBindings, Row theRow, int iRowIndex, String strColumnName, Cell theCell) {
+        if (strColumnName == null) {
+            theBindings.remove("columnName");
+        }
+        ExpressionUtils.bind(theBindings, theRow, iRowIndex, strColumnName, theCell);
+    }
+
+    /*
+     * Method resetBindings()
+     *
+     *  Release the current thread's bindings.
+     */
+    static public void resetBindings() {
+        ExpressionCache.theThreadBindings.remove();
+    }
+
+    static public LRUCache<String, Evaluable> getEvaluableCache() {
+        return ExpressionCache.theEvaluables;
+    }
+
+    static public void logStatistics() {
+        if ( Util.isDebugMode() ) {
+            ExpressionCache.logger.info("DEBUG: Expression Cache: " + ExpressionCache.theEvaluables.getStatistics());
+        }
+    }
+}
@@ -51,21 +51,20 @@ import org.slf4j.LoggerFactory;
 public class RDFTransformBinder implements Binder {
     private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFBinder");
 
-    private Project theProject;
-    private String strLastBoundBaseIRI;
     //private final String strBindError = "Unable to bind baseIRI.";
 
     public RDFTransformBinder() {
         super();
-        this.strLastBoundBaseIRI = null;
     }
 
+    // NOTE: A single binder is registered for all expression bindings.  Bindings may be created and
+    //      bound on concurrent threads (see ExportRDFParallelVisitor), so the binder holds no state.
+    //      The project and the last bound baseIRI are kept in the given bindings.
+
     @Override
     public void initializeBindings(Properties theBindings, Project theProject) {
-        this.theProject = theProject;
         if ( Util.isVerbose(3) ) RDFTransformBinder.logger.info("Bind baseIRI...");
-        this.strLastBoundBaseIRI = RDFTransform.getRDFTransform(this.theProject).getBaseIRIAsString();
-        theBindings.put("baseIRI", this.strLastBoundBaseIRI);
+        theBindings.put("baseIRI", RDFTransform.getRDFTransform(theProject).getBaseIRIAsString() );
     }
 
     @Override
@@ -76,13 +75,22 @@ public class RDFTransformBinder implements Binder {
         // The baseIRI is already added by the initializeBindings() above.
         // The put() call replaces it.
 
+        Project theProject = (Project) theBindings.get("project");
+        if (theProject == null) {
+            return;
+        }
         // Get the current baseIRI...
-        String strCurrentBaseIRI = RDFTransform.getRDFTransform(this.theProject).getBaseIRIAsString();
+        //      NOTE: Read the existing transform without the project lock taken by getRDFTransform()
+        //          as bind() is called for every evaluated cell.
+        RDFTransform theTransform = (RDFTransform) theProject.overlayModels.get(RDFTransform.EXTENSION);
+        if (theTransform == null) {
+            theTransform = RDFTransform.getRDFTransform(theProject);
+        }
+        String strCurrentBaseIRI = theTransform.getBaseIRIAsString();
         // If the current baseIRI is new...
-        if ( ! this.strLastBoundBaseIRI.equals(strCurrentBaseIRI) ) {
+        if ( ! strCurrentBaseIRI.equals( theBindings.get("baseIRI") ) ) {
             // Replace the bound baseIRI...
             theBindings.put("baseIRI", strCurrentBaseIRI);
-            strLastBoundBaseIRI = strCurrentBaseIRI;
         }
     }
 }
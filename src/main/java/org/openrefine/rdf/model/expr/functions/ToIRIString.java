@@ -56,17 +56,25 @@ public class ToIRIString implements Function {
         return ToIRIString.toIRIString(strConvert);
     }
 
-    static public String toIRIString(String strConvert) {
-        String strUnderscore = "_";
+    // Precompiled conversion patterns...
+    static private final String strUnderscore = "_";
+    static private final Pattern patternUnallowed =
+        Pattern.compile("[" + Util.WHITESPACE + Pattern.quote("<>\"{}|\\^`") + "]+");
+    static private final Pattern patternUnderscores = Pattern.compile("__+");
+    static private final Pattern patternUnsupported =
+        Pattern.compile("[^-\\p{N}\\p{L}_\\.~:/\\?#\\[\\]@\\%!\\$&'\\(\\)\\*\\+,;=]+");
+    static private final Pattern patternLeadingSlashes = Pattern.compile("^(:?/+)+");
+    static private final Pattern patternSubDelims = Pattern.compile("[!\\$&'\\(\\)\\*\\+,;=]+");
+    static private final Pattern patternGenDelims = Pattern.compile("[\\?#\\[\\]@]+");
+    static private final Pattern patternSlashes = Pattern.compile("/+");
+    static private final Pattern patternColons = Pattern.compile(":+");
+    static private final Pattern patternReserved = Pattern.compile("[^-\\p{N}\\p{L}_\\.~]+");
 
+    static public String toIRIString(String strConvert) {
         // As basic cleaning:
         // 1. always replace whitespace and unallowed characters with underscores
         // 2. condense underscores
-        strConvert =
-            Util.replaceAll(strConvert,
-                    "[" + Util.WHITESPACE + Pattern.quote("<>\"{}|\\^`") + "]+",
-                    strUnderscore)
-            .replaceAll("__+", strUnderscore);
+        strConvert = ToIRIString.cleanBasic(strConvert);
 
         int iTry = 0;
         do {
@@ -85,48 +93,88 @@ public class ToIRIString implements Function {
                 case 0:
                     // Replace any unsupported characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert,
-                            "[^-\\p{N}\\p{L}_\\.~:/\\?#\\[\\]@\\%!\\$&'\\(\\)\\*\\+,;=]+",
-                            strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternUnsupported, ToIRIString.strUnderscore);
                     break;
                 case 1:
                     // Replace (multiple) leading ":/+" or "/+" with underscores...
-                    strConvert = Util.replaceFirst(strConvert, "^(:?/+)+", strUnderscore);
+                    strConvert =
+                        Util.replaceFirst(strConvert, ToIRIString.patternLeadingSlashes, ToIRIString.strUnderscore);
                     break;
                 case 2:
                     // Replace sub-delim characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert, "[!\\$&'\\(\\)\\*\\+,;=]+", strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternSubDelims, ToIRIString.strUnderscore);
                     break;
                 case 3:
                     // Replace gen-delim (but not ":" and "/") characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert, "[\\?#\\[\\]@]+", strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternGenDelims, ToIRIString.strUnderscore);
                     break;
                 case 4:
                     // Replace "/" characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert, "/+", strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternSlashes, ToIRIString.strUnderscore);
                     break;
                 case 5:
                     // Replace ":" characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert, ":+", strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternColons, ToIRIString.strUnderscore);
                     break;
                 default: //...should not occur but here for completeness...
                     // Replace all but Unreserved characters with underscores...
                     strConvert =
-                        Util.replaceAll(strConvert, "[^-\\p{N}\\p{L}_\\.~]+", strUnderscore);
+                        Util.replaceAll(strConvert, ToIRIString.patternReserved, ToIRIString.strUnderscore);
                     break;
             }
             // Condense underscores...
-            strConvert = strConvert.replaceAll("__+", strUnderscore);
+            strConvert = Util.replaceAll(strConvert, ToIRIString.patternUnderscores, ToIRIString.strUnderscore);
             ++iTry;
         } while (true);
 
         return strConvert;
     }
 
+    /*
+     * Method cleanBasic()
+     *
+     *  Replace each run of whitespace, unallowed characters, and underscores with one underscore.
+     *  An ASCII string is scanned in a single pass.  Otherwise, the precompiled patterns are used.
+     */
+    static private String cleanBasic(String strConvert) {
+        int iLength = strConvert.length();
+        StringBuilder strbuffClean = null;
+        boolean bUnderscore = false; // ...last output is an underscore
+        for (int iIndex = 0; iIndex < iLength; iIndex++) {
+            char cTest = strConvert.charAt(iIndex);
+            if (cTest >= '\u0080') {
+                return Util.replaceAll(
+                    Util.replaceAll(strConvert, ToIRIString.patternUnallowed, ToIRIString.strUnderscore),
+                    ToIRIString.patternUnderscores, ToIRIString.strUnderscore );
+            }
+            boolean bReplace = ( Util.isASCIIWhitespace(cTest) || "<>\"{}|\\^`".indexOf(cTest) >= 0 );
+            if ( bReplace || cTest == '_' ) {
+                if (bUnderscore) { // ...condense...
+                    if (strbuffClean == null) {
+                        strbuffClean = new StringBuilder(iLength).append(strConvert, 0, iIndex);
+                    }
+                    continue;
+                }
+                if (bReplace && strbuffClean == null) {
+                    strbuffClean = new StringBuilder(iLength).append(strConvert, 0, iIndex);
+                }
+                cTest = '_';
+                bUnderscore = true;
+            }
+            else {
+                bUnderscore = false;
+            }
+            if (strbuffClean != null) {
+                strbuffClean.append(cTest);
+            }
+        }
+        return ( strbuffClean == null ? strConvert : strbuffClean.toString() );
+    }
+
     @Override
     public String getDescription() {
             return "toIRIString() is intended to prepare a string for use as or within an IRI.\n" +
@@ -0,0 +1,283 @@
+/*
+ *  Class DedupStreamRDF
+ *
+ *  A StreamRDF that drops duplicate triples over a whole export with bounded memory.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class DedupStreamRDF
+ *
+ *  The visitors only drop duplicates within a row or record (see VisitStreamRDF).  This stream sits
+ *  between the visitor and the writer and drops duplicates across rows and records in one of two
+ *  modes (see Util.getDedupMode()):
+ *    bloom: A Bloom filter of 64-bit triple hashes using the memory ceiling.  A false positive drops
+ *           a triple that was not written before, so the false positive rate is kept at or under the
+ *           given budget: the filter is cleared when it holds the number of triples the budget
+ *           allows for its size.  A duplicate of a triple passed before a clear is written again.
+ *    exact: A hash set of the triples bounded by the memory ceiling.  When full, the least recently
+ *           seen triple is removed.  No unique triple is ever dropped, but a duplicate of a removed
+ *           triple is written again.
+ *  Either mode may pass some duplicates, so the output is a (smaller) stream, not a set.
+ */
+public class DedupStreamRDF extends StreamRDFWrapper {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:DedupStreamRDF");
+
+    static public final String strMODE_NONE  = "none";
+    static public final String strMODE_BLOOM = "bloom";
+    static public final String strMODE_EXACT = "exact";
+
+    // The estimated bytes held per triple in exact mode: the set entry and the triple (the nodes are
+    // mostly shared with the transform)...
+    static private final int iEXACT_ENTRY_BYTES = 160;
+    // The most hash functions used by the Bloom filter...
+    static private final int iMAX_HASHES = 16;
+
+    /*
+     * Interface Filter
+     *
+     *  Returns true when the triple may be new and must be written.
+     */
+    private interface Filter {
+        boolean add(Triple theTriple);
+        String getStatistics();
+    }
+
+    private final Filter theFilter;
+    private long iPassed = 0;
+    private long iDropped = 0;
+
+    /*
+     * Method create()
+     *
+     *  Wrap the given writer by the dedup preferences.  Returns the writer itself when the mode is
+     *  "none".
+     */
+    static public StreamRDF create(StreamRDF theWriter) {
+        String strMode = Util.getDedupMode();
+        long iMemory = (long) Util.getDedupMemory() * 1024L * 1024L;
+        if ( strMode.equals(DedupStreamRDF.strMODE_BLOOM) ) {
+            return new DedupStreamRDF( theWriter, new BloomFilter( iMemory, Util.getDedupFalsePositive() ) );
+        }
+        if ( strMode.equals(DedupStreamRDF.strMODE_EXACT) ) {
+            return new DedupStreamRDF( theWriter, new ExactFilter(iMemory) );
+        }
+        return theWriter;
+    }
+
+    private DedupStreamRDF(StreamRDF theWriter, Filter theFilter) {
+        super(theWriter);
+        this.theFilter = theFilter;
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        if ( this.theFilter.add(theTriple) ) {
+            this.iPassed++;
+            super.triple(theTriple);
+        }
+        else {
+            this.iDropped++;
+        }
+    }
+
+    @Override
+    public void finish() {
+        if ( Util.isVerbose(2) || Util.isDebugMode() ) {
+            DedupStreamRDF.logger.info("Dedup: Written: " + this.iPassed + "  Dropped: " + this.iDropped +
+                "  " + this.theFilter.getStatistics());
+        }
+        super.finish();
+    }
+
+    public long getPassedCount() {
+        return this.iPassed;
+    }
+
+    public long getDroppedCount() {
+        return this.iDropped;
+    }
+
+    /*
+     * Class BloomFilter
+     *
+     *  For m bits and a false positive budget p, the filter uses k = -ln(p) / ln(2) hashes and holds
+     *  n = m * ln(2)^2 / -ln(p) triples at the budget.  The k bit indexes come from one 64-bit hash
+     *  by double hashing: h1 + i * h2.
+     */
+    static private class BloomFilter implements Filter {
+        private final long[] aiBits;
+        private final long iBits;
+        private final int iHashes;
+        private final long iCapacity;
+        private long iCount = 0;
+        private int iClears = 0;
+
+        BloomFilter(long iMemory, double dFalsePositive) {
+            long iWords = Math.max( 1L, Math.min( iMemory / 8L, (long) Integer.MAX_VALUE - 8L ) );
+            this.aiBits = new long[(int) iWords];
+            this.iBits = iWords * 64L;
+            double dLn2 = Math.log(2.0);
+            double dLnP = -Math.log(dFalsePositive);
+            this.iHashes = (int) Math.max( 1L, Math.min( DedupStreamRDF.iMAX_HASHES, Math.round(dLnP / dLn2) ) );
+            this.iCapacity = Math.max( 1L, (long) ( this.iBits * dLn2 * dLn2 / dLnP ) );
+            if ( Util.isDebugMode() ) {
+                DedupStreamRDF.logger.info("DEBUG: Bloom: Bits: " + this.iBits + "  Hashes: " + this.iHashes +
+                    "  Capacity: " + this.iCapacity);
+            }
+        }
+
+        public boolean add(Triple theTriple) {
+            long iHash = DedupStreamRDF.hash(theTriple);
+            long iHash2 = DedupStreamRDF.mix(iHash ^ 0x9E3779B97F4A7C15L) | 1L;
+
+            // Test the bits...
+            boolean bPresent = true;
+            for (int iIndex = 0; iIndex < this.iHashes; iIndex++) {
+                long iBit = Math.floorMod(iHash + iIndex * iHash2, this.iBits);
+                if ( ( this.aiBits[(int) (iBit >>> 6)] & (1L << iBit) ) == 0 ) {
+                    bPresent = false;
+                    break;
+                }
+            }
+            if (bPresent) {
+                return false;
+            }
+
+            // Keep the false positive rate within the budget...
+            if (this.iCount >= this.iCapacity) {
+                Arrays.fill(this.aiBits, 0L);
+                this.iCount = 0;
+                this.iClears++;
+                if ( Util.isDebugMode() ) DedupStreamRDF.logger.info("DEBUG: Bloom: Cleared at capacity " + this.iCapacity);
+            }
+
+            // Set the bits...
+            for (int iIndex = 0; iIndex < this.iHashes; iIndex++) {
+                long iBit = Math.floorMod(iHash + iIndex * iHash2, this.iBits);
+                this.aiBits[(int) (iBit >>> 6)] |= (1L << iBit);
+            }
+            this.iCount++;
+            return true;
+        }
+
+        public String getStatistics() {
+            return "Bloom: [Bits: " + this.iBits + ", Hashes: " + this.iHashes + ", Capacity: " + this.iCapacity +
+                ", Clears: " + this.iClears + "]";
+        }
+    }
+
+    /*
+     * Class ExactFilter
+     *
+     *  A least recently seen ordered set of the triples.
+     */
+    static private class ExactFilter implements Filter {
+        private final int iMaxEntries;
+        private final Map<Triple, Boolean> mapTriples;
+        private long iRemoved = 0;
+
+        ExactFilter(long iMemory) {
+            this.iMaxEntries =
+                (int) Math.max( 1L, Math.min( iMemory / DedupStreamRDF.iEXACT_ENTRY_BYTES, (long) Integer.MAX_VALUE ) );
+            this.mapTriples =
+                new LinkedHashMap<Triple, Boolean>(1024, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Triple, Boolean> theEldest) {
+                        if ( this.size() > ExactFilter.this.iMaxEntries ) {
+                            ExactFilter.this.iRemoved++;
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+        }
+
+        public boolean add(Triple theTriple) {
+            return ( this.mapTriples.put(theTriple, Boolean.TRUE) == null );
+        }
+
+        public String getStatistics() {
+            return "Exact: [Max Entries: " + this.iMaxEntries + ", Removed: " + this.iRemoved + "]";
+        }
+    }
+
+    /*
+     * Method hash()
+     *
+     *  A 64-bit hash of the triple's node terms (FNV-1a, finished by a 64-bit mix).  The 32-bit
+     *  Triple.hashCode() collides too often for large exports.
+     */
+    static private long hash(Triple theTriple) {
+        long iHash = 0xCBF29CE484222325L;
+        iHash = DedupStreamRDF.hash( iHash, theTriple.getSubject() );
+        iHash = DedupStreamRDF.hash( iHash, theTriple.getPredicate() );
+        iHash = DedupStreamRDF.hash( iHash, theTriple.getObject() );
+        return DedupStreamRDF.mix(iHash);
+    }
+
+    static private long hash(long iHash, Node theNode) {
+        if ( theNode.isURI() ) {
+            return DedupStreamRDF.hash( iHash, '<', theNode.getURI() );
+        }
+        if ( theNode.isLiteral() ) {
+            iHash = DedupStreamRDF.hash( iHash, '"', theNode.getLiteralLexicalForm() );
+            iHash = DedupStreamRDF.hash( iHash, '^', theNode.getLiteralDatatypeURI() );
+            return DedupStreamRDF.hash( iHash, '@', theNode.getLiteralLanguage() );
+        }
+        if ( theNode.isBlank() ) {
+            return DedupStreamRDF.hash( iHash, '_', theNode.getBlankNodeLabel() );
+        }
+        return DedupStreamRDF.hash( iHash, '?', theNode.toString() );
+    }
+
+    static private long hash(long iHash, char cKind, String strTerm) {
+        // The kind marks the start of each term, so adjacent terms cannot run together...
+        iHash = (iHash ^ cKind) * 0x100000001B3L;
+        if (strTerm != null) {
+            int iLength = strTerm.length();
+            for (int iIndex = 0; iIndex < iLength; iIndex++) {
+                iHash = (iHash ^ strTerm.charAt(iIndex)) * 0x100000001B3L;
+            }
+        }
+        return iHash;
+    }
+
+    static private long mix(long iHash) {
+        iHash ^= (iHash >>> 33);
+        iHash *= 0xFF51AFD7ED558CCDL;
+        iHash ^= (iHash >>> 33);
+        iHash *= 0xC4CEB9FE1A85EC53L;
+        iHash ^= (iHash >>> 33);
+        return iHash;
+    }
+}
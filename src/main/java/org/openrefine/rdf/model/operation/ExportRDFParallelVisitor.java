@@ -0,0 +1,441 @@
+/*
+ *  Class ExportRDFParallelVisitor
+ *
+ *  An RDF Export Visitor that transforms the selected rows or records on a pool of threads.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.plan.PlanContext;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
+
+import com.google.refine.browsing.Engine;
+import com.google.refine.browsing.RecordVisitor;
+import com.google.refine.browsing.RowVisitor;
+import com.google.refine.model.Project;
+import com.google.refine.model.Record;
+import com.google.refine.model.Row;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportRDFParallelVisitor
+ *
+ *  The selected (filtered) rows or records are counted to size the chunks, then visited again and
+ *  cut into chunks as they are visited: a chunk holds its indexes as ranges, not the rows.  Each
+ *  chunk is transformed by a worker thread on its own PlanContext and stream.  The statements
+ *  of a chunk are buffered and written to the StreamRDF writer on the calling thread.
+ *
+ *  When ordered, the chunks are written in row / record order, so the output is the same as the
+ *  ExportRDFRowVisitor or ExportRDFRecordVisitor output.  Otherwise, the chunks are written as they
+ *  complete, which is allowed for line based formats (N-Triples, N-Quads).
+ *
+ *  The number of chunks in flight is bounded to limit the buffered statements: a full window holds
+ *  back the visit until its next chunk is written (see ChunkQueue).  A failed chunk stops the
+ *  workers and fails buildModel(), so a partial export is never taken for a complete one.
+ *
+ *  The workers share the parsed expressions (see ExpressionCache).  A plan with a non-GREL
+ *  expression (see TransformPlan.isThreadSafe()) runs its chunks on one worker, so its expressions
+ *  are evaluated serially.
+ *
+ *  When ordered, the checkpoint (see RDFVisitor.setCheckpoint()) is told the last row or record
+ *  index of each chunk once the chunk is written.  The rows or records written before a resume
+ *  checkpoint are skipped.
+ */
+public class ExportRDFParallelVisitor extends RDFVisitor {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:ExportRDFParV");
+
+    // The chunks in flight per thread...
+    static private final int iCHUNKS_PER_THREAD = 2;
+    // The target number of chunks per thread over the whole index space...
+    static private final int iSPLITS_PER_THREAD = 8;
+    // The maximum rows or records in a chunk...
+    static private final int iMAX_CHUNK_SIZE = 4096;
+
+    private final boolean bRecords;
+    private final int iThreads;
+    private final boolean bOrdered;
+
+    public ExportRDFParallelVisitor(RDFTransform theTransform, StreamRDF theWriter,
+                                    boolean bRecords, int iThreads, boolean bOrdered) {
+        super(theTransform, theWriter);
+        this.bRecords = bRecords;
+        this.iThreads = Math.max(1, iThreads);
+        this.bOrdered = bOrdered;
+        if ( Util.isDebugMode() ) {
+            ExportRDFParallelVisitor.logger.info("DEBUG: Created: Threads: " + this.iThreads +
+                " Records: " + this.bRecords + " Ordered: " + this.bOrdered);
+        }
+    }
+
+    public void buildModel(Project theProject, Engine theEngine) {
+        //
+        // Count the selected (filtered) rows or records to size the chunks...
+        //
+        final int[] aiSize = { 0 };
+        if (this.bRecords) {
+            theEngine.getFilteredRecords().accept(theProject,
+                new RecordVisitor() {
+                    public void start(Project theProject) {}
+                    public boolean visit(Project theProject, Record theRecord) {
+                        if ( ! ExportRDFParallelVisitor.this.isResumed(theRecord.recordIndex) ) {
+                            aiSize[0]++;
+                        }
+                        return false;
+                    }
+                    public void end(Project theProject) {}
+                }
+            );
+        }
+        else {
+            theEngine.getAllFilteredRows().accept(theProject,
+                new RowVisitor() {
+                    public void start(Project theProject) {}
+                    public boolean visit(Project theProject, int iRowIndex, Row theRow) {
+                        if ( ! ExportRDFParallelVisitor.this.isResumed(iRowIndex) ) {
+                            aiSize[0]++;
+                        }
+                        return false;
+                    }
+                    public void end(Project theProject) {}
+                }
+            );
+        }
+        int iSize = aiSize[0];
+
+        //
+        // Transform the chunks as they are cut...
+        //
+        this.start(theProject);
+        ChunkQueue theQueue = null;
+        try {
+            // Create the row independent statements once, ahead of the chunks...
+            if (iSize > 0) {
+                this.createHoistedStatements();
+            }
+
+            // A non-GREL expression is evaluated on one thread at a time: one worker...
+            int iWorkers = this.iThreads;
+            if ( ! this.thePlan.isThreadSafe() ) {
+                iWorkers = 1;
+                if ( Util.isVerbose(2) ) ExportRDFParallelVisitor.logger.info("A non-GREL expression: exporting on one worker thread.");
+            }
+            int iChunkSize = iSize / (iWorkers * ExportRDFParallelVisitor.iSPLITS_PER_THREAD);
+            iChunkSize = Math.max( 1, Math.min(iChunkSize, ExportRDFParallelVisitor.iMAX_CHUNK_SIZE) );
+            if ( Util.isDebugMode() ) {
+                ExportRDFParallelVisitor.logger.info("DEBUG: Visiting " + iSize + ( this.bRecords ? " records" : " rows" ) +
+                    " in chunks of " + iChunkSize + " on " + iWorkers + " workers");
+            }
+            final ChunkQueue theChunks = new ChunkQueue(theProject, iChunkSize, iWorkers);
+            theQueue = theChunks;
+            if (this.bRecords) {
+                if ( Util.isVerbose(3) ) ExportRDFParallelVisitor.logger.info("buildModel: visit matching filtered records");
+                theEngine.getFilteredRecords().accept(theProject,
+                    new RecordVisitor() {
+                        public void start(Project theProject) {}
+                        public boolean visit(Project theProject, Record theRecord) {
+                            if ( ! ExportRDFParallelVisitor.this.isResumed(theRecord.recordIndex) ) {
+                                theChunks.add(theRecord.recordIndex);
+                            }
+                            // On cancel, cut no more chunks...
+                            return ExportRDFParallelVisitor.this.isCanceled();
+                        }
+                        public void end(Project theProject) {}
+                    }
+                );
+            }
+            else {
+                if ( Util.isVerbose(3) ) ExportRDFParallelVisitor.logger.info("buildModel: visit matching filtered rows");
+                theEngine.getAllFilteredRows().accept(theProject,
+                    new RowVisitor() {
+                        public void start(Project theProject) {}
+                        public boolean visit(Project theProject, int iRowIndex, Row theRow) {
+                            if ( ! ExportRDFParallelVisitor.this.isResumed(iRowIndex) ) {
+                                theChunks.add(iRowIndex);
+                            }
+                            // On cancel, cut no more chunks...
+                            return ExportRDFParallelVisitor.this.isCanceled();
+                        }
+                        public void end(Project theProject) {}
+                    }
+                );
+            }
+            theChunks.finish();
+        }
+        finally {
+            // ...stop the workers before any failure is thrown...
+            if (theQueue != null) {
+                theQueue.close();
+            }
+            this.end(theProject);
+        }
+    }
+
+    /*
+     * Class ChunkQueue
+     *
+     *  Cuts the visited row or record indexes into chunks and runs them on the workers.  A full
+     *  window of chunks in flight writes its next chunk before another is submitted, so the
+     *  visit is held back by the workers and only the chunks in flight are held.
+     */
+    private class ChunkQueue {
+        private final Project theProject;
+        private final int iChunkSize;
+        private final int iMaxInFlight;
+        private final ExecutorService theExecutor;
+        private final CompletionService<List<Triple>> theCompletion;
+        private final Deque<Future<List<Triple>>> dequeInFlight = new ArrayDeque<Future<List<Triple>>>();
+        private final Deque<Chunk> dequeChunks = new ArrayDeque<Chunk>(); // ...the ordered chunks in flight
+        private Chunk theChunk = null; // ...the chunk being cut
+
+        ChunkQueue(Project theProject, int iChunkSize, int iWorkers) {
+            this.theProject = theProject;
+            this.iChunkSize = iChunkSize;
+            this.iMaxInFlight = iWorkers * ExportRDFParallelVisitor.iCHUNKS_PER_THREAD;
+            final AtomicInteger iThreadCount = new AtomicInteger(0);
+            this.theExecutor =
+                Executors.newFixedThreadPool(iWorkers,
+                    (Runnable theRunnable) -> {
+                        Thread theThread = new Thread(theRunnable, "RDFT-Export-" + iThreadCount.incrementAndGet());
+                        theThread.setDaemon(true);
+                        return theThread;
+                    }
+                );
+            this.theCompletion = new ExecutorCompletionService<List<Triple>>(this.theExecutor);
+        }
+
+        /*
+         * Method add()
+         *
+         *  Add the next row or record index to the chunk being cut, submitting the chunk when full.
+         */
+        void add(int iIndex) {
+            if (this.theChunk == null) {
+                this.theChunk =
+                    ( ExportRDFParallelVisitor.this.bRecords ?
+                        new RecordChunk(this.theProject) : new RowChunk(this.theProject) );
+            }
+            this.theChunk.add(iIndex);
+            if (this.theChunk.getCount() >= this.iChunkSize) {
+                this.submit(this.theChunk);
+                this.theChunk = null;
+            }
+        }
+
+        /*
+         * Method finish()
+         *
+         *  Submit the last chunk and write the chunks in flight.
+         */
+        void finish() {
+            if ( this.theChunk != null && ! ExportRDFParallelVisitor.this.isCanceled() ) {
+                this.submit(this.theChunk);
+            }
+            this.theChunk = null;
+            while ( ! this.dequeInFlight.isEmpty() ) {
+                this.writeNext();
+            }
+        }
+
+        void close() {
+            this.theExecutor.shutdownNow();
+        }
+
+        private void submit(Chunk theChunk) {
+            // Hold the window...
+            while (this.dequeInFlight.size() >= this.iMaxInFlight) {
+                this.writeNext();
+            }
+            if (ExportRDFParallelVisitor.this.bOrdered) {
+                this.dequeInFlight.addLast( this.theExecutor.submit(theChunk) );
+                this.dequeChunks.addLast(theChunk);
+            }
+            else {
+                this.dequeInFlight.addLast( this.theCompletion.submit(theChunk) );
+            }
+        }
+
+        private void writeNext() {
+            try {
+                Future<List<Triple>> futureChunk;
+                Chunk theChunk = null;
+                if (ExportRDFParallelVisitor.this.bOrdered) {
+                    futureChunk = this.dequeInFlight.removeFirst(); // ...in order
+                    theChunk = this.dequeChunks.removeFirst();
+                }
+                else {
+                    futureChunk = this.theCompletion.take(); // ...as completed
+                    this.dequeInFlight.remove(futureChunk);
+                }
+                ExportRDFParallelVisitor.this.writeStatements( futureChunk.get() );
+                // A canceled chunk may be partial: no checkpoint...
+                if ( theChunk != null && ! ExportRDFParallelVisitor.this.isCanceled() ) {
+                    ExportRDFParallelVisitor.this.checkpoint( theChunk.getLastIndex(), theChunk.getCount() );
+                }
+            }
+            catch (InterruptedException ex) {
+                ExportRDFParallelVisitor.logger.error("ERROR: Visit Interrupted: " + ex.getMessage(), ex);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Visit interrupted", ex);
+            }
+            catch (ExecutionException ex) {
+                // A failed chunk fails the export: the chunks after it are abandoned...
+                Throwable theCause = ( ex.getCause() == null ? ex : ex.getCause() );
+                ExportRDFParallelVisitor.logger.error("ERROR: Visit Issue: " + theCause.getMessage(), theCause);
+                if ( Util.isVerbose() || Util.isDebugMode() ) theCause.printStackTrace();
+                throw new RuntimeException("Visit failed: " + theCause.getMessage(), theCause);
+            }
+        }
+    }
+
+    /*
+     * Class Chunk
+     *
+     *  Transforms a chunk of rows or records on a worker's own context and stream.  The chunk holds
+     *  its indexes as ranges, so a chunk of consecutive indexes is one range.  The duplicate
+     *  tracking is cleared like the serial visitors flush it: when over the export limit and after
+     *  each visit.
+     */
+    private abstract class Chunk implements Callable<List<Triple>> {
+        protected final Project theProject;
+        private final List<Triple> listTriples = new ArrayList<Triple>();
+        private VisitStreamRDF theChunkStream = null;
+        // The index ranges: from (inclusive) and to (exclusive) pairs...
+        private int[] aiRanges = new int[8];
+        private int iRangesLength = 0;
+        private int iCount = 0;
+
+        Chunk(Project theProject) {
+            this.theProject = theProject;
+        }
+
+        // Visit the row or record index...
+        abstract protected void visit(PlanContext theChunkContext, List<PlanResourceNode> listRoots, int iIndex);
+
+        void add(int iIndex) {
+            if (this.iRangesLength > 0 && this.aiRanges[this.iRangesLength - 1] == iIndex) {
+                this.aiRanges[this.iRangesLength - 1]++; // ...extend the last range
+            }
+            else {
+                if (this.iRangesLength == this.aiRanges.length) {
+                    this.aiRanges = Arrays.copyOf(this.aiRanges, this.aiRanges.length * 2);
+                }
+                this.aiRanges[this.iRangesLength++] = iIndex;
+                this.aiRanges[this.iRangesLength++] = iIndex + 1;
+            }
+            this.iCount++;
+        }
+
+        int getCount() {
+            return this.iCount;
+        }
+
+        // The last row or record index of the chunk...
+        int getLastIndex() {
+            return this.aiRanges[this.iRangesLength - 1] - 1;
+        }
+
+        public List<Triple> call() {
+            final List<Triple> listChunkTriples = this.listTriples;
+            this.theChunkStream =
+                new VisitStreamRDF(
+                    new StreamRDFBase() {
+                        @Override
+                        public void triple(Triple theTriple) {
+                            listChunkTriples.add(theTriple);
+                        }
+                    }
+                );
+            PlanContext theChunkContext =
+                new PlanContext(ExportRDFParallelVisitor.this.thePlan, this.theProject, this.theChunkStream);
+            theChunkContext.setMetrics(ExportRDFParallelVisitor.this.theMetrics);
+            List<PlanResourceNode> listRoots = ExportRDFParallelVisitor.this.thePlan.getRoots();
+            for (int iRange = 0; iRange < this.iRangesLength; iRange += 2) {
+                for (int iIndex = this.aiRanges[iRange]; iIndex < this.aiRanges[iRange + 1]; iIndex++) {
+                    if ( ExportRDFParallelVisitor.this.isCanceled() ) {
+                        return this.listTriples;
+                    }
+                    this.visit(theChunkContext, listRoots, iIndex);
+                }
+            }
+            this.theChunkStream.clear();
+            return this.listTriples;
+        }
+
+        protected void drain() {
+            this.theChunkStream.clear();
+        }
+
+        protected void drainOverLimit() {
+            if ( this.theChunkStream.size() > Util.getExportLimit() ) {
+                this.drain();
+            }
+        }
+    }
+
+    private class RowChunk extends Chunk {
+        RowChunk(Project theProject) {
+            super(theProject);
+        }
+
+        protected void visit(PlanContext theChunkContext, List<PlanResourceNode> listRoots, int iRowIndex) {
+            ExportRDFParallelVisitor.this.countRow();
+            for ( PlanResourceNode root : listRoots ) {
+                root.createStatements(theChunkContext, iRowIndex);
+                this.drainOverLimit();
+            }
+            this.drain();
+        }
+    }
+
+    private class RecordChunk extends Chunk {
+        RecordChunk(Project theProject) {
+            super(theProject);
+        }
+
+        protected void visit(PlanContext theChunkContext, List<PlanResourceNode> listRoots, int iRecordIndex) {
+            Record theRecord = this.theProject.recordModel.getRecord(iRecordIndex);
+            ExportRDFParallelVisitor.this.countRecord(theRecord);
+            for ( PlanResourceNode root : listRoots ) {
+                root.createStatements(theChunkContext, theRecord);
+                this.drainOverLimit();
+            }
+            this.drain();
+        }
+    }
+}
@@ -23,14 +23,12 @@ package org.openrefine.rdf.model.operation;
 import java.util.List;
 
 import org.openrefine.rdf.RDFTransform;
-import org.openrefine.rdf.model.ResourceNode;
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
 
 import com.google.refine.model.Project;
 import com.google.refine.model.Record;
 
-import org.apache.jena.iri.IRI;
-import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.system.StreamRDF;
 
 import org.slf4j.Logger;
@@ -45,19 +43,24 @@ public class ExportRDFRecordVisitor extends RDFRecordVisitor {
     }
 
     public boolean visit(Project theProject, Record theRecord) {
+        if ( this.isCanceled() ) {
+            return true; // ...stop visitation process
+        }
+        if ( this.isResumed(theRecord.recordIndex) ) {
+            return false; // ...written before the resume checkpoint
+        }
         try {
             if ( Util.isDebugMode() ) ExportRDFRecordVisitor.logger.info("DEBUG: Visiting Record: " + theRecord.recordIndex);
-            IRI baseIRI = this.getRDFTransform().getBaseIRI();
-            List<ResourceNode> listRoots = this.getRDFTransform().getRoots();
-            for ( ResourceNode root : listRoots ) {
-                this.theModel.enterCriticalSection(Model.WRITE);
-                root.createStatements(baseIRI, theModel, theProject, theRecord);
-                this.theModel.leaveCriticalSection();
+            this.countRecord(theRecord);
+            this.createHoistedStatements();
+            List<PlanResourceNode> listRoots = this.thePlan.getRoots();
+            for ( PlanResourceNode root : listRoots ) {
+                root.createStatements(this.theContext, theRecord);
 
                 if ( Util.isDebugMode() ) {
                     ExportRDFRecordVisitor.logger.info("DEBUG:   " +
                         "Root: " + root.getNodeName() + "(" + root.getNodeType() + ")  " +
-                        "Model Size: " + theModel.size()
+                        "Statements: " + this.getStatementCount()
                     );
                 }
                 //
@@ -67,7 +70,7 @@ public class ExportRDFRecordVisitor extends RDFRecordVisitor {
                 // as the transformed statements use in-memory resources until flushed to disk.
                 // Otherwise, large files would use excessive memory!
                 //
-                if ( theModel.size() > Util.getExportLimit() ) {
+                if ( this.getStatementCount() > Util.getExportLimit() ) {
                     this.flushStatements();
                     if ( this.isNoWriter() && bLimitWarning) {
                         this.bLimitWarning = false;
@@ -82,9 +85,13 @@ public class ExportRDFRecordVisitor extends RDFRecordVisitor {
         catch (Exception ex) {
             ExportRDFRecordVisitor.logger.error("ERROR: Visit Issue: " + ex.getMessage(), ex);
             if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
+            // ...fail the export after the visit (see buildModel())...
+            this.setVisitError(ex);
             return true; // ...stop visitation process
         }
 
+        // Outside the visit issue catch: a failed checkpoint fails the export...
+        this.checkpoint(theRecord.recordIndex);
         return false;
     }
 }
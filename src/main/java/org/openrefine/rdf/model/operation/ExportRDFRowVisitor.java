@@ -23,14 +23,12 @@ package org.openrefine.rdf.model.operation;
 import java.util.List;
 
 import org.openrefine.rdf.RDFTransform;
-import org.openrefine.rdf.model.ResourceNode;
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
 
 import com.google.refine.model.Project;
 import com.google.refine.model.Row;
 
-import org.apache.jena.iri.IRI;
-import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.system.StreamRDF;
 
 import org.slf4j.Logger;
@@ -44,19 +42,24 @@ public class ExportRDFRowVisitor extends RDFRowVisitor {
     }
 
     public boolean visit(Project theProject, int iRowIndex, Row theRow) {
+        if ( this.isCanceled() ) {
+            return true; // ...stop visitation process
+        }
+        if ( this.isResumed(iRowIndex) ) {
+            return false; // ...written before the resume checkpoint
+        }
         try {
             if ( Util.isDebugMode() ) ExportRDFRowVisitor.logger.info("DEBUG: Visiting Row: " + iRowIndex);
-            IRI baseIRI = this.getRDFTransform().getBaseIRI();
-            List<ResourceNode> listRoots = this.getRDFTransform().getRoots();
-            for ( ResourceNode root : listRoots ) {
-                this.theModel.enterCriticalSection(Model.WRITE);
-                root.createStatements(baseIRI, theModel, theProject, iRowIndex);
-                this.theModel.leaveCriticalSection();
+            this.countRow();
+            this.createHoistedStatements();
+            List<PlanResourceNode> listRoots = this.thePlan.getRoots();
+            for ( PlanResourceNode root : listRoots ) {
+                root.createStatements(this.theContext, iRowIndex);
 
                 if ( Util.isDebugMode() ) {
                     ExportRDFRowVisitor.logger.info("DEBUG:   " +
                         "Root: " + root.getNodeName() + "(" + root.getNodeType() + ")  " +
-                        "Model Size: " + theModel.size()
+                        "Statements: " + this.getStatementCount()
                     );
                 }
                 //
@@ -66,7 +69,7 @@ public class ExportRDFRowVisitor extends RDFRowVisitor {
                 // as the transformed statements use in-memory resources until flushed to disk.
                 // Otherwise, large files would use excessive memory!
                 //
-                if ( theModel.size() > Util.getExportLimit() ) {
+                if ( this.getStatementCount() > Util.getExportLimit() ) {
                     this.flushStatements();
                     if ( this.isNoWriter() && bLimitWarning) {
                         this.bLimitWarning = false;
@@ -81,9 +84,13 @@ public class ExportRDFRowVisitor extends RDFRowVisitor {
         catch (Exception ex) {
             ExportRDFRowVisitor.logger.error("ERROR: Visit Issue: " + ex.getMessage(), ex);
             if ( Util.isVerbose() || Util.isDebugMode() ) ex.printStackTrace();
+            // ...fail the export after the visit (see buildModel())...
+            this.setVisitError(ex);
             return true; // ...stop visitation process
         }
 
+        // Outside the visit issue catch: a failed checkpoint fails the export...
+        this.checkpoint(iRowIndex);
         return false;
     }
 }
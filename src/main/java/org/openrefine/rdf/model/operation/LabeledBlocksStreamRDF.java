@@ -0,0 +1,59 @@
+/*
+ *  Class LabeledBlocksStreamRDF
+ *
+ *  A Turtle / TriG block writer writing blank nodes by their own labels.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.io.OutputStream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.riot.RIOT;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.writer.WriterStreamRDFBlocks;
+
+/*
+ * Class LabeledBlocksStreamRDF
+ *
+ *  The Jena block writer (TURTLE_BLOCKS, TRIG_BLOCKS) labels blank nodes by their order in the
+ *  document ("_:b0", "_:b1", ...), so the same blank node gets unrelated labels in two documents.
+ *  This writer writes a blank node by its own label, encoded as NodeFmtLib.encodeBNodeLabel() (as
+ *  the N-Triples writers), so the documents of a part export (see PartStreamRDF) use the same label
+ *  for the same blank node.
+ *
+ *  A blank node label is scoped to its document: a loader reading the parts as separate files
+ *  (e.g., riot, tdb2.tdbloader) makes a blank node written in two parts two nodes.  The parts keep
+ *  one node only when loaded with the labels as given (e.g., a Jena RDFParser given
+ *  LabelToNode.createUseLabelAsGiven()).
+ */
+public class LabeledBlocksStreamRDF extends WriterStreamRDFBlocks {
+
+    public LabeledBlocksStreamRDF(OutputStream theOutput) {
+        super( theOutput, RIOT.getContext() );
+    }
+
+    @Override
+    protected void outputNode(Node theNode) {
+        if ( theNode.isBlank() ) {
+            this.out.print("_:");
+            this.out.print( NodeFmtLib.encodeBNodeLabel( theNode.getBlankNodeLabel() ) );
+            return;
+        }
+        super.outputNode(theNode);
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ *  Class LineStreamRDF
+ *
+ *  A block writer for the line based formats: N-Triples and N-Quads.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class LineStreamRDF
+ *
+ *  Each statement is encoded straight to UTF-8 bytes in one reused block, and only whole blocks are
+ *  written to the output:
+ *    an OutputStream      - e.g., the servlet response
+ *    a WritableByteChannel - e.g., the FileChannel of a background export (see RDFExportProcess)
+ *    a Writer             - each block is decoded by one reused decoder
+ *  No Jena writer or character stream adapter sits between the statements and the output.
+ *
+ *  The lines are the same, byte for byte, as Jena's plain N-Triples / N-Quads writer with the UTF-8
+ *  character space:
+ *    IRIs are written as is
+ *    literals escape the quote, backslash, newline, return, tab, form feed, and U+FFFD
+ *    blank node labels are encoded as NodeFmtLib.encodeBNodeLabel() encodes them
+ *    a quad in the default graph is written as a triple
+ *  Any other node (e.g., a triple term) is formatted by Jena.  Since the same bytes are written, an
+ *  export checkpointed by one writer may be resumed by the other (see ExportCheckpoint).
+ *
+ *  The predicates, the rdf:type classes, the datatypes, and the graphs are the same few IRIs on
+ *  every row, so their encoded bytes are held in a small direct mapped cache and copied.  Subjects
+ *  and other objects are mostly unique and are encoded in place.  Past the cache misses, a statement
+ *  allocates nothing.
+ *
+ *  The line formats have no base or prefixes, so none are written.
+ */
+public class LineStreamRDF implements StreamRDF, Flushable {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:LineStreamRDF");
+
+    // The bytes per written block...
+    static public final int iBLOCK_SIZE = 65536;
+    // The encoded IRIs held (a power of 2)...
+    static private final int iCACHE_SIZE = 1024;
+    // The most bytes a character writes: a 4 byte UTF-8 pair or a 6 byte blank node hex code...
+    static private final int iCHAR_BYTES = 6;
+
+    static private final byte[] abHEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    static private final byte[] abEND = " .\n".getBytes(StandardCharsets.US_ASCII);
+    static private final byte[] abBLANK = "_:B".getBytes(StandardCharsets.US_ASCII);
+    static private final byte[] abTYPED = "^^".getBytes(StandardCharsets.US_ASCII);
+    static private final byte[] abREPLACEMENT = "\\uFFFD".getBytes(StandardCharsets.US_ASCII);
+
+    // The escape letter of each escaped ASCII character in a literal, or 0...
+    static private final byte[] abESCAPE = new byte[128];
+    static {
+        LineStreamRDF.abESCAPE['"']  = '"';
+        LineStreamRDF.abESCAPE['\\'] = '\\';
+        LineStreamRDF.abESCAPE['\n'] = 'n';
+        LineStreamRDF.abESCAPE['\r'] = 'r';
+        LineStreamRDF.abESCAPE['\t'] = 't';
+        LineStreamRDF.abESCAPE['\f'] = 'f';
+    }
+
+    static private final String strRDF_TYPE = RDF.type.getURI();
+    static private final String strXSD_STRING = XSDDatatype.XSDstring.getURI();
+
+    // The output: one of...
+    private final OutputStream theStream;
+    private final WritableByteChannel theChannel;
+    private final Writer theWriter;
+    private final CharsetDecoder theDecoder;
+    private final CharBuffer theChars;
+
+    // The block...
+    private final byte[] abBlock = new byte[LineStreamRDF.iBLOCK_SIZE];
+    private final ByteBuffer theBlock = ByteBuffer.wrap(this.abBlock);
+    private final int iLimit = LineStreamRDF.iBLOCK_SIZE - LineStreamRDF.iCHAR_BYTES;
+    private int iPosition = 0;
+
+    // The encoded IRI cache...
+    private final String[] astrCacheKeys = new String[LineStreamRDF.iCACHE_SIZE];
+    private final byte[][] aabCacheBytes = new byte[LineStreamRDF.iCACHE_SIZE][];
+    private long iCacheHits = 0;
+    private long iCacheMisses = 0;
+
+    private ExportMetrics theMetrics = null;
+    private long iBytes = 0;
+    private long iBlocks = 0;
+
+    public LineStreamRDF(OutputStream theStream) {
+        this(theStream, null, null);
+    }
+
+    public LineStreamRDF(WritableByteChannel theChannel) {
+        this(null, theChannel, null);
+    }
+
+    public LineStreamRDF(Writer theWriter) {
+        this(null, null, theWriter);
+    }
+
+    private LineStreamRDF(OutputStream theStream, WritableByteChannel theChannel, Writer theWriter) {
+        this.theStream = theStream;
+        this.theChannel = theChannel;
+        this.theWriter = theWriter;
+        if (theWriter != null) {
+            this.theDecoder = StandardCharsets.UTF_8.newDecoder();
+            this.theChars = CharBuffer.allocate(LineStreamRDF.iBLOCK_SIZE);
+        }
+        else {
+            this.theDecoder = null;
+            this.theChars = null;
+        }
+    }
+
+    /*
+     * Method setMetrics()
+     *
+     *  Count the written bytes in the export metrics as each block is written.
+     */
+    public void setMetrics(ExportMetrics theMetrics) {
+        this.theMetrics = theMetrics;
+    }
+
+    public long getBytes() {
+        return this.iBytes;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start...
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        this.statement( theTriple.getSubject(), theTriple.getPredicate(), theTriple.getObject() );
+        this.endLine();
+    }
+
+    @Override
+    public void quad(Quad theQuad) {
+        this.statement( theQuad.getSubject(), theQuad.getPredicate(), theQuad.getObject() );
+        Node nodeGraph = theQuad.getGraph();
+        if ( nodeGraph != null && ! Quad.isDefaultGraph(nodeGraph) ) {
+            this.put(' ');
+            this.node(nodeGraph, true);
+        }
+        this.endLine();
+    }
+
+    @Override
+    public void base(String strBase) {
+        // No base in a line format...
+    }
+
+    @Override
+    public void prefix(String strPrefix, String strIRI) {
+        // No prefixes in a line format...
+    }
+
+    @Override
+    public void finish() {
+        try {
+            this.flush();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if ( Util.isDebugMode() ) {
+            LineStreamRDF.logger.info("DEBUG: Wrote " + this.iBytes + " bytes in " + this.iBlocks + " blocks. " +
+                "IRI cache: " + this.iCacheHits + " hits, " + this.iCacheMisses + " misses");
+        }
+    }
+
+    /*
+     * Method flush()
+     *
+     *  Write the block and flush the output.  The lines written so far are then in the output (see
+     *  ExportCheckpoint).
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writeBlock();
+        if (this.theStream != null) {
+            this.theStream.flush();
+        }
+        else if (this.theWriter != null) {
+            this.theWriter.flush();
+        }
+    }
+
+    private void statement(Node nodeSubject, Node nodePredicate, Node nodeObject) {
+        this.node(nodeSubject, false);
+        this.put(' ');
+        this.node(nodePredicate, true);
+        this.put(' ');
+        // A type object is a class: one of a few...
+        this.node( nodeObject,
+            nodePredicate.isURI() && nodePredicate.getURI().equals(LineStreamRDF.strRDF_TYPE) );
+    }
+
+    private void endLine() {
+        this.put(LineStreamRDF.abEND);
+    }
+
+    private void node(Node theNode, boolean bRecurs) {
+        if ( theNode.isURI() ) {
+            this.iri(theNode.getURI(), bRecurs);
+        }
+        else if ( theNode.isBlank() ) {
+            this.blank( theNode.getBlankNodeLabel() );
+        }
+        else if ( theNode.isLiteral() ) {
+            this.literal(theNode);
+        }
+        else {
+            // Rare: the same as Jena...
+            this.encode( NodeFmtLib.strNT(theNode), false );
+        }
+    }
+
+    private void iri(String strIRI, boolean bRecurs) {
+        if (bRecurs) {
+            int iSlot = strIRI.hashCode() & (LineStreamRDF.iCACHE_SIZE - 1);
+            String strKey = this.astrCacheKeys[iSlot];
+            byte[] abIRI;
+            if ( strKey == strIRI || strIRI.equals(strKey) ) {
+                abIRI = this.aabCacheBytes[iSlot];
+                this.iCacheHits++;
+            }
+            else {
+                abIRI = ( "<" + strIRI + ">" ).getBytes(StandardCharsets.UTF_8);
+                this.astrCacheKeys[iSlot] = strIRI;
+                this.aabCacheBytes[iSlot] = abIRI;
+                this.iCacheMisses++;
+            }
+            this.put(abIRI);
+        }
+        else {
+            this.put('<');
+            this.encode(strIRI, false);
+            this.put('>');
+        }
+    }
+
+    /*
+     * Method blank()
+     *
+     *  The label as NodeFmtLib.encodeBNodeLabel(): "B", then the ASCII letters and digits as is, "X"
+     *  as "XX", and any other character as "X" and its hex code (as "X" and the hex code of each
+     *  byte over 0xFF).
+     */
+    private void blank(String strLabel) {
+        this.put(LineStreamRDF.abBLANK);
+        int iLength = strLabel.length();
+        for (int iChar = 0; iChar < iLength; iChar++) {
+            if (this.iPosition > this.iLimit) {
+                this.writeBlockUnchecked();
+            }
+            char cChar = strLabel.charAt(iChar);
+            if (cChar == 'X') {
+                this.abBlock[this.iPosition++] = 'X';
+                this.abBlock[this.iPosition++] = 'X';
+            }
+            else if ( ( cChar >= 'a' && cChar <= 'z' ) || ( cChar >= 'A' && cChar <= 'Z' ) ||
+                      ( cChar >= '0' && cChar <= '9' ) ) {
+                this.abBlock[this.iPosition++] = (byte) cChar;
+            }
+            else {
+                if (cChar > 0xFF) {
+                    this.hex(cChar >>> 8);
+                }
+                this.hex(cChar & 0xFF);
+            }
+        }
+    }
+
+    private void hex(int iByte) {
+        this.abBlock[this.iPosition++] = 'X';
+        this.abBlock[this.iPosition++] = LineStreamRDF.abHEX[iByte >>> 4];
+        this.abBlock[this.iPosition++] = LineStreamRDF.abHEX[iByte & 0xF];
+    }
+
+    private void literal(Node theNode) {
+        this.put('"');
+        this.encode( theNode.getLiteralLexicalForm(), true );
+        this.put('"');
+        String strLang = theNode.getLiteralLanguage();
+        if ( strLang != null && ! strLang.isEmpty() ) {
+            this.put('@');
+            this.encode(strLang, false);
+        }
+        else {
+            String strDatatype = theNode.getLiteralDatatypeURI();
+            if ( strDatatype != null && ! strDatatype.equals(LineStreamRDF.strXSD_STRING) ) {
+                this.put(LineStreamRDF.abTYPED);
+                this.iri(strDatatype, true);
+            }
+        }
+    }
+
+    /*
+     * Method encode()
+     *
+     *  Encode the string to UTF-8 in the block, escaping a literal's characters as EscapeStr.stringEsc()
+     *  escapes them.  A lone surrogate is written as "?" as the UTF-8 encoder writes it.
+     */
+    private void encode(String strValue, boolean bEscape) {
+        byte[] abBytes = this.abBlock;
+        int iLength = strValue.length();
+        for (int iChar = 0; iChar < iLength; iChar++) {
+            if (this.iPosition > this.iLimit) {
+                this.writeBlockUnchecked();
+            }
+            int iPos = this.iPosition;
+            char cChar = strValue.charAt(iChar);
+            if (cChar < 0x80) {
+                byte bEscapeChar = ( bEscape ? LineStreamRDF.abESCAPE[cChar] : 0 );
+                if (bEscapeChar != 0) {
+                    abBytes[iPos++] = '\\';
+                    abBytes[iPos++] = bEscapeChar;
+                }
+                else {
+                    abBytes[iPos++] = (byte) cChar;
+                }
+            }
+            else if (cChar < 0x800) {
+                abBytes[iPos++] = (byte) ( 0xC0 | ( cChar >>> 6 ) );
+                abBytes[iPos++] = (byte) ( 0x80 | ( cChar & 0x3F ) );
+            }
+            else if ( Character.isSurrogate(cChar) ) {
+                char cLow;
+                if ( Character.isHighSurrogate(cChar) && iChar + 1 < iLength &&
+                     Character.isLowSurrogate( cLow = strValue.charAt(iChar + 1) ) ) {
+                    int iCode = Character.toCodePoint(cChar, cLow);
+                    abBytes[iPos++] = (byte) ( 0xF0 | ( iCode >>> 18 ) );
+                    abBytes[iPos++] = (byte) ( 0x80 | ( ( iCode >>> 12 ) & 0x3F ) );
+                    abBytes[iPos++] = (byte) ( 0x80 | ( ( iCode >>> 6 ) & 0x3F ) );
+                    abBytes[iPos++] = (byte) ( 0x80 | ( iCode & 0x3F ) );
+                    iChar++;
+                }
+                else {
+                    abBytes[iPos++] = '?';
+                }
+            }
+            else if (bEscape && cChar == '\uFFFD') {
+                // The replacement character is escaped...
+                System.arraycopy(LineStreamRDF.abREPLACEMENT, 0, abBytes, iPos, LineStreamRDF.abREPLACEMENT.length);
+                iPos += LineStreamRDF.abREPLACEMENT.length;
+            }
+            else {
+                abBytes[iPos++] = (byte) ( 0xE0 | ( cChar >>> 12 ) );
+                abBytes[iPos++] = (byte) ( 0x80 | ( ( cChar >>> 6 ) & 0x3F ) );
+                abBytes[iPos++] = (byte) ( 0x80 | ( cChar & 0x3F ) );
+            }
+            this.iPosition = iPos;
+        }
+    }
+
+    private void put(char cChar) {
+        if (this.iPosition >= LineStreamRDF.iBLOCK_SIZE) {
+            this.writeBlockUnchecked();
+        }
+        this.abBlock[this.iPosition++] = (byte) cChar;
+    }
+
+    private void put(byte[] abBytes) {
+        int iOffset = 0;
+        int iLength = abBytes.length;
+        while (iLength > 0) {
+            if (this.iPosition == LineStreamRDF.iBLOCK_SIZE) {
+                this.writeBlockUnchecked();
+            }
+            int iCopy = Math.min( iLength, LineStreamRDF.iBLOCK_SIZE - this.iPosition );
+            System.arraycopy(abBytes, iOffset, this.abBlock, this.iPosition, iCopy);
+            this.iPosition += iCopy;
+            iOffset += iCopy;
+            iLength -= iCopy;
+        }
+    }
+
+    private void writeBlockUnchecked() {
+        try {
+            this.writeBlock();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /*
+     * Method writeBlock()
+     *
+     *  Write the block to the output.  For a Writer, a character cut at the block's end is kept for
+     *  the next block.
+     */
+    private void writeBlock() throws IOException {
+        int iCount = this.iPosition;
+        if (iCount == 0) {
+            return;
+        }
+        int iKept = 0;
+        this.theBlock.clear().limit(iCount);
+        if (this.theStream != null) {
+            this.theStream.write(this.abBlock, 0, iCount);
+        }
+        else if (this.theChannel != null) {
+            while ( this.theBlock.hasRemaining() ) {
+                this.theChannel.write(this.theBlock);
+            }
+        }
+        else {
+            while (true) {
+                CoderResult theResult = this.theDecoder.decode(this.theBlock, this.theChars, false);
+                this.theChars.flip();
+                this.theWriter.write( this.theChars.array(), 0, this.theChars.limit() );
+                this.theChars.clear();
+                if ( ! theResult.isOverflow() ) {
+                    break;
+                }
+            }
+            // Keep the start of a character cut by the block's end...
+            iKept = this.theBlock.remaining();
+            System.arraycopy(this.abBlock, this.theBlock.position(), this.abBlock, 0, iKept);
+            iCount -= iKept;
+        }
+        this.iPosition = iKept;
+        this.iBytes += iCount;
+        this.iBlocks++;
+        if (this.theMetrics != null) {
+            this.theMetrics.addBytes(iCount);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ *  Class PartStreamRDF
+ *
+ *  A stream writing its statements to numbered part files rolled over by size.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.util.ParsingUtilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class PartStreamRDF
+ *
+ *  Writes the statements to part files ("part-00001.nt", ...) in a directory instead of one file.
+ *  A part is rolled over to the next once it holds the set number of statements or bytes (0 for no
+ *  limit).  A part only ends at a statement boundary: for a block format (e.g., TURTLE_BLOCKS), only
+ *  where the subject (or graph) changes, so a subject's block is never cut.  Each part is a complete
+ *  file of the format: its writer is started with the base and prefixes given so far.
+ *
+ *  When finished, the manifest ("manifest.json") lists each part's file, statements, and bytes.
+ *
+ *  The parts write each blank node by the same label (see LabeledBlocksStreamRDF), but a label is
+ *  scoped to its document.  A blank node whose statements span parts, such as an object in one part
+ *  and a subject in the next, is one node only when the parts are loaded with the labels as given:
+ *  loaded as separate files, it is split into a node per part.
+ *
+ *  The byte limit is checked against the bytes written to the part's file and, once a part is
+ *  finished, against the part's statements at the finished parts' bytes per statement: a writer
+ *  holds statements in its buffer (and a lane in its queue) that are not yet counted.
+ *
+ *  Given more than one lane (a parallel export), the parts are written concurrently: each lane holds
+ *  an open part written by its own serializer thread (see PipelineStreamRDF), and runs of statements
+ *  are handed to the lanes in turn, switching only at a boundary.  The statements of a part keep
+ *  the export's order, but the parts then interleave.  A lane's full part is finished (its serializer
+ *  drained) before the lane's next part is opened.
+ *
+ *  The stream has a single producer, as PipelineStreamRDF.
+ */
+public class PartStreamRDF implements StreamRDF {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:PartStreamRDF");
+
+    static public final String strMANIFEST = "manifest.json";
+
+    // The statements handed to a lane before moving to the next lane...
+    static private final int iLANE_RUN = 4096;
+
+    /*
+     * Interface WriterFactory
+     *
+     *  Creates the format's writer for a part's stream.
+     */
+    @FunctionalInterface
+    public interface WriterFactory {
+        StreamRDF create(OutputStream theOutput);
+    }
+
+    /*
+     * Class PartOutputStream
+     *
+     *  A part's file stream counting its bytes.  Written by the part's writer (a lane serializer)
+     *  and read by the producer.
+     */
+    static private final class PartOutputStream extends ProxyOutputStream {
+        private final ExportMetrics theMetrics;
+        private final Runnable theProgress;
+        private volatile long iBytes = 0;
+
+        PartOutputStream(OutputStream theOutput, ExportMetrics theMetrics, Runnable theProgress) {
+            super(theOutput);
+            this.theMetrics = theMetrics;
+            this.theProgress = theProgress;
+        }
+
+        @Override
+        protected void afterWrite(int iCount) {
+            this.iBytes += iCount;
+            if (this.theMetrics != null) {
+                this.theMetrics.addBytes(iCount);
+            }
+            if (this.theProgress != null) {
+                this.theProgress.run();
+            }
+        }
+    }
+
+    /*
+     * Class Part
+     *
+     *  An open or finished part file.
+     */
+    static private final class Part {
+        final int iNumber;
+        final File filePart;
+        final PartOutputStream theOutput;
+        final StreamRDF theWriter;
+        long iStatements = 0;
+        long iBytes = 0;
+
+        Part(int iNumber, File filePart, PartOutputStream theOutput, StreamRDF theWriter) {
+            this.iNumber = iNumber;
+            this.filePart = filePart;
+            this.theOutput = theOutput;
+            this.theWriter = theWriter;
+        }
+    }
+
+    private final File dirParts;
+    private final String strExtension;
+    private final String strFormat;
+    private final WriterFactory theFactory;
+    private final long iPartStatements;
+    private final long iPartBytes;
+    private final boolean bBlocks;
+    private final Part[] aLanes;
+    private final List<Part> listParts = new ArrayList<Part>();
+    private final Map<String, String> mapPrefixes = new LinkedHashMap<String, String>();
+    private String strBase = null;
+    private ExportMetrics theMetrics = null;
+    private Runnable theProgress = null;
+
+    // The finished parts' totals for the bytes per statement...
+    private long iFinishedStatements = 0;
+    private long iFinishedBytes = 0;
+
+    private int iLane = 0;
+    private int iRun = 0;
+    private Node nodeLastSubject = null;
+    private Node nodeLastGraph = null;
+    private boolean bFinished = false;
+
+    /*
+     * Constructor PartStreamRDF(...)
+     *
+     *  Write parts named by the extension (e.g., "nt") to the directory with the factory's writer.
+     *  A block format only rolls over where the subject changes.  More than one lane writes the
+     *  parts concurrently.
+     */
+    public PartStreamRDF(File dirParts, String strExtension, String strFormat, WriterFactory theFactory,
+                         long iPartStatements, long iPartBytes, boolean bBlocks, int iLanes) {
+        this.dirParts = dirParts;
+        this.strExtension = strExtension;
+        this.strFormat = strFormat;
+        this.theFactory = theFactory;
+        this.iPartStatements = Math.max(0, iPartStatements);
+        this.iPartBytes = Math.max(0, iPartBytes);
+        this.bBlocks = bBlocks;
+        this.aLanes = new Part[ Math.max(1, iLanes) ];
+        if ( Util.isDebugMode() ) {
+            PartStreamRDF.logger.info("DEBUG: Created: Statements: " + this.iPartStatements + "  Bytes: " + this.iPartBytes +
+                "  Blocks: " + this.bBlocks + "  Lanes: " + this.aLanes.length);
+        }
+    }
+
+    /*
+     * Method setMetrics()
+     *
+     *  Count the bytes written to the parts in the export metrics.
+     */
+    public void setMetrics(ExportMetrics theMetrics) {
+        this.theMetrics = theMetrics;
+    }
+
+    /*
+     * Method setProgress()
+     *
+     *  Run after each write to a part (e.g., to update a process's progress).  Run on the lane
+     *  serializer threads.
+     */
+    public void setProgress(Runnable theProgress) {
+        this.theProgress = theProgress;
+    }
+
+    public File getDirectory() {
+        return this.dirParts;
+    }
+
+    public int getParts() {
+        return this.listParts.size();
+    }
+
+    @Override
+    public void start() {
+        if ( ! this.dirParts.isDirectory() && ! this.dirParts.mkdirs() ) {
+            throw new UncheckedIOException( new IOException("Cannot create the part directory: " + this.dirParts.getPath()) );
+        }
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        this.getWriter( theTriple.getSubject(), null ).triple(theTriple);
+    }
+
+    @Override
+    public void quad(Quad theQuad) {
+        this.getWriter( theQuad.getSubject(), theQuad.getGraph() ).quad(theQuad);
+    }
+
+    @Override
+    public void base(String strBase) {
+        this.strBase = strBase;
+        for (Part thePart : this.aLanes) {
+            if (thePart != null) {
+                thePart.theWriter.base(strBase);
+            }
+        }
+    }
+
+    @Override
+    public void prefix(String strPrefix, String strIRI) {
+        this.mapPrefixes.put(strPrefix, strIRI);
+        for (Part thePart : this.aLanes) {
+            if (thePart != null) {
+                thePart.theWriter.prefix(strPrefix, strIRI);
+            }
+        }
+    }
+
+    /*
+     * Method finish()
+     *
+     *  Finish the open parts and write the manifest.  An export without statements still writes a
+     *  (header only) part.
+     */
+    @Override
+    public void finish() {
+        if (this.bFinished) {
+            return;
+        }
+        this.bFinished = true;
+        if ( this.listParts.isEmpty() ) {
+            this.aLanes[0] = this.openPart();
+        }
+        for (int iIndex = 0; iIndex < this.aLanes.length; iIndex++) {
+            if (this.aLanes[iIndex] != null) {
+                this.finishPart( this.aLanes[iIndex] );
+                this.aLanes[iIndex] = null;
+            }
+        }
+        this.writeManifest();
+        if ( Util.isVerbose(2) || Util.isDebugMode() ) {
+            PartStreamRDF.logger.info("Parts: " + this.listParts.size() + " written to " + this.dirParts.getPath());
+        }
+    }
+
+    /*
+     * Method close()
+     *
+     *  Stop the lane serializers and close the open part files after a failed export.  The part
+     *  files are kept.
+     */
+    public void close() {
+        this.bFinished = true;
+        for (int iIndex = 0; iIndex < this.aLanes.length; iIndex++) {
+            Part thePart = this.aLanes[iIndex];
+            if (thePart == null) {
+                continue;
+            }
+            if (thePart.theWriter instanceof PipelineStreamRDF) {
+                ( (PipelineStreamRDF) thePart.theWriter ).close();
+            }
+            try {
+                thePart.theOutput.close();
+            }
+            catch (IOException ex) {
+                PartStreamRDF.logger.warn("WARNING: Cannot close the part: " + thePart.filePart.getPath());
+            }
+            this.aLanes[iIndex] = null;
+        }
+    }
+
+    /*
+     * Method toJSON()
+     *
+     *  The manifest: the format, the totals, and each part's file, statements, and bytes.
+     */
+    public ObjectNode toJSON(ObjectMapper theMapper) {
+        ObjectNode jnodeManifest = theMapper.createObjectNode();
+        jnodeManifest.put("format", this.strFormat);
+        ArrayNode jnodeParts = theMapper.createArrayNode();
+        long iStatements = 0;
+        long iBytes = 0;
+        for (Part thePart : this.listParts) {
+            ObjectNode jnodePart = theMapper.createObjectNode();
+            jnodePart.put("part", thePart.iNumber);
+            jnodePart.put("file", thePart.filePart.getName());
+            jnodePart.put("triples", thePart.iStatements);
+            jnodePart.put("bytes", thePart.iBytes);
+            jnodeParts.add(jnodePart);
+            iStatements += thePart.iStatements;
+            iBytes += thePart.iBytes;
+        }
+        jnodeManifest.put("triples", iStatements);
+        jnodeManifest.put("bytes", iBytes);
+        jnodeManifest.set("parts", jnodeParts);
+        return jnodeManifest;
+    }
+
+    /*
+     * Method getWriter()
+     *
+     *  The writer of the lane taking the statement: at a boundary, the run moves to the next lane
+     *  and a full part is rolled over.
+     */
+    private StreamRDF getWriter(Node nodeSubject, Node nodeGraph) {
+        boolean bBoundary =
+            ( ! this.bBlocks ||
+              ! nodeSubject.equals(this.nodeLastSubject) ||
+              ( nodeGraph != null && ! nodeGraph.equals(this.nodeLastGraph) ) );
+        this.nodeLastSubject = nodeSubject;
+        this.nodeLastGraph = nodeGraph;
+        if (bBoundary) {
+            if (this.aLanes.length > 1 && this.iRun >= PartStreamRDF.iLANE_RUN) {
+                this.iLane = ( this.iLane + 1 ) % this.aLanes.length;
+                this.iRun = 0;
+            }
+            Part thePart = this.aLanes[this.iLane];
+            if ( thePart != null && this.isFull(thePart) ) {
+                this.finishPart(thePart);
+                this.aLanes[this.iLane] = null;
+            }
+        }
+        Part thePart = this.aLanes[this.iLane];
+        if (thePart == null) {
+            thePart = this.openPart();
+            this.aLanes[this.iLane] = thePart;
+        }
+        thePart.iStatements++;
+        this.iRun++;
+        return thePart.theWriter;
+    }
+
+    private boolean isFull(Part thePart) {
+        if (this.iPartStatements > 0 && thePart.iStatements >= this.iPartStatements) {
+            return true;
+        }
+        if (this.iPartBytes > 0) {
+            if (thePart.theOutput.iBytes >= this.iPartBytes) {
+                return true;
+            }
+            // Estimate the statements not yet written...
+            if (this.iFinishedStatements > 0) {
+                return ( thePart.iStatements * this.iFinishedBytes / this.iFinishedStatements >= this.iPartBytes );
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Method openPart()
+     *
+     *  Open the next part and start its writer with the base and prefixes.
+     */
+    private Part openPart() {
+        int iNumber = this.listParts.size() + 1;
+        File filePart = new File( this.dirParts, String.format("part-%05d.%s", iNumber, this.strExtension) );
+        PartOutputStream theOutput;
+        try {
+            theOutput =
+                new PartOutputStream(
+                    new BufferedOutputStream( new FileOutputStream(filePart), 65536 ), this.theMetrics, this.theProgress );
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open the part: " + filePart.getPath(), ex);
+        }
+        StreamRDF theWriter = this.theFactory.create(theOutput);
+        if (this.aLanes.length > 1) {
+            // Each lane serializes on its own thread...
+            theWriter = PipelineStreamRDF.createSerializer(theWriter);
+        }
+        Part thePart = new Part(iNumber, filePart, theOutput, theWriter);
+        this.listParts.add(thePart);
+        theWriter.start();
+        if (this.strBase != null) {
+            theWriter.base(this.strBase);
+        }
+        for ( Map.Entry<String, String> entryPrefix : this.mapPrefixes.entrySet() ) {
+            theWriter.prefix( entryPrefix.getKey(), entryPrefix.getValue() );
+        }
+        if ( Util.isDebugMode() ) PartStreamRDF.logger.info("DEBUG: Opened part: " + filePart.getName());
+        return thePart;
+    }
+
+    private void finishPart(Part thePart) {
+        thePart.theWriter.finish();
+        try {
+            thePart.theOutput.close();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Cannot close the part: " + thePart.filePart.getPath(), ex);
+        }
+        thePart.iBytes = thePart.theOutput.iBytes;
+        this.iFinishedStatements += thePart.iStatements;
+        this.iFinishedBytes += thePart.iBytes;
+        if ( Util.isVerbose(3) ) {
+            PartStreamRDF.logger.info("Part: " + thePart.filePart.getName() + " (" + thePart.iStatements + " triples, " +
+                thePart.iBytes + " bytes)");
+        }
+    }
+
+    private void writeManifest() {
+        File fileManifest = new File(this.dirParts, PartStreamRDF.strMANIFEST);
+        try {
+            ParsingUtilities.mapper.writerWithDefaultPrettyPrinter()
+                .writeValue( fileManifest, this.toJSON(ParsingUtilities.mapper) );
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write the manifest: " + fileManifest.getPath(), ex);
+        }
+    }
+}
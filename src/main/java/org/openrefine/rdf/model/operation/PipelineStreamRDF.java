@@ -0,0 +1,422 @@
+/*
+ *  Class PipelineStreamRDF
+ *
+ *  A stream handing the statements to a serializer thread in batches.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class PipelineStreamRDF
+ *
+ *  Splits a stream export into a producer and a consumer.  The producer (the visitor's thread)
+ *  evaluates the transform and fills fixed-size batches of statements.  Each full batch is put on a
+ *  bounded queue.  A serializer thread takes the batches and writes them to the wrapped stream (the
+ *  dedup filter and the format writer), so the transform and the serialization run side by side.
+ *
+ *  The bounded queue is the backpressure: when the serializer falls behind, the producer waits for
+ *  room ("producer stall").  When the transform falls behind, the serializer waits for a batch
+ *  ("consumer stall").  The queue depth is sampled at each put.  The pipeline statistics go to the
+ *  export metrics (see ExportMetrics.setPipeline()) to tune the batch size and queue length (see
+ *  Util.getPipelineBatch() and Util.getPipelineQueue()).
+ *
+ *  The prefix and base events travel in the batches, so the wrapped stream sees every event in the
+ *  order given.  The start() and finish() are called on the producer thread: finish() writes the
+ *  last batch, waits for the serializer to end, and then finishes the wrapped stream.  A serializer
+ *  error fails the producer at its next batch or at finish().  Used batches are recycled.
+ *
+ *  A stream has a single producer: the serial visitors write on the export thread and the parallel
+ *  visitor writes its chunks on the export thread.
+ */
+public class PipelineStreamRDF implements StreamRDF {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:PipelineStreamRDF");
+
+    /*
+     * Class Batch
+     *
+     *  A fixed-size batch of statements and events.
+     */
+    static private final class Batch {
+        final Object[] aItems;
+        int iCount = 0;
+        // Set on a drain batch: counted down once the batches before it are written...
+        CountDownLatch theDrained = null;
+        // Set on the end batch...
+        boolean bEnd = false;
+
+        Batch(int iSize) {
+            this.aItems = new Object[iSize];
+        }
+
+        boolean isFull() {
+            return ( this.iCount == this.aItems.length );
+        }
+
+        void clear() {
+            Arrays.fill(this.aItems, 0, this.iCount, null);
+            this.iCount = 0;
+            this.theDrained = null;
+        }
+    }
+
+    static private final class Prefix {
+        final String strPrefix;
+        final String strIRI;
+
+        Prefix(String strPrefix, String strIRI) {
+            this.strPrefix = strPrefix;
+            this.strIRI = strIRI;
+        }
+    }
+
+    static private final class Base {
+        final String strBase;
+
+        Base(String strBase) {
+            this.strBase = strBase;
+        }
+    }
+
+    // The queue length of a serializer when the pipeline preference is off...
+    static private final int iDEFAULT_QUEUE = 4;
+
+    private final StreamRDF theOutput;
+    private final int iBatchSize;
+    private final int iQueueLength;
+    private final BlockingQueue<Batch> queueBatches;
+    private final BlockingQueue<Batch> queueFree;
+    private final Thread theSerializer;
+    private Batch theBatch = null;
+    private boolean bFinished = false;
+    private volatile boolean bClosed = false;
+    private volatile Throwable theError = null;
+
+    // Producer statistics...
+    private long iBatches = 0;
+    private long iStatements = 0;
+    private long iDepthSum = 0;
+    private int iDepthMax = 0;
+    private long iProducerStalls = 0;
+    private long iProducerStallNanos = 0;
+
+    // Consumer statistics: written by the serializer, read after it ends...
+    private long iConsumerStalls = 0;
+    private long iConsumerStallNanos = 0;
+
+    /*
+     * Method create()
+     *
+     *  Wrap the given stream by the pipeline preferences.  Returns the stream itself when the
+     *  pipeline is off (a queue length of 0).
+     */
+    static public StreamRDF create(StreamRDF theOutput) {
+        int iQueue = Util.getPipelineQueue();
+        if (iQueue <= 0) {
+            return theOutput;
+        }
+        return new PipelineStreamRDF( theOutput, Util.getPipelineBatch(), iQueue );
+    }
+
+    /*
+     * Method createSerializer()
+     *
+     *  Wrap the given stream to serialize on its own thread (e.g., one of several outputs written
+     *  side by side).  The pipeline preferences are used, or the default queue length when the
+     *  pipeline is off.
+     */
+    static public PipelineStreamRDF createSerializer(StreamRDF theOutput) {
+        int iQueue = Util.getPipelineQueue();
+        return new PipelineStreamRDF( theOutput, Util.getPipelineBatch(),
+            ( iQueue > 0 ? iQueue : PipelineStreamRDF.iDEFAULT_QUEUE ) );
+    }
+
+    public PipelineStreamRDF(StreamRDF theOutput, int iBatchSize, int iQueueLength) {
+        this.theOutput = theOutput;
+        this.iBatchSize = Math.max(1, iBatchSize);
+        this.iQueueLength = Math.max(1, iQueueLength);
+        this.queueBatches = new ArrayBlockingQueue<Batch>(this.iQueueLength);
+        this.queueFree = new ArrayBlockingQueue<Batch>(this.iQueueLength + 2);
+        this.theSerializer = new Thread(this::serialize, "RDFT-Serializer");
+        this.theSerializer.setDaemon(true);
+        if ( Util.isDebugMode() ) {
+            PipelineStreamRDF.logger.info("DEBUG: Created: Batch: " + this.iBatchSize + "  Queue: " + this.iQueueLength);
+        }
+    }
+
+    @Override
+    public void start() {
+        this.theOutput.start();
+        this.theSerializer.start();
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        this.add(theTriple);
+        this.iStatements++;
+    }
+
+    @Override
+    public void quad(Quad theQuad) {
+        this.add(theQuad);
+        this.iStatements++;
+    }
+
+    @Override
+    public void base(String strBase) {
+        this.add( new Base(strBase) );
+    }
+
+    @Override
+    public void prefix(String strPrefix, String strIRI) {
+        this.add( new Prefix(strPrefix, strIRI) );
+    }
+
+    /*
+     * Method drain()
+     *
+     *  Write the current batch and wait until the serializer has written every batch to the wrapped
+     *  stream.  The wrapped stream is then idle until the next statement, so the caller may flush
+     *  its output (e.g., for a checkpoint).
+     */
+    public void drain() {
+        Batch theDrainBatch = this.theBatch;
+        this.theBatch = null;
+        if (theDrainBatch == null) {
+            theDrainBatch = this.takeBatch();
+        }
+        CountDownLatch theDrained = new CountDownLatch(1);
+        theDrainBatch.theDrained = theDrained;
+        this.putBatch(theDrainBatch);
+        try {
+            while ( ! theDrained.await(100, TimeUnit.MILLISECONDS) ) {
+                this.checkError();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Pipeline drain interrupted", ex);
+        }
+        this.checkError();
+    }
+
+    @Override
+    public void finish() {
+        if (this.bFinished) {
+            return;
+        }
+        this.bFinished = true;
+        if (this.theBatch != null) {
+            this.putBatch(this.theBatch);
+            this.theBatch = null;
+        }
+        Batch theEndBatch = this.takeBatch();
+        theEndBatch.bEnd = true;
+        this.putBatch(theEndBatch);
+        try {
+            this.theSerializer.join();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.theSerializer.interrupt();
+            throw new RuntimeException("Pipeline finish interrupted", ex);
+        }
+        this.checkError();
+        this.theOutput.finish();
+        if ( Util.isVerbose(2) || Util.isDebugMode() ) {
+            PipelineStreamRDF.logger.info("Pipeline: " + this.getStatistics());
+        }
+    }
+
+    /*
+     * Method close()
+     *
+     *  Stop the serializer after a failed export and wait for it to end.  Nothing more is written.
+     */
+    public void close() {
+        this.bFinished = true;
+        this.bClosed = true;
+        if ( this.theSerializer.isAlive() ) {
+            this.theSerializer.interrupt();
+            try {
+                this.theSerializer.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /*
+     * Method setMetrics()
+     *
+     *  Report the pipeline statistics to the export metrics.
+     */
+    public void setMetrics(ExportMetrics theMetrics) {
+        theMetrics.setPipeline(
+            this.iBatchSize, this.iQueueLength,
+            this.iBatches, this.getAverageDepth(), this.iDepthMax,
+            this.iProducerStalls, this.iProducerStallNanos / 1000000L,
+            this.iConsumerStalls, this.iConsumerStallNanos / 1000000L );
+    }
+
+    public long getBatches() {
+        return this.iBatches;
+    }
+
+    public double getAverageDepth() {
+        if (this.iBatches == 0) {
+            return 0.0;
+        }
+        return Math.round( this.iDepthSum * 100.0 / this.iBatches ) / 100.0;
+    }
+
+    public String getStatistics() {
+        return
+            "Statements: " + this.iStatements + "  Batches: " + this.iBatches +
+            "  Queue Depth: " + this.getAverageDepth() + " avg, " + this.iDepthMax + " max" +
+            "  Producer Stalls: " + this.iProducerStalls + " (" + this.iProducerStallNanos / 1000000L + " ms)" +
+            "  Consumer Stalls: " + this.iConsumerStalls + " (" + this.iConsumerStallNanos / 1000000L + " ms)";
+    }
+
+    private void add(Object theItem) {
+        if (this.theBatch == null) {
+            this.theBatch = this.takeBatch();
+        }
+        this.theBatch.aItems[this.theBatch.iCount++] = theItem;
+        if ( this.theBatch.isFull() ) {
+            this.putBatch(this.theBatch);
+            this.theBatch = null;
+        }
+    }
+
+    private Batch takeBatch() {
+        Batch theFreeBatch = this.queueFree.poll();
+        if (theFreeBatch == null) {
+            theFreeBatch = new Batch(this.iBatchSize);
+        }
+        return theFreeBatch;
+    }
+
+    private void putBatch(Batch theFullBatch) {
+        this.checkError();
+        int iDepth = this.queueBatches.size();
+        this.iDepthSum += iDepth;
+        if (iDepth > this.iDepthMax) {
+            this.iDepthMax = iDepth;
+        }
+        this.iBatches++;
+        if ( this.queueBatches.offer(theFullBatch) ) {
+            return;
+        }
+        // The serializer is behind: wait for room...
+        long iStart = System.nanoTime();
+        try {
+            while ( ! this.queueBatches.offer(theFullBatch, 100, TimeUnit.MILLISECONDS) ) {
+                this.checkError();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Pipeline interrupted", ex);
+        }
+        this.iProducerStalls++;
+        this.iProducerStallNanos += System.nanoTime() - iStart;
+    }
+
+    private void checkError() {
+        Throwable theCause = this.theError;
+        if (theCause != null) {
+            throw new RuntimeException("Pipeline serializer failed: " + theCause.getMessage(), theCause);
+        }
+    }
+
+    /*
+     * Method serialize()
+     *
+     *  The serializer thread: write the batches to the wrapped stream until the end batch.  After an
+     *  error, the batches are discarded so the producer never waits on a dead serializer.
+     */
+    private void serialize() {
+        try {
+            while ( ! this.bClosed ) {
+                Batch theNextBatch = this.queueBatches.poll();
+                if (theNextBatch == null) {
+                    // The transform is behind: wait for a batch...
+                    long iStart = System.nanoTime();
+                    theNextBatch = this.queueBatches.take();
+                    this.iConsumerStalls++;
+                    this.iConsumerStallNanos += System.nanoTime() - iStart;
+                }
+                if (theNextBatch.bEnd) {
+                    return;
+                }
+                if (this.theError == null) {
+                    try {
+                        this.write(theNextBatch);
+                    }
+                    catch (Throwable ex) {
+                        PipelineStreamRDF.logger.error("ERROR: Pipeline serializer: " + ex.getMessage(), ex);
+                        this.theError = ex;
+                    }
+                }
+                if (theNextBatch.theDrained != null) {
+                    theNextBatch.theDrained.countDown();
+                }
+                theNextBatch.clear();
+                this.queueFree.offer(theNextBatch);
+            }
+        }
+        catch (InterruptedException ex) {
+            // Closed: stop...
+        }
+    }
+
+    private void write(Batch theNextBatch) {
+        for (int iItem = 0; iItem < theNextBatch.iCount; iItem++) {
+            Object theItem = theNextBatch.aItems[iItem];
+            if (theItem instanceof Triple) {
+                this.theOutput.triple( (Triple) theItem );
+            }
+            else if (theItem instanceof Quad) {
+                this.theOutput.quad( (Quad) theItem );
+            }
+            else if (theItem instanceof Prefix) {
+                Prefix thePrefix = (Prefix) theItem;
+                this.theOutput.prefix(thePrefix.strPrefix, thePrefix.strIRI);
+            }
+            else if (theItem instanceof Base) {
+                this.theOutput.base( ( (Base) theItem ).strBase );
+            }
+        }
+    }
+}
@@ -23,14 +23,12 @@ package org.openrefine.rdf.model.operation;
 import java.util.List;
 
 import org.openrefine.rdf.RDFTransform;
-import org.openrefine.rdf.model.ResourceNode;
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
 
 import com.google.refine.model.Project;
 import com.google.refine.model.Record;
 
-import org.apache.jena.iri.IRI;
-import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.system.StreamRDF;
 
 import org.slf4j.Logger;
@@ -48,6 +46,16 @@ public class PreviewRDFRecordVisitor extends RDFRecordVisitor {
         if ( Util.isDebugMode() ) PreviewRDFRecordVisitor.logger.info("DEBUG: Created...");
     }
 
+    /*
+     * Method setSampleLimit(int iLimit)
+     *
+     *  Visit at most the given number of records instead of the preferred sample limit.  A limit of 0
+     *  visits every selected record.
+     */
+    public void setSampleLimit(int iLimit) {
+        this.iLimit = iLimit;
+    }
+
     public boolean visit(Project theProject, Record theRecord) {
         // Test for end of sample...
         if ( this.iLimit > 0 && this.iCount >= this.iLimit ) {
@@ -55,21 +63,20 @@ public class PreviewRDFRecordVisitor extends RDFRecordVisitor {
         }
         try {
             if ( Util.isDebugMode() ) PreviewRDFRecordVisitor.logger.info("DEBUG: Visiting Record: " + theRecord.recordIndex + " on count: " +  this.iCount);
-            IRI baseIRI = this.getRDFTransform().getBaseIRI();
-            List<ResourceNode> listRoots = this.getRDFTransform().getRoots();
-            for ( ResourceNode root : listRoots ) {
-                this.theModel.enterCriticalSection(Model.WRITE);
-                root.createStatements(baseIRI, this.theModel, theProject, theRecord);
-                this.theModel.leaveCriticalSection();
+            this.createHoistedStatements();
+            List<PlanResourceNode> listRoots = this.thePlan.getRoots();
+            for ( PlanResourceNode root : listRoots ) {
+                root.createStatements(this.theContext, theRecord);
 
                 if ( Util.isDebugMode() ) {
                     PreviewRDFRecordVisitor.logger.info("DEBUG:   " +
                         "Root: " + root.getNodeName() + "(" + root.getNodeType() + ")  " +
-                        "Model Size: " + this.theModel.size()
+                        "Statements: " + this.getStatementCount()
                     );
                 }
             }
             this.iCount += 1;
+            this.countRecord(theRecord);
 
             // Flush all statements...
             this.flushStatements();
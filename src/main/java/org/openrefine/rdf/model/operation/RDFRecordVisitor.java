@@ -46,5 +46,6 @@ public abstract class RDFRecordVisitor extends RDFVisitor implements RecordVisit
         FilteredRecords filteredRecords = theEngine.getFilteredRecords();
         if ( Util.isVerbose(3) ) RDFRecordVisitor.logger.info("buildModel: visit matching filtered records");
         filteredRecords.accept(theProject, this);
+        this.throwVisitError();
     }
 }
@@ -46,5 +46,6 @@ public abstract class RDFRowVisitor extends RDFVisitor implements RowVisitor {
         FilteredRows filteredRows = theEngine.getAllFilteredRows();
         if ( Util.isVerbose(3) ) RDFRowVisitor.logger.info("buildModel: visit matching filtered rows");
         filteredRows.accept(theProject, this);
+        this.throwVisitError();
     }
 }
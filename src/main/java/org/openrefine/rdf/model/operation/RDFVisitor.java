@@ -20,21 +20,34 @@
 
 package org.openrefine.rdf.model.operation;
 
+import java.io.OutputStream;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import com.google.refine.model.Project;
+import com.google.refine.model.Record;
 
 import org.openrefine.rdf.RDFTransform;
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.ExpressionCache;
+import org.openrefine.rdf.model.plan.PlanContext;
+import org.openrefine.rdf.model.plan.PlanProfile;
+import org.openrefine.rdf.model.plan.PlanResourceNode;
+import org.openrefine.rdf.model.plan.TransformPlan;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+import org.openrefine.rdf.model.utils.IRICache;
+import org.openrefine.rdf.model.utils.RDFTEvents;
 import org.openrefine.rdf.model.vocab.Vocabulary;
 import com.google.refine.browsing.Engine;
 
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
 import org.apache.jena.riot.system.StreamRDF;
-import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.riot.system.StreamRDFLib;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,10 +55,35 @@ import org.slf4j.LoggerFactory;
 public abstract class RDFVisitor {
     private final static Logger logger = LoggerFactory.getLogger("RDFT:RDFVisitor");
 
+    /*
+     * Interface Checkpoint
+     *
+     *  Told of each row or record whose statements are fully written (see setCheckpoint()) and the
+     *  count of rows or records written so far.
+     */
+    public interface Checkpoint {
+        void checkpoint(int iIndex, long iWritten) throws Exception;
+    }
+
     private final RDFTransform theTransform;
     private final StreamRDF theWriter;
     protected final Model theModel;
     protected boolean bLimitWarning = true;
+    protected TransformPlan thePlan = null;
+    protected PlanContext theContext = null;
+    protected ExportMetrics theMetrics = null;
+    protected PlanProfile theProfile = null;
+    private StreamRDF theOutput = null;
+    private StreamRDF theCountedWriter = null;
+    private VisitStreamRDF theVisitStream = null;
+    private boolean bHoisted = false;
+    private long iHoistedCount = 0;
+    private long iSpillLimit = 0;
+    private SpillStreamRDF theSpillStream = null;
+    private Checkpoint theCheckpoint = null;
+    private int iResumeIndex = -1;
+    private long iWritten = 0;
+    private Exception theVisitError = null;
 
     public RDFVisitor(RDFTransform theTransform, StreamRDF theWriter) {
         this.theTransform = theTransform;
@@ -107,6 +145,66 @@ public abstract class RDFVisitor {
         return (this.theWriter == null);
     }
 
+    /*
+     * Method setMetrics(ExportMetrics theMetrics)
+     *
+     *  Update the given export metrics on the visit: the rows and records visited, the statements
+     *  emitted, the flushes, and the plan evaluations (see PlanContext).  Set before buildModel().
+     */
+    public void setMetrics(ExportMetrics theMetrics) {
+        this.theMetrics = theMetrics;
+    }
+
+    /*
+     * Method setProfile(PlanProfile theProfile)
+     *
+     *  Profile each node, property, and type of the transform on the visit (see PlanProfile).  The
+     *  visit must be serial.  Set before buildModel().
+     */
+    public void setProfile(PlanProfile theProfile) {
+        this.theProfile = theProfile;
+    }
+
+    /*
+     * Method setSpillLimit(long iSpillLimit)
+     *
+     *  Without a writer, spill the model to a temporary disk dataset when it holds more than the
+     *  given number of statements.  A limit of 0 keeps the whole model in memory.  The spilled model
+     *  is available through writeModel() instead of getModel().  Set before buildModel().
+     */
+    public void setSpillLimit(long iSpillLimit) {
+        this.iSpillLimit = iSpillLimit;
+    }
+
+    /*
+     * Method writeModel(OutputStream theOutput, RDFFormat theFormat)
+     *
+     *  Write the model built without a writer, spilled or not.
+     */
+    public void writeModel(OutputStream theOutput, RDFFormat theFormat) {
+        if (this.theSpillStream == null) {
+            RDFDataMgr.write(theOutput, this.theModel, theFormat);
+            return;
+        }
+        this.theSpillStream.write(theOutput, theFormat);
+    }
+
+    /*
+     * Method closeModel()
+     *
+     *  Close the model built without a writer and remove any spilled dataset.
+     */
+    public void closeModel() {
+        try {
+            if (this.theSpillStream != null) {
+                this.theSpillStream.close();
+            }
+        }
+        finally {
+            this.theModel.close();
+        }
+    }
+
     abstract public void buildModel(Project theProject, Engine theEngine);
 
     /**
@@ -117,6 +215,35 @@ public abstract class RDFVisitor {
     public void start(Project theProject) {
         if ( Util.isVerbose(3) ) RDFVisitor.logger.info("Starting Visitation...");
 
+        // Compile the transform for the project once for all rows or records...
+        this.thePlan = TransformPlan.compile(this.theTransform, theProject, this.theModel);
+
+        // With a writer, emit the statements directly to the writer.
+        // Otherwise, collect the statements in the model for the calling processor...
+        if ( this.theWriter == null ) {
+            if (this.iSpillLimit > 0) {
+                this.theSpillStream = new SpillStreamRDF(this.theModel, this.iSpillLimit);
+                this.theOutput = this.countStatements(this.theSpillStream);
+            }
+            else {
+                this.theOutput = this.countStatements( StreamRDFLib.graph( this.theModel.getGraph() ) );
+            }
+        }
+        else {
+            this.theCountedWriter = this.countStatements(this.theWriter);
+            this.theVisitStream = new VisitStreamRDF(this.theCountedWriter);
+            this.theOutput = this.theVisitStream;
+        }
+        this.theContext = new PlanContext(this.thePlan, theProject, this.theOutput);
+        this.theContext.setMetrics(this.theMetrics);
+        this.theContext.setProfile(this.theProfile);
+        if (this.theProfile != null) {
+            this.theProfile.register(this.thePlan);
+        }
+        // A resumed export wrote the hoisted statements before its checkpoint...
+        this.bHoisted = ( this.iResumeIndex >= 0 );
+        this.iHoistedCount = 0;
+
         // If we do NOT have a writer, let the calling processor control all model activity...
         if ( this.theWriter == null ) {
             return;
@@ -147,8 +274,18 @@ public abstract class RDFVisitor {
     public void end(Project theProject) {
         if ( Util.isVerbose(3) ) RDFVisitor.logger.info("...Ending Visitation");
 
+        if ( this.bHoisted && Util.isVerbose(2) ) {
+            RDFVisitor.logger.info("Hoisted Statements: " + this.iHoistedCount +
+                " (from " + this.thePlan.getHoistedRoots().size() + " constant roots, created once)");
+        }
+        ExpressionCache.logStatistics();
+        IRICache.logStatistics();
+
         // If we do NOT have a writer, let the calling processor control all model activity...
         if ( this.theWriter == null ) {
+            if (this.theSpillStream != null) {
+                this.theSpillStream.finish();
+            }
             return;
         }
 
@@ -163,28 +300,251 @@ public abstract class RDFVisitor {
         }
     }
 
+    /*
+     * Method getHoistedCount()
+     *
+     *  The number of distinct statements created once for the hoisted (row independent) roots
+     *  instead of on each row or record (see TransformPlan.getHoistedRoots()).
+     */
+    public long getHoistedCount() {
+        return this.iHoistedCount;
+    }
+
+    /*
+     * Method createHoistedStatements()
+     *
+     *  Create the statements for the hoisted roots once per export.  Called by the visitors on the
+     *  first visited row or record, so an export with no selected rows or records has no
+     *  statements, as before.
+     */
+    protected void createHoistedStatements() {
+        if (this.bHoisted) {
+            return;
+        }
+        this.bHoisted = true;
+        List<PlanResourceNode> listHoistedRoots = this.thePlan.getHoistedRoots();
+        if ( listHoistedRoots.isEmpty() ) {
+            return;
+        }
+
+        // Count the distinct statements on their own stream...
+        VisitStreamRDF theHoistedStream = new VisitStreamRDF(this.theOutput);
+        PlanContext theHoistedContext = new PlanContext( this.thePlan, this.theContext.getProject(), theHoistedStream );
+        theHoistedContext.setMetrics(this.theMetrics);
+        theHoistedContext.setProfile(this.theProfile);
+        for ( PlanResourceNode root : listHoistedRoots ) {
+            root.createHoistedStatements(theHoistedContext);
+        }
+        this.iHoistedCount = theHoistedStream.size();
+        theHoistedStream.clear();
+        this.flushStatements();
+        if ( Util.isDebugMode() ) RDFVisitor.logger.info("DEBUG: Hoisted Statements: " + this.iHoistedCount);
+    }
+
+    /*
+     * Method countStatements()
+     *
+     *  The given output counting the emitted statements for the metrics, if any.
+     */
+    private StreamRDF countStatements(StreamRDF theOutput) {
+        if (this.theMetrics == null) {
+            return theOutput;
+        }
+        return this.theMetrics.count(theOutput);
+    }
+
+    /*
+     * Method countRow() / countRecord()
+     *
+     *  Count a visited row or record (and its rows) for the metrics and profile, if any.
+     */
+    protected void countRow() {
+        if (this.theMetrics != null) {
+            this.theMetrics.addRow();
+        }
+        if (this.theProfile != null) {
+            this.theProfile.addRow();
+        }
+    }
+
+    protected void countRecord(Record theRecord) {
+        if (this.theMetrics != null) {
+            this.theMetrics.addRecord(theRecord.toRowIndex - theRecord.fromRowIndex);
+        }
+        if (this.theProfile != null) {
+            this.theProfile.addRecord(theRecord.toRowIndex - theRecord.fromRowIndex);
+        }
+    }
+
+    /*
+     * Method isCanceled()
+     *
+     *  Whether the export was canceled (see ExportMetrics.cancel()).  The export visitors stop at
+     *  the next row or record.
+     */
+    protected boolean isCanceled() {
+        return ( this.theMetrics != null && this.theMetrics.isCanceled() );
+    }
+
+    /*
+     * Method setCheckpoint()
+     *
+     *  Set the checkpoint told of each row or record index (record index in record mode) once its
+     *  statements are flushed to the writer.  The indexes are told in visit order.
+     */
+    public void setCheckpoint(Checkpoint theCheckpoint) {
+        this.theCheckpoint = theCheckpoint;
+    }
+
+    /*
+     * Method setResumeIndex()
+     *
+     *  Resume a checkpointed export: skip the rows or records up to and including the given index.
+     *  The hoisted statements are not created again.  Default: -1, skip none.
+     */
+    public void setResumeIndex(int iResumeIndex) {
+        this.iResumeIndex = iResumeIndex;
+    }
+
+    /*
+     * Method isResumed()
+     *
+     *  Whether the row or record index was written before the resume checkpoint.
+     */
+    protected boolean isResumed(int iIndex) {
+        return ( iIndex <= this.iResumeIndex );
+    }
+
+    /*
+     * Method checkpoint()
+     *
+     *  Tell the checkpoint the row or record index is written: the last of the given count of rows
+     *  or records written since the last call (one by default).
+     */
+    protected void checkpoint(int iIndex) {
+        this.checkpoint(iIndex, 1);
+    }
+
+    protected void checkpoint(int iIndex, int iCount) {
+        this.iWritten += iCount;
+        if (this.theCheckpoint == null) {
+            return;
+        }
+        try {
+            this.theCheckpoint.checkpoint(iIndex, this.iWritten);
+        }
+        catch (Exception ex) {
+            throw new RuntimeException("Checkpoint failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    /*
+     * Method setVisitError()
+     *
+     *  Record the failure that stopped the visit.  The first failure is kept.
+     */
+    protected void setVisitError(Exception ex) {
+        if (this.theVisitError == null) {
+            this.theVisitError = ex;
+        }
+    }
+
+    /*
+     * Method getVisitError()
+     *
+     *  The failure that stopped the visit, or null when none.
+     */
+    public Exception getVisitError() {
+        return this.theVisitError;
+    }
+
+    /*
+     * Method throwVisitError()
+     *
+     *  Fail the build after the visit when a row or record failed, so a stopped visit is not taken
+     *  for a complete one.
+     */
+    protected void throwVisitError() {
+        if (this.theVisitError != null) {
+            throw new RuntimeException("Visit failed: " + this.theVisitError.getMessage(), this.theVisitError);
+        }
+    }
+
+    /*
+     * Method getStatementCount()
+     *
+     *  The number of statements held in memory for the current visit: the model size without a
+     *  writer (none once spilled) or the statements tracked for duplicates with a writer.
+     */
+    protected long getStatementCount() {
+        if ( this.theWriter == null ) {
+            if (this.theSpillStream != null) {
+                return this.theSpillStream.getMemorySize();
+            }
+            return this.theModel.size();
+        }
+        return this.theVisitStream.size();
+    }
+
+    /*
+     * Method flushStatements()
+     *
+     *  With a writer, the statements are already written as emitted, so end the duplicate tracking
+     *  for the visit.  Without a writer, the model is controlled by the calling processor.
+     */
     protected void flushStatements() {
         if ( this.theWriter == null ) {
             return;
         }
-        // TODO: Code for future context upgrade (quads)
+        RDFTEvents.FlushEvent theEvent = new RDFTEvents.FlushEvent();
+        theEvent.begin();
+        int iStatements = this.theVisitStream.size();
+        if (this.theMetrics == null) {
+            this.theVisitStream.clear();
+        }
+        else {
+            long iStart = System.nanoTime();
+            this.theVisitStream.clear();
+            this.theMetrics.addFlush(System.nanoTime() - iStart);
+        }
+        this.commitEvent(theEvent, iStatements);
+    }
 
+    /*
+     * Method writeStatements()
+     *
+     *  Write a buffered set of statements to the writer.  Each write is counted as a flush for the
+     *  metrics.
+     */
+    protected void writeStatements(List<Triple> listTriples) {
+        if ( this.theWriter == null ) {
+            return;
+        }
+        RDFTEvents.FlushEvent theEvent = new RDFTEvents.FlushEvent();
+        theEvent.begin();
+        long iStart = ( this.theMetrics == null ? 0 : System.nanoTime() );
         // Export statements...
-        this.theModel.enterCriticalSection(Model.READ);
-        ExtendedIterator<Triple> stmtIter = this.theModel.getGraph().find();
-        try {
-            while ( stmtIter.hasNext() ) {
-                this.theWriter.triple( stmtIter.next() );
-            }
+        for (Triple theTriple : listTriples) {
+            this.theCountedWriter.triple(theTriple);
         }
-        finally {
-            stmtIter.close();
+        if (this.theMetrics != null) {
+            this.theMetrics.addFlush(System.nanoTime() - iStart);
         }
-        this.theModel.leaveCriticalSection();
+        this.commitEvent( theEvent, listTriples.size() );
+    }
 
-        // Remove the exported statements from the model...
-        this.theModel.enterCriticalSection(Model.WRITE);
-        this.theModel.removeAll();
-        this.theModel.leaveCriticalSection();
+    /*
+     * Method commitEvent()
+     *
+     *  Commit the flush JFR event, if recorded (see RDFTEvents).
+     */
+    private void commitEvent(RDFTEvents.FlushEvent theEvent, long iStatements) {
+        theEvent.end();
+        if ( theEvent.shouldCommit() ) {
+            theEvent.project = this.theContext.getProject().id;
+            theEvent.rows = ( this.theMetrics == null ? 0 : this.theMetrics.getRows() );
+            theEvent.triples = iStatements;
+            theEvent.commit();
+        }
     }
 }
@@ -0,0 +1,263 @@
+/*
+ *  Class SortedStreamRDF
+ *
+ *  A StreamRDF that sorts the triples by subject with an external merge sort before writing them.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.out.NodeFmtLib;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.tokens.Tokenizer;
+import org.apache.jena.riot.tokens.TokenizerText;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class SortedStreamRDF
+ *
+ *  Each triple is held as its N-Triples line.  The lines sort by subject first, so all triples for a
+ *  subject are adjacent after sorting.  The lines are buffered up to iRUN_SIZE, sorted, and written
+ *  to a temporary run file.  At finish(), the runs are merged (k-way) iMERGE_WIDTH at a time until
+ *  one merge remains.  The final merge drops duplicate lines and passes the triples, in subject
+ *  order, to the wrapped writer.  With a block writer (e.g., TURTLE_BLOCKS), each subject is then
+ *  written as one block.
+ *
+ *  The memory used is bounded by the run size and merge width, not the number of triples.
+ *
+ *  Prefixes are passed to the wrapped writer as received.  Call close() to remove any remaining run
+ *  files when an export fails.
+ */
+public class SortedStreamRDF extends StreamRDFBase {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:SortedStreamRDF");
+
+    // The lines held in memory per sorted run...
+    static private final int iRUN_SIZE = 131072;
+    // The runs merged at once...
+    static private final int iMERGE_WIDTH = 64;
+
+    private final StreamRDF theWriter;
+    private final List<String> listLines = new ArrayList<String>(SortedStreamRDF.iRUN_SIZE);
+    private final List<Path> listRuns = new ArrayList<Path>();
+
+    public SortedStreamRDF(StreamRDF theWriter) {
+        this.theWriter = theWriter;
+    }
+
+    @Override
+    public void start() {
+        this.theWriter.start();
+    }
+
+    @Override
+    public void base(String strBase) {
+        this.theWriter.base(strBase);
+    }
+
+    @Override
+    public void prefix(String strPrefix, String strIRI) {
+        this.theWriter.prefix(strPrefix, strIRI);
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        this.listLines.add(
+            NodeFmtLib.strNT( theTriple.getSubject() ) + " " +
+            NodeFmtLib.strNT( theTriple.getPredicate() ) + " " +
+            NodeFmtLib.strNT( theTriple.getObject() ) + " ." );
+        if ( this.listLines.size() >= SortedStreamRDF.iRUN_SIZE ) {
+            this.writeRun();
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            if ( this.listRuns.isEmpty() ) {
+                // Everything fits in one run: no run files needed...
+                Collections.sort(this.listLines);
+                String strLast = null;
+                for (String strLine : this.listLines) {
+                    if ( ! strLine.equals(strLast) ) {
+                        this.theWriter.triple( SortedStreamRDF.parse(strLine) );
+                    }
+                    strLast = strLine;
+                }
+                this.listLines.clear();
+            }
+            else {
+                if ( ! this.listLines.isEmpty() ) {
+                    this.writeRun();
+                }
+                // Reduce the runs to a final merge width...
+                while ( this.listRuns.size() > SortedStreamRDF.iMERGE_WIDTH ) {
+                    List<Path> listMerge = new ArrayList<Path>( this.listRuns.subList(0, SortedStreamRDF.iMERGE_WIDTH) );
+                    this.listRuns.subList(0, SortedStreamRDF.iMERGE_WIDTH).clear();
+                    Path pathRun = Files.createTempFile("rdft-sort-", ".nt");
+                    this.listRuns.add(pathRun);
+                    try ( BufferedWriter theRun = Files.newBufferedWriter(pathRun, StandardCharsets.UTF_8) ) {
+                        this.merge(listMerge,
+                            (String strLine) -> {
+                                theRun.write(strLine);
+                                theRun.newLine();
+                            }
+                        );
+                    }
+                    SortedStreamRDF.delete(listMerge);
+                }
+                this.merge( this.listRuns, (String strLine) -> this.theWriter.triple( SortedStreamRDF.parse(strLine) ) );
+                this.close();
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.theWriter.finish();
+    }
+
+    /*
+     * Method close()
+     *
+     *  Remove any remaining run files.
+     */
+    public void close() {
+        SortedStreamRDF.delete(this.listRuns);
+        this.listRuns.clear();
+        this.listLines.clear();
+    }
+
+    private void writeRun() {
+        Collections.sort(this.listLines);
+        try {
+            Path pathRun = Files.createTempFile("rdft-sort-", ".nt");
+            this.listRuns.add(pathRun);
+            try ( BufferedWriter theRun = Files.newBufferedWriter(pathRun, StandardCharsets.UTF_8) ) {
+                String strLast = null;
+                for (String strLine : this.listLines) {
+                    if ( ! strLine.equals(strLast) ) {
+                        theRun.write(strLine);
+                        theRun.newLine();
+                    }
+                    strLast = strLine;
+                }
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if ( Util.isDebugMode() ) {
+            SortedStreamRDF.logger.info("DEBUG: Sorted run " + this.listRuns.size() + ": " + this.listLines.size() + " lines");
+        }
+        this.listLines.clear();
+    }
+
+    /*
+     * Class RunReader
+     *
+     *  The current line of a run file in a merge.
+     */
+    static private class RunReader implements Comparable<RunReader> {
+        private final BufferedReader theReader;
+        private String strLine;
+
+        RunReader(Path pathRun) throws IOException {
+            this.theReader = Files.newBufferedReader(pathRun, StandardCharsets.UTF_8);
+            this.strLine = this.theReader.readLine();
+        }
+
+        boolean next() throws IOException {
+            this.strLine = this.theReader.readLine();
+            return (this.strLine != null);
+        }
+
+        public int compareTo(RunReader theOther) {
+            return this.strLine.compareTo(theOther.strLine);
+        }
+    }
+
+    private interface LineConsumer {
+        void accept(String strLine) throws IOException;
+    }
+
+    private void merge(List<Path> listMerge, LineConsumer theConsumer) throws IOException {
+        PriorityQueue<RunReader> queueRuns = new PriorityQueue<RunReader>( listMerge.size() );
+        List<RunReader> listReaders = new ArrayList<RunReader>( listMerge.size() );
+        try {
+            for (Path pathRun : listMerge) {
+                RunReader theRun = new RunReader(pathRun);
+                listReaders.add(theRun);
+                if (theRun.strLine != null) {
+                    queueRuns.add(theRun);
+                }
+            }
+            String strLast = null;
+            while ( ! queueRuns.isEmpty() ) {
+                RunReader theRun = queueRuns.poll();
+                // Drop duplicates across runs...
+                if ( ! theRun.strLine.equals(strLast) ) {
+                    theConsumer.accept(theRun.strLine);
+                    strLast = theRun.strLine;
+                }
+                if ( theRun.next() ) {
+                    queueRuns.add(theRun);
+                }
+            }
+        }
+        finally {
+            for (RunReader theRun : listReaders) {
+                theRun.theReader.close();
+            }
+        }
+    }
+
+    static private Triple parse(String strLine) {
+        Tokenizer theTokens = TokenizerText.fromString(strLine);
+        Node theSubject = theTokens.next().asNode();
+        Node thePredicate = theTokens.next().asNode();
+        Node theObject = theTokens.next().asNode();
+        return Triple.create(theSubject, thePredicate, theObject);
+    }
+
+    static private void delete(List<Path> listPaths) {
+        for (Path thePath : listPaths) {
+            try {
+                Files.deleteIfExists(thePath);
+            }
+            catch (IOException ex) {
+                SortedStreamRDF.logger.warn("WARNING: Removing sort run " + thePath + ": " + ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  Class SpillStreamRDF
+ *
+ *  A StreamRDF that collects triples in memory and spills them to a temporary TDB2 dataset.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.sys.TDBInternal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class SpillStreamRDF
+ *
+ *  The triples are collected in the visitor's memory model until the model holds more than the
+ *  spill limit.  Then, the model's triples and prefixes are moved to a TDB2 dataset in a temporary
+ *  directory and all following triples are added to the dataset.  Like the memory model, the
+ *  dataset is a set of triples, so duplicates are dropped.
+ *
+ *  The dataset is loaded in write transactions committed every iCOMMIT_SIZE triples to bound the
+ *  transaction journal.  The complete graph is then written in a single read transaction, so the
+ *  pretty writers keep their subject grouping while the graph stays on disk.
+ *
+ *  Call finish() after the last triple and close() after writing to remove the dataset.
+ */
+public class SpillStreamRDF extends StreamRDFBase {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:SpillStreamRDF");
+
+    // The triples added to the dataset per write transaction...
+    static private final int iCOMMIT_SIZE = 100000;
+
+    private final Model theMemoryModel;
+    private final Graph theMemoryGraph;
+    private final long iSpillLimit;
+
+    private File fileSpillDir = null;
+    private Dataset theDataset = null;
+    private Graph theSpillGraph = null;
+    private int iPending = 0;
+
+    public SpillStreamRDF(Model theMemoryModel, long iSpillLimit) {
+        this.theMemoryModel = theMemoryModel;
+        this.theMemoryGraph = theMemoryModel.getGraph();
+        this.iSpillLimit = iSpillLimit;
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        if (this.theDataset == null) {
+            this.theMemoryGraph.add(theTriple);
+            if ( this.theMemoryGraph.size() > this.iSpillLimit ) {
+                this.spill();
+            }
+            return;
+        }
+        this.theSpillGraph.add(theTriple);
+        if (++this.iPending >= SpillStreamRDF.iCOMMIT_SIZE) {
+            this.theDataset.commit();
+            this.theDataset.begin(ReadWrite.WRITE);
+            this.theSpillGraph = this.theDataset.getDefaultModel().getGraph();
+            this.iPending = 0;
+        }
+    }
+
+    public boolean isSpilled() {
+        return (this.theDataset != null);
+    }
+
+    /*
+     * Method getMemorySize()
+     *
+     *  The number of triples held in memory.  Once spilled, no triples are held in memory.
+     */
+    public long getMemorySize() {
+        return this.theMemoryGraph.size();
+    }
+
+    /*
+     * Method finish()
+     *
+     *  Commit the last write transaction after the last triple.
+     */
+    @Override
+    public void finish() {
+        if ( this.theDataset != null && this.theDataset.isInTransaction() ) {
+            this.theDataset.commit();
+            this.theDataset.end();
+        }
+    }
+
+    public void write(OutputStream theOutput, RDFFormat theFormat) {
+        if (this.theDataset == null) {
+            RDFDataMgr.write(theOutput, this.theMemoryModel, theFormat);
+            return;
+        }
+        this.theDataset.begin(ReadWrite.READ);
+        try {
+            RDFDataMgr.write(theOutput, this.theDataset.getDefaultModel(), theFormat);
+        }
+        finally {
+            this.theDataset.end();
+        }
+    }
+
+    /*
+     * Method close()
+     *
+     *  Release the dataset and remove its temporary directory.
+     */
+    public void close() {
+        if (this.theDataset == null) {
+            return;
+        }
+        try {
+            if ( this.theDataset.isInTransaction() ) {
+                this.theDataset.abort();
+                this.theDataset.end();
+            }
+            TDBInternal.expel( this.theDataset.asDatasetGraph() );
+        }
+        finally {
+            this.theDataset = null;
+            this.theSpillGraph = null;
+            try {
+                FileUtils.deleteDirectory(this.fileSpillDir);
+            }
+            catch (IOException ex) {
+                SpillStreamRDF.logger.warn("WARNING: Removing spill dataset " + this.fileSpillDir + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private void spill() {
+        try {
+            this.fileSpillDir = Files.createTempDirectory("rdft-spill-").toFile();
+        }
+        catch (IOException ex) {
+            throw new RuntimeException("Creating spill directory: " + ex.getMessage(), ex);
+        }
+        if ( Util.isVerbose(2) || Util.isDebugMode() ) {
+            SpillStreamRDF.logger.info("Spilling " + this.theMemoryGraph.size() + " statements to " + this.fileSpillDir);
+        }
+        this.theDataset = TDB2Factory.connectDataset( this.fileSpillDir.getAbsolutePath() );
+        this.theDataset.begin(ReadWrite.WRITE);
+        Model theSpillModel = this.theDataset.getDefaultModel();
+        theSpillModel.setNsPrefixes( this.theMemoryModel.getNsPrefixMap() );
+        this.theSpillGraph = theSpillModel.getGraph();
+        this.theMemoryGraph.find().forEachRemaining(this.theSpillGraph::add);
+        this.theMemoryGraph.clear();
+        this.theDataset.commit();
+        this.theDataset.begin(ReadWrite.WRITE);
+        this.theSpillGraph = this.theDataset.getDefaultModel().getGraph();
+        this.iPending = 0;
+    }
+}
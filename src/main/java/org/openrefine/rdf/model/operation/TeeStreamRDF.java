@@ -0,0 +1,119 @@
+/*
+ *  Class TeeStreamRDF
+ *
+ *  A stream copying its statements to several streams, each serialized on its own thread.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class TeeStreamRDF
+ *
+ *  Fans one stream of statements out to several output streams (e.g., a Turtle, an N-Triples, and
+ *  an RDF Thrift writer), so one transform of the project feeds every format.  Given more than one
+ *  output, each output is serialized on its own thread (see PipelineStreamRDF.createSerializer()):
+ *  the producer only batches the statements and the formats are written side by side.  A slow
+ *  output holds back the producer by its queue.
+ *
+ *  The finish() finishes each output in turn, waiting for its serializer.  Call close() after a
+ *  failed export to stop the serializers.
+ *
+ *  The stream has a single producer, as PipelineStreamRDF.
+ */
+public class TeeStreamRDF implements StreamRDF {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:TeeStreamRDF");
+
+    private final StreamRDF[] aOutputs;
+
+    public TeeStreamRDF(List<StreamRDF> listOutputs) {
+        this.aOutputs = new StreamRDF[ listOutputs.size() ];
+        for (int iIndex = 0; iIndex < this.aOutputs.length; iIndex++) {
+            StreamRDF theOutput = listOutputs.get(iIndex);
+            if (this.aOutputs.length > 1) {
+                theOutput = PipelineStreamRDF.createSerializer(theOutput);
+            }
+            this.aOutputs[iIndex] = theOutput;
+        }
+        if ( Util.isDebugMode() ) TeeStreamRDF.logger.info("DEBUG: Created: Outputs: " + this.aOutputs.length);
+    }
+
+    @Override
+    public void start() {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.start();
+        }
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.triple(theTriple);
+        }
+    }
+
+    @Override
+    public void quad(Quad theQuad) {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.quad(theQuad);
+        }
+    }
+
+    @Override
+    public void base(String strBase) {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.base(strBase);
+        }
+    }
+
+    @Override
+    public void prefix(String strPrefix, String strIRI) {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.prefix(strPrefix, strIRI);
+        }
+    }
+
+    @Override
+    public void finish() {
+        for (StreamRDF theOutput : this.aOutputs) {
+            theOutput.finish();
+        }
+    }
+
+    /*
+     * Method close()
+     *
+     *  Stop the serializers after a failed export.  Nothing more is written.
+     */
+    public void close() {
+        for (StreamRDF theOutput : this.aOutputs) {
+            if (theOutput instanceof PipelineStreamRDF) {
+                ( (PipelineStreamRDF) theOutput ).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Class VisitStreamRDF
+ *
+ *  A StreamRDF wrapper that drops duplicate triples within a row or record visit.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.operation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+
+/*
+ * Class VisitStreamRDF
+ *
+ *  Triples are passed directly to the wrapped stream.  A triple already passed since the last
+ *  clear() is dropped.  This matches the statements previously flushed from a per visit Model
+ *  without building the Model: a transform may produce the same triple more than once for a row
+ *  or record (e.g., a constant object on each row of a record).
+ *
+ *  The visitors clear() at the end of each visit and when the export limit is reached.
+ */
+public class VisitStreamRDF extends StreamRDFWrapper {
+    private final Set<Triple> setTriples = new HashSet<Triple>();
+
+    public VisitStreamRDF(StreamRDF theOutput) {
+        super(theOutput);
+    }
+
+    @Override
+    public void triple(Triple theTriple) {
+        if ( this.setTriples.add(theTriple) ) {
+            super.triple(theTriple);
+        }
+    }
+
+    public int size() {
+        return this.setTriples.size();
+    }
+
+    public void clear() {
+        this.setTriples.clear();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *  Class BlankNodeLabels
+ *
+ *  The stable, hashed labels of the generated blank nodes.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.model.Project;
+import com.google.refine.model.RecordModel;
+
+/*
+ * Class BlankNodeLabels
+ *
+ *  By default, a cell blank node (see PlanCellBlankNode) keeps its readable label (the "label"
+ *  scope).  Given a hashed scope, a cell blank node is labeled by hashing:
+ *    the node's compile ordinal (see TransformPlan)
+ *    the scope key: the row index, the record index, or nothing, by scope
+ *    the evaluated value
+ *  into a compact label: 100 bits of a 128 bit hash as 20 base 32 characters ([0-9a-v]).  The same
+ *  node, key, and value produce the same label on every run, on any thread, in any chunk, shard, or
+ *  resumed export, so statements exported independently name the same blank nodes.  Different
+ *  nodes on the same column never share a label.
+ *
+ *  The scope (see Util.getBlankNodeScope()) sets which node values are the same blank node:
+ *    "label"   - (default) no hash: the readable labels "<column>_<row>" and "b<ordinal>r<row>"
+ *    "row"     - the same value in the same row
+ *    "record"  - the same value in the same record (the project's record grouping)
+ *    "export"  - the same value anywhere in the export
+ *
+ *  The hash runs over the value's characters without building a key string, so a label costs only
+ *  its own String.
+ */
+public final class BlankNodeLabels {
+    public enum Scope {
+        LABEL, ROW, RECORD, EXPORT;
+
+        /*
+         * Method parse()
+         *
+         *  The scope by preference name, or null when unknown.
+         */
+        static public Scope parse(String strScope) {
+            if (strScope == null) {
+                return null;
+            }
+            switch ( strScope.trim().toLowerCase() ) {
+                case "label":  return Scope.LABEL;
+                case "row":    return Scope.ROW;
+                case "record": return Scope.RECORD;
+                case "export": return Scope.EXPORT;
+                default:       return null;
+            }
+        }
+    }
+
+    static private final char[] acDIGITS = "0123456789abcdefghijklmnopqrstuv".toCharArray();
+    static private final int iLABEL_LENGTH = 20;
+
+    // Hash lane constants...
+    static private final long iSEED_1 = 0x9E3779B97F4A7C15L;
+    static private final long iSEED_2 = 0xC2B2AE3D27D4EB4FL;
+    static private final long iMULT_1 = 0x87C37B91114253D5L;
+    static private final long iMULT_2 = 0x4CF5AD432745937FL;
+
+    private BlankNodeLabels() {
+        // Static only...
+    }
+
+    /*
+     * Method getScope()
+     *
+     *  The blank node scope preference.
+     */
+    static public Scope getScope() {
+        Scope eScope = Scope.parse( Util.getBlankNodeScope() );
+        return ( eScope == null ? Scope.LABEL : eScope );
+    }
+
+    /*
+     * Method getKey()
+     *
+     *  The scope key of the row: the row index, the record index of the row, or 0 for the export.
+     */
+    static public long getKey(Scope eScope, Project theProject, int iRowIndex) {
+        switch (eScope) {
+            case RECORD:
+                RecordModel.RowDependency theDependency = theProject.recordModel.getRowDependency(iRowIndex);
+                return ( theDependency == null ? iRowIndex : theDependency.recordIndex );
+            case EXPORT:
+                return 0;
+            default:
+                return iRowIndex;
+        }
+    }
+
+    /*
+     * Method label()
+     *
+     *  The hashed label of the node ordinal, scope key, and value.
+     */
+    static public String label(int iOrdinal, long iKey, String strValue) {
+        long iHash1 = BlankNodeLabels.iSEED_1;
+        long iHash2 = BlankNodeLabels.iSEED_2;
+        iHash1 = BlankNodeLabels.mix(iHash1, iOrdinal, BlankNodeLabels.iMULT_1);
+        iHash2 = BlankNodeLabels.mix(iHash2, iOrdinal, BlankNodeLabels.iMULT_2);
+        iHash1 = BlankNodeLabels.mix(iHash1, iKey, BlankNodeLabels.iMULT_1);
+        iHash2 = BlankNodeLabels.mix(iHash2, iKey, BlankNodeLabels.iMULT_2);
+        int iLength = strValue.length();
+        int iChar = 0;
+        // Four characters per step...
+        for ( ; iChar + 4 <= iLength; iChar += 4) {
+            long iBlock =
+                (long) strValue.charAt(iChar) |
+                ( (long) strValue.charAt(iChar + 1) << 16 ) |
+                ( (long) strValue.charAt(iChar + 2) << 32 ) |
+                ( (long) strValue.charAt(iChar + 3) << 48 );
+            iHash1 = BlankNodeLabels.mix(iHash1, iBlock, BlankNodeLabels.iMULT_1);
+            iHash2 = BlankNodeLabels.mix(iHash2, iBlock, BlankNodeLabels.iMULT_2);
+        }
+        long iTail = 0;
+        for (int iShift = 0; iChar < iLength; iChar++, iShift += 16) {
+            iTail |= (long) strValue.charAt(iChar) << iShift;
+        }
+        // The length ends the value so values are not prefixes of each other...
+        iTail ^= (long) iLength << 48;
+        iHash1 = BlankNodeLabels.mix(iHash1, iTail, BlankNodeLabels.iMULT_1);
+        iHash2 = BlankNodeLabels.mix(iHash2, iTail, BlankNodeLabels.iMULT_2);
+
+        iHash1 = BlankNodeLabels.finish(iHash1 ^ iHash2);
+        iHash2 = BlankNodeLabels.finish(iHash2 + iHash1);
+
+        // 20 base 32 characters: 60 bits from the first lane, 40 from the second...
+        char[] acLabel = new char[BlankNodeLabels.iLABEL_LENGTH];
+        for (int iDigit = 0; iDigit < 12; iDigit++) {
+            acLabel[iDigit] = BlankNodeLabels.acDIGITS[ (int) (iHash1 & 31) ];
+            iHash1 >>>= 5;
+        }
+        for (int iDigit = 12; iDigit < BlankNodeLabels.iLABEL_LENGTH; iDigit++) {
+            acLabel[iDigit] = BlankNodeLabels.acDIGITS[ (int) (iHash2 & 31) ];
+            iHash2 >>>= 5;
+        }
+        return new String(acLabel);
+    }
+
+    static private long mix(long iHash, long iValue, long iMult) {
+        iValue *= iMult;
+        iValue = Long.rotateLeft(iValue, 31);
+        iValue *= BlankNodeLabels.iSEED_1;
+        iHash ^= iValue;
+        iHash = Long.rotateLeft(iHash, 27);
+        return iHash * 5 + 0x52DCE729L;
+    }
+
+    // The MurmurHash3 64 bit finalizer...
+    static private long finish(long iHash) {
+        iHash ^= iHash >>> 33;
+        iHash *= 0xFF51AFD7ED558CCDL;
+        iHash ^= iHash >>> 33;
+        iHash *= 0xC4CEB9FE1A85EC53L;
+        iHash ^= iHash >>> 33;
+        return iHash;
+    }
+}
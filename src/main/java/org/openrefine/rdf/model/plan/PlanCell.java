@@ -0,0 +1,157 @@
+/*
+ *  Class PlanCell
+ *
+ *  The compiled cell access for cell based nodes in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.Properties;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.ExpressionCache;
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.expr.Evaluable;
+import com.google.refine.expr.ParsingException;
+import com.google.refine.model.Cell;
+import com.google.refine.model.Project;
+import com.google.refine.model.Row;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class PlanCell
+ *
+ *  Holds the column name resolved to a cell index and the parsed expression for a cell based node.
+ *  See Util.evaluateExpression() for the equivalent uncompiled evaluation.
+ */
+public final class PlanCell {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanCell");
+
+    private final String strColumnName;
+    private final int iCellIndex;
+    private final boolean bMissingColumn;
+    private final String strExpression;
+    private final Evaluable theEvaluable;
+    private final boolean bGREL;
+
+    public PlanCell(Project theProject, String strColumnName, String strExpression) {
+        this.strColumnName = strColumnName;
+        this.strExpression = strExpression;
+
+        // Resolve the column reference (er, cell index) by given name once for all rows...
+        this.iCellIndex = Util.getCellIndex(theProject, strColumnName);
+        this.bMissingColumn = Util.isMissingColumn(theProject, strColumnName);
+
+        // Parse the expression...
+        Evaluable eval = null;
+        if (strExpression != null) {
+            try {
+                eval = ExpressionCache.getEvaluable(strExpression);
+            }
+            catch (ParsingException ex) {
+                // The node produces nothing for any row...
+                PlanCell.logger.error("ERROR: Bad Expression: [" + strExpression + "] : " + ex.getMessage());
+            }
+        }
+        this.theEvaluable = eval;
+        this.bGREL = ( strExpression == null || ExpressionCache.isGREL(strExpression) );
+    }
+
+    public String getColumnName() {
+        return this.strColumnName;
+    }
+
+    public int getCellIndex() {
+        return this.iCellIndex;
+    }
+
+    /*
+     * Method isMissingColumn()
+     *
+     *  Whether the column name is not a column in the project.  The cell evaluates as an empty
+     *  pseudo-cell.  See TransformPlan.getMissingColumns().
+     */
+    public boolean isMissingColumn() {
+        return this.bMissingColumn;
+    }
+
+    public String getExpression() {
+        return this.strExpression;
+    }
+
+    /*
+     * Method isGREL()
+     *
+     *  Whether the expression is GREL, whose Evaluable may be evaluated on several threads at once.
+     */
+    public boolean isGREL() {
+        return this.bGREL;
+    }
+
+    /*
+     * Method evaluate()
+     *
+     *  Evaluate the expression on the cell for the given row.  Returns null when the expression
+     *  could not be parsed.
+     */
+    public Object evaluate(PlanContext theContext, int iRowIndex) {
+        if ( Util.isDebugMode() ) {
+            PlanCell.logger.info("DEBUG: evaluate: " +
+                                "Exp: [" + this.strExpression + "] " +
+                                "Col: [" + this.strColumnName + "] " +
+                                "Row: [" + iRowIndex          + "]");
+        }
+        if (this.theEvaluable == null) {
+            return null;
+        }
+
+        Project theProject = theContext.getProject();
+
+        // Select the row by given row index...
+        Row theRow = null;
+        if (iRowIndex >= 0 && iRowIndex < theProject.rows.size()) {
+            theRow = theProject.rows.get(iRowIndex);
+        }
+
+        // Select the data cell by row and column...
+        Cell theCell = null;
+        if (this.iCellIndex >= 0 && theRow != null) { // ...for a valid column and row...
+            theCell = theRow.getCell(this.iCellIndex); // ...get the cell
+        }
+        // Otherwise, create a pseudo-cell...
+        else {
+            theCell = new Cell(iRowIndex, null);
+        }
+
+        // Bind the cell for expression evaluation...
+        Properties theBindings = theContext.getBindings();
+        ExpressionCache.bind(theBindings, theRow, iRowIndex, this.strColumnName, theCell);
+
+        // Evaluate the expression on the cell for results...
+        ExportMetrics theMetrics = theContext.getMetrics();
+        if (theMetrics == null) {
+            return this.theEvaluable.evaluate(theBindings);
+        }
+        long iStart = System.nanoTime();
+        Object results = this.theEvaluable.evaluate(theBindings);
+        theMetrics.addEvaluation(System.nanoTime() - iStart);
+        return results;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *  Class PlanCellBlankNode
+ *
+ *  A compiled cell based Blank node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.expr.functions.ToIRIString;
+
+import com.google.refine.expr.ExpressionUtils;
+
+import org.apache.jena.iri.IRI;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PlanCellBlankNode extends PlanResourceNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanCellBlankNode");
+
+    private final PlanCell theCell;
+
+    // The IRI safe column name used to label column based blank nodes (null for generic blank nodes)
+    private final String strIRIColumnName;
+
+    // The node's compile ordinal (see TransformPlan)
+    private final int iOrdinal;
+
+    // The label prefix for generic blank nodes: "b" and the node's compile ordinal
+    private final String strGenericPrefix;
+
+    // The blank node label scope (see BlankNodeLabels)
+    private final BlankNodeLabels.Scope eScope;
+
+    public PlanCellBlankNode(org.openrefine.rdf.model.Node theNode, IRI baseIRI, PrefixMapping thePrefixes,
+                             List<PlanType> listTypes, List<PlanProperty> listProperties,
+                             PlanCell theCell, int iOrdinal, BlankNodeLabels.Scope eScope) {
+        super(theNode, baseIRI, thePrefixes, listTypes, listProperties);
+        this.theCell = theCell;
+        this.iOrdinal = iOrdinal;
+        this.strGenericPrefix = "b" + iOrdinal + "r";
+        this.eScope = eScope;
+        this.strIRIColumnName = ( this.bIsIndex ? null : ToIRIString.toIRIString( theCell.getColumnName() ) );
+    }
+
+    public PlanCell getCell() {
+        return this.theCell;
+    }
+
+    @Override
+    protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex) {
+        if (Util.isDebugMode()) PlanCellBlankNode.logger.info("DEBUG: createRowNodes...");
+
+        // NOTE: Currently, the expression just results in a "true" (some non-empty string is evaluated)
+        //      or "false" (a null or empty string is evaluated).
+        //      When "true", a BNode is automatically generated.
+        PlanProfile theProfile = theContext.getProfile();
+        long iStart = ( theProfile == null ? 0 : System.nanoTime() );
+        Object results = this.theCell.evaluate(theContext, iRowIndex);
+        if (theProfile != null) {
+            theProfile.addEvaluation(this.theSource, System.nanoTime() - iStart, results);
+        }
+
+        // Results cannot be classed...
+        if ( results == null || ExpressionUtils.isError(results) || ! ExpressionUtils.isNonBlankData(results) ) {
+            return null;
+        }
+
+        List<Node> listNodes = new ArrayList<Node>();
+        long iKey = BlankNodeLabels.getKey( this.eScope, theContext.getProject(), iRowIndex );
+
+        // Results are an array...
+        if ( results.getClass().isArray() ) {
+            if (Util.isDebugMode()) PlanCellBlankNode.logger.info("DEBUG: Result is Array...");
+            int iResultCount = Array.getLength(results);
+            for (int iResult = 0; iResult < iResultCount; iResult++) {
+                this.normalizeBNodeResource( Array.get(results, iResult), iRowIndex, iResult, iKey, listNodes );
+            }
+        }
+        // Results are singular...
+        else {
+            this.normalizeBNodeResource(results, iRowIndex, 0, iKey, listNodes);
+        }
+
+        if (theProfile != null) {
+            theProfile.addNodes(this.theSource, listNodes);
+        }
+        if ( listNodes.isEmpty() ) {
+            return null;
+        }
+        return listNodes;
+    }
+
+    private void normalizeBNodeResource(Object objResult, int iRowIndex, int iResult, long iKey, List<Node> listNodes) {
+        String strResult = Util.toSpaceStrippedString(objResult);
+        // If we have a good result...
+        if ( strResult == null || strResult.isEmpty() ) {
+            return;
+        }
+        // Hashed labels: the node, the scope key, and the value...
+        if (this.eScope != BlankNodeLabels.Scope.LABEL) {
+            listNodes.add( NodeFactory.createBlankNode( BlankNodeLabels.label(this.iOrdinal, iKey, strResult) ) );
+            return;
+        }
+        // Otherwise, readable labels...
+        // If this is a row / record index-based Blank Node or the ColumnName does not produce
+        // a good IRI string...
+        if (this.strIRIColumnName == null) {
+            // ...produce a generic blank node labeled by the node ordinal, row, and result:
+            //      "b<ordinal>r<row>" or "b<ordinal>r<row>n<result>"
+            //  The same node, row, and result produce the same label on every run.  Without an
+            //  "_", the label cannot match a column based label...
+            String strLabel = this.strGenericPrefix + iRowIndex;
+            if (iResult > 0) {
+                strLabel += "n" + iResult;
+            }
+            listNodes.add( NodeFactory.createBlankNode(strLabel) );
+        }
+        // Otherwise, produce an Blank Node based on the ColumnName...
+        else {
+            // Since we are processing by row (even in record mode for columns),
+            // the row number is set and we can use it with the ColumnName
+            listNodes.add( NodeFactory.createBlankNode( this.strIRIColumnName + "_" + iRowIndex ) );
+        }
+    }
+}
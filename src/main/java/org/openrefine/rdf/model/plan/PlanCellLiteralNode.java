@@ -0,0 +1,95 @@
+/*
+ *  Class PlanCellLiteralNode
+ *
+ *  A compiled cell based Literal node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrefine.rdf.model.ConstantResourceNode;
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.expr.ExpressionUtils;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PlanCellLiteralNode extends PlanLiteralNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanCellLitNode");
+
+    private final PlanCell theCell;
+
+    public PlanCellLiteralNode(org.openrefine.rdf.model.Node theNode, PrefixMapping thePrefixes, PlanCell theCell,
+                               ConstantResourceNode nodeDatatype, String strLanguage) {
+        super(theNode, thePrefixes, nodeDatatype, strLanguage);
+        this.theCell = theCell;
+    }
+
+    public PlanCell getCell() {
+        return this.theCell;
+    }
+
+    @Override
+    protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex) {
+        if (Util.isDebugMode()) PlanCellLiteralNode.logger.info("DEBUG: createRowNodes...");
+
+        PlanProfile theProfile = theContext.getProfile();
+        long iStart = ( theProfile == null ? 0 : System.nanoTime() );
+        Object results = this.theCell.evaluate(theContext, iRowIndex);
+        if (theProfile != null) {
+            theProfile.addEvaluation(this.theSource, System.nanoTime() - iStart, results);
+        }
+
+        // Results cannot be classed...
+        if ( results == null || ExpressionUtils.isError(results) || ! ExpressionUtils.isNonBlankData(results) ) {
+            return null;
+        }
+
+        List<Node> listNodes = new ArrayList<Node>();
+
+        // Results are an array...
+        if ( results.getClass().isArray() ) {
+            if (Util.isDebugMode()) PlanCellLiteralNode.logger.info("DEBUG: Result is Array...");
+            int iResultCount = Array.getLength(results);
+            for (int iResult = 0; iResult < iResultCount; iResult++) {
+                Object objResult = Array.get(results, iResult);
+                if (objResult != null) {
+                    this.normalizeLiteral(theContext, objResult, listNodes);
+                }
+            }
+        }
+        // Results are singular...
+        else {
+            this.normalizeLiteral(theContext, results, listNodes);
+        }
+
+        if (theProfile != null) {
+            theProfile.addNodes(this.theSource, listNodes);
+        }
+        if ( listNodes.isEmpty() ) {
+            return null;
+        }
+        return listNodes;
+    }
+}
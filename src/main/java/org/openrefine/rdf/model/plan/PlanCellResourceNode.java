@@ -0,0 +1,86 @@
+/*
+ *  Class PlanCellResourceNode
+ *
+ *  A compiled cell based Resource node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.expr.ExpressionUtils;
+
+import org.apache.jena.iri.IRI;
+import org.apache.jena.graph.Node;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PlanCellResourceNode extends PlanResourceNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanCellResNode");
+
+    private final PlanCell theCell;
+    private final String strPrefix;
+
+    public PlanCellResourceNode(org.openrefine.rdf.model.Node theNode, IRI baseIRI, PrefixMapping thePrefixes,
+                                List<PlanType> listTypes, List<PlanProperty> listProperties,
+                                PlanCell theCell, String strPrefix) {
+        super(theNode, baseIRI, thePrefixes, listTypes, listProperties);
+        this.theCell = theCell;
+        this.strPrefix = strPrefix;
+    }
+
+    public PlanCell getCell() {
+        return this.theCell;
+    }
+
+    @Override
+    protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex) {
+        if (Util.isDebugMode()) PlanCellResourceNode.logger.info("DEBUG: createRowNodes...");
+
+        PlanProfile theProfile = theContext.getProfile();
+        long iStart = ( theProfile == null ? 0 : System.nanoTime() );
+        Object results = this.theCell.evaluate(theContext, iRowIndex);
+        if (theProfile != null) {
+            theProfile.addEvaluation(this.theSource, System.nanoTime() - iStart, results);
+        }
+
+        // Results cannot be classed...
+        if ( results == null || ExpressionUtils.isError(results) || ! ExpressionUtils.isNonBlankData(results) ) {
+            return null;
+        }
+
+        List<Node> listNodes = new ArrayList<Node>();
+        if (theProfile == null) {
+            this.processResults(theContext, this.strPrefix, results, listNodes);
+        }
+        else {
+            iStart = System.nanoTime();
+            this.processResults(theContext, this.strPrefix, results, listNodes);
+            theProfile.addIRI(this.theSource, System.nanoTime() - iStart);
+            theProfile.addNodes(this.theSource, listNodes);
+        }
+        if ( listNodes.isEmpty() ) {
+            return null;
+        }
+        return listNodes;
+    }
+}
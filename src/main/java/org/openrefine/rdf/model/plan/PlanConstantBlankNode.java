@@ -0,0 +1,124 @@
+/*
+ *  Class PlanConstantBlankNode
+ *
+ *  A compiled constant Blank node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.model.Record;
+
+import org.apache.jena.iri.IRI;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PlanConstantBlankNode extends PlanResourceNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanConstBlankNode");
+
+    static private final String strBNodePrefix = "_:";
+    static private final String strNotLast = "[\\.]+";
+    static private final String strNotFirst = "[-\\.\\u00B7\\u0300\\u036F\\u203F\\u2040]+";
+
+    // The One and Only Constant BNode
+    private final List<Node> listNodes;
+
+    public PlanConstantBlankNode(org.openrefine.rdf.model.Node theNode, IRI baseIRI, PrefixMapping thePrefixes,
+                                 List<PlanType> listTypes, List<PlanProperty> listProperties,
+                                 String strConstant, int iOrdinal) {
+        super(theNode, baseIRI, thePrefixes, listTypes, listProperties);
+        this.listNodes = Collections.singletonList( PlanConstantBlankNode.createBNode(strConstant, iOrdinal) );
+    }
+
+    /*
+     * Method createBNode()
+     *
+     *  Construct the One and Only Constant BNode...once...
+     *  An empty constant produces a generic BNode labeled by the node's compile ordinal (see
+     *  TransformPlan), "b<ordinal>c", so every run produces the same label.
+     */
+    static private Node createBNode(String strConstant, int iOrdinal) {
+        // When there is nothing to evaluate...
+        if ( strConstant == null || strConstant.isEmpty() ) {
+            // ...produce a generic blank node...
+            PlanConstantBlankNode.logger.warn("WARNING: The ConstantBlankNode constant is empty! Creating generic BNode.");
+            return NodeFactory.createBlankNode("b" + iOrdinal + "c");
+        }
+
+        //
+        // Validate the supplied constant value as a BNode ID based on Turtle limits...
+        //
+        String strBNodeValue = Util.toSpaceStrippedString(strConstant);
+        String strBNodeValueBegin;
+        do {
+            strBNodeValueBegin = strBNodeValue;
+            while ( strBNodeValue.startsWith(PlanConstantBlankNode.strBNodePrefix) ) {
+                strBNodeValue = strBNodeValue.substring(2);
+            }
+            // Not First...
+            strBNodeValue = strBNodeValue.replaceFirst("^" + PlanConstantBlankNode.strNotFirst, "");
+            // Not Last...
+            strBNodeValue = strBNodeValue.replaceFirst(PlanConstantBlankNode.strNotLast + "$", "");
+            // On no change, break...
+            if ( strBNodeValueBegin.equals(strBNodeValue) )
+                break;
+            // Otherwise, something was removed so recheck...
+        } while (true);
+
+        // When there is nothing to evaluate...
+        if ( strBNodeValue == null || strBNodeValue.isEmpty() ) {
+            PlanConstantBlankNode.logger.error("ERROR: The ConstantBlankNode constant evaluates to nothing! Creating generic BNode.");
+            return NodeFactory.createBlankNode("b" + iOrdinal + "c");
+        }
+
+        if ( Util.isDebugMode() ) PlanConstantBlankNode.logger.info("DEBUG:  Pre-Create: " + strBNodeValue);
+        // NOTE: The prefix "_:" is auto-added by createBNode()
+        Node bnode = NodeFactory.createBlankNode(strBNodeValue);
+        if ( Util.isDebugMode() ) PlanConstantBlankNode.logger.info("DEBUG: Post-Create: " + bnode.toString());
+        return bnode;
+    }
+
+    @Override
+    public boolean isRowIndependent() {
+        return this.arePropertiesRowIndependent();
+    }
+
+    @Override
+    protected List<Node> createRecordNodes(PlanContext theContext, Record theRecord) {
+        // For a Constant Blank Node, we only need one constant blank node resource per record...
+        if (theContext.getProfile() != null) {
+            theContext.getProfile().addNodes(this.theSource, this.listNodes);
+        }
+        return this.listNodes;
+    }
+
+    @Override
+    protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex) {
+        if (theContext.getProfile() != null) {
+            theContext.getProfile().addNodes(this.theSource, this.listNodes);
+        }
+        return this.listNodes;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Class PlanConstantResourceNode
+ *
+ *  A compiled constant Resource node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+import com.google.refine.model.Record;
+
+import org.apache.jena.iri.IRI;
+import org.apache.jena.graph.Node;
+import org.apache.jena.shared.PrefixMapping;
+
+public class PlanConstantResourceNode extends PlanResourceNode {
+    // The One and Only resource list for the constant (null when the constant is not a good IRI)
+    private final List<Node> listNodes;
+
+    public PlanConstantResourceNode(org.openrefine.rdf.model.Node theNode, IRI baseIRI, PrefixMapping thePrefixes,
+                                    List<PlanType> listTypes, List<PlanProperty> listProperties,
+                                    String strConstant, String strPrefix) {
+        super(theNode, baseIRI, thePrefixes, listTypes, listProperties);
+
+        List<Node> listConstNodes = null;
+        // If there is a value to work with...
+        if ( ! ( strConstant == null || strConstant.isEmpty() ) ) {
+            listConstNodes = new ArrayList<Node>();
+            this.processResults(null, strPrefix, strConstant, listConstNodes);
+            if ( listConstNodes.isEmpty() ) {
+                listConstNodes = null;
+            }
+        }
+        this.listNodes = ( listConstNodes == null ? null : Collections.unmodifiableList(listConstNodes) );
+    }
+
+    @Override
+    public boolean isRowIndependent() {
+        return this.arePropertiesRowIndependent();
+    }
+
+    @Override
+    protected List<Node> createRecordNodes(PlanContext theContext, Record theRecord) {
+        // For a Constant Resource Node, we only need one constant resource per record...
+        if (theContext.getProfile() != null) {
+            theContext.getProfile().addNodes(this.theSource, this.listNodes);
+        }
+        return this.listNodes;
+    }
+
+    @Override
+    protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex) {
+        if (theContext.getProfile() != null) {
+            theContext.getProfile().addNodes(this.theSource, this.listNodes);
+        }
+        return this.listNodes;
+    }
+}
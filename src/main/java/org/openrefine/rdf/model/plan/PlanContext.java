@@ -0,0 +1,112 @@
+/*
+ *  Class PlanContext
+ *
+ *  The per-thread execution context for evaluating a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.Properties;
+
+import org.openrefine.rdf.model.utils.ExportMetrics;
+
+import com.google.refine.expr.ExpressionUtils;
+import com.google.refine.model.Project;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+
+/*
+ * Class PlanContext
+ *
+ *  Holds the mutable state used while evaluating a plan: the project, the output receiving the
+ *  statements, and the expression bindings.  A context is not thread-safe.  Each thread evaluating
+ *  a plan uses its own context.
+ *
+ *  The statements are emitted as triples directly to the output.  To collect them in a Model, use
+ *  StreamRDFLib.graph( theModel.getGraph() ) as the output.
+ *
+ *  An export sets its metrics (see ExportMetrics) to time the expression evaluations and count the
+ *  IRI failures.  Without metrics, nothing is timed.
+ *
+ *  A profile run sets its profile (see PlanProfile) to profile each node, property, and type.
+ */
+public class PlanContext {
+    private final TransformPlan thePlan;
+    private final Project theProject;
+    private final StreamRDF theOutput;
+    private Properties theBindings = null;
+    private ExportMetrics theMetrics = null;
+    private PlanProfile theProfile = null;
+    private long iEmitted = 0;
+
+    public PlanContext(TransformPlan thePlan, Project theProject, StreamRDF theOutput) {
+        this.thePlan = thePlan;
+        this.theProject = theProject;
+        this.theOutput = theOutput;
+    }
+
+    public TransformPlan getPlan() {
+        return this.thePlan;
+    }
+
+    public Project getProject() {
+        return this.theProject;
+    }
+
+    public StreamRDF getOutput() {
+        return this.theOutput;
+    }
+
+    public ExportMetrics getMetrics() {
+        return this.theMetrics;
+    }
+
+    public void setMetrics(ExportMetrics theMetrics) {
+        this.theMetrics = theMetrics;
+    }
+
+    public PlanProfile getProfile() {
+        return this.theProfile;
+    }
+
+    public void setProfile(PlanProfile theProfile) {
+        this.theProfile = theProfile;
+    }
+
+    public void emit(Node theSubject, Node thePredicate, Node theObject) {
+        this.iEmitted++;
+        this.theOutput.triple( Triple.create(theSubject, thePredicate, theObject) );
+    }
+
+    /*
+     * Method getEmittedCount()
+     *
+     *  The statements emitted on the context so far, duplicates included.
+     */
+    public long getEmittedCount() {
+        return this.iEmitted;
+    }
+
+    public Properties getBindings() {
+        if (this.theBindings == null) {
+            this.theBindings = ExpressionUtils.createBindings(this.theProject);
+        }
+        return this.theBindings;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ *  Class PlanLiteralNode
+ *
+ *  The base class for compiled Literal nodes in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openrefine.rdf.model.ConstantResourceNode;
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.model.Record;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Node;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+abstract public class PlanLiteralNode extends PlanNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanLitNode");
+
+    // The expanded datatype IRI and its datatype (null when there is no datatype)
+    protected final String strDatatype;
+    protected final RDFDatatype theDatatype;
+    protected final String strLanguage;
+
+    protected PlanLiteralNode(org.openrefine.rdf.model.Node theNode, PrefixMapping thePrefixes,
+                              ConstantResourceNode nodeDatatype, String strLanguage) {
+        super(theNode);
+
+        // Resolve the datatype once...
+        String strDT = null;
+        RDFDatatype theDT = null;
+        if (nodeDatatype != null) {
+            strDT = nodeDatatype.normalizeResourceAsString();
+            String strExpandedDatatype = thePrefixes.expandPrefix(strDT);
+            if ( strExpandedDatatype != null) {
+                strDT = strExpandedDatatype;
+            }
+            theDT = TypeMapper.getInstance().getSafeTypeByName(strDT);
+        }
+        this.strDatatype = strDT;
+        this.theDatatype = theDT;
+        this.strLanguage = strLanguage;
+    }
+
+    /*
+     *  Method createObjects() creates the object list for triple statements
+     *  from this node on Rows / Records.
+     */
+    @Override
+    protected List<Node> createObjects(PlanContext theContext, int iRowIndex, Record theRecord) {
+        if (Util.isDebugMode()) PlanLiteralNode.logger.info("DEBUG: createObjects...");
+
+        //
+        // Transition from Record to Row processing...
+        //
+        if (theRecord != null) {
+            List<Node> listLiteralsAll = new ArrayList<Node>();
+            for (int iRow = theRecord.fromRowIndex; iRow < theRecord.toRowIndex; iRow++) {
+                List<Node> listNodes = this.createRowNodes(theContext, iRow); // ...Row only
+                if (listNodes != null) {
+                    listLiteralsAll.addAll(listNodes);
+                }
+            }
+            if ( listLiteralsAll.isEmpty() ) {
+                return null;
+            }
+            return listLiteralsAll;
+        }
+
+        //
+        // Row processing...
+        //
+        List<Node> listNodes = this.createRowNodes(theContext, iRowIndex);
+        if ( listNodes == null || listNodes.isEmpty() ) {
+            return null;
+        }
+        return listNodes;
+    }
+
+    /*
+     *  Method normalizeLiteral() for Literal Node to Literal string
+     *
+     *    The context is null for the constants processed at compile.
+     */
+    protected void normalizeLiteral(PlanContext theContext, Object obj, List<Node> listNodes) {
+        String strResult = obj.toString();
+        if ( strResult == null || strResult.isEmpty() ) {
+            return;
+        }
+        if ( Util.isDebugMode() ) PlanLiteralNode.logger.info("DEBUG: normalizeLiteral: Result: " + strResult);
+
+        //
+        // Process each string as a Literal with the following preference:
+        //    1. a given Datatype
+        //    2. a given Language code
+        //    3. nothing, just a simple string Literal
+        //
+        Node literal = null;
+
+        // If there is a datatype...
+        if (this.theDatatype != null) {
+            try {
+                literal = NodeFactory.createLiteral(strResult, this.theDatatype);
+            }
+            catch (DatatypeFormatException ex) {
+                PlanLiteralNode.logger.info("ERROR: normalizeLiteral: Datatype not valid: " + strResult + " ^^ " + this.strDatatype);
+                if ( ! ( theContext == null || theContext.getProfile() == null ) ) {
+                    theContext.getProfile().addError(this.theSource);
+                }
+            }
+        }
+        // Else, if there is a language...
+        else if (this.strLanguage != null) {
+            literal = NodeFactory.createLiteral(strResult, this.strLanguage);
+        }
+        // Otherwise...
+        else {
+            // ...don't decorate the value...
+            literal = NodeFactory.createLiteral(strResult);
+        }
+
+        // If there is a valid literal...
+        if (literal != null) {
+            listNodes.add(literal);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Class PlanNode
+ *
+ *  The base class for compiled nodes in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.model.Record;
+
+import org.apache.jena.graph.Node;
+
+/*
+ * Class PlanNode
+ *
+ *  A compiled node.  All fields are set at compile time and never change.  The nodes created for a
+ *  row are returned to the caller instead of being held by the node.
+ */
+abstract public class PlanNode {
+    protected final org.openrefine.rdf.model.Node theSource;
+    protected final String strNodeName;
+    protected final String strNodeType;
+    protected final boolean bIsIndex;
+    protected final Util.NodeType eNodeType;
+
+    protected PlanNode(org.openrefine.rdf.model.Node theNode) {
+        this.theSource = theNode;
+        this.strNodeName = theNode.getNodeName();
+        this.strNodeType = theNode.getNodeType();
+        this.bIsIndex = theNode.isIndexNode();
+        this.eNodeType = theNode.getNodeSubType();
+    }
+
+    /*
+     *  Method getSource()
+     *
+     *    The transform node this node was compiled from.
+     */
+    public org.openrefine.rdf.model.Node getSource() {
+        return this.theSource;
+    }
+
+    public String getNodeName() {
+        return this.strNodeName;
+    }
+
+    public String getNodeType() {
+        return this.strNodeType;
+    }
+
+    public boolean isIndexNode() {
+        return this.bIsIndex;
+    }
+
+    /*
+     *  Method isRowIndependent()
+     *
+     *    Whether this node creates the same nodes and statements on every row and record: a constant
+     *    node whose property objects are all row independent.  Cell nodes depend on the row.
+     */
+    public boolean isRowIndependent() {
+        return false;
+    }
+
+    /*
+     *  Method createRowNodes()
+     *
+     *    Creates the RDF nodes from this node on the given row.  Returns null when there are none.
+     *    The returned list may be shared and must not be modified.
+     */
+    abstract protected List<Node> createRowNodes(PlanContext theContext, int iRowIndex);
+
+    /*
+     *  Method createObjects()
+     *
+     *    Creates the object list for triple statements from this node.  When a record is given, the
+     *    parent is record based and the objects are collected from each row of the record.
+     *    Otherwise, the objects are created on the given row.
+     */
+    abstract protected List<Node> createObjects(PlanContext theContext, int iRowIndex, Record theRecord);
+}
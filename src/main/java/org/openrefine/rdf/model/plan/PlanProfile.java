@@ -0,0 +1,313 @@
+/*
+ *  Class PlanProfile
+ *
+ *  The per node profile of a transform run: where the evaluation time goes and what each node,
+ *  property, and type produces.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.Property;
+import org.openrefine.rdf.model.RDFType;
+import org.openrefine.rdf.model.ResourceNode;
+import org.openrefine.rdf.model.Util;
+
+import com.google.refine.expr.ExpressionUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.apache.jena.graph.Node;
+
+/*
+ * Class PlanProfile
+ *
+ *  A profile is set on the plan contexts of a visit (see RDFVisitor.setProfile()).  The plan nodes
+ *  update the entry of their transform element (the Node, Property, or RDFType they were compiled
+ *  from) as they run:
+ *    Evaluations:  the cell expression evaluations, with their total time
+ *    IRI:          the time resolving the expression results to IRIs
+ *    Nodes:        the RDF nodes produced
+ *    Statements:   the statements made for a property or type
+ *    Errors:       the errors swallowed: expression errors, bad IRIs, bad datatype literals, and
+ *                  the statements skipped for a property with a bad IRI
+ *  The profile is reported as a JSON tree that mirrors the transform (see toJSON()).  Elements that
+ *  did not compile (a bad type IRI, an empty property) are reported as not compiled.
+ *
+ *  A profile is not thread-safe.  A profile run visits the rows or records serially.  Without a
+ *  profile (exports, previews), nothing is profiled.
+ */
+public class PlanProfile {
+    /*
+     * Class Entry
+     *
+     *  The profile of a single transform element.
+     */
+    static public class Entry {
+        private long iEvaluations = 0;
+        private long iEvaluationNanos = 0;
+        private long iIRINanos = 0;
+        private long iNodes = 0;
+        private long iStatements = 0;
+        private long iErrors = 0;
+
+        public long getEvaluations() {
+            return this.iEvaluations;
+        }
+
+        public long getEvaluationNanos() {
+            return this.iEvaluationNanos;
+        }
+
+        public long getIRINanos() {
+            return this.iIRINanos;
+        }
+
+        public long getNodes() {
+            return this.iNodes;
+        }
+
+        public long getStatements() {
+            return this.iStatements;
+        }
+
+        public long getErrors() {
+            return this.iErrors;
+        }
+    }
+
+    private final Map<Object, Entry> mapEntries = new IdentityHashMap<Object, Entry>();
+    private long iRows = 0;
+    private long iRecords = 0;
+    private long iStartNanos = 0;
+    private long iEndNanos = 0;
+
+    /*
+     * Method register()
+     *
+     *  Register the elements of the compiled plan so the elements that did not compile can be told
+     *  apart from those that never ran.
+     */
+    public void register(TransformPlan thePlan) {
+        for ( PlanResourceNode root : thePlan.getRoots() ) {
+            this.register(root);
+        }
+        for ( PlanResourceNode root : thePlan.getHoistedRoots() ) {
+            this.register(root);
+        }
+    }
+
+    private void register(PlanNode theNode) {
+        if (theNode == null) {
+            return;
+        }
+        this.getEntry( theNode.getSource() );
+        if (theNode instanceof PlanResourceNode) {
+            PlanResourceNode nodeResource = (PlanResourceNode) theNode;
+            for ( PlanType typeItem : nodeResource.getTypes() ) {
+                this.getEntry( typeItem.getSource() );
+            }
+            for ( PlanProperty propItem : nodeResource.getProperties() ) {
+                this.getEntry( propItem.getSource() );
+                this.register( propItem.getObject() );
+            }
+        }
+    }
+
+    public void start() {
+        this.iStartNanos = System.nanoTime();
+        this.iEndNanos = 0;
+    }
+
+    public void end() {
+        this.iEndNanos = System.nanoTime();
+    }
+
+    /*
+     * Method get()
+     *
+     *  The entry of the given transform element, or null when it did not compile.
+     */
+    public Entry get(Object theElement) {
+        return this.mapEntries.get(theElement);
+    }
+
+    private Entry getEntry(Object theElement) {
+        Entry theEntry = this.mapEntries.get(theElement);
+        if (theEntry == null) {
+            theEntry = new Entry();
+            this.mapEntries.put(theElement, theEntry);
+        }
+        return theEntry;
+    }
+
+    public void addRow() {
+        this.iRows++;
+    }
+
+    /*
+     * Method addRecord()
+     *
+     *  Count a visited record and its rows.
+     */
+    public void addRecord(int iRecordRows) {
+        this.iRecords++;
+        this.iRows += iRecordRows;
+    }
+
+    /*
+     * Method addEvaluation()
+     *
+     *  Count an expression evaluation and its time.  An error result counts as an error.
+     */
+    public void addEvaluation(Object theElement, long iNanos, Object results) {
+        Entry theEntry = this.getEntry(theElement);
+        theEntry.iEvaluations++;
+        theEntry.iEvaluationNanos += iNanos;
+        if ( ExpressionUtils.isError(results) ) {
+            theEntry.iErrors++;
+        }
+    }
+
+    public void addIRI(Object theElement, long iNanos) {
+        this.getEntry(theElement).iIRINanos += iNanos;
+    }
+
+    public void addNodes(Object theElement, List<Node> listNodes) {
+        if (listNodes != null) {
+            this.getEntry(theElement).iNodes += listNodes.size();
+        }
+    }
+
+    public void addStatements(Object theElement, long iStatements) {
+        this.getEntry(theElement).iStatements += iStatements;
+    }
+
+    public void addError(Object theElement) {
+        this.getEntry(theElement).iErrors++;
+    }
+
+    public long getRows() {
+        return this.iRows;
+    }
+
+    public long getRecords() {
+        return this.iRecords;
+    }
+
+    public long getElapsedMillis() {
+        long iEnd = this.iEndNanos;
+        if (iEnd == 0) {
+            iEnd = System.nanoTime();
+        }
+        return (iEnd - this.iStartNanos) / 1000000L;
+    }
+
+    /*
+     * Method toJSON()
+     *
+     *  The profile as a JSON tree that mirrors the given transform: the subject mappings hold the
+     *  root nodes, each resource node holds its type mappings and property mappings, and each
+     *  property mapping holds its object mapping.  Each node reports its share of the total
+     *  evaluation and IRI time ("percent") to point at the hot nodes.
+     */
+    public ObjectNode toJSON(ObjectMapper theMapper, RDFTransform theTransform) {
+        long iTotalNanos = 0;
+        long iTotalStatements = 0;
+        long iTotalErrors = 0;
+        for ( Map.Entry<Object, Entry> entry : this.mapEntries.entrySet() ) {
+            Entry theEntry = entry.getValue();
+            iTotalNanos += theEntry.iEvaluationNanos + theEntry.iIRINanos;
+            iTotalErrors += theEntry.iErrors;
+            if ( ! ( entry.getKey() instanceof org.openrefine.rdf.model.Node ) ) {
+                iTotalStatements += theEntry.iStatements;
+            }
+        }
+
+        ObjectNode jnodeProfile = theMapper.createObjectNode();
+        jnodeProfile.put("rows", this.iRows);
+        jnodeProfile.put("records", this.iRecords);
+        jnodeProfile.put("elapsedMillis", this.getElapsedMillis());
+        jnodeProfile.put("profiledMicros", iTotalNanos / 1000L);
+        jnodeProfile.put("statements", iTotalStatements);
+        jnodeProfile.put("errors", iTotalErrors);
+        ArrayNode jnodeRoots = jnodeProfile.putArray(Util.gstrSubjectMappings);
+        List<ResourceNode> listRoots = theTransform.getRoots();
+        if (listRoots != null) {
+            for (ResourceNode nodeRoot : listRoots) {
+                jnodeRoots.add( this.toJSON(theMapper, nodeRoot, iTotalNanos) );
+            }
+        }
+        return jnodeProfile;
+    }
+
+    private ObjectNode toJSON(ObjectMapper theMapper, org.openrefine.rdf.model.Node theNode, long iTotalNanos) {
+        ObjectNode jnodeNode = theMapper.createObjectNode();
+        jnodeNode.put("nodeName", theNode.getNodeName());
+        jnodeNode.put("nodeType", theNode.getNodeType());
+        Entry theEntry = this.mapEntries.get(theNode);
+        jnodeNode.put("compiled", theEntry != null);
+        if (theEntry == null) {
+            theEntry = new Entry();
+        }
+        long iNanos = theEntry.iEvaluationNanos + theEntry.iIRINanos;
+        jnodeNode.put("evaluations", theEntry.iEvaluations);
+        jnodeNode.put("evaluationMicros", theEntry.iEvaluationNanos / 1000L);
+        jnodeNode.put("iriMicros", theEntry.iIRINanos / 1000L);
+        jnodeNode.put("percent", iTotalNanos == 0 ? 0.0 : Math.round(iNanos * 10000.0 / iTotalNanos) / 100.0);
+        jnodeNode.put("nodes", theEntry.iNodes);
+        jnodeNode.put("errors", theEntry.iErrors);
+
+        if (theNode instanceof ResourceNode) {
+            ResourceNode nodeResource = (ResourceNode) theNode;
+            ArrayNode jnodeTypes = jnodeNode.putArray(Util.gstrTypeMappings);
+            if (nodeResource.getTypes() != null) {
+                for ( RDFType theType : nodeResource.getTypes() ) {
+                    ObjectNode jnodeType = jnodeTypes.addObject();
+                    jnodeType.put(Util.gstrPrefix, theType.getPrefix());
+                    jnodeType.put(Util.gstrLocalPart, theType.getLocalPart());
+                    Entry entryType = this.mapEntries.get(theType);
+                    jnodeType.put("compiled", entryType != null);
+                    jnodeType.put("statements", entryType == null ? 0 : entryType.iStatements);
+                }
+            }
+            ArrayNode jnodeProperties = jnodeNode.putArray(Util.gstrPropertyMappings);
+            if (nodeResource.getProperties() != null) {
+                for ( Property theProperty : nodeResource.getProperties() ) {
+                    ObjectNode jnodeProperty = jnodeProperties.addObject();
+                    jnodeProperty.put(Util.gstrPrefix, theProperty.getPrefix());
+                    jnodeProperty.put(Util.gstrLocalPart, theProperty.getPathProperty());
+                    Entry entryProperty = this.mapEntries.get(theProperty);
+                    jnodeProperty.put("compiled", entryProperty != null);
+                    jnodeProperty.put("statements", entryProperty == null ? 0 : entryProperty.iStatements);
+                    jnodeProperty.put("errors", entryProperty == null ? 0 : entryProperty.iErrors);
+                    ArrayNode jnodeObjects = jnodeProperty.putArray(Util.gstrObjectMappings);
+                    if (theProperty.getObject() != null) {
+                        jnodeObjects.add( this.toJSON( theMapper, theProperty.getObject(), iTotalNanos ) );
+                    }
+                }
+            }
+        }
+        return jnodeNode;
+    }
+}
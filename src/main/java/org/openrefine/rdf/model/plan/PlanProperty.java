@@ -0,0 +1,76 @@
+/*
+ *  Class PlanProperty
+ *
+ *  A compiled Property mapping for a Resource node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import org.openrefine.rdf.model.Property;
+
+import org.apache.jena.graph.Node;
+
+/*
+ * Class PlanProperty
+ *
+ *  The property IRI is resolved once at compile (see TransformPlan.resolveIRINode()).  A property
+ *  with a bad IRI has a null node: its object is still evaluated (for the object's own statements),
+ *  but no statement is made for the property.
+ */
+public final class PlanProperty {
+    // The Property: The transform property this property was compiled from
+    private final Property theSource;
+    // The Property: A Prefix for the LocalPart (null indicates a FULL IRI, empty indicates the BaseIRI)
+    private final String strPrefix;
+
+    // The Property: The Local Part of the IRI (or a Full IRI when Prefix is null)
+    private final String strLocalPart;
+
+    // The Property: The resolved IRI node (null for a bad IRI)
+    private final Node nodeProperty;
+
+    // The Target: A compiled "node" connected via this Property
+    private final PlanNode nodeObject;
+
+    public PlanProperty(Property theSource, String strPrefix, String strLocalPart, Node nodeProperty, PlanNode nodeObject) {
+        this.theSource = theSource;
+        this.strPrefix = strPrefix;
+        this.strLocalPart = strLocalPart;
+        this.nodeProperty = nodeProperty;
+        this.nodeObject = nodeObject;
+    }
+
+    public Property getSource() {
+        return this.theSource;
+    }
+
+    public String getPrefix() {
+        return this.strPrefix;
+    }
+
+    public String getLocalPart() {
+        return this.strLocalPart;
+    }
+
+    public Node getNode() {
+        return this.nodeProperty;
+    }
+
+    public PlanNode getObject() {
+        return this.nodeObject;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ *  Class PlanResourceNode
+ *
+ *  The base class for compiled Resource nodes in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.Util.IRIParsingException;
+import org.openrefine.rdf.model.utils.RDFTEvents;
+
+import com.google.refine.model.Record;
+
+import org.apache.jena.iri.IRI;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.vocabulary.RDF;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+abstract public class PlanResourceNode extends PlanNode {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:PlanResNode");
+
+    protected final IRI baseIRI;
+    protected final PrefixMapping thePrefixes;
+    private final List<PlanType> listTypes;
+    private final List<PlanProperty> listProperties;
+
+    protected PlanResourceNode(org.openrefine.rdf.model.Node theNode, IRI baseIRI, PrefixMapping thePrefixes,
+                               List<PlanType> listTypes, List<PlanProperty> listProperties) {
+        super(theNode);
+        this.baseIRI = baseIRI;
+        this.thePrefixes = thePrefixes;
+        this.listTypes = Collections.unmodifiableList( new ArrayList<PlanType>(listTypes) );
+        this.listProperties = Collections.unmodifiableList( new ArrayList<PlanProperty>(listProperties) );
+    }
+
+    public List<PlanType> getTypes() {
+        return this.listTypes;
+    }
+
+    public List<PlanProperty> getProperties() {
+        return this.listProperties;
+    }
+
+    /*
+     *  Method arePropertiesRowIndependent()
+     *
+     *    Whether every property object (if any) is row independent.
+     */
+    protected boolean arePropertiesRowIndependent() {
+        for (PlanProperty propItem : this.listProperties) {
+            PlanNode nodeObject = propItem.getObject();
+            if ( ! ( nodeObject == null || nodeObject.isRowIndependent() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     *  Method createHoistedStatements() for row independent Root Resource Node types
+     *
+     *    The statements are the same on every row and record, so they are created once without
+     *    evaluating a row (see TransformPlan.getHoistedRoots()).
+     */
+    public void createHoistedStatements(PlanContext theContext)
+            throws RuntimeException {
+        this.createStatements(theContext, -1);
+    }
+
+    /*
+     *  Method createStatements() for Root Resource Node types on OpenRefine Rows
+     */
+    public void createStatements(PlanContext theContext, int iRowIndex)
+            throws RuntimeException {
+        RDFTEvents.RootStatementsEvent theEvent = new RDFTEvents.RootStatementsEvent();
+        long iEmitted = theContext.getEmittedCount();
+        theEvent.begin();
+        List<Node> listSubjects = this.createRowNodes(theContext, iRowIndex);
+        if ( ! ( listSubjects == null || listSubjects.isEmpty() ) ) {
+            this.createResourceStatements(theContext, listSubjects, iRowIndex, null);
+        }
+        this.commitEvent(theEvent, theContext, iRowIndex, 1, iEmitted);
+    }
+
+    /*
+     *  Method createStatements() for Root Resource Node types on OpenRefine Records
+     */
+    public void createStatements(PlanContext theContext, Record theRecord)
+            throws RuntimeException {
+        RDFTEvents.RootStatementsEvent theEvent = new RDFTEvents.RootStatementsEvent();
+        long iEmitted = theContext.getEmittedCount();
+        theEvent.begin();
+        List<Node> listSubjects = this.createRecordNodes(theContext, theRecord);
+        if ( ! ( listSubjects == null || listSubjects.isEmpty() ) ) {
+            this.createResourceStatements(theContext, listSubjects, -1, theRecord);
+        }
+        this.commitEvent(theEvent, theContext, theRecord.fromRowIndex,
+                         theRecord.toRowIndex - theRecord.fromRowIndex, iEmitted);
+    }
+
+    /*
+     *  Method commitEvent() for the Root Resource Node statements JFR event (see RDFTEvents)
+     */
+    private void commitEvent(RDFTEvents.RootStatementsEvent theEvent, PlanContext theContext,
+                             int iRowIndex, int iRows, long iEmitted) {
+        theEvent.end();
+        if ( theEvent.shouldCommit() ) {
+            theEvent.project = theContext.getProject().id;
+            theEvent.node = this.getNodeName();
+            theEvent.nodeType = this.getNodeType();
+            theEvent.row = iRowIndex;
+            theEvent.rows = iRows;
+            theEvent.triples = theContext.getEmittedCount() - iEmitted;
+            theEvent.commit();
+        }
+    }
+
+    /*
+     *  Method createRecordNodes() creates the subject list for triple statements from this node
+     *  on a Record.
+     */
+    protected List<Node> createRecordNodes(PlanContext theContext, Record theRecord) {
+        if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: createRecordNodes...");
+
+        // An index node only needs a single "Record Number" resource for the Record group...
+        if (this.bIsIndex) {
+            return this.createRowNodes(theContext, theRecord.fromRowIndex);
+        }
+
+        // Otherwise, the node should iterate all rows in the Record group...
+        List<Node> listResources = new ArrayList<Node>();
+        for (int iRowIndex = theRecord.fromRowIndex; iRowIndex < theRecord.toRowIndex; iRowIndex++) {
+            List<Node> listNodes = this.createRowNodes(theContext, iRowIndex);
+            if (listNodes != null) {
+                listResources.addAll(listNodes);
+            }
+        }
+        if ( listResources.isEmpty() ) {
+            return null;
+        }
+        return listResources;
+    }
+
+    /*
+     *  Method createObjects() for Resource Node types
+     *
+     *  Return: List<Node>
+     *    Returns the Resources as generic Values since these are "object" elements in
+     *    ( source, predicate, object ) triples and need to be compatible with literals.
+     *    The statements for the Resources as subjects are created on the row that
+     *    produced them.
+     */
+    @Override
+    protected List<Node> createObjects(PlanContext theContext, int iRowIndex, Record theRecord)
+            throws RuntimeException {
+        if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: createObjects...");
+
+        //
+        // Transition from Record to Row processing...
+        //
+        if (theRecord != null) {
+            List<Node> listResources = new ArrayList<Node>();
+            for (int iRow = theRecord.fromRowIndex; iRow < theRecord.toRowIndex; iRow++) {
+                List<Node> listNodes = this.createRowNodes(theContext, iRow); // ...Row only
+                if ( ! ( listNodes == null || listNodes.isEmpty() ) ) {
+                    this.createResourceStatements(theContext, listNodes, iRow, null);
+                    listResources.addAll(listNodes);
+                }
+            }
+            if ( listResources.isEmpty() ) {
+                return null;
+            }
+            return listResources;
+        }
+
+        //
+        // Row processing...
+        //
+        List<Node> listNodes = this.createRowNodes(theContext, iRowIndex);
+        if ( listNodes == null || listNodes.isEmpty() ) {
+            return null;
+        }
+        this.createResourceStatements(theContext, listNodes, iRowIndex, null);
+        return listNodes;
+    }
+
+    /*
+     *  Method createResourceStatements() for Resource Node types
+     *
+     *    Given a set of source resources, create the type and property triple statements
+     *    for each of the sources.  When a record is given, the sources were created on the
+     *    record and the objects are collected from each row of the record.
+     */
+    private void createResourceStatements(PlanContext theContext, List<Node> listSources,
+                                          int iRowIndex, Record theRecord)
+            throws RuntimeException {
+        try {
+            this.createTypeStatements(theContext, listSources);
+            this.createPropertyStatements(theContext, listSources, iRowIndex, theRecord);
+        }
+        catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /*
+     *  Method createTypeStatements() for Resource Node types
+     *
+     *    Given a set of source resources, create the (source, rdf:type, object) triple statements
+     *    for each of the sources.
+     */
+    private void createTypeStatements(PlanContext theContext, List<Node> listSources) {
+        if ( Util.isDebugMode() ) {
+            PlanResourceNode.logger.info("DEBUG: createTypeStatements: Type Count: {}", this.listTypes.size());
+        }
+
+        //
+        // Process statements: the type nodes are resolved at compile...
+        //
+        for (Node theSource : listSources) {
+            for (PlanType typeItem : this.listTypes) {
+                theContext.emit( theSource, RDF.Nodes.type, typeItem.getNode() );
+            }
+        }
+        if (theContext.getProfile() != null) {
+            for (PlanType typeItem : this.listTypes) {
+                theContext.getProfile().addStatements( typeItem.getSource(), listSources.size() );
+            }
+        }
+    }
+
+    /*
+     *  Method createPropertyStatements() for Resource Node types
+     *
+     *    Given a set of source resources, create the (source, property, object) triple statements
+     *    for each of the sources.
+     */
+    private void createPropertyStatements(PlanContext theContext, List<Node> listSources,
+                                          int iRowIndex, Record theRecord) {
+        if ( Util.isDebugMode() ) {
+            PlanResourceNode.logger.info("DEBUG: createPropertyStatements: Property Count: {}", this.listProperties.size());
+        }
+
+        PlanNode nodeObject;
+        List<Node> listObjects;
+        Node theProperty;
+
+        //
+        // Process one set of properties
+        //
+        List<Node> listPropsForStmts = new ArrayList<Node>();
+        List<List<Node>> listObjsForStmts = new ArrayList<List<Node>>();
+        for (PlanProperty propItem : this.listProperties) {
+            //
+            // OBJECTS
+            //
+            nodeObject = propItem.getObject();
+            if (nodeObject == null) { // ...no Object?
+                if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: Cannot create statements: no Object for Property found.");
+                continue; // ...then, no statement can be processed
+            }
+            listObjects = nodeObject.createObjects(theContext, iRowIndex, theRecord);
+            if (listObjects == null) { // ...no Object List?
+                if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: Cannot create statements: no Object List created on Object for Property.");
+                continue; // ...then, no statements can be processed
+            }
+
+            //
+            // PROPERTY: resolved at compile (null on a bad IRI)...
+            //
+            theProperty = propItem.getNode();
+            if (theProperty != null) {
+                listPropsForStmts.add(theProperty);
+                listObjsForStmts.add(listObjects);
+            }
+            if (theContext.getProfile() != null) {
+                if (theProperty == null) { // ...the statements are skipped...
+                    theContext.getProfile().addError( propItem.getSource() );
+                }
+                else {
+                    theContext.getProfile().addStatements( propItem.getSource(),
+                        (long) listSources.size() * listObjects.size() );
+                }
+            }
+        }
+
+        //
+        // Process statements...
+        //
+        int iProps = listPropsForStmts.size();
+        for (Node theSource : listSources) {
+            for (int iProp = 0; iProp < iProps; iProp++) {
+                theProperty = listPropsForStmts.get(iProp);
+                for ( Node theObject : listObjsForStmts.get(iProp) ) {
+                    theContext.emit(theSource, theProperty, theObject);
+                }
+            }
+        }
+    }
+
+    /*
+     *  Method processResults() for results to Resources
+     *
+     *    Add the Resources for the given expression results (singular or array) to the list.  The
+     *    context is null for the constants processed at compile.
+     */
+    protected void processResults(PlanContext theContext, String strPrefix, Object results, List<Node> listNodes) {
+        // Results are an array...
+        if ( results.getClass().isArray() ) {
+            if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: Result is Array...");
+            int iResultCount = Array.getLength(results);
+            for (int iResult = 0; iResult < iResultCount; iResult++) {
+                this.processResult( theContext, strPrefix, Array.get(results, iResult), listNodes );
+            }
+        }
+        // Results are singular...
+        else {
+            if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: Result is Singular...");
+            this.processResult(theContext, strPrefix, results, listNodes);
+        }
+    }
+
+    private void processResult(PlanContext theContext, String strPrefix, Object objResult, List<Node> listNodes) {
+        if ( objResult == null || objResult.toString().isEmpty() ) {
+            return;
+        }
+        if (strPrefix == null) {
+            if ( this.processResultAsEmbedded(theContext, objResult, listNodes) ) {
+                return;
+            }
+        }
+        this.normalizeResource(theContext, strPrefix, objResult, listNodes);
+    }
+
+    /*
+     *  Method processResultAsEmbedded() for a single, unprefixed result to a Resource
+     *
+     *    A result with a scheme but no authority ("prefix:localPart") uses the scheme as a prefix.
+     */
+    private boolean processResultAsEmbedded(PlanContext theContext, Object objResult, List<Node> listNodes) {
+        String strLocalPart = Util.toSpaceStrippedString(objResult);
+        if ( strLocalPart == null || strLocalPart.isEmpty() ) {
+            return false;
+        }
+        String strEmbeddedPrefix = null;
+
+        try {
+            IRI tempIRI = Util.buildIRI(strLocalPart);
+            if (tempIRI != null) {
+                // ...it parsed as an IRI...
+                // If a scheme is present, but a host is not present...
+                strEmbeddedPrefix = tempIRI.getScheme();
+                if (strEmbeddedPrefix != null && tempIRI.getRawHost() == null) {
+                    // There is no authority component:
+                    //    i.e., there was no "schema://...", just "schema:...", so
+                    //    the authority parsing that contains the host parsing was not
+                    //    performed.  The rest may parse as a path, query, fragment.
+                    // Then, the schema is a prefix and that is enough...
+                    strLocalPart = strLocalPart.substring(strEmbeddedPrefix.length() + 1);
+                    this.normalizeResource(theContext, strEmbeddedPrefix, strLocalPart, listNodes);
+                    return true;
+                }
+            }
+        }
+        catch (Exception ex) {
+            // ...continue: try as non-prefixed IRI...
+        }
+        return false;
+    }
+
+    /*
+     *  Method normalizeResource() for Resource Node to IRI
+     */
+    private void normalizeResource(PlanContext theContext, String strPrefix, Object objResult, List<Node> listNodes) {
+        if (objResult == null) {
+            return;
+        }
+        String strIRI = Util.toSpaceStrippedString(objResult); // ...Default: Full IRI
+        if ( strIRI.isEmpty() ) {
+            return;
+        }
+        String strNamespace = null;
+        String strLocalPart = strIRI; // ...for "prefix:localPart" IRI
+        if (strPrefix != null) { // ...on prefix, attempt namespace...
+            strIRI = strPrefix + ":" + strLocalPart;
+            strNamespace = this.thePrefixes.getNsPrefixURI(strPrefix);
+        }
+        if ( Util.isDebugMode() ) {
+            String strDebug = "DEBUG: normalizeResource: Given: ";
+            if (strPrefix == null) {
+                strDebug += "IRI: " + strIRI;
+            }
+            else {
+                strDebug += "Prefix: " + strPrefix + " LocalPart: " + strLocalPart;
+            }
+            PlanResourceNode.logger.info(strDebug);
+        }
+
+        try {
+            String strResolvedIRI = Util.resolveIRI(this.baseIRI, strIRI);
+            if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: normalizeResource: Resolved IRI: " + strResolvedIRI);
+            if (strResolvedIRI != null) { // ...at least it's a good, basic IRI...
+                String strFullIRI = strResolvedIRI; // ...Default: Full IRI
+                Node nodeResource;
+                if (strNamespace == null) { // ...and both strPrefix == null and != null
+                    nodeResource = NodeFactory.createURI(strFullIRI);
+                }
+                else {
+                    strFullIRI = strNamespace + strLocalPart;
+                    nodeResource = NodeFactory.createURI(strFullIRI);
+                }
+                if (Util.isDebugMode()) PlanResourceNode.logger.info("DEBUG: normalizeResource: Processed IRI: " + strFullIRI);
+                listNodes.add(nodeResource);
+            }
+        }
+        catch (Exception ex) {
+            // An IRIParsingException from Util.resolveIRI() means a bad IRI.
+            // An IllegalArgumentException from theFactory.createIRI() means a bad IRI.
+            // In either case, record error and eat the exception...
+            PlanResourceNode.logger.error( "ERROR: Bad IRI: " + strIRI, ex);
+            if (theContext != null) {
+                if (theContext.getMetrics() != null) {
+                    theContext.getMetrics().addIRIFailure();
+                }
+                if (theContext.getProfile() != null) {
+                    theContext.getProfile().addError(this.theSource);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *  Class PlanType
+ *
+ *  A compiled Type mapping for a Resource node in a Transform Plan.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import org.openrefine.rdf.model.RDFType;
+
+import org.apache.jena.graph.Node;
+
+/*
+ * Class PlanType
+ *
+ *  The type IRI is resolved once at compile (see TransformPlan.resolveIRINode()).
+ */
+public final class PlanType {
+    // The Type: The transform type this type was compiled from
+    private final RDFType theSource;
+    // The Type: A Prefix for the LocalPart (null indicates a FULL IRI, empty indicates the BaseIRI)
+    private final String strPrefix;
+
+    // The Type: The Local Part of the IRI (or a Full IRI when Prefix is null)
+    private final String strLocalPart;
+
+    // The Type: The resolved IRI node
+    private final Node nodeType;
+
+    public PlanType(RDFType theSource, String strPrefix, String strLocalPart, Node nodeType) {
+        this.theSource = theSource;
+        this.strPrefix = strPrefix;
+        this.strLocalPart = strLocalPart;
+        this.nodeType = nodeType;
+    }
+
+    public RDFType getSource() {
+        return this.theSource;
+    }
+
+    public String getPrefix() {
+        return this.strPrefix;
+    }
+
+    public String getLocalPart() {
+        return this.strLocalPart;
+    }
+
+    public Node getNode() {
+        return this.nodeType;
+    }
+}
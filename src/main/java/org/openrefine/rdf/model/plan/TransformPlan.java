@@ -0,0 +1,320 @@
+/*
+ *  Class TransformPlan
+ *
+ *  The immutable, compiled form of an RDF Transform used to evaluate the
+ *  transform over project rows and records.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openrefine.rdf.RDFTransform;
+import org.openrefine.rdf.model.CellBlankNode;
+import org.openrefine.rdf.model.CellLiteralNode;
+import org.openrefine.rdf.model.CellResourceNode;
+import org.openrefine.rdf.model.ConstantBlankNode;
+import org.openrefine.rdf.model.ConstantLiteralNode;
+import org.openrefine.rdf.model.ConstantResourceNode;
+import org.openrefine.rdf.model.Node;
+import org.openrefine.rdf.model.Property;
+import org.openrefine.rdf.model.RDFType;
+import org.openrefine.rdf.model.ResourceNode;
+import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.Util.IRIParsingException;
+
+import com.google.refine.model.Project;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.iri.IRI;
+import org.apache.jena.shared.PrefixMapping;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class TransformPlan
+ *
+ *  The RDF Transform node tree (see RDFTransform.reconstruct()) is the JSON model of a transform.
+ *  A TransformPlan is compiled from that model for a project and holds everything that does not
+ *  change per row: parsed expressions, column cell indexes, resolved constant IRIs, literal
+ *  datatypes, and blank node labels.
+ *
+ *  Column names not in the project are reported once at compile (see getMissingColumns()).
+ *
+ *  Each blank node is numbered in compile order.  The number and the blank node scope preference
+ *  (read once at compile) label the cell blank nodes (see BlankNodeLabels), so the same transform
+ *  over the same project produces the same labels on every run: a resumed export (see
+ *  ExportCheckpoint) continues the labels of the export it resumes.
+ *
+ *  The type and property IRIs are resolved once at compile and interned: equal IRIs share a single
+ *  Jena Node for the whole plan.
+ *
+ *  A root that is row independent (a constant resource or blank node whose property objects are all,
+ *  recursively, constants) creates the same statements for every row and record.  These roots are
+ *  "hoisted": they are held apart from the row roots (see getHoistedRoots()) so a visitor creates
+ *  their statements once per export instead of once per row or record.
+ *
+ *  A plan holds no per-row state.  The row / record state lives in a PlanContext, one per thread,
+ *  so a single plan may be evaluated concurrently.
+ */
+public final class TransformPlan {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:TransformPlan");
+
+    private final IRI baseIRI;
+    private final PrefixMapping thePrefixes;
+    private final List<PlanResourceNode> listRoots;
+    private final List<PlanResourceNode> listHoistedRoots;
+    private final Set<String> setMissingColumns = new LinkedHashSet<String>();
+    private final Map<String, org.apache.jena.graph.Node> mapIRINodes = new HashMap<String, org.apache.jena.graph.Node>();
+    // The blank node compile ordinals: the stable part of the generated blank node labels...
+    private int iBlankNodes = 0;
+    private final BlankNodeLabels.Scope eBlankNodeScope = BlankNodeLabels.getScope();
+    // Whether every expression is GREL...
+    private boolean bThreadSafe = true;
+
+    /*
+     * Method compile()
+     *
+     *  Compile the given transform for the given project.  The prefixes are the namespace prefixes
+     *  used to expand CIRIEs (see RDFVisitor for their construction).  The plan copies and locks
+     *  the prefixes.
+     */
+    static public TransformPlan compile(RDFTransform theTransform, Project theProject, PrefixMapping thePrefixes) {
+        if ( Util.isDebugMode() ) TransformPlan.logger.info("DEBUG: Compiling transform plan...");
+        return new TransformPlan(theTransform, theProject, thePrefixes);
+    }
+
+    private TransformPlan(RDFTransform theTransform, Project theProject, PrefixMapping thePrefixes) {
+        this.baseIRI = theTransform.getBaseIRI();
+        this.thePrefixes = PrefixMapping.Factory.create().setNsPrefixes(thePrefixes).lock();
+
+        List<PlanResourceNode> listPlanRoots = new ArrayList<PlanResourceNode>();
+        List<PlanResourceNode> listPlanHoistedRoots = new ArrayList<PlanResourceNode>();
+        List<ResourceNode> listRootNodes = theTransform.getRoots();
+        if (listRootNodes != null) {
+            for (ResourceNode nodeRoot : listRootNodes) {
+                PlanNode planRoot = this.compileNode(nodeRoot, theProject);
+                if (planRoot != null) {
+                    if ( planRoot.isRowIndependent() ) {
+                        if ( Util.isDebugMode() ) TransformPlan.logger.info("DEBUG: Hoisted root: " + planRoot.getNodeName());
+                        listPlanHoistedRoots.add( (PlanResourceNode) planRoot );
+                    }
+                    else {
+                        listPlanRoots.add( (PlanResourceNode) planRoot );
+                    }
+                }
+            }
+        }
+        this.listRoots = Collections.unmodifiableList(listPlanRoots);
+        this.listHoistedRoots = Collections.unmodifiableList(listPlanHoistedRoots);
+
+        if ( ! this.setMissingColumns.isEmpty() ) {
+            TransformPlan.logger.warn("WARNING: Missing column(s) in project: " + this.setMissingColumns +
+                " : the nodes using them evaluate as empty cells.");
+        }
+    }
+
+    /*
+     * Method isThreadSafe()
+     *
+     *  Whether the plan may be evaluated on several threads at once: every expression is GREL.  The
+     *  parsed expressions are shared by the threads (see ExpressionCache), and a non-GREL Evaluable
+     *  (e.g., Jython) may keep mutable interpreter state.
+     */
+    public boolean isThreadSafe() {
+        return this.bThreadSafe;
+    }
+
+    public IRI getBaseIRI() {
+        return this.baseIRI;
+    }
+
+    public PrefixMapping getPrefixes() {
+        return this.thePrefixes;
+    }
+
+    /*
+     * Method getRoots()
+     *
+     *  The roots evaluated on each row or record.  The hoisted roots are not included.
+     */
+    public List<PlanResourceNode> getRoots() {
+        return this.listRoots;
+    }
+
+    /*
+     * Method getHoistedRoots()
+     *
+     *  The row independent roots: their statements are created once per export.
+     */
+    public List<PlanResourceNode> getHoistedRoots() {
+        return this.listHoistedRoots;
+    }
+
+    /*
+     * Method getMissingColumns()
+     *
+     *  The column names used by the transform that are not columns in the project.
+     */
+    public Set<String> getMissingColumns() {
+        return Collections.unmodifiableSet(this.setMissingColumns);
+    }
+
+    /*
+     * Method resolveIRINode()
+     *
+     *  Resolve a type or property IRI (a Full IRI or CIRIE) to an interned IRI node.  Returns null,
+     *  after logging, for an empty or bad IRI.
+     */
+    private org.apache.jena.graph.Node resolveIRINode(String strPrefix, String strLocalPart, String strKind) {
+        String strIRI = strLocalPart; // ...assume FULL IRI
+        String strNamespace = null;
+        if (strPrefix != null) { // ...prefixed...
+            strIRI = strPrefix + ":" + strLocalPart; // ...CIRIE
+            strNamespace = this.thePrefixes.getNsPrefixURI(strPrefix);
+        }
+        if ( strIRI == null || strIRI.isEmpty() ) {
+            return null;
+        }
+
+        try {
+            // Resolve the IRI for Full IRI or CIRIE...
+            String strFullIRI = Util.resolveIRI(this.baseIRI, strIRI);
+            if (strFullIRI == null) {
+                return null;
+            }
+            if (strNamespace != null) {
+                strFullIRI = strNamespace + strLocalPart;
+            }
+            // ...on no prefix or missing namespace, treat as Full...
+            org.apache.jena.graph.Node nodeIRI = this.mapIRINodes.get(strFullIRI);
+            if (nodeIRI == null) {
+                nodeIRI = NodeFactory.createURI(strFullIRI);
+                this.mapIRINodes.put(strFullIRI, nodeIRI);
+            }
+            if ( Util.isDebugMode() ) TransformPlan.logger.info("DEBUG: " + strKind + " Resource: [" + strFullIRI + "]");
+            return nodeIRI;
+        }
+        catch (IRIParsingException | IllegalArgumentException ex) {
+            TransformPlan.logger.error("ERROR: Bad " + strKind + " IRI: " + strIRI, ex);
+        }
+        return null;
+    }
+
+    private PlanCell compileCell(Project theProject, String strColumnName, String strExpression) {
+        PlanCell theCell = new PlanCell(theProject, strColumnName, strExpression);
+        if ( theCell.isMissingColumn() ) {
+            this.setMissingColumns.add(strColumnName);
+        }
+        if ( ! theCell.isGREL() ) {
+            this.bThreadSafe = false;
+        }
+        return theCell;
+    }
+
+    private PlanNode compileNode(Node theNode, Project theProject) {
+        if (theNode == null) {
+            return null;
+        }
+
+        //
+        // Compile the Types and Properties for Resource nodes...
+        //
+        List<PlanType> listTypes = new ArrayList<PlanType>();
+        List<PlanProperty> listProperties = new ArrayList<PlanProperty>();
+        if (theNode instanceof ResourceNode) {
+            ResourceNode nodeResource = (ResourceNode) theNode;
+            if (nodeResource.getTypes() != null) {
+                for ( RDFType theType : nodeResource.getTypes() ) {
+                    org.apache.jena.graph.Node nodeType =
+                        this.resolveIRINode( theType.getPrefix(), theType.getLocalPart(), "Type" );
+                    if (nodeType != null) {
+                        listTypes.add( new PlanType( theType, theType.getPrefix(), theType.getLocalPart(), nodeType ) );
+                    }
+                }
+            }
+            if (nodeResource.getProperties() != null) {
+                for ( Property theProperty : nodeResource.getProperties() ) {
+                    String strLocalPart = theProperty.getPathProperty();
+                    if ( strLocalPart == null || strLocalPart.isEmpty() ) {
+                        continue; // ...no property, no statements
+                    }
+                    listProperties.add(
+                        new PlanProperty(
+                            theProperty, theProperty.getPrefix(), strLocalPart,
+                            this.resolveIRINode( theProperty.getPrefix(), strLocalPart, "Property" ),
+                            this.compileNode( theProperty.getObject(), theProject ) ) );
+                }
+            }
+        }
+
+        PlanNode planNode = null;
+
+        if (theNode instanceof CellResourceNode) {
+            CellResourceNode nodeCell = (CellResourceNode) theNode;
+            planNode =
+                new PlanCellResourceNode(theNode, this.baseIRI, this.thePrefixes, listTypes, listProperties,
+                    this.compileCell(theProject, nodeCell.getColumnName(), nodeCell.getExpression()),
+                    nodeCell.getPrefix() );
+        }
+        else if (theNode instanceof CellBlankNode) {
+            CellBlankNode nodeCell = (CellBlankNode) theNode;
+            planNode =
+                new PlanCellBlankNode(theNode, this.baseIRI, this.thePrefixes, listTypes, listProperties,
+                    this.compileCell(theProject, nodeCell.getColumnName(), nodeCell.getExpression()),
+                    this.iBlankNodes++, this.eBlankNodeScope );
+        }
+        else if (theNode instanceof ConstantResourceNode) {
+            ConstantResourceNode nodeConst = (ConstantResourceNode) theNode;
+            planNode =
+                new PlanConstantResourceNode(theNode, this.baseIRI, this.thePrefixes, listTypes, listProperties,
+                    nodeConst.getConstant(), nodeConst.getPrefix() );
+        }
+        else if (theNode instanceof ConstantBlankNode) {
+            ConstantBlankNode nodeConst = (ConstantBlankNode) theNode;
+            planNode =
+                new PlanConstantBlankNode(theNode, this.baseIRI, this.thePrefixes, listTypes, listProperties,
+                    nodeConst.getConstant(), this.iBlankNodes++ );
+        }
+        else if (theNode instanceof CellLiteralNode) {
+            CellLiteralNode nodeCell = (CellLiteralNode) theNode;
+            planNode =
+                new PlanCellLiteralNode(theNode, this.thePrefixes,
+                    this.compileCell(theProject, nodeCell.getColumnName(), nodeCell.getExpression()),
+                    nodeCell.getDatatypeNode(), nodeCell.getLanguage() );
+        }
+        else if (theNode instanceof ConstantLiteralNode) {
+            ConstantLiteralNode nodeConst = (ConstantLiteralNode) theNode;
+            planNode =
+                new PlanConstantLiteralNode(theNode, this.thePrefixes,
+                    nodeConst.getConstant(), nodeConst.getDatatypeNode(), nodeConst.getLanguage() );
+        }
+
+        if (planNode == null) {
+            TransformPlan.logger.error("ERROR: Cannot compile node: " + theNode.getNodeName());
+        }
+
+        return planNode;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ *  Class CompressedOutputStream
+ *
+ *  An output stream compressing independent blocks in parallel as concatenated members.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class CompressedOutputStream
+ *
+ *  The written bytes are cut into blocks, each block is compressed on a worker pool as a complete
+ *  member of the codec's format, and the members are written to the output in order.  A file of
+ *  concatenated members is one valid file for each codec: gzip, bzip2, and xz all decompress the
+ *  members as one stream (as pigz writes gzip).  Compression then runs on as many threads as set
+ *  (see Util.getCompressThreads()) instead of a single pass after the export.
+ *
+ *  The blocks in flight are bounded (iBLOCKS_PER_THREAD per thread), so a slow output holds back
+ *  the writer instead of filling memory.  The block buffers are reused.
+ *
+ *  Each codec sets its block size to its own window so little ratio is lost: gzip's window is 32K,
+ *  a bzip2 stream holds 900K blocks, and the xz preset holds a 4M dictionary.  The xz codec needs
+ *  the XZ for Java library (see Codec.isAvailable()).
+ *
+ *  A flush() writes the members already compressed but never cuts a block.  Call finish() to
+ *  compress the last block and write all members, or abort() to stop on a failure.  The output is
+ *  not closed.
+ */
+public class CompressedOutputStream extends OutputStream {
+    private final static Logger logger = LoggerFactory.getLogger("RDFT:CompressedOutStrm");
+
+    /*
+     * Enum Codec
+     *
+     *  The compression formats: the file extension, content type, block size, and member writer.
+     */
+    public enum Codec {
+        GZIP("gz", "application/gzip", 1 << 20),
+        BZIP2("bz2", "application/x-bzip2", 900000 * 4),
+        XZ("xz", "application/x-xz", 1 << 22);
+
+        private final String strExtension;
+        private final String strContentType;
+        private final int iBlockSize;
+
+        Codec(String strExtension, String strContentType, int iBlockSize) {
+            this.strExtension = strExtension;
+            this.strContentType = strContentType;
+            this.iBlockSize = iBlockSize;
+        }
+
+        public String getExtension() {
+            return this.strExtension;
+        }
+
+        public String getContentType() {
+            return this.strContentType;
+        }
+
+        public int getBlockSize() {
+            return this.iBlockSize;
+        }
+
+        /*
+         * Method isAvailable()
+         *
+         *  Whether the codec's library is present.  The xz codec needs XZ for Java, which OpenRefine
+         *  does not ship.
+         */
+        public boolean isAvailable() {
+            if (this == Codec.XZ) {
+                return XZUtils.isXZCompressionAvailable();
+            }
+            return true;
+        }
+
+        /*
+         * Method compress()
+         *
+         *  Compress the bytes as one complete member.
+         */
+        public ByteArrayOutputStream compress(byte[] abBytes, int iCount) throws IOException {
+            ByteArrayOutputStream theMember = new ByteArrayOutputStream( Math.max(1024, iCount / 3) );
+            OutputStream theCompressor;
+            switch (this) {
+                case BZIP2:
+                    theCompressor = new BZip2CompressorOutputStream(theMember);
+                    break;
+                case XZ:
+                    theCompressor = new XZCompressorOutputStream(theMember, 3);
+                    break;
+                default:
+                    theCompressor = new GZIPOutputStream(theMember, 65536);
+                    break;
+            }
+            theCompressor.write(abBytes, 0, iCount);
+            theCompressor.close();
+            return theMember;
+        }
+    }
+
+    // The blocks compressing or waiting to be written per thread...
+    static private final int iBLOCKS_PER_THREAD = 2;
+
+    private final OutputStream theOutput;
+    private final Codec theCodec;
+    private final ExecutorService theExecutor;
+    private final Deque<Future<ByteArrayOutputStream>> dequeInFlight = new ArrayDeque<Future<ByteArrayOutputStream>>();
+    private final BlockingQueue<byte[]> queueFree;
+    private final int iMaxInFlight;
+
+    private byte[] abBlock;
+    private int iCount = 0;
+    private long iBytesIn = 0;
+    private long iBytesOut = 0;
+    private long iMembers = 0;
+    private boolean bFinished = false;
+
+    public CompressedOutputStream(OutputStream theOutput, Codec theCodec) {
+        this( theOutput, theCodec, Util.getCompressThreads() );
+    }
+
+    public CompressedOutputStream(OutputStream theOutput, Codec theCodec, int iThreads) {
+        this.theOutput = theOutput;
+        this.theCodec = theCodec;
+        int iPoolThreads = ( iThreads > 0 ? iThreads : Runtime.getRuntime().availableProcessors() );
+        this.iMaxInFlight = iPoolThreads * CompressedOutputStream.iBLOCKS_PER_THREAD;
+        // The blocks in flight, the block filling, and the block waiting to be reused...
+        this.queueFree = new ArrayBlockingQueue<byte[]>(this.iMaxInFlight + 2);
+        this.abBlock = new byte[theCodec.getBlockSize()];
+        final AtomicInteger iThreadCount = new AtomicInteger(0);
+        this.theExecutor =
+            Executors.newFixedThreadPool(iPoolThreads,
+                (Runnable theRunnable) -> {
+                    Thread theThread = new Thread(theRunnable, "RDFT-Compress-" + iThreadCount.incrementAndGet());
+                    theThread.setDaemon(true);
+                    return theThread;
+                }
+            );
+        if ( Util.isDebugMode() ) {
+            CompressedOutputStream.logger.info("DEBUG: Created: Codec: " + theCodec + " Threads: " + iPoolThreads);
+        }
+    }
+
+    public Codec getCodec() {
+        return this.theCodec;
+    }
+
+    public long getBytesIn() {
+        return this.iBytesIn;
+    }
+
+    public long getBytesOut() {
+        return this.iBytesOut;
+    }
+
+    @Override
+    public void write(int iByte) throws IOException {
+        if (this.iCount == this.abBlock.length) {
+            this.submitBlock();
+        }
+        this.abBlock[this.iCount++] = (byte) iByte;
+    }
+
+    @Override
+    public void write(byte[] abBytes, int iOffset, int iLength) throws IOException {
+        while (iLength > 0) {
+            if (this.iCount == this.abBlock.length) {
+                this.submitBlock();
+            }
+            int iCopy = Math.min( iLength, this.abBlock.length - this.iCount );
+            System.arraycopy(abBytes, iOffset, this.abBlock, this.iCount, iCopy);
+            this.iCount += iCopy;
+            iOffset += iCopy;
+            iLength -= iCopy;
+        }
+    }
+
+    /*
+     * Method flush()
+     *
+     *  Write the members already compressed and flush the output.  The block filling is kept whole.
+     */
+    @Override
+    public void flush() throws IOException {
+        while ( ! this.dequeInFlight.isEmpty() && this.dequeInFlight.peekFirst().isDone() ) {
+            this.writeMember();
+        }
+        this.theOutput.flush();
+    }
+
+    /*
+     * Method finish()
+     *
+     *  Compress the last block, write all members, flush the output, and stop the workers.
+     */
+    public void finish() throws IOException {
+        if (this.bFinished) {
+            return;
+        }
+        try {
+            if (this.iCount > 0) {
+                this.submitBlock();
+            }
+            while ( ! this.dequeInFlight.isEmpty() ) {
+                this.writeMember();
+            }
+            this.theOutput.flush();
+            if ( Util.isDebugMode() ) {
+                CompressedOutputStream.logger.info("DEBUG: Compressed " + this.iBytesIn + " bytes to " + this.iBytesOut +
+                    " bytes in " + this.iMembers + " " + this.theCodec + " members");
+            }
+        }
+        finally {
+            this.abort();
+        }
+    }
+
+    /*
+     * Method abort()
+     *
+     *  Stop the workers without writing the members in flight.
+     */
+    public void abort() {
+        this.bFinished = true;
+        this.dequeInFlight.clear();
+        this.theExecutor.shutdownNow();
+    }
+
+    /*
+     * Method close()
+     *
+     *  Finish the compressed stream.  The output is not closed: the caller owns it.
+     */
+    @Override
+    public void close() throws IOException {
+        this.finish();
+    }
+
+    private void submitBlock() throws IOException {
+        if (this.bFinished) {
+            throw new IOException("The compressed stream is finished.");
+        }
+        // Hold back the writer while the pool is full...
+        while (this.dequeInFlight.size() >= this.iMaxInFlight) {
+            this.writeMember();
+        }
+        final byte[] abFull = this.abBlock;
+        final int iFull = this.iCount;
+        final Codec theBlockCodec = this.theCodec;
+        final BlockingQueue<byte[]> queueBlocks = this.queueFree;
+        this.dequeInFlight.addLast(
+            this.theExecutor.submit(
+                () -> {
+                    try {
+                        return theBlockCodec.compress(abFull, iFull);
+                    }
+                    finally {
+                        queueBlocks.offer(abFull);
+                    }
+                }
+            )
+        );
+        this.iBytesIn += iFull;
+        byte[] abFree = this.queueFree.poll();
+        this.abBlock = ( abFree == null ? new byte[this.theCodec.getBlockSize()] : abFree );
+        this.iCount = 0;
+    }
+
+    private void writeMember() throws IOException {
+        Future<ByteArrayOutputStream> futureMember = this.dequeInFlight.removeFirst();
+        ByteArrayOutputStream theMember;
+        try {
+            theMember = futureMember.get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compression interrupted.", ex);
+        }
+        catch (ExecutionException ex) {
+            Throwable theCause = ex.getCause();
+            if (theCause instanceof IOException) {
+                throw (IOException) theCause;
+            }
+            throw new IOException("Compression failed: " + theCause.getMessage(), theCause);
+        }
+        theMember.writeTo(this.theOutput);
+        this.iBytesOut += theMember.size();
+        this.iMembers++;
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ *  Class ExportMetrics
+ *
+ *  The run metrics of an RDF export: work done, output produced, and where the time goes.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.utils;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openrefine.rdf.model.Util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.apache.commons.io.output.ProxyOutputStream;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class ExportMetrics
+ *
+ *  An exporter starts the metrics for an export (see start()) and hands them to its visitor.  The
+ *  visitors, plan contexts, and counting streams update the metrics as the export runs:
+ *    Rows / Records: the rows and records visited (a record counts its rows)
+ *    Triples:        the statements emitted by the transform (before any dedup filter)
+ *    Dropped:        the statements dropped by the dedup filter (see DedupStreamRDF)
+ *    Bytes:          the bytes written to the export stream
+ *    Flushes:        the flushes of the visited statements and the parallel chunk writes, with
+ *                    their total time
+ *    Evaluations:    the cell expression evaluations, with their total time
+ *    IRI Failures:   the expression results that failed to resolve to an IRI
+ *    Pipeline:       with a pipelined export (see PipelineStreamRDF), the batch size, the queue
+ *                    length, the batches, the queue depth, and the producer and consumer stalls
+ *  The counters are LongAdders, so the worker threads of a parallel export update them without
+ *  contention.  Without metrics (previews), nothing is counted or timed.
+ *
+ *  The metrics of the running or last export of each project are kept for the
+ *  "get-export-metrics" command (see ExportMetricsCommand).  A summary is logged when the export
+ *  ends (see end()).  The start and end are also recorded as JFR events (see RDFTEvents).
+ *
+ *  A background export (see RDFExportProcess) sets the total rows or records to visit for the
+ *  percent done and the estimated time left, and may cancel the export.  The visitors stop at the
+ *  next row or record once the metrics are canceled.
+ */
+public class ExportMetrics {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:ExportMetrics");
+
+    static public final String strSTATE_RUNNING  = "running";
+    static public final String strSTATE_COMPLETE = "complete";
+    static public final String strSTATE_FAILED   = "failed";
+    static public final String strSTATE_CANCELED = "canceled";
+
+    // The running or last export metrics by project ID...
+    static private final Map<Long, ExportMetrics> mapMetrics = new ConcurrentHashMap<Long, ExportMetrics>();
+
+    private final long iProjectID;
+    private final String strFormat;
+    private final long iStartTime;
+    private final long iStartNanos;
+    private volatile long iEndNanos = 0;
+    private volatile String strState = ExportMetrics.strSTATE_RUNNING;
+
+    private final LongAdder iRows = new LongAdder();
+    private final LongAdder iRecords = new LongAdder();
+    private final LongAdder iTriples = new LongAdder();
+    private final LongAdder iBytes = new LongAdder();
+    private final LongAdder iFlushes = new LongAdder();
+    private final LongAdder iFlushNanos = new LongAdder();
+    private final LongAdder iEvaluations = new LongAdder();
+    private final LongAdder iEvaluationNanos = new LongAdder();
+    private final LongAdder iIRIFailures = new LongAdder();
+    private volatile long iDropped = 0;
+    private volatile long iTotal = -1;
+    private volatile boolean bTotalRecords = false;
+    private volatile boolean bCanceled = false;
+    // The pipeline statistics: batch size, queue length, batches, max depth, producer stalls and
+    // millis, consumer stalls and millis...
+    private volatile long[] aiPipeline = null;
+    private volatile double dPipelineDepth = 0.0;
+    private final RDFTEvents.ExportEvent theEvent = new RDFTEvents.ExportEvent();
+
+    /*
+     * Method start()
+     *
+     *  Start the metrics for an export of the project in the named format.  They replace the metrics
+     *  of the project's last export.
+     */
+    static public ExportMetrics start(long iProjectID, String strFormat) {
+        ExportMetrics theMetrics = new ExportMetrics(iProjectID, strFormat);
+        ExportMetrics.mapMetrics.put(iProjectID, theMetrics);
+        return theMetrics;
+    }
+
+    /*
+     * Method get()
+     *
+     *  The running or last export metrics of the project, or null when none.
+     */
+    static public ExportMetrics get(long iProjectID) {
+        return ExportMetrics.mapMetrics.get(iProjectID);
+    }
+
+    static public List<ExportMetrics> getAll() {
+        return new ArrayList<ExportMetrics>( ExportMetrics.mapMetrics.values() );
+    }
+
+    private ExportMetrics(long iProjectID, String strFormat) {
+        this.iProjectID = iProjectID;
+        this.strFormat = strFormat;
+        this.iStartTime = System.currentTimeMillis();
+        this.iStartNanos = System.nanoTime();
+        this.theEvent.begin();
+
+        RDFTEvents.ExportStartEvent theStartEvent = new RDFTEvents.ExportStartEvent();
+        if ( theStartEvent.isEnabled() ) {
+            theStartEvent.project = iProjectID;
+            theStartEvent.format = strFormat;
+            theStartEvent.threads = Util.getExportThreads();
+            theStartEvent.commit();
+        }
+    }
+
+    /*
+     * Method end()
+     *
+     *  End the export and log the summary.
+     */
+    public void end(boolean bComplete) {
+        this.iEndNanos = System.nanoTime();
+        this.strState =
+            ( this.bCanceled ? ExportMetrics.strSTATE_CANCELED :
+                ( bComplete ? ExportMetrics.strSTATE_COMPLETE : ExportMetrics.strSTATE_FAILED ) );
+        ExportMetrics.logger.info( this.toString() );
+
+        this.theEvent.end();
+        if ( this.theEvent.shouldCommit() ) {
+            this.theEvent.project = this.iProjectID;
+            this.theEvent.format = this.strFormat;
+            this.theEvent.complete = bComplete;
+            this.theEvent.rows = this.getRows();
+            this.theEvent.records = this.getRecords();
+            this.theEvent.triples = this.getTriples();
+            this.theEvent.bytes = this.getBytes();
+            this.theEvent.commit();
+        }
+    }
+
+    /*
+     * Method setTotal()
+     *
+     *  Set the total rows or records the export visits to report the percent done.
+     */
+    public void setTotal(long iTotal, boolean bRecords) {
+        this.bTotalRecords = bRecords;
+        this.iTotal = iTotal;
+    }
+
+    /*
+     * Method cancel()
+     *
+     *  Ask the export to stop.  The visitors stop at the next row or record (see isCanceled()).
+     */
+    public void cancel() {
+        this.bCanceled = true;
+    }
+
+    public boolean isCanceled() {
+        return this.bCanceled;
+    }
+
+    public void addRow() {
+        this.iRows.increment();
+    }
+
+    /*
+     * Method addRecord()
+     *
+     *  Count a visited record and its rows.
+     */
+    public void addRecord(int iRecordRows) {
+        this.iRecords.increment();
+        this.iRows.add(iRecordRows);
+    }
+
+    public void addFlush(long iNanos) {
+        this.iFlushes.increment();
+        this.iFlushNanos.add(iNanos);
+    }
+
+    public void addEvaluation(long iNanos) {
+        this.iEvaluations.increment();
+        this.iEvaluationNanos.add(iNanos);
+    }
+
+    public void addIRIFailure() {
+        this.iIRIFailures.increment();
+    }
+
+    /*
+     * Method addBytes()
+     *
+     *  Count bytes written by a writer that counts its own output (see LineStreamRDF).
+     */
+    public void addBytes(long iCount) {
+        this.iBytes.add(iCount);
+    }
+
+    public void setDropped(long iDropped) {
+        this.iDropped = iDropped;
+    }
+
+    /*
+     * Method setPipeline()
+     *
+     *  Set the pipeline statistics of a pipelined export (see PipelineStreamRDF).
+     */
+    public void setPipeline(int iBatchSize, int iQueueLength, long iBatches, double dAverageDepth, int iMaxDepth,
+                            long iProducerStalls, long iProducerStallMillis,
+                            long iConsumerStalls, long iConsumerStallMillis) {
+        this.dPipelineDepth = dAverageDepth;
+        this.aiPipeline =
+            new long[] { iBatchSize, iQueueLength, iBatches, iMaxDepth,
+                         iProducerStalls, iProducerStallMillis, iConsumerStalls, iConsumerStallMillis };
+    }
+
+    public boolean isPipelined() {
+        return ( this.aiPipeline != null );
+    }
+
+    /*
+     * Method count(OutputStream theOutput)
+     *
+     *  Count the bytes written to the export stream.
+     */
+    public OutputStream count(OutputStream theOutput) {
+        final LongAdder iCountBytes = this.iBytes;
+        return new ProxyOutputStream(theOutput) {
+            @Override
+            protected void afterWrite(int iCount) {
+                iCountBytes.add(iCount);
+            }
+        };
+    }
+
+    /*
+     * Method count(StreamRDF theOutput)
+     *
+     *  Count the statements emitted to the stream.
+     */
+    public StreamRDF count(StreamRDF theOutput) {
+        final LongAdder iCountTriples = this.iTriples;
+        return new StreamRDFWrapper(theOutput) {
+            @Override
+            public void triple(Triple theTriple) {
+                iCountTriples.increment();
+                super.triple(theTriple);
+            }
+
+            @Override
+            public void quad(Quad theQuad) {
+                iCountTriples.increment();
+                super.quad(theQuad);
+            }
+        };
+    }
+
+    public long getProjectID() {
+        return this.iProjectID;
+    }
+
+    public String getFormat() {
+        return this.strFormat;
+    }
+
+    public String getState() {
+        return this.strState;
+    }
+
+    public long getRows() {
+        return this.iRows.sum();
+    }
+
+    public long getRecords() {
+        return this.iRecords.sum();
+    }
+
+    public long getTriples() {
+        return this.iTriples.sum();
+    }
+
+    public long getBytes() {
+        return this.iBytes.sum();
+    }
+
+    public long getDropped() {
+        return this.iDropped;
+    }
+
+    public long getFlushes() {
+        return this.iFlushes.sum();
+    }
+
+    public long getFlushMillis() {
+        return this.iFlushNanos.sum() / 1000000L;
+    }
+
+    public long getEvaluations() {
+        return this.iEvaluations.sum();
+    }
+
+    public long getEvaluationMillis() {
+        return this.iEvaluationNanos.sum() / 1000000L;
+    }
+
+    public long getIRIFailures() {
+        return this.iIRIFailures.sum();
+    }
+
+    public long getTotal() {
+        return this.iTotal;
+    }
+
+    /*
+     * Method getPercent()
+     *
+     *  The percent of the total rows or records visited, or -1 when there is no total.
+     */
+    public int getPercent() {
+        long iTotalCount = this.iTotal;
+        if (iTotalCount < 0) {
+            return -1;
+        }
+        if (iTotalCount == 0) {
+            return 100;
+        }
+        long iDone = ( this.bTotalRecords ? this.getRecords() : this.getRows() );
+        return (int) Math.min( 100L, iDone * 100L / iTotalCount );
+    }
+
+    /*
+     * Method getETAMillis()
+     *
+     *  The estimated time left at the current rate, or -1 when there is no total or no rate yet.
+     */
+    public long getETAMillis() {
+        long iTotalCount = this.iTotal;
+        long iDone = ( this.bTotalRecords ? this.getRecords() : this.getRows() );
+        if (iTotalCount < 0 || iDone <= 0) {
+            return -1;
+        }
+        if ( ! ExportMetrics.strSTATE_RUNNING.equals(this.strState) ) {
+            return 0;
+        }
+        return Math.max( 0L, iTotalCount - iDone ) * this.getElapsedMillis() / iDone;
+    }
+
+    /*
+     * Method getElapsedMillis()
+     *
+     *  The time since the start while running, otherwise the export time.
+     */
+    public long getElapsedMillis() {
+        long iEnd = this.iEndNanos;
+        if (iEnd == 0) {
+            iEnd = System.nanoTime();
+        }
+        return (iEnd - this.iStartNanos) / 1000000L;
+    }
+
+    private long toRate(long iCount) {
+        long iMillis = this.getElapsedMillis();
+        if (iMillis <= 0) {
+            return 0;
+        }
+        return iCount * 1000L / iMillis;
+    }
+
+    public ObjectNode toJSON(ObjectMapper theMapper) {
+        ObjectNode jnodeMetrics = theMapper.createObjectNode();
+        jnodeMetrics.put("project", this.iProjectID);
+        jnodeMetrics.put("format", this.strFormat);
+        jnodeMetrics.put("state", this.strState);
+        jnodeMetrics.put("startTime", this.iStartTime);
+        jnodeMetrics.put("elapsedMillis", this.getElapsedMillis());
+        jnodeMetrics.put("rows", this.getRows());
+        jnodeMetrics.put("records", this.getRecords());
+        jnodeMetrics.put("triples", this.getTriples());
+        jnodeMetrics.put("dropped", this.getDropped());
+        jnodeMetrics.put("bytes", this.getBytes());
+        jnodeMetrics.put("rowsPerSecond", this.toRate( this.getRows() ));
+        jnodeMetrics.put("triplesPerSecond", this.toRate( this.getTriples() ));
+        jnodeMetrics.put("bytesPerSecond", this.toRate( this.getBytes() ));
+        jnodeMetrics.put("flushes", this.getFlushes());
+        jnodeMetrics.put("flushMillis", this.getFlushMillis());
+        jnodeMetrics.put("evaluations", this.getEvaluations());
+        jnodeMetrics.put("evaluationMillis", this.getEvaluationMillis());
+        jnodeMetrics.put("iriFailures", this.getIRIFailures());
+        jnodeMetrics.put("total", this.getTotal());
+        jnodeMetrics.put("percent", this.getPercent());
+        jnodeMetrics.put("etaMillis", this.getETAMillis());
+        long[] aiStats = this.aiPipeline;
+        if (aiStats != null) {
+            ObjectNode jnodePipeline = jnodeMetrics.putObject("pipeline");
+            jnodePipeline.put("batchSize", aiStats[0]);
+            jnodePipeline.put("queueLength", aiStats[1]);
+            jnodePipeline.put("batches", aiStats[2]);
+            jnodePipeline.put("averageDepth", this.dPipelineDepth);
+            jnodePipeline.put("maxDepth", aiStats[3]);
+            jnodePipeline.put("producerStalls", aiStats[4]);
+            jnodePipeline.put("producerStallMillis", aiStats[5]);
+            jnodePipeline.put("consumerStalls", aiStats[6]);
+            jnodePipeline.put("consumerStallMillis", aiStats[7]);
+        }
+        return jnodeMetrics;
+    }
+
+    static public ArrayNode toJSON(ObjectMapper theMapper, List<ExportMetrics> listMetrics) {
+        ArrayNode jnodeMetrics = theMapper.createArrayNode();
+        for (ExportMetrics theMetrics : listMetrics) {
+            jnodeMetrics.add( theMetrics.toJSON(theMapper) );
+        }
+        return jnodeMetrics;
+    }
+
+    private String toPipelineString() {
+        long[] aiStats = this.aiPipeline;
+        if (aiStats == null) {
+            return "";
+        }
+        return
+            "  Pipeline: " + aiStats[2] + " batches of " + aiStats[0] +
+            ", depth " + this.dPipelineDepth + " avg / " + aiStats[3] + " max of " + aiStats[1] +
+            ", producer stalls " + aiStats[4] + " (" + aiStats[5] + " ms)" +
+            ", consumer stalls " + aiStats[6] + " (" + aiStats[7] + " ms)";
+    }
+
+    @Override
+    public String toString() {
+        return
+            "Export " + this.strFormat + " of Project " + this.iProjectID + ": " + this.strState +
+            " in " + this.getElapsedMillis() + " ms:  " +
+            "Rows: " + this.getRows() + " (" + this.toRate( this.getRows() ) + "/s)  " +
+            "Records: " + this.getRecords() + "  " +
+            "Triples: " + this.getTriples() + " (" + this.toRate( this.getTriples() ) + "/s)  " +
+            "Dropped: " + this.getDropped() + "  " +
+            "Bytes: " + this.getBytes() + " (" + this.toRate( this.getBytes() ) + "/s)  " +
+            "Flushes: " + this.getFlushes() + " (" + this.getFlushMillis() + " ms)  " +
+            "Evaluations: " + this.getEvaluations() + " (" + this.getEvaluationMillis() + " ms)  " +
+            "IRI Failures: " + this.getIRIFailures() +
+            this.toPipelineString();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Class IRICache
+ *
+ *  Caches the IRI resolution and construction results of Util.resolveIRI() and Util.buildIRI().
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.utils;
+
+import org.openrefine.rdf.model.Util;
+
+import org.apache.jena.iri.IRI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ * Class IRICache
+ *
+ *  Data repeats the same keys and codes over many rows, so the same IRI strings are resolved again
+ *  and again.  The results are held in bounded LRU caches:
+ *    Resolved: keyed by (Base IRI, IRI string) holding the absolute IRI string or the failure
+ *    Built:    keyed by the IRI string holding the constructed IRI or the failure
+ *  A failure is cached so a bad value is reported once while in the cache.
+ *
+ *  The capacity is set by the "iIRICacheSize" preference (see Util.setIRICacheSize()).  A capacity
+ *  of 0 turns the caches off.
+ */
+public class IRICache {
+    static private final Logger logger = LoggerFactory.getLogger("RDFT:IRICache");
+
+    /*
+     * Class Resolved
+     *
+     *  A resolution result: the absolute IRI (null for none) or the error message on a failure.
+     */
+    static public final class Resolved {
+        private final String strIRI;
+        private final String strError;
+
+        public Resolved(String strIRI, String strError) {
+            this.strIRI = strIRI;
+            this.strError = strError;
+        }
+
+        public String getIRI() {
+            return this.strIRI;
+        }
+
+        public String getError() {
+            return this.strError;
+        }
+
+        public boolean isFailure() {
+            return (this.strError != null);
+        }
+    }
+
+    // The default capacity of each cache...
+    static public final int iDEFAULT_CAPACITY = 65536;
+
+    // The cached build failure (the LRU cache does not hold nulls)...
+    static private final Object objBuildFailure = new Object();
+
+    static private volatile LRUCache<String, Resolved> theResolved =
+        new LRUCache<String, Resolved>(IRICache.iDEFAULT_CAPACITY);
+    static private volatile LRUCache<String, Object> theBuilt =
+        new LRUCache<String, Object>(IRICache.iDEFAULT_CAPACITY);
+
+    /*
+     * Method setCapacity()
+     *
+     *  Replace the caches with new caches of the given capacity.  A capacity of 0 turns the caches
+     *  off.
+     */
+    static public synchronized void setCapacity(int iCapacity) {
+        if (iCapacity > 0) {
+            IRICache.theResolved = new LRUCache<String, Resolved>(iCapacity);
+            IRICache.theBuilt = new LRUCache<String, Object>(iCapacity);
+        }
+        else {
+            IRICache.theResolved = null;
+            IRICache.theBuilt = null;
+        }
+    }
+
+    static public boolean isEnabled() {
+        return (IRICache.theResolved != null);
+    }
+
+    static private String toKey(IRI baseIRI, String strIRI) {
+        if (baseIRI == null) {
+            return "\u0000" + strIRI;
+        }
+        return baseIRI.toString() + "\u0000" + strIRI;
+    }
+
+    static public Resolved getResolved(IRI baseIRI, String strIRI) {
+        LRUCache<String, Resolved> theCache = IRICache.theResolved;
+        if (theCache == null) {
+            return null;
+        }
+        return theCache.get( IRICache.toKey(baseIRI, strIRI) );
+    }
+
+    static public void putResolved(IRI baseIRI, String strIRI, Resolved theResult) {
+        LRUCache<String, Resolved> theCache = IRICache.theResolved;
+        if (theCache == null) {
+            return;
+        }
+        theCache.put( IRICache.toKey(baseIRI, strIRI), theResult );
+    }
+
+    /*
+     * Method getBuilt()
+     *
+     *  Returns the cached IRI, null when not cached, or isBuildFailure() for a cached failure.
+     */
+    static public Object getBuilt(String strIRI) {
+        LRUCache<String, Object> theCache = IRICache.theBuilt;
+        if (theCache == null) {
+            return null;
+        }
+        return theCache.get(strIRI);
+    }
+
+    static public void putBuilt(String strIRI, IRI theIRI) {
+        LRUCache<String, Object> theCache = IRICache.theBuilt;
+        if (theCache == null) {
+            return;
+        }
+        theCache.put( strIRI, ( theIRI == null ? IRICache.objBuildFailure : theIRI ) );
+    }
+
+    static public boolean isBuildFailure(Object objBuilt) {
+        return (objBuilt == IRICache.objBuildFailure);
+    }
+
+    static public LRUCache<String, Resolved> getResolvedCache() {
+        return IRICache.theResolved;
+    }
+
+    static public LRUCache<String, Object> getBuiltCache() {
+        return IRICache.theBuilt;
+    }
+
+    static public String getStatistics() {
+        LRUCache<String, Resolved> theResolvedCache = IRICache.theResolved;
+        LRUCache<String, Object> theBuiltCache = IRICache.theBuilt;
+        if (theResolvedCache == null || theBuiltCache == null) {
+            return "Off";
+        }
+        return
+            "Resolved: [" + theResolvedCache.getStatistics() + "]  " +
+            "Built: [" + theBuiltCache.getStatistics() + "]";
+    }
+
+    static public void logStatistics() {
+        if ( Util.isDebugMode() ) {
+            IRICache.logger.info("DEBUG: IRI Cache: " + IRICache.getStatistics());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Class LRUCache
+ *
+ *  A bounded, thread-safe Least Recently Used cache with hit and miss counters.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Class LRUCache
+ *
+ *  A cache holding at most a given number of entries.  When full, the least recently used entry is
+ *  evicted.  Access to the entries is synchronized so a single cache may be shared by concurrent
+ *  export and preview processes.  The hit and miss counters are kept outside the lock.
+ */
+public class LRUCache<K, V> {
+    private final int iCapacity;
+    private final LinkedHashMap<K, V> theEntries;
+    private final AtomicLong lHits = new AtomicLong();
+    private final AtomicLong lMisses = new AtomicLong();
+
+    public LRUCache(int iCapacity) {
+        this.iCapacity = Math.max(iCapacity, 1);
+        // Access order (true) provides the LRU ordering...
+        this.theEntries =
+            new LinkedHashMap<K, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return this.size() > LRUCache.this.iCapacity;
+                }
+            };
+    }
+
+    public V get(K key) {
+        V value = null;
+        synchronized(this.theEntries) {
+            value = this.theEntries.get(key);
+        }
+        if (value == null) {
+            this.lMisses.incrementAndGet();
+        }
+        else {
+            this.lHits.incrementAndGet();
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        synchronized(this.theEntries) {
+            this.theEntries.put(key, value);
+        }
+    }
+
+    public void clear() {
+        synchronized(this.theEntries) {
+            this.theEntries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized(this.theEntries) {
+            return this.theEntries.size();
+        }
+    }
+
+    public int getCapacity() {
+        return this.iCapacity;
+    }
+
+    public long getHits() {
+        return this.lHits.get();
+    }
+
+    public long getMisses() {
+        return this.lMisses.get();
+    }
+
+    public double getHitRatio() {
+        long lHits = this.lHits.get();
+        long lTotal = lHits + this.lMisses.get();
+        if (lTotal == 0) {
+            return 0.0;
+        }
+        return (double) lHits / (double) lTotal;
+    }
+
+    public void resetStatistics() {
+        this.lHits.set(0);
+        this.lMisses.set(0);
+    }
+
+    public String getStatistics() {
+        return
+            "Size: " + this.size() + "/" + this.iCapacity + "  " +
+            "Hits: " + this.getHits() + "  " +
+            "Misses: " + this.getMisses() + "  " +
+            "Hit Ratio: " + String.format("%.3f", this.getHitRatio());
+    }
+}
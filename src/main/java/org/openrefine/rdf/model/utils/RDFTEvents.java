@@ -0,0 +1,190 @@
+/*
+ *  Class RDFTEvents
+ *
+ *  The Java Flight Recorder (JFR) events for the transform, export, and vocabulary phases.
+ *
+ *  Copyright 2024 Keven L. Ates
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openrefine.rdf.model.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * Class RDFTEvents
+ *
+ *  The events are recorded with the JFR settings of a recording, for example:
+ *      java -XX:StartFlightRecording=filename=refine.jfr,settings=profile ...
+ *      jcmd <pid> JFR.start filename=refine.jfr
+ *  and are listed under the "RDF Transform" category.  Each event carries the project, row, and
+ *  triple counts to connect a slow export to its transform and nodes:
+ *    ExportStart:      an export began
+ *    Export:           an export ended, over the whole export
+ *    Flush:            the statements of a visit were flushed (RDFVisitor.flushStatements()) or a
+ *                      parallel chunk was written
+ *    RootStatements:   the statements of a root node were created on a row or record
+ *    VocabularyImport: a vocabulary was imported and indexed
+ *    VocabularySearch: a Lucene vocabulary search ran
+ *  The Flush and RootStatements events occur on every row, so they are disabled by default.
+ *  Enable them in a recording's settings ("org.openrefine.rdf.Flush#enabled=true").
+ *
+ *  When the events are not enabled, creating, timing, and committing them costs next to nothing.
+ */
+public class RDFTEvents {
+    static public final String strCATEGORY = "RDF Transform";
+
+    @Name("org.openrefine.rdf.ExportStart")
+    @Label("RDF Export Start")
+    @Category({ RDFTEvents.strCATEGORY, "Export" })
+    @Description("An RDF export began")
+    @StackTrace(false)
+    static public class ExportStartEvent extends Event {
+        @Label("Project")
+        public long project;
+
+        @Label("Format")
+        public String format;
+
+        @Label("Threads")
+        public int threads;
+    }
+
+    @Name("org.openrefine.rdf.Export")
+    @Label("RDF Export")
+    @Category({ RDFTEvents.strCATEGORY, "Export" })
+    @Description("An RDF export from its start to its end")
+    @StackTrace(false)
+    static public class ExportEvent extends Event {
+        @Label("Project")
+        public long project;
+
+        @Label("Format")
+        public String format;
+
+        @Label("Complete")
+        public boolean complete;
+
+        @Label("Rows")
+        public long rows;
+
+        @Label("Records")
+        public long records;
+
+        @Label("Triples")
+        public long triples;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("org.openrefine.rdf.Flush")
+    @Label("RDF Statement Flush")
+    @Category({ RDFTEvents.strCATEGORY, "Export" })
+    @Description("The statements of a visit were flushed or a parallel chunk was written")
+    @StackTrace(false)
+    @Enabled(false)
+    static public class FlushEvent extends Event {
+        @Label("Project")
+        public long project;
+
+        @Label("Rows Visited")
+        @Description("The rows visited by the export so far")
+        public long rows;
+
+        @Label("Triples")
+        @Description("The statements flushed or written")
+        public long triples;
+    }
+
+    @Name("org.openrefine.rdf.RootStatements")
+    @Label("RDF Root Node Statements")
+    @Category({ RDFTEvents.strCATEGORY, "Transform" })
+    @Description("The statements of a root node were created on a row or record")
+    @StackTrace(false)
+    @Enabled(false)
+    static public class RootStatementsEvent extends Event {
+        @Label("Project")
+        public long project;
+
+        @Label("Node")
+        public String node;
+
+        @Label("Node Type")
+        public String nodeType;
+
+        @Label("Row")
+        @Description("The row index, or the first row index of the record")
+        public int row;
+
+        @Label("Rows")
+        @Description("The rows transformed: 1, or the rows of the record")
+        public int rows;
+
+        @Label("Triples")
+        public long triples;
+    }
+
+    @Name("org.openrefine.rdf.VocabularyImport")
+    @Label("RDF Vocabulary Import")
+    @Category({ RDFTEvents.strCATEGORY, "Vocabulary" })
+    @Description("A vocabulary was imported and indexed")
+    static public class VocabularyImportEvent extends Event {
+        @Label("Prefix")
+        public String prefix;
+
+        @Label("Namespace")
+        public String namespace;
+
+        @Label("Source")
+        @Description("The fetch URL, or \"model\" for a given model")
+        public String source;
+
+        @Label("Project")
+        public String project;
+
+        @Label("Classes")
+        public int classes;
+
+        @Label("Properties")
+        public int properties;
+    }
+
+    @Name("org.openrefine.rdf.VocabularySearch")
+    @Label("RDF Vocabulary Search")
+    @Category({ RDFTEvents.strCATEGORY, "Vocabulary" })
+    @Description("A Lucene vocabulary search ran")
+    @StackTrace(false)
+    static public class VocabularySearchEvent extends Event {
+        @Label("Query")
+        public String query;
+
+        @Label("Term Type")
+        public String type;
+
+        @Label("Project")
+        public String project;
+
+        @Label("Results")
+        public int results;
+    }
+}
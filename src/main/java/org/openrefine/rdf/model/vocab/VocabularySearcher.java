@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.openrefine.rdf.model.Util;
+import org.openrefine.rdf.model.utils.RDFTEvents;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
@@ -166,6 +167,8 @@ public class VocabularySearcher implements IVocabularySearcher {
         }
         if ( Util.isDebugMode() ) VocabularySearcher.logger.info(strDebug + "from " + strFetchURL);
 
+        RDFTEvents.VocabularyImportEvent theEvent = new RDFTEvents.VocabularyImportEvent();
+        theEvent.begin();
         VocabularyImporter importer = new VocabularyImporter(strPrefix, strNamespace);
         List<RDFTClass> classes = new ArrayList<RDFTClass>();
         List<RDFTProperty> properties = new ArrayList<RDFTProperty>();
@@ -173,11 +176,14 @@ public class VocabularySearcher implements IVocabularySearcher {
         // Import classes & properties from Namespace at URL...
         importer.importVocabulary(strFetchURL, classes, properties);
         this.indexTerms(strProjectID, classes, properties);
+        VocabularySearcher.commitEvent(theEvent, strPrefix, strNamespace, strFetchURL, strProjectID, classes, properties);
     }
 
     @Override
     public void importAndIndexVocabulary(String strPrefix, String strNamespace, Model theModel, String strProjectID)
             throws VocabularyImportException, IOException {
+        RDFTEvents.VocabularyImportEvent theEvent = new RDFTEvents.VocabularyImportEvent();
+        theEvent.begin();
         VocabularyImporter importer = new VocabularyImporter(strPrefix, strNamespace);
         List<RDFTClass> classes = new ArrayList<RDFTClass>();
         List<RDFTProperty> properties = new ArrayList<RDFTProperty>();
@@ -189,26 +195,53 @@ public class VocabularySearcher implements IVocabularySearcher {
         }
         importer.importVocabulary(theModel, classes, properties);
         this.indexTerms(strProjectID, classes, properties);
+        VocabularySearcher.commitEvent(theEvent, strPrefix, strNamespace, "model", strProjectID, classes, properties);
+    }
+
+    static private void commitEvent(RDFTEvents.VocabularyImportEvent theEvent,
+                                    String strPrefix, String strNamespace, String strSource, String strProjectID,
+                                    List<RDFTClass> classes, List<RDFTProperty> properties) {
+        theEvent.end();
+        if ( theEvent.shouldCommit() ) {
+            theEvent.prefix = strPrefix;
+            theEvent.namespace = strNamespace;
+            theEvent.source = strSource;
+            theEvent.project = strProjectID;
+            theEvent.classes = classes.size();
+            theEvent.properties = properties.size();
+            theEvent.commit();
+        }
     }
 
     @Override
     public List<SearchResultItem> searchClasses(String strQueryVal, String strProjectID)
             throws IOException {
         Query query = this.prepareQuery(strQueryVal, CLASS_TYPE, strProjectID);
-        return this.searchDocs(query);
+        return this.searchDocs(query, strQueryVal, CLASS_TYPE, strProjectID);
     }
 
     @Override
     public List<SearchResultItem> searchProperties(String strQueryVal, String strProjectID)
             throws IOException {
         Query query = this.prepareQuery(strQueryVal, PROPERTY_TYPE, strProjectID);
-        return this.searchDocs(query);
+        return this.searchDocs(query, strQueryVal, PROPERTY_TYPE, strProjectID);
     }
 
-    private List<SearchResultItem> searchDocs(Query query)
+    private List<SearchResultItem> searchDocs(Query query, String strQueryVal, String strType, String strProjectID)
             throws IOException {
+        RDFTEvents.VocabularySearchEvent theEvent = new RDFTEvents.VocabularySearchEvent();
+        theEvent.begin();
         TopDocs docs = this.searcher.search(query, getMaxDoc());
-        return this.prepareSearchResults(docs);
+        List<SearchResultItem> listResults = this.prepareSearchResults(docs);
+        theEvent.end();
+        if ( theEvent.shouldCommit() ) {
+            theEvent.query = strQueryVal;
+            theEvent.type = strType;
+            theEvent.project = strProjectID;
+            theEvent.results = listResults.size();
+            theEvent.commit();
+        }
+        return listResults;
     }
 
     @Override
@@ -179,6 +179,13 @@ class RDFExporterMenuBar
         };
         objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
 
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/stream/exportRDFTurtleSorted",
+            label : $.i18n("rdft-menu/rdf-turtle-sorted-stream"),
+            click : () => RDFExporterMenuBar.#exportRDF("TURTLE_SORTED", "ttl")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
         objTypeSubSubMenuItem = {
             id : "rdf-transform/stream/exportRDFTriG",
             label : $.i18n("rdft-menu/rdf-trig-stream"),
@@ -250,6 +257,63 @@ class RDFExporterMenuBar
 
         objExports.submenu.push(objTypeSubMenuItem);
 
+        //
+        // COMPRESSED PRINTERS: stream printers compressed in parallel blocks (Stream)
+        //
+        objTypeSubMenuItem = {
+            id : "rdf-transform/compressed",
+            label : $.i18n('rdft-menu/export-compressed'),
+            submenu : []
+        };
+
+        // GZIP PRINTERS: (Stream, compressed)
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFNTriplesGzip",
+            label : $.i18n("rdft-menu/rdf-n-triples-gzip"),
+            click : () => RDFExporterMenuBar.#exportRDF("NTRIPLES_GZ", "nt.gz")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFNQuadsGzip",
+            label : $.i18n("rdft-menu/rdf-nquads-gzip"),
+            click : () => RDFExporterMenuBar.#exportRDF("NQUADS_GZ", "nq.gz")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFTurtleGzip",
+            label : $.i18n("rdft-menu/rdf-turtle-gzip"),
+            click : () => RDFExporterMenuBar.#exportRDF("TURTLE_BLOCKS_GZ", "ttl.gz")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        // BZIP2 PRINTERS: (Stream, compressed)
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFNTriplesBzip2",
+            label : $.i18n("rdft-menu/rdf-n-triples-bzip2"),
+            click : () => RDFExporterMenuBar.#exportRDF("NTRIPLES_BZ2", "nt.bz2")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFNQuadsBzip2",
+            label : $.i18n("rdft-menu/rdf-nquads-bzip2"),
+            click : () => RDFExporterMenuBar.#exportRDF("NQUADS_BZ2", "nq.bz2")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        objTypeSubSubMenuItem = {
+            id : "rdf-transform/compressed/exportRDFTurtleBzip2",
+            label : $.i18n("rdft-menu/rdf-turtle-bzip2"),
+            click : () => RDFExporterMenuBar.#exportRDF("TURTLE_BLOCKS_BZ2", "ttl.bz2")
+        };
+        objTypeSubMenuItem.submenu.push(objTypeSubSubMenuItem);
+
+        objExports.submenu.push(objTypeSubMenuItem);
+
         //
         // TODO: SPECIAL PRINTERS - Are these even doable???
         //
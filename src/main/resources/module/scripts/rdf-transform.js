@@ -104,6 +104,16 @@ class RDFTransform {
     static gPreferences = {
         iVerbosity : 0 ,
         iExportLimit : 10737418 ,
+        iExportThreads : 1 ,
+        iPrettySpillLimit : 1048576 ,
+        iIRICacheSize : 65536 ,
+        strDedupMode : "none" ,
+        dDedupFalsePositive : 0.000001 ,
+        iDedupMemory : 64 ,
+        strBlankNodeScope : "label" ,
+        iPipelineQueue : 0 ,
+        iPipelineBatch : 1024 ,
+        iCompressThreads : 0 ,
         bPreviewStream : null ,
         bDebugMode : false ,
         bDebugJSON : false ,
@@ -834,6 +844,16 @@ class RDFTransformDialog {
             var prefs = JSON.parse(data.message);
             RDFTransform.gPreferences.iVerbosity     = prefs.iVerbosity;
             RDFTransform.gPreferences.iExportLimit   = prefs.iExportLimit;
+            RDFTransform.gPreferences.iExportThreads = prefs.iExportThreads;
+            RDFTransform.gPreferences.iPrettySpillLimit = prefs.iPrettySpillLimit;
+            RDFTransform.gPreferences.iIRICacheSize = prefs.iIRICacheSize;
+            RDFTransform.gPreferences.strDedupMode = prefs.strDedupMode;
+            RDFTransform.gPreferences.dDedupFalsePositive = prefs.dDedupFalsePositive;
+            RDFTransform.gPreferences.iDedupMemory = prefs.iDedupMemory;
+            RDFTransform.gPreferences.strBlankNodeScope = prefs.strBlankNodeScope;
+            RDFTransform.gPreferences.iPipelineQueue = prefs.iPipelineQueue;
+            RDFTransform.gPreferences.iPipelineBatch = prefs.iPipelineBatch;
+            RDFTransform.gPreferences.iCompressThreads = prefs.iCompressThreads;
             RDFTransform.gPreferences.bPreviewStream = prefs.bPreviewStream;
             RDFTransform.gPreferences.bDebugMode     = prefs.bDebugMode;
             RDFTransform.gPreferences.bDebugJSON     = prefs.bDebugJSON;